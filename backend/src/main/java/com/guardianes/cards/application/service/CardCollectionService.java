@@ -4,10 +4,12 @@ import com.guardianes.cards.domain.model.*;
 import com.guardianes.cards.domain.repository.CardCollectionRepository;
 import com.guardianes.cards.domain.repository.CardRepository;
 import com.guardianes.cards.domain.service.QRValidationService;
+import com.guardianes.shared.infrastructure.metrics.BusinessMetricsService;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 @Service
@@ -17,47 +19,56 @@ public class CardCollectionService {
   private final CardRepository cardRepository;
   private final CardCollectionRepository collectionRepository;
   private final QRValidationService qrValidationService;
+  private final BusinessMetricsService metricsService;
 
   public CardCollectionService(
       CardRepository cardRepository,
       CardCollectionRepository collectionRepository,
-      QRValidationService qrValidationService) {
+      QRValidationService qrValidationService,
+      BusinessMetricsService metricsService) {
     this.cardRepository = cardRepository;
     this.collectionRepository = collectionRepository;
     this.qrValidationService = qrValidationService;
+    this.metricsService = metricsService;
   }
 
-  /** Scans and validates a QR code, then adds the card to the guardian's collection if valid. */
+  /**
+   * Scans and validates a QR code, then adds the card to the guardian's collection if valid. The
+   * card is resolved from the in-memory catalog, so the scan runs outside a service transaction and
+   * malformed or unknown codes are rejected without acquiring a database connection; the collection
+   * writes run in the repository's transactions.
+   */
+  @Transactional(propagation = Propagation.NOT_SUPPORTED)
   public CardScanResult scanQRCode(Long guardianId, String qrCode) {
     // Validate QR code format
     QRValidationService.QRValidationResult validationResult =
         qrValidationService.validateQRCode(qrCode);
     if (!validationResult.isValid()) {
+      metricsService.recordCardScanRejected("invalid_code");
       return CardScanResult.invalidQR(validationResult.getErrorMessage());
     }
 
     // Find card by QR code
     Optional<Card> cardOpt = cardRepository.findByQrCode(validationResult.getCleanCode());
     if (cardOpt.isEmpty()) {
+      metricsService.recordCardScanRejected("unknown_card");
       return CardScanResult.cardNotFound("Card not found for QR code: " + qrCode);
     }
 
     Card card = cardOpt.get();
     if (!card.isActive()) {
+      metricsService.recordCardScanRejected("inactive_card");
       return CardScanResult.cardInactive("Card is no longer active: " + card.getName());
     }
 
-    // Check if guardian already owns this card
-    boolean alreadyOwned = collectionRepository.guardianOwnsCard(guardianId, card.getId());
-
     // Add card to collection
-    collectionRepository.addCardToCollection(guardianId, card.getId(), 1);
+    CardCollectionRepository.CollectedCount collected =
+        collectionRepository.collectCard(guardianId, card.getId(), 1);
 
-    if (alreadyOwned) {
-      int newCount = collectionRepository.getCardCount(guardianId, card.getId());
-      return CardScanResult.duplicate(card, newCount);
-    } else {
+    if (collected.isNew()) {
       return CardScanResult.newCard(card);
+    } else {
+      return CardScanResult.duplicate(card, collected.count());
     }
   }
 
@@ -84,15 +95,16 @@ public class CardCollectionService {
   /** Gets collection statistics for a guardian. */
   public CollectionStatistics getCollectionStatistics(Long guardianId) {
     int totalAvailableCards = (int) cardRepository.countActive();
+    CollectionSummary summary = collectionRepository.getCollectionSummary(guardianId);
 
     return new CollectionStatistics(
-        collectionRepository.getUniqueCardCount(guardianId),
-        collectionRepository.getTotalCardCount(guardianId),
-        collectionRepository.getCompletionPercentage(guardianId, totalAvailableCards),
-        collectionRepository.getCardCountsByElement(guardianId),
-        collectionRepository.getCardCountsByRarity(guardianId),
-        collectionRepository.getTotalTradeValue(guardianId),
-        collectionRepository.hasElementalBalance(guardianId));
+        summary.getUniqueCardCount(),
+        summary.getTotalCardCount(),
+        summary.getCompletionPercentage(totalAvailableCards),
+        summary.getCardCountsByElement(),
+        summary.getCardCountsByRarity(),
+        summary.getTotalTradeValue(),
+        summary.hasElementalBalance());
   }
 
   /** Gets recently collected cards. */
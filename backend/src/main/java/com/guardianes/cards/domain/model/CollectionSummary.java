@@ -0,0 +1,64 @@
+package com.guardianes.cards.domain.model;
+
+import java.util.*;
+
+/**
+ * Card counts of a Guardian's collection grouped by element and rarity. Provides the same
+ * statistics as {@link CardCollection} without holding the collected cards themselves.
+ */
+public class CollectionSummary {
+  private final Map<CardElement, Integer> cardCountsByElement = new EnumMap<>(CardElement.class);
+  private final Map<CardRarity, Integer> cardCountsByRarity = new EnumMap<>(CardRarity.class);
+  private int uniqueCardCount;
+  private int totalCardCount;
+  private int totalTradeValue;
+
+  public CollectionSummary() {
+    for (CardElement element : CardElement.values()) {
+      cardCountsByElement.put(element, 0);
+    }
+    for (CardRarity rarity : CardRarity.values()) {
+      cardCountsByRarity.put(rarity, 0);
+    }
+  }
+
+  /** Adds the collected cards of one element and rarity. */
+  public void add(CardElement element, CardRarity rarity, int uniqueCards, int totalCards) {
+    cardCountsByElement.merge(element, totalCards, Integer::sum);
+    cardCountsByRarity.merge(rarity, totalCards, Integer::sum);
+    uniqueCardCount += uniqueCards;
+    totalCardCount += totalCards;
+    totalTradeValue += rarity.getTradeValue() * totalCards;
+  }
+
+  public int getUniqueCardCount() {
+    return uniqueCardCount;
+  }
+
+  public int getTotalCardCount() {
+    return totalCardCount;
+  }
+
+  /** Gets the completion percentage (0-100) against the number of available cards. */
+  public double getCompletionPercentage(int totalAvailableCards) {
+    if (totalAvailableCards <= 0) return 0.0;
+    return (double) uniqueCardCount / totalAvailableCards * 100.0;
+  }
+
+  public Map<CardElement, Integer> getCardCountsByElement() {
+    return new EnumMap<>(cardCountsByElement);
+  }
+
+  public Map<CardRarity, Integer> getCardCountsByRarity() {
+    return new EnumMap<>(cardCountsByRarity);
+  }
+
+  public int getTotalTradeValue() {
+    return totalTradeValue;
+  }
+
+  /** Checks if the collection has at least one card of each element. */
+  public boolean hasElementalBalance() {
+    return cardCountsByElement.values().stream().allMatch(count -> count > 0);
+  }
+}
@@ -4,6 +4,7 @@ import com.guardianes.cards.domain.model.CardCollection;
 import com.guardianes.cards.domain.model.CardElement;
 import com.guardianes.cards.domain.model.CardRarity;
 import com.guardianes.cards.domain.model.CollectedCard;
+import com.guardianes.cards.domain.model.CollectionSummary;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -45,6 +46,17 @@ public interface CardCollectionRepository {
    */
   CardCollection addCardToCollection(Long guardianId, Long cardId, int count);
 
+  /**
+   * Adds copies of a card to a guardian's collection without loading the collection, creating the
+   * collection and its entry for the card when needed.
+   *
+   * @param guardianId the guardian ID
+   * @param cardId the card ID
+   * @param count the number of copies to add
+   * @return the new count of the card and whether the guardian did not own it before
+   */
+  CollectedCount collectCard(Long guardianId, Long cardId, int count);
+
   /**
    * Checks if a guardian owns a specific card.
    *
@@ -114,6 +126,14 @@ public interface CardCollectionRepository {
    */
   double getCompletionPercentage(Long guardianId, int totalAvailableCards);
 
+  /**
+   * Gets the card counts of a guardian's collection grouped by element and rarity.
+   *
+   * @param guardianId the guardian ID
+   * @return the collection summary, empty if the guardian has no collection
+   */
+  CollectionSummary getCollectionSummary(Long guardianId);
+
   /**
    * Gets card count statistics by rarity for a guardian.
    *
@@ -217,4 +237,7 @@ public interface CardCollectionRepository {
    * @return map of guardian ID to collection size
    */
   Map<Long, Integer> getCollectionSizeStatistics();
+
+  /** The count of a card after it was collected, and whether it was new to the collection. */
+  record CollectedCount(int count, boolean isNew) {}
 }
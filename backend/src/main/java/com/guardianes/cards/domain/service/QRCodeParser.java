@@ -0,0 +1,208 @@
+package com.guardianes.cards.domain.service;
+
+import com.guardianes.cards.domain.model.CardElement;
+import com.guardianes.cards.domain.model.CardRarity;
+
+/**
+ * Single-pass validator and parser of card QR codes (GDG + element + rarity + 10-digit card id +
+ * checksum) and NFC codes (24 hexadecimal characters). A scanned code is checked character by
+ * character, folding lower-case ASCII letters and ignoring surrounding whitespace, without building
+ * intermediate strings.
+ *
+ * <p>The outcome of {@link #parseQRCode} is packed into a {@code long}: a negative value is one of
+ * the error codes below, while a valid code packs the card id in the low 34 bits, followed by the
+ * rarity and element ordinals plus one (zero when the code names no known rarity or element) and a
+ * flag set when the card id is not numeric.
+ */
+public final class QRCodeParser {
+
+  public static final long EMPTY = -1;
+  public static final long INVALID_FORMAT = -2;
+  public static final long INVALID_PREFIX = -3;
+  public static final long INVALID_CHECKSUM = -4;
+
+  static final int QR_CODE_LENGTH = 16;
+  static final int NFC_CODE_LENGTH = 24;
+
+  private static final String QR_PREFIX = "GDG";
+  private static final int CARD_ID_BITS = 34;
+  private static final long CARD_ID_MASK = (1L << CARD_ID_BITS) - 1;
+  private static final int RARITY_SHIFT = CARD_ID_BITS;
+  private static final int ELEMENT_SHIFT = RARITY_SHIFT + 3;
+  private static final long NON_NUMERIC_CARD_ID = 1L << (ELEMENT_SHIFT + 3);
+
+  private static final CardElement[] ELEMENTS = CardElement.values();
+  private static final CardRarity[] RARITIES = CardRarity.values();
+
+  private QRCodeParser() {}
+
+  /** Validates and parses a scanned QR code; see the class comment for the packed result. */
+  public static long parseQRCode(CharSequence code) {
+    if (code == null) {
+      return EMPTY;
+    }
+    int start = firstNonBlank(code);
+    int end = lastNonBlank(code, start);
+    if (start == end) {
+      return EMPTY;
+    }
+    if (end - start != QR_CODE_LENGTH) {
+      return INVALID_FORMAT;
+    }
+
+    boolean prefixMatches = true;
+    boolean numericCardId = true;
+    int checksum = 0;
+    int checkDigit = 0;
+    long cardId = 0;
+    long parsed = 0;
+    for (int index = 0; index < QR_CODE_LENGTH; index++) {
+      char c = upperCase(code.charAt(start + index));
+      int value = alphanumericValue(c);
+      if (value < 0) {
+        return INVALID_FORMAT;
+      }
+      if (index < QR_PREFIX.length()) {
+        prefixMatches &= c == QR_PREFIX.charAt(index);
+      } else if (index == 3) {
+        parsed |= (long) (elementOrdinal(c) + 1) << ELEMENT_SHIFT;
+      } else if (index == 4) {
+        parsed |= (long) (rarityOrdinal(c) + 1) << RARITY_SHIFT;
+      } else if (index < QR_CODE_LENGTH - 1) {
+        numericCardId &= value < 10;
+        cardId = cardId * 10 + value;
+      }
+      if (index < QR_CODE_LENGTH - 1) {
+        checksum += value;
+      } else {
+        checkDigit = value;
+      }
+    }
+    if (!prefixMatches) {
+      return INVALID_PREFIX;
+    }
+    if (checkDigit != checksum % 36) {
+      return INVALID_CHECKSUM;
+    }
+    return numericCardId ? parsed | cardId : parsed | NON_NUMERIC_CARD_ID;
+  }
+
+  /** Whether a scanned NFC code is 24 hexadecimal characters, ignoring whitespace and case. */
+  public static boolean isValidNFCCode(CharSequence code) {
+    if (code == null) {
+      return false;
+    }
+    int start = firstNonBlank(code);
+    int end = lastNonBlank(code, start);
+    if (end - start != NFC_CODE_LENGTH) {
+      return false;
+    }
+    for (int index = start; index < end; index++) {
+      int value = alphanumericValue(upperCase(code.charAt(index)));
+      if (value < 0 || value > 15) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  public static boolean isValid(long parsed) {
+    return parsed >= 0;
+  }
+
+  /** The card id of a valid code, or -1 when its id digits are not numeric. */
+  public static long cardId(long parsed) {
+    return (parsed & NON_NUMERIC_CARD_ID) != 0 ? -1 : parsed & CARD_ID_MASK;
+  }
+
+  /** The element of a valid code, or null when its element code is unknown. */
+  public static CardElement element(long parsed) {
+    int ordinal = (int) (parsed >>> ELEMENT_SHIFT & 0b111);
+    return ordinal == 0 ? null : ELEMENTS[ordinal - 1];
+  }
+
+  /** The rarity of a valid code, or null when its rarity code is unknown. */
+  public static CardRarity rarity(long parsed) {
+    int ordinal = (int) (parsed >>> RARITY_SHIFT & 0b111);
+    return ordinal == 0 ? null : RARITIES[ordinal - 1];
+  }
+
+  /**
+   * Returns the normalized form of a code that passed validation: the code itself when it was
+   * already trimmed and upper-case, so well-formed scans allocate nothing.
+   */
+  static String normalize(String code) {
+    int start = firstNonBlank(code);
+    int end = lastNonBlank(code, start);
+    boolean upperCase = true;
+    for (int index = start; index < end && upperCase; index++) {
+      char c = code.charAt(index);
+      upperCase = c < 'a' || c > 'z';
+    }
+    if (upperCase) {
+      return start == 0 && end == code.length() ? code : code.substring(start, end);
+    }
+    char[] normalized = new char[end - start];
+    for (int index = start; index < end; index++) {
+      normalized[index - start] = upperCase(code.charAt(index));
+    }
+    return new String(normalized);
+  }
+
+  static char checksumCharacter(int sum) {
+    int value = sum % 36;
+    return value < 10 ? (char) ('0' + value) : (char) ('A' + value - 10);
+  }
+
+  static int alphanumericValue(char c) {
+    if (c >= '0' && c <= '9') {
+      return c - '0';
+    }
+    if (c >= 'A' && c <= 'Z') {
+      return c - 'A' + 10;
+    }
+    return -1;
+  }
+
+  private static char upperCase(char c) {
+    return c >= 'a' && c <= 'z' ? (char) (c - ('a' - 'A')) : c;
+  }
+
+  private static int firstNonBlank(CharSequence code) {
+    int start = 0;
+    // Blank as defined by String.trim
+    while (start < code.length() && code.charAt(start) <= ' ') {
+      start++;
+    }
+    return start;
+  }
+
+  private static int lastNonBlank(CharSequence code, int start) {
+    int end = code.length();
+    while (end > start && code.charAt(end - 1) <= ' ') {
+      end--;
+    }
+    return end;
+  }
+
+  private static int elementOrdinal(char c) {
+    return switch (c) {
+      case 'F' -> CardElement.FIRE.ordinal();
+      case 'E' -> CardElement.EARTH.ordinal();
+      case 'W' -> CardElement.WATER.ordinal();
+      case 'A' -> CardElement.AIR.ordinal();
+      default -> -1;
+    };
+  }
+
+  private static int rarityOrdinal(char c) {
+    return switch (c) {
+      case 'C' -> CardRarity.COMMON.ordinal();
+      case 'U' -> CardRarity.UNCOMMON.ordinal();
+      case 'R' -> CardRarity.RARE.ordinal();
+      case 'P' -> CardRarity.EPIC.ordinal();
+      case 'L' -> CardRarity.LEGENDARY.ordinal();
+      default -> -1;
+    };
+  }
+}
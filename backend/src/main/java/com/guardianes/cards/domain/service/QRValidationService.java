@@ -4,60 +4,49 @@ import com.guardianes.cards.domain.model.Card;
 import com.guardianes.cards.domain.model.CardElement;
 import com.guardianes.cards.domain.model.CardRarity;
 import java.util.Objects;
-import java.util.regex.Pattern;
 import org.springframework.stereotype.Service;
 
-/** Service responsible for validating QR codes and NFC codes for card collection. */
+/**
+ * Service responsible for validating QR codes and NFC codes for card collection. Codes are checked
+ * in a single pass by {@link QRCodeParser}; invalid results are shared constants, so rejecting a
+ * malformed scan allocates nothing.
+ */
 @Service
 public class QRValidationService {
 
-  private static final Pattern QR_CODE_PATTERN = Pattern.compile("^[A-Z0-9]{16}$");
-  private static final Pattern NFC_CODE_PATTERN = Pattern.compile("^[A-F0-9]{24}$");
   private static final String QR_PREFIX = "GDG"; // Guardianes de Gaia prefix
 
+  private static final QRValidationResult EMPTY_QR_CODE =
+      QRValidationResult.invalid("QR code cannot be null or empty");
+  private static final QRValidationResult INVALID_QR_FORMAT =
+      QRValidationResult.invalid("Invalid QR code format. Must be 16 alphanumeric characters");
+  private static final QRValidationResult INVALID_QR_PREFIX =
+      QRValidationResult.invalid("Invalid QR code prefix. Must start with " + QR_PREFIX);
+  private static final QRValidationResult INVALID_QR_CHECKSUM =
+      QRValidationResult.invalid("Invalid QR code checksum");
+  private static final QRValidationResult EMPTY_NFC_CODE = QRValidationResult.validEmpty();
+  private static final QRValidationResult INVALID_NFC_FORMAT =
+      QRValidationResult.invalid("Invalid NFC code format. Must be 24 hexadecimal characters");
+
   /** Validates a QR code format and structure. */
   public QRValidationResult validateQRCode(String qrCode) {
-    if (qrCode == null || qrCode.trim().isEmpty()) {
-      return QRValidationResult.invalid("QR code cannot be null or empty");
-    }
-
-    String cleanCode = qrCode.trim().toUpperCase();
-
-    // Check format
-    if (!QR_CODE_PATTERN.matcher(cleanCode).matches()) {
-      return QRValidationResult.invalid(
-          "Invalid QR code format. Must be 16 alphanumeric characters");
-    }
-
-    // Check prefix (first 3 characters should be "GDG")
-    if (!cleanCode.startsWith(QR_PREFIX)) {
-      return QRValidationResult.invalid("Invalid QR code prefix. Must start with " + QR_PREFIX);
-    }
-
-    // Check checksum (simple validation)
-    if (!isValidChecksum(cleanCode)) {
-      return QRValidationResult.invalid("Invalid QR code checksum");
+    long parsed = QRCodeParser.parseQRCode(qrCode);
+    if (!QRCodeParser.isValid(parsed)) {
+      return invalidQRCode(parsed);
     }
-
-    return QRValidationResult.valid(cleanCode);
+    return QRValidationResult.valid(QRCodeParser.normalize(qrCode));
   }
 
   /** Validates an NFC code format and structure. */
   public QRValidationResult validateNFCCode(String nfcCode) {
     if (nfcCode == null || nfcCode.trim().isEmpty()) {
-      return QRValidationResult.validEmpty(); // NFC is optional
-    }
-
-    String cleanCode = nfcCode.trim().toUpperCase();
-
-    // Check format
-    if (!NFC_CODE_PATTERN.matcher(cleanCode).matches()) {
-      return QRValidationResult.invalid(
-          "Invalid NFC code format. Must be 24 hexadecimal characters");
+      return EMPTY_NFC_CODE; // NFC is optional
     }
-
     // NFC codes don't need prefix validation as they're more secure
-    return QRValidationResult.valid(cleanCode);
+    if (!QRCodeParser.isValidNFCCode(nfcCode)) {
+      return INVALID_NFC_FORMAT;
+    }
+    return QRValidationResult.valid(QRCodeParser.normalize(nfcCode));
   }
 
   /** Validates that a card's QR code matches its expected format. */
@@ -96,42 +85,51 @@ public class QRValidationService {
 
   /** Extracts card information from a valid QR code. */
   public QRCodeInfo extractQRCodeInfo(String qrCode) {
-    QRValidationResult validation = validateQRCode(qrCode);
-    if (!validation.isValid()) {
-      throw new IllegalArgumentException("Invalid QR code: " + validation.getErrorMessage());
+    long parsed = QRCodeParser.parseQRCode(qrCode);
+    if (!QRCodeParser.isValid(parsed)) {
+      throw new IllegalArgumentException(
+          "Invalid QR code: " + invalidQRCode(parsed).getErrorMessage());
     }
 
-    String cleanCode = validation.getCleanCode();
-
-    // Parse components
-    String elementCode = cleanCode.substring(3, 4);
-    String rarityCode = cleanCode.substring(4, 5);
-    String cardIdStr = cleanCode.substring(5, 15);
-
-    CardElement element = parseElementCode(elementCode);
-    CardRarity rarity = parseRarityCode(rarityCode);
-    Long cardId = Long.parseLong(cardIdStr);
+    CardElement element = QRCodeParser.element(parsed);
+    if (element == null) {
+      throw new IllegalArgumentException(
+          "Invalid element code: " + QRCodeParser.normalize(qrCode).charAt(3));
+    }
+    CardRarity rarity = QRCodeParser.rarity(parsed);
+    if (rarity == null) {
+      throw new IllegalArgumentException(
+          "Invalid rarity code: " + QRCodeParser.normalize(qrCode).charAt(4));
+    }
+    long cardId = QRCodeParser.cardId(parsed);
+    if (cardId < 0) {
+      throw new IllegalArgumentException(
+          "Invalid card ID: " + QRCodeParser.normalize(qrCode).substring(5, 15));
+    }
 
     return new QRCodeInfo(cardId, element, rarity);
   }
 
   // Private helper methods
-  private boolean isValidChecksum(String qrCode) {
-    if (qrCode.length() != 16) return false;
-
-    String baseCode = qrCode.substring(0, 15);
-    String actualChecksum = qrCode.substring(15);
-    String expectedChecksum = calculateChecksum(baseCode);
-
-    return expectedChecksum.equals(actualChecksum);
+  private static QRValidationResult invalidQRCode(long parsed) {
+    if (parsed == QRCodeParser.EMPTY) {
+      return EMPTY_QR_CODE;
+    }
+    if (parsed == QRCodeParser.INVALID_PREFIX) {
+      return INVALID_QR_PREFIX;
+    }
+    if (parsed == QRCodeParser.INVALID_CHECKSUM) {
+      return INVALID_QR_CHECKSUM;
+    }
+    return INVALID_QR_FORMAT;
   }
 
   private String calculateChecksum(String baseCode) {
     int sum = 0;
-    for (char c : baseCode.toCharArray()) {
-      sum += Character.isDigit(c) ? Character.getNumericValue(c) : (c - 'A' + 10);
+    for (int index = 0; index < baseCode.length(); index++) {
+      sum += QRCodeParser.alphanumericValue(baseCode.charAt(index));
     }
-    return String.valueOf(sum % 36 < 10 ? (char) ('0' + sum % 36) : (char) ('A' + sum % 36 - 10));
+    return String.valueOf(QRCodeParser.checksumCharacter(sum));
   }
 
   private String getElementCode(CardElement element) {
@@ -153,27 +151,6 @@ public class QRValidationService {
     };
   }
 
-  private CardElement parseElementCode(String code) {
-    return switch (code) {
-      case "F" -> CardElement.FIRE;
-      case "E" -> CardElement.EARTH;
-      case "W" -> CardElement.WATER;
-      case "A" -> CardElement.AIR;
-      default -> throw new IllegalArgumentException("Invalid element code: " + code);
-    };
-  }
-
-  private CardRarity parseRarityCode(String code) {
-    return switch (code) {
-      case "C" -> CardRarity.COMMON;
-      case "U" -> CardRarity.UNCOMMON;
-      case "R" -> CardRarity.RARE;
-      case "P" -> CardRarity.EPIC;
-      case "L" -> CardRarity.LEGENDARY;
-      default -> throw new IllegalArgumentException("Invalid rarity code: " + code);
-    };
-  }
-
   // Inner classes
   public static class QRValidationResult {
     private final boolean valid;
@@ -0,0 +1,178 @@
+package com.guardianes.cards.infrastructure.persistence.cache;
+
+import com.guardianes.cards.domain.model.Card;
+import com.guardianes.cards.infrastructure.persistence.mapper.CardMapper;
+import com.guardianes.cards.infrastructure.persistence.repository.CardJpaRepository;
+import com.guardianes.shared.infrastructure.metrics.BusinessMetricsService;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory copy of the card catalog with hash indexes on id, QR code and NFC code, so that a scan
+ * resolves its card without a database round trip or re-validating the card. The catalog is small
+ * and rarely changes: it is loaded when the application is ready and held in an immutable snapshot
+ * that readers access without locking. A card saved by this instance replaces its entry in a copy
+ * of the snapshot once the write commits, and the snapshot is periodically rebuilt from the
+ * database, which bounds how long cards written by another instance stay invisible.
+ */
+@Component
+public class CardCatalog {
+  private static final Logger logger = LoggerFactory.getLogger(CardCatalog.class);
+
+  private final Supplier<List<Card>> loader;
+  private final LongSupplier nanoClock;
+
+  private volatile Snapshot snapshot;
+  private long rebuilds;
+  private long lastRebuildNanos;
+
+  @Autowired
+  public CardCatalog(
+      CardJpaRepository jpaRepository, CardMapper mapper, BusinessMetricsService metricsService) {
+    this(() -> jpaRepository.findAll().stream().map(mapper::toDomain).toList(), System::nanoTime);
+    metricsService.registerCardCatalog(
+        this,
+        CardCatalog::version,
+        CardCatalog::size,
+        CardCatalog::rebuilds,
+        CardCatalog::lastRebuildSeconds);
+  }
+
+  CardCatalog(Supplier<List<Card>> loader, LongSupplier nanoClock) {
+    this.loader = loader;
+    this.nanoClock = nanoClock;
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void warmUp() {
+    try {
+      rebuild();
+    } catch (RuntimeException e) {
+      // Left cold; the first lookup loads it
+      logger.warn("Failed to load the card catalog at startup", e);
+    }
+  }
+
+  @Scheduled(fixedDelayString = "${guardianes.cards.catalog.refresh-ms:300000}")
+  public void refresh() {
+    if (snapshot != null) {
+      rebuild();
+    }
+  }
+
+  public Optional<Card> findById(Long id) {
+    return Optional.ofNullable(current().byId.get(id));
+  }
+
+  public Optional<Card> findByQrCode(String qrCode) {
+    return Optional.ofNullable(current().byQrCode.get(qrCode));
+  }
+
+  public Optional<Card> findByNfcCode(String nfcCode) {
+    return Optional.ofNullable(current().byNfcCode.get(nfcCode));
+  }
+
+  public long countActive() {
+    return current().activeCount;
+  }
+
+  /** Replaces the entry of a committed card, or adds it if it is new. */
+  public synchronized void put(Card card) {
+    if (snapshot == null) {
+      return;
+    }
+    Map<Long, Card> byId = new HashMap<>(snapshot.byId);
+    Card previous = byId.put(card.getId(), card);
+    Map<String, Card> byQrCode = new HashMap<>(snapshot.byQrCode);
+    Map<String, Card> byNfcCode = new HashMap<>(snapshot.byNfcCode);
+    if (previous != null) {
+      byQrCode.remove(previous.getQrCode());
+      if (previous.getNfcCode() != null) {
+        byNfcCode.remove(previous.getNfcCode());
+      }
+    }
+    byQrCode.put(card.getQrCode(), card);
+    if (card.getNfcCode() != null) {
+      byNfcCode.put(card.getNfcCode(), card);
+    }
+    int activeCount =
+        snapshot.activeCount
+            - (previous != null && previous.isActive() ? 1 : 0)
+            + (card.isActive() ? 1 : 0);
+    snapshot = new Snapshot(snapshot.version + 1, byId, byQrCode, byNfcCode, activeCount);
+  }
+
+  /** Reloads every card from the database and swaps in the new snapshot. */
+  public synchronized void rebuild() {
+    long start = nanoClock.getAsLong();
+    List<Card> cards = loader.get();
+    Map<Long, Card> byId = new HashMap<>();
+    Map<String, Card> byQrCode = new HashMap<>();
+    Map<String, Card> byNfcCode = new HashMap<>();
+    int activeCount = 0;
+    for (Card card : cards) {
+      byId.put(card.getId(), card);
+      byQrCode.put(card.getQrCode(), card);
+      if (card.getNfcCode() != null) {
+        byNfcCode.put(card.getNfcCode(), card);
+      }
+      if (card.isActive()) {
+        activeCount++;
+      }
+    }
+    long version = snapshot != null ? snapshot.version + 1 : 1;
+    snapshot = new Snapshot(version, byId, byQrCode, byNfcCode, activeCount);
+    rebuilds++;
+    lastRebuildNanos = nanoClock.getAsLong() - start;
+    logger.debug("Loaded {} cards into catalog version {}", cards.size(), version);
+  }
+
+  private Snapshot current() {
+    Snapshot current = snapshot;
+    if (current != null) {
+      return current;
+    }
+    synchronized (this) {
+      if (snapshot == null) {
+        rebuild();
+      }
+      return snapshot;
+    }
+  }
+
+  long version() {
+    Snapshot current = snapshot;
+    return current != null ? current.version : 0;
+  }
+
+  int size() {
+    Snapshot current = snapshot;
+    return current != null ? current.byId.size() : 0;
+  }
+
+  synchronized long rebuilds() {
+    return rebuilds;
+  }
+
+  synchronized double lastRebuildSeconds() {
+    return lastRebuildNanos / 1e9;
+  }
+
+  private record Snapshot(
+      long version,
+      Map<Long, Card> byId,
+      Map<String, Card> byQrCode,
+      Map<String, Card> byNfcCode,
+      int activeCount) {}
+}
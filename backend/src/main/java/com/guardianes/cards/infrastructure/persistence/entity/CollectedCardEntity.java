@@ -5,7 +5,12 @@ import java.time.LocalDateTime;
 import java.util.Objects;
 
 @Entity
-@Table(name = "collected_cards")
+@Table(
+    name = "collected_cards",
+    uniqueConstraints =
+        @UniqueConstraint(
+            name = "unique_collection_card",
+            columnNames = {"collection_id", "card_id"}))
 public class CollectedCardEntity {
 
   @Id
@@ -1,8 +1,12 @@
 package com.guardianes.cards.infrastructure.persistence.repository;
 
 import com.guardianes.cards.infrastructure.persistence.entity.CardCollectionEntity;
+import java.time.LocalDateTime;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
@@ -13,4 +17,14 @@ public interface CardCollectionJpaRepository extends JpaRepository<CardCollectio
   boolean existsByGuardianId(Long guardianId);
 
   void deleteByGuardianId(Long guardianId);
+
+  /** Creates the guardian's collection unless a concurrent first scan already created it. */
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query(
+      value =
+          "INSERT INTO card_collections (guardian_id, created_at) VALUES (:guardianId, :createdAt)"
+              + " ON DUPLICATE KEY UPDATE guardian_id = guardian_id",
+      nativeQuery = true)
+  void insertIfAbsent(
+      @Param("guardianId") Long guardianId, @Param("createdAt") LocalDateTime createdAt);
 }
@@ -3,9 +3,11 @@ package com.guardianes.cards.infrastructure.persistence.repository;
 import com.guardianes.cards.infrastructure.persistence.entity.CardElementEntity;
 import com.guardianes.cards.infrastructure.persistence.entity.CardRarityEntity;
 import com.guardianes.cards.infrastructure.persistence.entity.CollectedCardEntity;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -52,6 +54,43 @@ public interface CollectedCardJpaRepository extends JpaRepository<CollectedCardE
           + " :guardianId")
   int sumCountByGuardianId(@Param("guardianId") Long guardianId);
 
+  @Query(
+      "SELECT c.element, c.rarity, COUNT(cc), SUM(cc.count) FROM CollectedCardEntity cc"
+          + " JOIN cc.card c WHERE cc.collection.guardianId = :guardianId"
+          + " GROUP BY c.element, c.rarity")
+  List<Object[]> sumCountsByGuardianIdGroupedByElementAndRarity(
+      @Param("guardianId") Long guardianId);
+
+  /**
+   * Adds copies of a card to the guardian's collection in one statement on unique_collection_card,
+   * inserting the entry for the first copies. Concurrent scans cannot lose copies, and racing first
+   * scans no longer hold the gap lock of an UPDATE that matched nothing while they insert, which
+   * deadlocked them under MySQL's REPEATABLE READ.
+   *
+   * @return 1 if the entry was inserted, 2 if copies were added to it, 0 if the guardian has no
+   *     collection
+   */
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query(
+      value =
+          "INSERT INTO collected_cards"
+              + " (collection_id, card_id, count, first_collected_at, last_collected_at)"
+              + " SELECT c.id, :cardId, :count, :collectedAt, :collectedAt"
+              + " FROM card_collections c WHERE c.guardian_id = :guardianId"
+              + " ON DUPLICATE KEY UPDATE count = count + VALUES(count),"
+              + " last_collected_at = VALUES(last_collected_at)",
+      nativeQuery = true)
+  int addCopies(
+      @Param("guardianId") Long guardianId,
+      @Param("cardId") Long cardId,
+      @Param("count") int count,
+      @Param("collectedAt") LocalDateTime collectedAt);
+
+  @Query(
+      "SELECT cc.count FROM CollectedCardEntity cc WHERE cc.collection.guardianId = :guardianId"
+          + " AND cc.card.id = :cardId")
+  Optional<Integer> findCount(@Param("guardianId") Long guardianId, @Param("cardId") Long cardId);
+
   @Query("SELECT cc.collection.guardianId FROM CollectedCardEntity cc WHERE cc.card.id = :cardId")
   List<Long> findGuardianIdsByCardId(@Param("cardId") Long cardId);
 
@@ -5,6 +5,7 @@ import com.guardianes.cards.domain.repository.CardCollectionRepository;
 import com.guardianes.cards.infrastructure.persistence.entity.*;
 import com.guardianes.cards.infrastructure.persistence.mapper.CardCollectionMapper;
 import com.guardianes.cards.infrastructure.persistence.mapper.CardMapper;
+import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
 import org.springframework.stereotype.Repository;
@@ -101,6 +102,24 @@ public class JpaCardCollectionRepository implements CardCollectionRepository {
         collectionJpaRepository.findById(collection.getId()).orElse(null));
   }
 
+  @Override
+  public CollectedCount collectCard(Long guardianId, Long cardId, int count) {
+    // A single upsert on unique_collection_card whose affected rows tell a first copy (1) from a
+    // repeated scan (2); the guardian's very first scan finds no collection (0) and creates it
+    LocalDateTime now = LocalDateTime.now();
+    int affected = collectedCardJpaRepository.addCopies(guardianId, cardId, count, now);
+    if (affected == 0) {
+      collectionJpaRepository.insertIfAbsent(guardianId, now);
+      affected = collectedCardJpaRepository.addCopies(guardianId, cardId, count, now);
+    }
+    if (affected == 1) {
+      return new CollectedCount(count, true);
+    }
+    // The upsert still holds the row lock, so no concurrent scan can change the count read back
+    return new CollectedCount(
+        collectedCardJpaRepository.findCount(guardianId, cardId).orElse(count), false);
+  }
+
   @Override
   public boolean guardianOwnsCard(Long guardianId, Long cardId) {
     List<CollectedCardEntity> cards = collectedCardJpaRepository.findByGuardianId(guardianId);
@@ -159,41 +178,27 @@ public class JpaCardCollectionRepository implements CardCollectionRepository {
   }
 
   @Override
-  public Map<CardRarity, Integer> getCardCountsByRarity(Long guardianId) {
-    List<CollectedCardEntity> cards = collectedCardJpaRepository.findByGuardianId(guardianId);
-    Map<CardRarity, Integer> counts = new EnumMap<>(CardRarity.class);
-
-    // Initialize all rarities with 0
-    for (CardRarity rarity : CardRarity.values()) {
-      counts.put(rarity, 0);
-    }
-
-    // Count cards by rarity
-    for (CollectedCardEntity card : cards) {
-      CardRarity rarity = cardMapper.toRarityDomain(card.getCard().getRarity());
-      counts.put(rarity, counts.get(rarity) + card.getCount());
+  public CollectionSummary getCollectionSummary(Long guardianId) {
+    CollectionSummary summary = new CollectionSummary();
+    for (Object[] row :
+        collectedCardJpaRepository.sumCountsByGuardianIdGroupedByElementAndRarity(guardianId)) {
+      summary.add(
+          cardMapper.toElementDomain((CardElementEntity) row[0]),
+          cardMapper.toRarityDomain((CardRarityEntity) row[1]),
+          ((Number) row[2]).intValue(),
+          ((Number) row[3]).intValue());
     }
+    return summary;
+  }
 
-    return counts;
+  @Override
+  public Map<CardRarity, Integer> getCardCountsByRarity(Long guardianId) {
+    return getCollectionSummary(guardianId).getCardCountsByRarity();
   }
 
   @Override
   public Map<CardElement, Integer> getCardCountsByElement(Long guardianId) {
-    List<CollectedCardEntity> cards = collectedCardJpaRepository.findByGuardianId(guardianId);
-    Map<CardElement, Integer> counts = new EnumMap<>(CardElement.class);
-
-    // Initialize all elements with 0
-    for (CardElement element : CardElement.values()) {
-      counts.put(element, 0);
-    }
-
-    // Count cards by element
-    for (CollectedCardEntity card : cards) {
-      CardElement element = cardMapper.toElementDomain(card.getCard().getElement());
-      counts.put(element, counts.get(element) + card.getCount());
-    }
-
-    return counts;
+    return getCollectionSummary(guardianId).getCardCountsByElement();
   }
 
   @Override
@@ -208,20 +213,12 @@ public class JpaCardCollectionRepository implements CardCollectionRepository {
 
   @Override
   public int getTotalTradeValue(Long guardianId) {
-    return collectedCardJpaRepository.findByGuardianId(guardianId).stream()
-        .mapToInt(
-            cc ->
-                cardMapper.toRarityDomain(cc.getCard().getRarity()).getTradeValue() * cc.getCount())
-        .sum();
+    return getCollectionSummary(guardianId).getTotalTradeValue();
   }
 
   @Override
   public boolean hasElementalBalance(Long guardianId) {
-    List<CollectedCardEntity> cards = collectedCardJpaRepository.findByGuardianId(guardianId);
-    Set<CardElementEntity> elements =
-        cards.stream().map(cc -> cc.getCard().getElement()).collect(Collectors.toSet());
-
-    return elements.size() == CardElementEntity.values().length;
+    return getCollectionSummary(guardianId).hasElementalBalance();
   }
 
   @Override
@@ -4,44 +4,56 @@ import com.guardianes.cards.domain.model.Card;
 import com.guardianes.cards.domain.model.CardElement;
 import com.guardianes.cards.domain.model.CardRarity;
 import com.guardianes.cards.domain.repository.CardRepository;
+import com.guardianes.cards.infrastructure.persistence.cache.CardCatalog;
 import com.guardianes.cards.infrastructure.persistence.entity.CardEntity;
 import com.guardianes.cards.infrastructure.persistence.mapper.CardMapper;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+/**
+ * Card repository backed by the cards table. Lookups by id, QR code and NFC code are served from
+ * the in-memory {@link CardCatalog}, which every write updates once it has committed.
+ */
 @Repository
 public class JpaCardRepository implements CardRepository {
 
   private final CardJpaRepository jpaRepository;
   private final CardMapper mapper;
+  private final CardCatalog catalog;
 
-  public JpaCardRepository(CardJpaRepository jpaRepository, CardMapper mapper) {
+  public JpaCardRepository(
+      CardJpaRepository jpaRepository, CardMapper mapper, CardCatalog catalog) {
     this.jpaRepository = jpaRepository;
     this.mapper = mapper;
+    this.catalog = catalog;
   }
 
   @Override
   public Card save(Card card) {
     CardEntity entity = mapper.toEntity(card);
     CardEntity savedEntity = jpaRepository.save(entity);
-    return mapper.toDomain(savedEntity);
+    Card saved = mapper.toDomain(savedEntity);
+    afterWrite(saved);
+    return saved;
   }
 
   @Override
   public Optional<Card> findById(Long id) {
-    return jpaRepository.findById(id).map(mapper::toDomain);
+    return catalog.findById(id);
   }
 
   @Override
   public Optional<Card> findByQrCode(String qrCode) {
-    return jpaRepository.findByQrCode(qrCode).map(mapper::toDomain);
+    return catalog.findByQrCode(qrCode);
   }
 
   @Override
   public Optional<Card> findByNfcCode(String nfcCode) {
-    return jpaRepository.findByNfcCode(nfcCode).map(mapper::toDomain);
+    return catalog.findByNfcCode(nfcCode);
   }
 
   @Override
@@ -81,7 +93,7 @@ public class JpaCardRepository implements CardRepository {
 
   @Override
   public long countActive() {
-    return jpaRepository.countByActiveTrue();
+    return catalog.countActive();
   }
 
   @Override
@@ -119,7 +131,7 @@ public class JpaCardRepository implements CardRepository {
         .ifPresent(
             entity -> {
               entity.setActive(false);
-              jpaRepository.save(entity);
+              afterWrite(mapper.toDomain(jpaRepository.save(entity)));
             });
   }
 
@@ -150,4 +162,19 @@ public class JpaCardRepository implements CardRepository {
         .map(mapper::toDomain)
         .collect(Collectors.toList());
   }
+
+  private void afterWrite(Card card) {
+    // The catalog is shared by every request, so it must not see the card before it commits
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      catalog.put(card);
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(
+        new TransactionSynchronization() {
+          @Override
+          public void afterCommit() {
+            catalog.put(card);
+          }
+        });
+  }
 }
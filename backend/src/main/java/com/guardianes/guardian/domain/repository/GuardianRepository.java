@@ -3,8 +3,10 @@ package com.guardianes.guardian.domain.repository;
 import com.guardianes.guardian.domain.model.Guardian;
 import com.guardianes.guardian.domain.model.GuardianLevel;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 public interface GuardianRepository {
   Guardian save(Guardian guardian);
@@ -21,6 +23,9 @@ public interface GuardianRepository {
 
   boolean existsById(Long id);
 
+  /** Returns those of the given ids that belong to a guardian, with one query per 1000 ids. */
+  Set<Long> findExistingIds(Collection<Long> ids);
+
   void deleteById(Long id);
 
   void deleteAll();
@@ -3,9 +3,12 @@ package com.guardianes.guardian.infrastructure.persistence.repository;
 import com.guardianes.guardian.domain.model.GuardianLevel;
 import com.guardianes.guardian.infrastructure.persistence.entity.GuardianEntity;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
@@ -18,6 +21,9 @@ public interface GuardianJpaRepository extends JpaRepository<GuardianEntity, Lon
 
   boolean existsByEmail(String email);
 
+  @Query("SELECT g.id FROM GuardianEntity g WHERE g.id IN :ids")
+  List<Long> findIdsByIdIn(@Param("ids") Collection<Long> ids);
+
   List<GuardianEntity> findByActiveTrue();
 
   List<GuardianEntity> findByActiveFalse();
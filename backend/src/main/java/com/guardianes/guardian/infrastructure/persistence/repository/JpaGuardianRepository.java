@@ -6,14 +6,20 @@ import com.guardianes.guardian.domain.repository.GuardianRepository;
 import com.guardianes.guardian.infrastructure.persistence.entity.GuardianEntity;
 import com.guardianes.guardian.infrastructure.persistence.mapper.GuardianMapper;
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public class JpaGuardianRepository implements GuardianRepository {
 
+  // Keeps IN lists well below the bind parameter limits of the supported databases
+  private static final int MAX_IDS_PER_QUERY = 1000;
+
   private final GuardianJpaRepository jpaRepository;
   private final GuardianMapper mapper;
 
@@ -64,6 +70,18 @@ public class JpaGuardianRepository implements GuardianRepository {
     return jpaRepository.existsById(id);
   }
 
+  @Override
+  public Set<Long> findExistingIds(Collection<Long> ids) {
+    List<Long> distinct = List.copyOf(new HashSet<>(ids));
+    Set<Long> existing = new HashSet<>();
+    for (int start = 0; start < distinct.size(); start += MAX_IDS_PER_QUERY) {
+      existing.addAll(
+          jpaRepository.findIdsByIdIn(
+              distinct.subList(start, Math.min(start + MAX_IDS_PER_QUERY, distinct.size()))));
+    }
+    return existing;
+  }
+
   @Override
   public void deleteAll() {
     jpaRepository.deleteAll();
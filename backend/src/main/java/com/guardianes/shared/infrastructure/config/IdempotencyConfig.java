@@ -0,0 +1,54 @@
+package com.guardianes.shared.infrastructure.config;
+
+import com.guardianes.shared.infrastructure.idempotency.IdempotencyKeyFilter;
+import com.guardianes.shared.infrastructure.idempotency.IdempotencyStore;
+import com.guardianes.shared.infrastructure.idempotency.InMemoryIdempotencyStore;
+import com.guardianes.shared.infrastructure.idempotency.JdbcIdempotencyStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Registers the Idempotency-Key filter for the REST API. Keys are kept in memory by default; set
+ * guardianes.idempotency.store=jdbc to persist them in the idempotency_keys table.
+ */
+@Configuration
+@ConditionalOnProperty(
+    name = "guardianes.idempotency.enabled",
+    havingValue = "true",
+    matchIfMissing = true)
+public class IdempotencyConfig {
+
+  @Bean
+  @ConditionalOnProperty(
+      name = "guardianes.idempotency.store",
+      havingValue = "memory",
+      matchIfMissing = true)
+  public IdempotencyStore inMemoryIdempotencyStore(
+      @Value("${guardianes.idempotency.max-entries:10000}") int maxEntries,
+      @Value("${guardianes.idempotency.ttl-seconds:86400}") long ttlSeconds) {
+    return new InMemoryIdempotencyStore(maxEntries, ttlSeconds);
+  }
+
+  @Bean
+  @ConditionalOnProperty(name = "guardianes.idempotency.store", havingValue = "jdbc")
+  public IdempotencyStore jdbcIdempotencyStore(
+      JdbcTemplate jdbcTemplate,
+      @Value("${guardianes.idempotency.ttl-seconds:86400}") long ttlSeconds) {
+    return new JdbcIdempotencyStore(jdbcTemplate, ttlSeconds);
+  }
+
+  @Bean
+  public FilterRegistrationBean<IdempotencyKeyFilter> idempotencyKeyFilter(
+      IdempotencyStore idempotencyStore) {
+    FilterRegistrationBean<IdempotencyKeyFilter> registration =
+        new FilterRegistrationBean<>(new IdempotencyKeyFilter(idempotencyStore));
+    registration.addUrlPatterns("/api/*");
+    // Run after the Spring Security chain (order -100) so keys are scoped to the authenticated user
+    registration.setOrder(0);
+    return registration;
+  }
+}
@@ -0,0 +1,232 @@
+package com.guardianes.shared.infrastructure.idempotency;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.Principal;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+/**
+ * Makes mutating API calls safe to retry. When a POST, PUT, PATCH or DELETE request carries an
+ * {@code Idempotency-Key} header, the first successful response is stored and replayed verbatim for
+ * any retry with the same key, without running the handler again. Keys are scoped to the caller,
+ * method and path. The stored response remembers a hash of the request body, and a key reused with
+ * a different body gets 422 instead of a response that belongs to another payload. A retry that
+ * arrives while the original request is still running gets 409, and failed requests (non-2xx or
+ * exceptions) release the key so they can be retried.
+ */
+public class IdempotencyKeyFilter extends OncePerRequestFilter {
+  private static final Logger logger = LoggerFactory.getLogger(IdempotencyKeyFilter.class);
+
+  public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+  public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+  private static final Set<String> MUTATING_METHODS = Set.of("POST", "PUT", "PATCH", "DELETE");
+  private static final int MAX_KEY_LENGTH = 255;
+
+  private final IdempotencyStore store;
+
+  public IdempotencyKeyFilter(IdempotencyStore store) {
+    this.store = store;
+  }
+
+  @Override
+  protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+    return !MUTATING_METHODS.contains(request.getMethod())
+        || request.getHeader(IDEMPOTENCY_KEY_HEADER) == null;
+  }
+
+  @Override
+  protected void doFilterInternal(
+      @NonNull HttpServletRequest request,
+      @NonNull HttpServletResponse response,
+      @NonNull FilterChain filterChain)
+      throws ServletException, IOException {
+    String idempotencyKey = request.getHeader(IDEMPOTENCY_KEY_HEADER).trim();
+    if (idempotencyKey.isEmpty() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+      writeError(
+          response,
+          HttpStatus.BAD_REQUEST,
+          "Idempotency-Key must be between 1 and " + MAX_KEY_LENGTH + " characters");
+      return;
+    }
+
+    // Read the body up front so it can be hashed; the handler reads the cached copy
+    CachedBodyRequest cachedRequest = new CachedBodyRequest(request);
+    String requestHash = sha256(cachedRequest.body);
+    String storeKey = storeKey(request, idempotencyKey);
+    Optional<IdempotencyStore.StoredResponse> stored = store.findCompleted(storeKey);
+    if (stored.isPresent()) {
+      replay(stored.get(), requestHash, response);
+      return;
+    }
+
+    if (!store.tryReserve(storeKey)) {
+      // The original request may have completed between the lookup and the reservation
+      stored = store.findCompleted(storeKey);
+      if (stored.isPresent()) {
+        replay(stored.get(), requestHash, response);
+      } else {
+        writeError(
+            response,
+            HttpStatus.CONFLICT,
+            "A request with this Idempotency-Key is still being processed");
+      }
+      return;
+    }
+
+    ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper(response);
+    boolean completed = false;
+    try {
+      filterChain.doFilter(cachedRequest, responseWrapper);
+      int status = responseWrapper.getStatus();
+      if (status >= 200 && status < 300) {
+        store.complete(
+            storeKey,
+            new IdempotencyStore.StoredResponse(
+                requestHash,
+                status,
+                responseWrapper.getContentType(),
+                responseWrapper.getContentAsByteArray()));
+        completed = true;
+      }
+    } finally {
+      if (!completed) {
+        store.release(storeKey);
+      }
+      responseWrapper.copyBodyToResponse();
+    }
+  }
+
+  private void replay(
+      IdempotencyStore.StoredResponse stored, String requestHash, HttpServletResponse response)
+      throws IOException {
+    // Responses stored before request hashes were recorded have none and are still replayed
+    if (stored.requestHash() != null && !stored.requestHash().equals(requestHash)) {
+      logger.warn("Idempotency-Key reused with a different request body");
+      writeError(
+          response,
+          HttpStatus.UNPROCESSABLE_ENTITY,
+          "Idempotency-Key was already used with a different request body");
+      return;
+    }
+    logger.debug("Replaying stored response for idempotent request");
+    response.setStatus(stored.status());
+    if (stored.contentType() != null) {
+      response.setContentType(stored.contentType());
+    }
+    response.setHeader(REPLAYED_HEADER, "true");
+    response.getOutputStream().write(stored.body());
+  }
+
+  private void writeError(HttpServletResponse response, HttpStatus status, String message)
+      throws IOException {
+    response.setStatus(status.value());
+    response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+    response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+    response
+        .getWriter()
+        .write(
+            "{\"status\":"
+                + status.value()
+                + ",\"error\":\""
+                + status.getReasonPhrase()
+                + "\",\"message\":\""
+                + message
+                + "\"}");
+  }
+
+  /** Hashes the scoped key so that stores can index it with a fixed-length column. */
+  private String storeKey(HttpServletRequest request, String idempotencyKey) {
+    Principal principal = request.getUserPrincipal();
+    String scope =
+        (principal != null ? principal.getName() : "anonymous")
+            + '\n'
+            + request.getMethod()
+            + '\n'
+            + request.getRequestURI()
+            + '\n'
+            + idempotencyKey;
+    return sha256(scope.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static String sha256(byte[] input) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      return HexFormat.of().formatHex(digest.digest(input));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+
+  /** Serves a request body that has already been read, so it can be hashed before the handler. */
+  private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+    private final byte[] body;
+
+    CachedBodyRequest(HttpServletRequest request) throws IOException {
+      super(request);
+      this.body = request.getInputStream().readAllBytes();
+    }
+
+    @Override
+    public ServletInputStream getInputStream() {
+      ByteArrayInputStream input = new ByteArrayInputStream(body);
+      return new ServletInputStream() {
+        @Override
+        public boolean isFinished() {
+          return input.available() == 0;
+        }
+
+        @Override
+        public boolean isReady() {
+          return true;
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener) {
+          throw new UnsupportedOperationException("Asynchronous reads are not supported");
+        }
+
+        @Override
+        public int read() {
+          return input.read();
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) {
+          return input.read(buffer, offset, length);
+        }
+      };
+    }
+
+    @Override
+    public BufferedReader getReader() {
+      Charset charset =
+          getCharacterEncoding() != null
+              ? Charset.forName(getCharacterEncoding())
+              : StandardCharsets.UTF_8;
+      return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+    }
+  }
+}
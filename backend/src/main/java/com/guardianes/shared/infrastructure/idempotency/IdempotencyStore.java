@@ -0,0 +1,33 @@
+package com.guardianes.shared.infrastructure.idempotency;
+
+import java.util.Optional;
+
+/**
+ * Remembers the outcome of requests carrying an {@code Idempotency-Key} header. A key is first
+ * reserved while its request runs, then either completed with the response to replay or released so
+ * the client can retry. Implementations must make {@link #tryReserve} atomic.
+ */
+public interface IdempotencyStore {
+
+  /** Returns the stored response for the key, if its request completed and has not expired. */
+  Optional<StoredResponse> findCompleted(String key);
+
+  /**
+   * Reserves the key for a request about to run.
+   *
+   * @return false if the key is already reserved or completed
+   */
+  boolean tryReserve(String key);
+
+  /** Stores the response of a reserved key so that retries replay it. */
+  void complete(String key, StoredResponse response);
+
+  /** Drops a reservation whose request did not complete, allowing it to be retried. */
+  void release(String key);
+
+  /**
+   * A completed response, with the hash of the request body it answered so that a key reused for a
+   * different payload can be told apart from a retry.
+   */
+  record StoredResponse(String requestHash, int status, String contentType, byte[] body) {}
+}
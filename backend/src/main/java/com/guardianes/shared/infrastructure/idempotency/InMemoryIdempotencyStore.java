@@ -0,0 +1,84 @@
+package com.guardianes.shared.infrastructure.idempotency;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded in-process {@link IdempotencyStore}. Entries are kept in expiry order, so expired keys
+ * are purged from the head of the map on each write and the oldest entry is evicted once the
+ * capacity is reached. Keys are not shared between instances; use the JDBC store when the API runs
+ * behind a load balancer without sticky sessions.
+ */
+public class InMemoryIdempotencyStore implements IdempotencyStore {
+
+  private final Map<String, Entry> entries = new LinkedHashMap<>();
+  private final int maxEntries;
+  private final long ttlMillis;
+  private final LongSupplier clock;
+
+  public InMemoryIdempotencyStore(int maxEntries, long ttlSeconds) {
+    this(maxEntries, ttlSeconds, System::currentTimeMillis);
+  }
+
+  InMemoryIdempotencyStore(int maxEntries, long ttlSeconds, LongSupplier clock) {
+    this.maxEntries = maxEntries;
+    this.ttlMillis = ttlSeconds * 1000;
+    this.clock = clock;
+  }
+
+  @Override
+  public synchronized Optional<StoredResponse> findCompleted(String key) {
+    Entry entry = entries.get(key);
+    if (entry == null || entry.response == null || entry.expiresAt <= clock.getAsLong()) {
+      return Optional.empty();
+    }
+    return Optional.of(entry.response);
+  }
+
+  @Override
+  public synchronized boolean tryReserve(String key) {
+    long now = clock.getAsLong();
+    purgeExpired(now);
+    if (entries.containsKey(key)) {
+      return false;
+    }
+    if (entries.size() >= maxEntries) {
+      Iterator<String> eldest = entries.keySet().iterator();
+      eldest.next();
+      eldest.remove();
+    }
+    entries.put(key, new Entry(null, now + ttlMillis));
+    return true;
+  }
+
+  @Override
+  public synchronized void complete(String key, StoredResponse response) {
+    // Re-insert so the entry moves to the tail and the map stays ordered by expiry
+    entries.remove(key);
+    entries.put(key, new Entry(response, clock.getAsLong() + ttlMillis));
+  }
+
+  @Override
+  public synchronized void release(String key) {
+    Entry entry = entries.get(key);
+    if (entry != null && entry.response == null) {
+      entries.remove(key);
+    }
+  }
+
+  synchronized int size() {
+    return entries.size();
+  }
+
+  private void purgeExpired(long now) {
+    Iterator<Entry> iterator = entries.values().iterator();
+    while (iterator.hasNext() && iterator.next().expiresAt <= now) {
+      iterator.remove();
+    }
+  }
+
+  private record Entry(StoredResponse response, long expiresAt) {}
+}
@@ -0,0 +1,96 @@
+package com.guardianes.shared.infrastructure.idempotency;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * {@link IdempotencyStore} backed by the idempotency_keys table, so that keys survive restarts and
+ * are shared by every API instance. Reservations rely on the primary key: the insert of a key that
+ * already exists fails, which makes {@link #tryReserve} atomic across instances.
+ */
+public class JdbcIdempotencyStore implements IdempotencyStore {
+  private static final Logger logger = LoggerFactory.getLogger(JdbcIdempotencyStore.class);
+
+  private final JdbcTemplate jdbcTemplate;
+  private final long ttlMillis;
+
+  public JdbcIdempotencyStore(JdbcTemplate jdbcTemplate, long ttlSeconds) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.ttlMillis = ttlSeconds * 1000;
+  }
+
+  @Override
+  public Optional<StoredResponse> findCompleted(String key) {
+    List<StoredResponse> responses =
+        jdbcTemplate.query(
+            "SELECT request_hash, status_code, content_type, response_body FROM idempotency_keys"
+                + " WHERE idempotency_key = ? AND status_code IS NOT NULL AND expires_at > ?",
+            (rs, rowNum) ->
+                new StoredResponse(
+                    rs.getString("request_hash"),
+                    rs.getInt("status_code"),
+                    rs.getString("content_type"),
+                    rs.getBytes("response_body")),
+            key,
+            now());
+    return responses.stream().findFirst();
+  }
+
+  @Override
+  public boolean tryReserve(String key) {
+    Timestamp now = now();
+    jdbcTemplate.update(
+        "DELETE FROM idempotency_keys WHERE idempotency_key = ? AND expires_at <= ?", key, now);
+    try {
+      jdbcTemplate.update(
+          "INSERT INTO idempotency_keys (idempotency_key, created_at, expires_at) VALUES (?, ?, ?)",
+          key,
+          now,
+          expiresAt(now));
+      return true;
+    } catch (DuplicateKeyException e) {
+      return false;
+    }
+  }
+
+  @Override
+  public void complete(String key, StoredResponse response) {
+    jdbcTemplate.update(
+        "UPDATE idempotency_keys SET request_hash = ?, status_code = ?, content_type = ?,"
+            + " response_body = ?, expires_at = ? WHERE idempotency_key = ?",
+        response.requestHash(),
+        response.status(),
+        response.contentType(),
+        response.body(),
+        expiresAt(now()),
+        key);
+  }
+
+  @Override
+  public void release(String key) {
+    jdbcTemplate.update(
+        "DELETE FROM idempotency_keys WHERE idempotency_key = ? AND status_code IS NULL", key);
+  }
+
+  @Scheduled(fixedDelayString = "${guardianes.idempotency.purge-interval-ms:600000}")
+  public void purgeExpired() {
+    int purged = jdbcTemplate.update("DELETE FROM idempotency_keys WHERE expires_at <= ?", now());
+    if (purged > 0) {
+      logger.debug("Purged {} expired idempotency keys", purged);
+    }
+  }
+
+  private Timestamp now() {
+    return new Timestamp(System.currentTimeMillis());
+  }
+
+  private Timestamp expiresAt(Timestamp from) {
+    return new Timestamp(from.getTime() + ttlMillis);
+  }
+}
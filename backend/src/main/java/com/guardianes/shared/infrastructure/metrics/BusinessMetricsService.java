@@ -1,10 +1,14 @@
 package com.guardianes.shared.infrastructure.metrics;
 
 import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Tags;
 import io.micrometer.core.instrument.Timer;
+import java.util.Collection;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToDoubleFunction;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -120,6 +124,14 @@ public class BusinessMetricsService {
         .increment(amount);
   }
 
+  public void recordEnergyGranted(int guardians, int amount) {
+    Counter.builder("guardians.energy.granted")
+        .description("Total energy credited by bulk grants")
+        .tag("domain", "walking")
+        .register(meterRegistry)
+        .increment((double) guardians * amount);
+  }
+
   public void recordInsufficientEnergy(Long guardianId, Integer attempted, Integer available) {
     Counter.builder("guardians.energy.insufficient")
         .description("Number of insufficient energy attempts")
@@ -166,6 +178,189 @@ public class BusinessMetricsService {
   }
 
   // API Performance Methods
+  // Step Ingestion Methods
+  public void registerStepIngestionQueue(Collection<?> queue) {
+    meterRegistry.gauge(
+        "guardians.steps.ingestion.queue.depth",
+        Tags.of("domain", "walking"),
+        queue,
+        Collection::size);
+  }
+
+  public Timer.Sample startStepIngestionFlush() {
+    return Timer.start(meterRegistry);
+  }
+
+  public void endStepIngestionFlush(Timer.Sample sample, int batchSize, boolean successful) {
+    sample.stop(
+        Timer.builder("guardians.steps.ingestion.flush.duration")
+            .description("Time taken to persist a batch of queued step records")
+            .tags(Tags.of("domain", "walking", "outcome", successful ? "success" : "failure"))
+            .register(meterRegistry));
+    Counter.builder("guardians.steps.ingestion.flushed")
+        .description("Number of queued step records processed by flushes")
+        .tags(Tags.of("domain", "walking", "outcome", successful ? "success" : "failure"))
+        .register(meterRegistry)
+        .increment(batchSize);
+  }
+
+  public void recordStepIngestionRejected() {
+    Counter.builder("guardians.steps.ingestion.rejected")
+        .description("Number of step submissions rejected because the ingestion queue was full")
+        .tags(Tags.of("domain", "walking"))
+        .register(meterRegistry)
+        .increment();
+  }
+
+  public void recordStepIngestionDeadLettered() {
+    Counter.builder("guardians.steps.ingestion.dead_lettered")
+        .description("Number of queued step records dropped after every flush attempt failed")
+        .tags(Tags.of("domain", "walking"))
+        .register(meterRegistry)
+        .increment();
+  }
+
+  // Step Compaction Methods
+  public void registerStepCompactionProgress(AtomicLong compactedThroughEpochDay) {
+    meterRegistry.gauge(
+        "guardians.steps.compaction.compacted_through",
+        Tags.of("domain", "walking"),
+        compactedThroughEpochDay);
+  }
+
+  public Timer.Sample startStepCompactionChunk() {
+    return Timer.start(meterRegistry);
+  }
+
+  public void endStepCompactionChunk(Timer.Sample sample, int records) {
+    sample.stop(
+        Timer.builder("guardians.steps.compaction.chunk.duration")
+            .description("Time taken to archive and delete a chunk of expired step records")
+            .tag("domain", "walking")
+            .register(meterRegistry));
+    Counter.builder("guardians.steps.compaction.records")
+        .description("Number of raw step records archived and deleted by compaction")
+        .tag("domain", "walking")
+        .register(meterRegistry)
+        .increment(records);
+  }
+
+  // Energy Ledger Compaction Methods
+  public void recordEnergySnapshotsRefreshed(int snapshots) {
+    Counter.builder("guardians.energy.ledger.snapshots.refreshed")
+        .description("Number of energy ledger snapshots created or advanced")
+        .tag("domain", "walking")
+        .register(meterRegistry)
+        .increment(snapshots);
+  }
+
+  public Timer.Sample startEnergyCompactionChunk() {
+    return Timer.start(meterRegistry);
+  }
+
+  public void endEnergyCompactionChunk(Timer.Sample sample, int transactions) {
+    sample.stop(
+        Timer.builder("guardians.energy.ledger.compaction.chunk.duration")
+            .description("Time taken to archive and delete energy transactions")
+            .tag("domain", "walking")
+            .register(meterRegistry));
+    Counter.builder("guardians.energy.ledger.compaction.transactions")
+        .description("Number of energy transactions archived and deleted")
+        .tag("domain", "walking")
+        .register(meterRegistry)
+        .increment(transactions);
+  }
+
+  // Energy Reconciliation Methods
+  public void recordEnergyReconciliation(long checked, int discrepancies, int repaired) {
+    Counter.builder("guardians.energy.reconciliation.checked")
+        .description("Number of energy balances compared with the ledger")
+        .tag("domain", "walking")
+        .register(meterRegistry)
+        .increment(checked);
+    Counter.builder("guardians.energy.reconciliation.discrepancies")
+        .description("Number of energy balances found to differ from the ledger or be negative")
+        .tag("domain", "walking")
+        .register(meterRegistry)
+        .increment(discrepancies);
+    Counter.builder("guardians.energy.reconciliation.repaired")
+        .description("Number of energy balances overwritten with the ledger balance")
+        .tag("domain", "walking")
+        .register(meterRegistry)
+        .increment(repaired);
+  }
+
+  // Daily Step Energy Conversion Methods
+  public Timer.Sample startEnergyConversionChunk() {
+    return Timer.start(meterRegistry);
+  }
+
+  public void endEnergyConversionChunk(Timer.Sample sample, int guardians) {
+    sample.stop(
+        Timer.builder("guardians.energy.conversion.chunk.duration")
+            .description("Time taken to convert a guardian id range's daily steps to energy")
+            .tag("domain", "walking")
+            .register(meterRegistry));
+    Counter.builder("guardians.energy.conversion.guardians")
+        .description("Number of guardians credited energy for their daily steps")
+        .tag("domain", "walking")
+        .register(meterRegistry)
+        .increment(guardians);
+  }
+
+  // Energy Balance Cache Methods
+  public <T> void registerEnergyBalanceCache(
+      T cache,
+      ToDoubleFunction<T> hits,
+      ToDoubleFunction<T> misses,
+      ToDoubleFunction<T> evictions,
+      ToDoubleFunction<T> size) {
+    FunctionCounter.builder("guardians.energy.balance.cache.requests", cache, hits)
+        .description("Number of energy balance reads served by the balance cache")
+        .tags(Tags.of("domain", "walking", "result", "hit"))
+        .register(meterRegistry);
+    FunctionCounter.builder("guardians.energy.balance.cache.requests", cache, misses)
+        .description("Number of energy balance reads served by the balance cache")
+        .tags(Tags.of("domain", "walking", "result", "miss"))
+        .register(meterRegistry);
+    FunctionCounter.builder("guardians.energy.balance.cache.evictions", cache, evictions)
+        .description("Number of cached energy balances evicted by size or expiry")
+        .tag("domain", "walking")
+        .register(meterRegistry);
+    meterRegistry.gauge(
+        "guardians.energy.balance.cache.size", Tags.of("domain", "walking"), cache, size);
+  }
+
+  // Card Scan Methods
+  public void recordCardScanRejected(String reason) {
+    Counter.builder("guardians.cards.scans.rejected")
+        .description("Number of card scans rejected before touching the collection")
+        .tags(Tags.of("domain", "cards", "reason", reason))
+        .register(meterRegistry)
+        .increment();
+  }
+
+  // Card Catalog Methods
+  public <T> void registerCardCatalog(
+      T catalog,
+      ToDoubleFunction<T> version,
+      ToDoubleFunction<T> size,
+      ToDoubleFunction<T> rebuilds,
+      ToDoubleFunction<T> lastRebuildSeconds) {
+    meterRegistry.gauge(
+        "guardians.cards.catalog.version", Tags.of("domain", "cards"), catalog, version);
+    meterRegistry.gauge("guardians.cards.catalog.size", Tags.of("domain", "cards"), catalog, size);
+    FunctionCounter.builder("guardians.cards.catalog.rebuilds", catalog, rebuilds)
+        .description("Number of times the card catalog was reloaded from the database")
+        .tag("domain", "cards")
+        .register(meterRegistry);
+    meterRegistry.gauge(
+        "guardians.cards.catalog.rebuild.duration",
+        Tags.of("domain", "cards"),
+        catalog,
+        lastRebuildSeconds);
+  }
+
   public Timer.Sample startApiRequest(String endpoint, String method) {
     return Timer.start(meterRegistry);
   }
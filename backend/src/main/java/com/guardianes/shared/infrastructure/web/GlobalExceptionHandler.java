@@ -3,6 +3,7 @@ package com.guardianes.shared.infrastructure.web;
 import com.guardianes.walking.domain.GuardianNotFoundException;
 import com.guardianes.walking.domain.InsufficientEnergyException;
 import com.guardianes.walking.domain.RateLimitExceededException;
+import com.guardianes.walking.domain.StepIngestionOverloadedException;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
@@ -12,6 +13,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -82,6 +84,28 @@ public class GlobalExceptionHandler {
         .body(errorResponse);
   }
 
+  @ExceptionHandler(StepIngestionOverloadedException.class)
+  public ResponseEntity<ErrorResponse> handleStepIngestionOverloaded(
+      StepIngestionOverloadedException ex, WebRequest request) {
+    String correlationId = generateCorrelationId();
+    logger.warn("Step ingestion overloaded [{}]: {}", correlationId, ex.getMessage());
+
+    ErrorResponse errorResponse =
+        ErrorResponse.builder()
+            .timestamp(LocalDateTime.now())
+            .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+            .error("Service Unavailable")
+            .message(ex.getMessage())
+            .path(getPath(request))
+            .correlationId(correlationId)
+            .build();
+
+    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+        .header("Retry-After", "1")
+        .header("X-Correlation-ID", correlationId)
+        .body(errorResponse);
+  }
+
   @ExceptionHandler(MethodArgumentNotValidException.class)
   public ResponseEntity<ValidationErrorResponse> handleValidationExceptions(
       MethodArgumentNotValidException ex, WebRequest request) {
@@ -179,6 +203,25 @@ public class GlobalExceptionHandler {
     return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
   }
 
+  @ExceptionHandler(AccessDeniedException.class)
+  public ResponseEntity<ErrorResponse> handleAccessDenied(
+      AccessDeniedException ex, WebRequest request) {
+    String correlationId = generateCorrelationId();
+    logger.warn("Access denied [{}]: {}", correlationId, ex.getMessage());
+
+    ErrorResponse errorResponse =
+        ErrorResponse.builder()
+            .timestamp(LocalDateTime.now())
+            .status(HttpStatus.FORBIDDEN.value())
+            .error("Forbidden")
+            .message("You are not allowed to perform this operation")
+            .path(getPath(request))
+            .correlationId(correlationId)
+            .build();
+
+    return ResponseEntity.status(HttpStatus.FORBIDDEN).body(errorResponse);
+  }
+
   @ExceptionHandler(Exception.class)
   public ResponseEntity<ErrorResponse> handleGenericException(Exception ex, WebRequest request) {
     String correlationId = generateCorrelationId();
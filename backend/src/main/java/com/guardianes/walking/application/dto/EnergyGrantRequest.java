@@ -0,0 +1,29 @@
+package com.guardianes.walking.application.dto;
+
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+@Schema(description = "Energy credited to many guardians at once, such as after a school walk")
+public record EnergyGrantRequest(
+    @ArraySchema(
+            arraySchema = @Schema(description = "Guardians receiving the energy"),
+            maxItems = 5000)
+        @NotEmpty(message = "At least one guardian is required")
+        @Size(max = 5000, message = "A grant cannot include more than 5000 guardians")
+        List<@NotNull Long> guardianIds,
+    @Schema(description = "Energy credited to each guardian", example = "50", minimum = "1")
+        @NotNull(message = "Amount is required")
+        @Min(value = 1, message = "Amount must be positive")
+        @Max(value = 10000, message = "Amount cannot exceed 10000")
+        Integer amount,
+    @Schema(description = "Reason recorded with each transaction", example = "SCHOOL_WALK")
+        @NotBlank(message = "Source is required")
+        @Size(max = 50, message = "Source cannot be longer than 50 characters")
+        String source) {}
@@ -0,0 +1,6 @@
+package com.guardianes.walking.application.dto;
+
+import java.util.List;
+
+public record EnergyGrantResponse(
+    Integer grantedCount, Integer rejectedCount, Integer amount, List<EnergyGrantResult> results) {}
@@ -0,0 +1,3 @@
+package com.guardianes.walking.application.dto;
+
+public record EnergyGrantResult(Long guardianId, boolean granted, String message) {}
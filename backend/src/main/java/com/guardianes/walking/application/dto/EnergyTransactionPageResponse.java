@@ -0,0 +1,11 @@
+package com.guardianes.walking.application.dto;
+
+import com.guardianes.walking.domain.EnergyTransaction;
+import java.util.List;
+
+/**
+ * One page of a guardian's energy transactions, oldest first. {@code nextCursor} is passed back to
+ * read the following page and is null on the last page.
+ */
+public record EnergyTransactionPageResponse(
+    Long guardianId, List<EnergyTransaction> transactions, String nextCursor) {}
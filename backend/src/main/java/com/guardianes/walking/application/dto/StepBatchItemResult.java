@@ -0,0 +1,4 @@
+package com.guardianes.walking.application.dto;
+
+public record StepBatchItemResult(
+    Integer index, boolean accepted, Integer energyEarned, String message) {}
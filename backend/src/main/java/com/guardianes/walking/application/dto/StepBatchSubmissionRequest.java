@@ -0,0 +1,17 @@
+package com.guardianes.walking.application.dto;
+
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+@Schema(description = "Step samples buffered by a client while offline, submitted in one request")
+public record StepBatchSubmissionRequest(
+    @ArraySchema(
+            arraySchema = @Schema(description = "Step samples in the order they were recorded"),
+            maxItems = 500)
+        @NotEmpty(message = "At least one step sample is required")
+        @Size(max = 500, message = "A batch cannot contain more than 500 samples")
+        List<@Valid StepSubmissionRequest> samples) {}
@@ -0,0 +1,10 @@
+package com.guardianes.walking.application.dto;
+
+import java.util.List;
+
+public record StepBatchSubmissionResponse(
+    Long guardianId,
+    Integer acceptedCount,
+    Integer rejectedCount,
+    Integer energyEarned,
+    List<StepBatchItemResult> results) {}
@@ -1,6 +1,41 @@
 package com.guardianes.walking.application.dto;
 
 import com.guardianes.walking.domain.DailyStepAggregate;
+import com.guardianes.walking.domain.StepResolution;
+import com.guardianes.walking.domain.StepRollup;
 import java.util.List;
 
-public record StepHistoryResponse(Long guardianId, List<DailyStepAggregate> dailySteps) {}
+/**
+ * Step history at the resolution chosen for the requested range. {@code dailySteps} is only filled
+ * at daily resolution, for clients written before the other resolutions existed.
+ */
+public record StepHistoryResponse(
+    Long guardianId,
+    StepResolution resolution,
+    List<StepRollup> buckets,
+    List<DailyStepAggregate> dailySteps) {
+
+  public StepHistoryResponse(Long guardianId, List<DailyStepAggregate> dailySteps) {
+    this(
+        guardianId,
+        StepResolution.DAILY,
+        dailySteps.stream().map(StepRollup::fromDailyAggregate).toList(),
+        dailySteps);
+  }
+
+  public static StepHistoryResponse of(
+      Long guardianId, StepResolution resolution, List<StepRollup> buckets) {
+    List<DailyStepAggregate> dailySteps =
+        resolution == StepResolution.DAILY
+            ? buckets.stream()
+                .map(
+                    bucket ->
+                        new DailyStepAggregate(
+                            guardianId,
+                            bucket.getPeriodStart().toLocalDate(),
+                            bucket.getTotalSteps()))
+                .toList()
+            : List.of();
+    return new StepHistoryResponse(guardianId, resolution, buckets, dailySteps);
+  }
+}
@@ -0,0 +1,11 @@
+package com.guardianes.walking.application.dto;
+
+import com.guardianes.walking.domain.StepRecord;
+import java.util.List;
+
+/**
+ * One page of a guardian's step records, oldest first. {@code nextCursor} is passed back to read
+ * the following page and is null on the last page.
+ */
+public record StepRecordPageResponse(
+    Long guardianId, List<StepRecord> records, String nextCursor) {}
@@ -1,12 +1,29 @@
 package com.guardianes.walking.application.service;
 
 import com.guardianes.walking.application.dto.EnergyBalanceResponse;
+import com.guardianes.walking.application.dto.EnergyGrantRequest;
+import com.guardianes.walking.application.dto.EnergyGrantResponse;
 import com.guardianes.walking.application.dto.EnergySpendingRequest;
 import com.guardianes.walking.application.dto.EnergySpendingResponse;
+import com.guardianes.walking.application.dto.EnergyTransactionPageResponse;
+import java.time.LocalDate;
 
 public interface EnergyManagementApplicationService {
 
   EnergyBalanceResponse getEnergyBalance(Long guardianId);
 
   EnergySpendingResponse spendEnergy(Long guardianId, EnergySpendingRequest request);
+
+  /**
+   * Credits the same amount to every guardian of the request in one transaction, reporting unknown
+   * and repeated guardian ids instead of failing the whole grant.
+   */
+  EnergyGrantResponse grantEnergy(EnergyGrantRequest request);
+
+  /**
+   * Returns the page of the guardian's transactions between the two dates, inclusive, that follows
+   * {@code cursor}, or the first page when it is null.
+   */
+  EnergyTransactionPageResponse getTransactionHistory(
+      Long guardianId, LocalDate fromDate, LocalDate toDate, String cursor, Integer size);
 }
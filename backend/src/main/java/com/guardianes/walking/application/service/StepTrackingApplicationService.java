@@ -1,16 +1,36 @@
 package com.guardianes.walking.application.service;
 
 import com.guardianes.walking.application.dto.CurrentStepCountResponse;
+import com.guardianes.walking.application.dto.StepBatchSubmissionRequest;
+import com.guardianes.walking.application.dto.StepBatchSubmissionResponse;
 import com.guardianes.walking.application.dto.StepHistoryResponse;
+import com.guardianes.walking.application.dto.StepRecordPageResponse;
 import com.guardianes.walking.application.dto.StepSubmissionRequest;
 import com.guardianes.walking.application.dto.StepSubmissionResponse;
+import com.guardianes.walking.domain.StepResolution;
 import java.time.LocalDate;
 
 public interface StepTrackingApplicationService {
 
   StepSubmissionResponse submitSteps(Long guardianId, StepSubmissionRequest request);
 
+  StepBatchSubmissionResponse submitStepBatch(Long guardianId, StepBatchSubmissionRequest request);
+
   CurrentStepCountResponse getCurrentStepCount(Long guardianId);
 
   StepHistoryResponse getStepHistory(Long guardianId, LocalDate fromDate, LocalDate toDate);
+
+  /**
+   * Returns the step history at the given resolution, or at the coarsest resolution suited to the
+   * range when {@code resolution} is null.
+   */
+  StepHistoryResponse getStepHistory(
+      Long guardianId, LocalDate fromDate, LocalDate toDate, StepResolution resolution);
+
+  /**
+   * Returns the page of the guardian's raw step records between the two dates, inclusive, that
+   * follows {@code cursor}, or the first page when it is null.
+   */
+  StepRecordPageResponse getStepRecords(
+      Long guardianId, LocalDate fromDate, LocalDate toDate, String cursor, Integer size);
 }
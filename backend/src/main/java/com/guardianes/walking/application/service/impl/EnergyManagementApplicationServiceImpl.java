@@ -1,16 +1,28 @@
 package com.guardianes.walking.application.service.impl;
 
+import com.guardianes.guardian.domain.repository.GuardianRepository;
 import com.guardianes.shared.infrastructure.metrics.BusinessMetricsService;
 import com.guardianes.walking.application.dto.EnergyBalanceResponse;
+import com.guardianes.walking.application.dto.EnergyGrantRequest;
+import com.guardianes.walking.application.dto.EnergyGrantResponse;
+import com.guardianes.walking.application.dto.EnergyGrantResult;
 import com.guardianes.walking.application.dto.EnergySpendingRequest;
 import com.guardianes.walking.application.dto.EnergySpendingResponse;
+import com.guardianes.walking.application.dto.EnergyTransactionPageResponse;
 import com.guardianes.walking.application.service.EnergyManagementApplicationService;
 import com.guardianes.walking.domain.EnergyRepository;
 import com.guardianes.walking.domain.EnergyTransaction;
 import com.guardianes.walking.domain.EnergyTransactionType;
+import com.guardianes.walking.domain.HistoryCursor;
+import com.guardianes.walking.domain.HistoryPage;
 import com.guardianes.walking.domain.InsufficientEnergyException;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.OptionalInt;
+import java.util.Set;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -23,12 +35,16 @@ public class EnergyManagementApplicationServiceImpl implements EnergyManagementA
       LoggerFactory.getLogger(EnergyManagementApplicationServiceImpl.class);
 
   private final EnergyRepository energyRepository;
+  private final GuardianRepository guardianRepository;
   private final BusinessMetricsService metricsService;
 
   @Autowired
   public EnergyManagementApplicationServiceImpl(
-      EnergyRepository energyRepository, BusinessMetricsService metricsService) {
+      EnergyRepository energyRepository,
+      GuardianRepository guardianRepository,
+      BusinessMetricsService metricsService) {
     this.energyRepository = energyRepository;
+    this.guardianRepository = guardianRepository;
     this.metricsService = metricsService;
   }
 
@@ -53,6 +69,31 @@ public class EnergyManagementApplicationServiceImpl implements EnergyManagementA
     return new EnergyBalanceResponse(guardianId, currentBalance, recentTransactions);
   }
 
+  @Override
+  @Transactional(readOnly = true)
+  public EnergyTransactionPageResponse getTransactionHistory(
+      Long guardianId, LocalDate fromDate, LocalDate toDate, String cursor, Integer size) {
+    HistoryCursor after = cursor != null ? HistoryCursor.fromToken(cursor) : null;
+    int pageSize = HistoryPage.sizeFor(size);
+    logger.debug(
+        "Getting energy transactions for guardian {} from {} to {} after {}",
+        guardianId,
+        fromDate,
+        toDate,
+        after);
+
+    HistoryPage<EnergyTransaction> page =
+        energyRepository.findTransactionsPage(
+            guardianId,
+            fromDate.atStartOfDay(),
+            toDate.plusDays(1).atStartOfDay(),
+            after,
+            pageSize);
+
+    return new EnergyTransactionPageResponse(
+        guardianId, page.items(), page.next() != null ? page.next().toToken() : null);
+  }
+
   @Override
   @Transactional
   public EnergySpendingResponse spendEnergy(Long guardianId, EnergySpendingRequest request) {
@@ -63,12 +104,18 @@ public class EnergyManagementApplicationServiceImpl implements EnergyManagementA
         request.source());
 
     try {
-      // Get current balance
-      int currentBalance = energyRepository.getEnergyBalance(guardianId);
-      logger.debug("Current energy balance for guardian {}: {}", guardianId, currentBalance);
+      EnergyTransaction transaction =
+          new EnergyTransaction(
+              guardianId,
+              EnergyTransactionType.SPENT,
+              request.amount(),
+              request.source().name(),
+              LocalDateTime.now());
 
-      // Check if sufficient energy
-      if (currentBalance < request.amount()) {
+      // Check the balance and debit it in a single atomic step
+      OptionalInt remainingBalance = energyRepository.trySpend(transaction);
+      if (remainingBalance.isEmpty()) {
+        int currentBalance = energyRepository.getEnergyBalance(guardianId);
         logger.warn(
             "Insufficient energy for guardian {}: requested {}, available {}",
             guardianId,
@@ -77,25 +124,12 @@ public class EnergyManagementApplicationServiceImpl implements EnergyManagementA
         metricsService.recordInsufficientEnergy(guardianId, request.amount(), currentBalance);
         throw new InsufficientEnergyException("Not enough energy available");
       }
-
-      // Create spending transaction
-      EnergyTransaction transaction =
-          new EnergyTransaction(
-              guardianId,
-              EnergyTransactionType.SPENT,
-              request.amount(),
-              request.source().name(),
-              LocalDateTime.now());
-
-      // Save transaction
-      energyRepository.saveTransaction(transaction);
       logger.debug("Saved energy transaction for guardian {}: {}", guardianId, transaction);
 
       // Record metrics for successful energy spending
       metricsService.recordEnergySpent(guardianId, request.amount(), request.source().name());
 
-      // Calculate new balance
-      int newBalance = currentBalance - request.amount();
+      int newBalance = remainingBalance.getAsInt();
 
       EnergySpendingResponse response =
           new EnergySpendingResponse(
@@ -118,4 +152,41 @@ public class EnergyManagementApplicationServiceImpl implements EnergyManagementA
       throw e;
     }
   }
+
+  @Override
+  @Transactional
+  public EnergyGrantResponse grantEnergy(EnergyGrantRequest request) {
+    logger.info(
+        "Processing energy grant of {} energy for {} guardians ({})",
+        request.amount(),
+        request.guardianIds().size(),
+        request.source());
+
+    // All ids are checked with one query instead of one lookup per guardian
+    Set<Long> existing = guardianRepository.findExistingIds(request.guardianIds());
+    Set<Long> seen = new HashSet<>();
+    List<Long> granted = new ArrayList<>();
+    List<EnergyGrantResult> results = new ArrayList<>(request.guardianIds().size());
+    for (Long guardianId : request.guardianIds()) {
+      if (!seen.add(guardianId)) {
+        results.add(new EnergyGrantResult(guardianId, false, "Guardian already included"));
+      } else if (!existing.contains(guardianId)) {
+        results.add(new EnergyGrantResult(guardianId, false, "Guardian not found"));
+      } else {
+        granted.add(guardianId);
+        results.add(new EnergyGrantResult(guardianId, true, "Energy granted"));
+      }
+    }
+
+    if (!granted.isEmpty()) {
+      energyRepository.grantEnergy(
+          granted, request.amount(), request.source(), LocalDateTime.now());
+      metricsService.recordEnergyGranted(granted.size(), request.amount());
+    }
+
+    int rejected = results.size() - granted.size();
+    logger.info(
+        "Processed energy grant: {} guardians credited, {} rejected", granted.size(), rejected);
+    return new EnergyGrantResponse(granted.size(), rejected, request.amount(), results);
+  }
 }
@@ -1,7 +1,11 @@
 package com.guardianes.walking.application.service.impl;
 
 import com.guardianes.walking.application.dto.CurrentStepCountResponse;
+import com.guardianes.walking.application.dto.StepBatchItemResult;
+import com.guardianes.walking.application.dto.StepBatchSubmissionRequest;
+import com.guardianes.walking.application.dto.StepBatchSubmissionResponse;
 import com.guardianes.walking.application.dto.StepHistoryResponse;
+import com.guardianes.walking.application.dto.StepRecordPageResponse;
 import com.guardianes.walking.application.dto.StepSubmissionRequest;
 import com.guardianes.walking.application.dto.StepSubmissionResponse;
 import com.guardianes.walking.application.service.StepTrackingApplicationService;
@@ -10,16 +14,28 @@ import com.guardianes.walking.domain.EnergyCalculationService;
 import com.guardianes.walking.domain.EnergyRepository;
 import com.guardianes.walking.domain.EnergyTransaction;
 import com.guardianes.walking.domain.EnergyTransactionType;
+import com.guardianes.walking.domain.HistoryCursor;
+import com.guardianes.walking.domain.HistoryPage;
 import com.guardianes.walking.domain.RateLimitExceededException;
 import com.guardianes.walking.domain.StepAggregationService;
+import com.guardianes.walking.domain.StepIngestionOverloadedException;
+import com.guardianes.walking.domain.StepIngestionQueue;
 import com.guardianes.walking.domain.StepRecord;
 import com.guardianes.walking.domain.StepRepository;
+import com.guardianes.walking.domain.StepResolution;
+import com.guardianes.walking.domain.StepRollup;
 import com.guardianes.walking.domain.StepValidationResult;
 import com.guardianes.walking.domain.StepValidationService;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -28,12 +44,14 @@ import org.springframework.transaction.annotation.Transactional;
 public class StepTrackingApplicationServiceImpl implements StepTrackingApplicationService {
   private static final Logger logger =
       LoggerFactory.getLogger(StepTrackingApplicationServiceImpl.class);
+  private static final long MAX_HOURLY_RANGE_DAYS = 31;
 
   private final StepAggregationService stepAggregationService;
   private final StepValidationService stepValidationService;
   private final EnergyCalculationService energyCalculationService;
   private final StepRepository stepRepository;
   private final EnergyRepository energyRepository;
+  private final StepIngestionQueue stepIngestionQueue;
 
   @Autowired
   public StepTrackingApplicationServiceImpl(
@@ -41,12 +59,15 @@ public class StepTrackingApplicationServiceImpl implements StepTrackingApplicati
       StepValidationService stepValidationService,
       EnergyCalculationService energyCalculationService,
       StepRepository stepRepository,
-      EnergyRepository energyRepository) {
+      EnergyRepository energyRepository,
+      ObjectProvider<StepIngestionQueue> stepIngestionQueue) {
     this.stepAggregationService = stepAggregationService;
     this.stepValidationService = stepValidationService;
     this.energyCalculationService = energyCalculationService;
     this.stepRepository = stepRepository;
     this.energyRepository = energyRepository;
+    // Only present when write-behind ingestion is enabled
+    this.stepIngestionQueue = stepIngestionQueue.getIfAvailable();
   }
 
   @Override
@@ -73,14 +94,19 @@ public class StepTrackingApplicationServiceImpl implements StepTrackingApplicati
       }
 
       // Check rate limiting
-      if (!stepValidationService.isWithinSubmissionRateLimit(guardianId, request.timestamp())) {
+      if (!stepValidationService.isWithinSubmissionRateLimit(guardianId)) {
         logger.warn("Rate limit exceeded for guardian {}", guardianId);
         throw new RateLimitExceededException("Too many step submissions");
       }
 
+      if (stepIngestionQueue != null) {
+        return enqueueSteps(guardianId, request);
+      }
+
       // Create and save step record
       StepRecord stepRecord = new StepRecord(guardianId, request.stepCount(), request.timestamp());
       StepRecord savedStepRecord = stepRepository.save(stepRecord);
+      stepValidationService.recordAccepted(List.of(savedStepRecord));
       logger.debug("Saved step record for guardian {}: {}", guardianId, savedStepRecord);
 
       // Aggregate steps for the day
@@ -125,6 +151,95 @@ public class StepTrackingApplicationServiceImpl implements StepTrackingApplicati
     }
   }
 
+  private StepSubmissionResponse enqueueSteps(Long guardianId, StepSubmissionRequest request) {
+    StepRecord stepRecord = new StepRecord(guardianId, request.stepCount(), request.timestamp());
+    if (!stepIngestionQueue.offer(stepRecord)) {
+      logger.warn("Step ingestion queue full, rejecting submission for guardian {}", guardianId);
+      throw new StepIngestionOverloadedException(
+          "Step submissions are temporarily overloaded, please retry shortly");
+    }
+
+    // The stored aggregate does not include records still waiting in the queue, this one included
+    LocalDate date = request.timestamp().toLocalDate();
+    DailyStepAggregate dailyAggregate =
+        stepAggregationService.aggregateDailySteps(guardianId, date);
+    int totalDailySteps =
+        dailyAggregate.getTotalSteps() + stepIngestionQueue.pendingSteps(guardianId, date);
+    int energyEarned = energyCalculationService.calculateEnergyFromSteps(request.stepCount());
+    logger.debug("Queued step record for guardian {}: {}", guardianId, stepRecord);
+
+    return new StepSubmissionResponse(
+        guardianId, totalDailySteps, energyEarned, "Steps accepted for processing");
+  }
+
+  @Override
+  @Transactional
+  public StepBatchSubmissionResponse submitStepBatch(
+      Long guardianId, StepBatchSubmissionRequest request) {
+    List<StepRecord> samples =
+        request.samples().stream()
+            .map(sample -> new StepRecord(guardianId, sample.stepCount(), sample.timestamp()))
+            .toList();
+    logger.info("Processing batch of {} step samples for guardian {}", samples.size(), guardianId);
+
+    // The batch counts as a single submission against the rate window
+    if (!stepValidationService.isWithinSubmissionRateLimit(guardianId)) {
+      logger.warn("Rate limit exceeded for guardian {}", guardianId);
+      throw new RateLimitExceededException("Too many step submissions");
+    }
+
+    List<StepValidationResult> validationResults =
+        stepValidationService.validateStepBatch(guardianId, samples);
+
+    List<StepRecord> accepted = new ArrayList<>();
+    List<StepBatchItemResult> results = new ArrayList<>(samples.size());
+    Map<LocalDate, Integer> energyByDate = new TreeMap<>();
+    Map<LocalDate, LocalDateTime> lastTimestampByDate = new TreeMap<>();
+    for (int i = 0; i < samples.size(); i++) {
+      StepRecord sample = samples.get(i);
+      StepValidationResult validationResult = validationResults.get(i);
+      if (!validationResult.isValid()) {
+        results.add(new StepBatchItemResult(i, false, 0, validationResult.getErrorMessage()));
+        continue;
+      }
+
+      accepted.add(sample);
+      int energyEarned = energyCalculationService.calculateEnergyFromSteps(sample.getStepCount());
+      LocalDate date = sample.getTimestamp().toLocalDate();
+      energyByDate.merge(date, energyEarned, Integer::sum);
+      lastTimestampByDate.merge(date, sample.getTimestamp(), (a, b) -> a.isAfter(b) ? a : b);
+      results.add(new StepBatchItemResult(i, true, energyEarned, "Steps submitted successfully"));
+    }
+
+    stepRepository.saveAll(accepted);
+    stepValidationService.recordAccepted(accepted);
+
+    // One energy transaction per day rather than per sample
+    energyByDate.forEach(
+        (date, energy) -> {
+          if (energy > 0) {
+            energyRepository.saveTransaction(
+                new EnergyTransaction(
+                    guardianId,
+                    EnergyTransactionType.EARNED,
+                    energy,
+                    "Steps",
+                    lastTimestampByDate.get(date)));
+          }
+        });
+
+    int totalEnergy = energyByDate.values().stream().mapToInt(Integer::intValue).sum();
+    logger.info(
+        "Processed step batch for guardian {}: {} accepted, {} rejected, {} energy earned",
+        guardianId,
+        accepted.size(),
+        samples.size() - accepted.size(),
+        totalEnergy);
+
+    return new StepBatchSubmissionResponse(
+        guardianId, accepted.size(), samples.size() - accepted.size(), totalEnergy, results);
+  }
+
   @Override
   @Transactional(readOnly = true)
   public CurrentStepCountResponse getCurrentStepCount(Long guardianId) {
@@ -162,4 +277,58 @@ public class StepTrackingApplicationServiceImpl implements StepTrackingApplicati
 
     return new StepHistoryResponse(guardianId, dailyAggregates);
   }
+
+  @Override
+  public StepHistoryResponse getStepHistory(
+      Long guardianId, LocalDate fromDate, LocalDate toDate, StepResolution resolution) {
+    StepResolution effectiveResolution =
+        resolution != null ? resolution : StepResolution.forRange(fromDate, toDate);
+    if (effectiveResolution == StepResolution.HOURLY
+        && ChronoUnit.DAYS.between(fromDate, toDate) + 1 > MAX_HOURLY_RANGE_DAYS) {
+      throw new IllegalArgumentException(
+          "Hourly resolution is limited to ranges of " + MAX_HOURLY_RANGE_DAYS + " days");
+    }
+    logger.debug(
+        "Getting {} step history for guardian {} from {} to {}",
+        effectiveResolution,
+        guardianId,
+        fromDate,
+        toDate);
+
+    List<StepRollup> buckets =
+        stepAggregationService.getStepHistory(guardianId, fromDate, toDate, effectiveResolution);
+
+    logger.debug(
+        "Retrieved step history for guardian {}: {} {} buckets",
+        guardianId,
+        buckets.size(),
+        effectiveResolution);
+
+    return StepHistoryResponse.of(guardianId, effectiveResolution, buckets);
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public StepRecordPageResponse getStepRecords(
+      Long guardianId, LocalDate fromDate, LocalDate toDate, String cursor, Integer size) {
+    HistoryCursor after = cursor != null ? HistoryCursor.fromToken(cursor) : null;
+    int pageSize = HistoryPage.sizeFor(size);
+    logger.debug(
+        "Getting step records for guardian {} from {} to {} after {}",
+        guardianId,
+        fromDate,
+        toDate,
+        after);
+
+    HistoryPage<StepRecord> page =
+        stepRepository.findRecordsPage(
+            guardianId,
+            fromDate.atStartOfDay(),
+            toDate.plusDays(1).atStartOfDay(),
+            after,
+            pageSize);
+
+    return new StepRecordPageResponse(
+        guardianId, page.items(), page.next() != null ? page.next().toToken() : null);
+  }
 }
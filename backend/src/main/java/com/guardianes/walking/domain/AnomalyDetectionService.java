@@ -1,7 +1,14 @@
 package com.guardianes.walking.domain;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 public interface AnomalyDetectionService {
   boolean isAnomalous(Long guardianId, int stepCount, LocalDateTime timestamp);
+
+  /** Whether a day's total is far above what the guardian usually walks in a day. */
+  boolean isDailySpike(Long guardianId, LocalDate date, int dailyTotal);
+
+  /** Feeds a submission that passed validation into the guardian's statistics. */
+  default void recordAccepted(Long guardianId, int stepCount, LocalDateTime timestamp) {}
 }
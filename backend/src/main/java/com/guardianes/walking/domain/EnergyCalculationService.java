@@ -33,32 +33,19 @@ public class EnergyCalculationService {
 
   @Transactional(readOnly = true)
   public int getCurrentEnergyBalance(Long guardianId) {
-    List<EnergyTransaction> transactions =
-        energyRepository.findTransactionsByGuardianId(guardianId);
-    int balance =
-        transactions.stream()
-            .mapToInt(
-                transaction -> {
-                  if (transaction.getType() == EnergyTransactionType.EARNED) {
-                    return transaction.getAmount();
-                  } else {
-                    return -transaction.getAmount();
-                  }
-                })
-            .sum();
-    return Math.max(0, balance);
+    return Math.max(0, energyRepository.getEnergyBalance(guardianId));
   }
 
   @Transactional
   public EnergyTransaction spendEnergy(Long guardianId, int energyToSpend, String source) {
-    int currentBalance = getCurrentEnergyBalance(guardianId);
-    if (currentBalance < energyToSpend) {
-      throw new InsufficientEnergyException("Not enough energy available");
-    }
     EnergyTransaction transaction =
         new EnergyTransaction(
             guardianId, EnergyTransactionType.SPENT, energyToSpend, source, LocalDateTime.now());
-    return energyRepository.saveTransaction(transaction);
+    // Checked and debited in one step, so concurrent spends cannot both pass the check
+    if (energyRepository.trySpend(transaction).isEmpty()) {
+      throw new InsufficientEnergyException("Not enough energy available");
+    }
+    return transaction;
   }
 
   @Transactional(readOnly = true)
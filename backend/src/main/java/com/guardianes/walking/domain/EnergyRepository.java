@@ -1,17 +1,62 @@
 package com.guardianes.walking.domain;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
 
 public interface EnergyRepository {
   EnergyTransaction saveTransaction(EnergyTransaction transaction);
 
+  /**
+   * Records a {@link EnergyTransactionType#SPENT} transaction only if the guardian's balance covers
+   * its amount. The balance check, the debit and the ledger entry form one atomic operation, so
+   * concurrent spends can never take the balance below zero.
+   *
+   * @return the balance after the debit, or empty when the balance was insufficient and nothing was
+   *     recorded
+   */
+  OptionalInt trySpend(EnergyTransaction spending);
+
+  /**
+   * Credits {@code amount} to each of the distinct guardians, recording one {@link
+   * EnergyTransactionType#EARNED} transaction per guardian, as one bulk write rather than one write
+   * per guardian.
+   */
+  void grantEnergy(List<Long> guardianIds, int amount, String source, LocalDateTime timestamp);
+
+  /**
+   * Credits each guardian the amount mapped to it as their {@code source} credit of {@code
+   * creditDate}, recording one {@link EnergyTransactionType#EARNED} transaction per guardian, as
+   * one bulk write. A guardian can receive only one such credit per day and source; crediting one
+   * twice fails the whole write.
+   */
+  void creditEnergy(
+      Map<Long, Integer> energyByGuardian,
+      String source,
+      LocalDate creditDate,
+      LocalDateTime timestamp);
+
   List<EnergyTransaction> findTransactionsByGuardianId(Long guardianId);
 
   List<EnergyTransaction> findTransactionsByGuardianIdAndDateRange(
       Long guardianId, LocalDate fromDate, LocalDate toDate);
 
+  /**
+   * Returns up to {@code size} of the guardian's transactions recorded in [from, to) after the
+   * cursor, in (timestamp, id) order, starting at {@code from} when the cursor is null.
+   */
+  HistoryPage<EnergyTransaction> findTransactionsPage(
+      Long guardianId, LocalDateTime from, LocalDateTime to, HistoryCursor after, int size);
+
   int getEnergyBalance(Long guardianId);
 
+  /**
+   * Recomputes the balance from the ledger instead of reading the running balance, for audits and
+   * reconciliation. Only the transactions after the guardian's latest ledger snapshot are summed.
+   */
+  int getLedgerBalance(Long guardianId);
+
   List<EnergyTransaction> getRecentTransactions(Long guardianId, int limit);
 }
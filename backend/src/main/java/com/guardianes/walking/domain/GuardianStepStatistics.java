@@ -0,0 +1,18 @@
+package com.guardianes.walking.domain;
+
+import java.time.LocalDate;
+
+/**
+ * Checkpoint of a guardian's running step statistics: exponentially weighted mean and variance of
+ * the steps per submission and of completed daily totals, plus the total of the day still open.
+ */
+public record GuardianStepStatistics(
+    Long guardianId,
+    double submissionMean,
+    double submissionVariance,
+    long submissionCount,
+    double dailyMean,
+    double dailyVariance,
+    long dayCount,
+    LocalDate openDay,
+    int openDayTotal) {}
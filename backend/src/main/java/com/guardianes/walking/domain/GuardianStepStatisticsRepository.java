@@ -0,0 +1,11 @@
+package com.guardianes.walking.domain;
+
+import java.util.Collection;
+import java.util.Optional;
+
+public interface GuardianStepStatisticsRepository {
+  Optional<GuardianStepStatistics> findByGuardianId(Long guardianId);
+
+  /** Inserts or overwrites the checkpoint of each guardian. */
+  void saveAll(Collection<GuardianStepStatistics> statistics);
+}
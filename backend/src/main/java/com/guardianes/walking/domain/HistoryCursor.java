@@ -0,0 +1,47 @@
+package com.guardianes.walking.domain;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Keyset position in a guardian's history: the timestamp and id of the last item of a page. The
+ * next page starts strictly after it in (timestamp, id) order, so pages stay stable while new items
+ * are written and each page costs one index range scan however deep the client pages. Clients only
+ * see it as an opaque token.
+ */
+public record HistoryCursor(LocalDateTime timestamp, long id) {
+
+  /**
+   * Position the page of a range starting at {@code from} is read after: the cursor, unless there
+   * is none or it lies before the range, in which case the start of the range. Ids start at 1, so
+   * (from, 0) precedes every item recorded at {@code from}.
+   */
+  public static HistoryCursor startOf(LocalDateTime from, HistoryCursor after) {
+    return after != null && !after.timestamp().isBefore(from) ? after : new HistoryCursor(from, 0L);
+  }
+
+  public String toToken() {
+    return Base64.getUrlEncoder()
+        .withoutPadding()
+        .encodeToString((timestamp + "|" + id).getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Parses a token produced by {@link #toToken}.
+   *
+   * @throws IllegalArgumentException if the token is malformed
+   */
+  public static HistoryCursor fromToken(String token) {
+    try {
+      String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+      int separator = decoded.indexOf('|');
+      return new HistoryCursor(
+          LocalDateTime.parse(decoded.substring(0, separator)),
+          Long.parseLong(decoded.substring(separator + 1)));
+    } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+      throw new IllegalArgumentException("Invalid history cursor", e);
+    }
+  }
+}
@@ -0,0 +1,45 @@
+package com.guardianes.walking.domain;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a guardian's history in (timestamp, id) order. {@code next} is the cursor to pass for
+ * the following page, or null on the last page.
+ */
+public record HistoryPage<T>(List<T> items, HistoryCursor next) {
+
+  public static final int DEFAULT_SIZE = 50;
+  public static final int MAX_SIZE = 200;
+
+  /**
+   * Returns the page size to read for the size requested by a client: {@link #DEFAULT_SIZE} when
+   * none was given, and at most {@link #MAX_SIZE}.
+   */
+  public static int sizeFor(Integer requested) {
+    if (requested == null) {
+      return DEFAULT_SIZE;
+    }
+    if (requested < 1) {
+      throw new IllegalArgumentException("Page size must be at least 1");
+    }
+    return Math.min(requested, MAX_SIZE);
+  }
+
+  /**
+   * Builds a page from up to {@code size + 1} items read after the cursor; the extra item only
+   * tells that another page follows.
+   */
+  public static <T> HistoryPage<T> of(
+      List<T> items, int size, Function<T, HistoryCursor> cursorOf) {
+    if (items.size() <= size) {
+      return new HistoryPage<>(items, null);
+    }
+    List<T> page = items.subList(0, size);
+    return new HistoryPage<>(page, cursorOf.apply(page.get(size - 1)));
+  }
+
+  public <R> HistoryPage<R> map(Function<T, R> mapper) {
+    return new HistoryPage<>(items.stream().map(mapper).toList(), next);
+  }
+}
@@ -15,9 +15,10 @@ public class StepAggregationService {
 
   @Transactional(readOnly = true)
   public DailyStepAggregate aggregateDailySteps(Long guardianId, LocalDate date) {
-    List<StepRecord> stepRecords = stepRepository.findByGuardianIdAndDate(guardianId, date);
-    int totalSteps = stepRecords.stream().mapToInt(StepRecord::getStepCount).sum();
-    return new DailyStepAggregate(guardianId, date, totalSteps);
+    // The aggregate is maintained on every StepRepository.save, so this is a single-row lookup
+    return stepRepository
+        .findDailyAggregate(guardianId, date)
+        .orElseGet(() -> new DailyStepAggregate(guardianId, date, 0));
   }
 
   @Transactional(readOnly = true)
@@ -37,4 +38,18 @@ public class StepAggregationService {
       Long guardianId, LocalDate fromDate, LocalDate toDate) {
     return stepRepository.findDailyAggregatesByGuardianIdAndDateRange(guardianId, fromDate, toDate);
   }
+
+  /**
+   * Returns the buckets of the given resolution covering the inclusive date range. The first weekly
+   * or monthly bucket starts at the beginning of the period containing {@code fromDate}.
+   */
+  @Transactional(readOnly = true)
+  public List<StepRollup> getStepHistory(
+      Long guardianId, LocalDate fromDate, LocalDate toDate, StepResolution resolution) {
+    return stepRepository.findRollups(
+        guardianId,
+        resolution,
+        resolution.periodStart(fromDate.atStartOfDay()),
+        toDate.plusDays(1).atStartOfDay());
+  }
 }
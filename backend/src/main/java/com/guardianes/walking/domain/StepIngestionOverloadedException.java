@@ -0,0 +1,8 @@
+package com.guardianes.walking.domain;
+
+public class StepIngestionOverloadedException extends RuntimeException {
+
+  public StepIngestionOverloadedException(String message) {
+    super(message);
+  }
+}
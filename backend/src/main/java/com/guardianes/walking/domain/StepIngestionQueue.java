@@ -0,0 +1,18 @@
+package com.guardianes.walking.domain;
+
+import java.time.LocalDate;
+
+/** Accepts validated step records for asynchronous (write-behind) persistence. */
+public interface StepIngestionQueue {
+
+  /**
+   * Queues a validated step record. Its daily aggregate and energy transaction are written when the
+   * record is flushed; until then its steps are counted by {@link #pendingSteps}.
+   *
+   * @return {@code false} if the queue is full or shutting down and the record was not accepted
+   */
+  boolean offer(StepRecord stepRecord);
+
+  /** Steps queued for the guardian's day that are not yet in its stored daily aggregate. */
+  int pendingSteps(Long guardianId, LocalDate date);
+}
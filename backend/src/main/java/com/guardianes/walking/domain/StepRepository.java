@@ -3,19 +3,45 @@ package com.guardianes.walking.domain;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 public interface StepRepository {
+  /**
+   * Persists a step record and adds its steps to the guardian's daily aggregate in the same unit of
+   * work, so the aggregate always reflects every saved record.
+   */
   StepRecord save(StepRecord stepRecord);
 
+  /**
+   * Persists several step records at once, updating each affected daily aggregate a single time.
+   * Callers are expected to have validated the records beforehand.
+   */
+  List<StepRecord> saveAll(List<StepRecord> stepRecords);
+
   List<StepRecord> findByGuardianIdAndDate(Long guardianId, LocalDate date);
 
   List<StepRecord> findByGuardianIdAndDateRange(
       Long guardianId, LocalDate fromDate, LocalDate toDate);
 
+  /**
+   * Returns up to {@code size} of the guardian's records in [from, to) after the cursor, in
+   * (timestamp, id) order, starting at {@code from} when the cursor is null.
+   */
+  HistoryPage<StepRecord> findRecordsPage(
+      Long guardianId, LocalDateTime from, LocalDateTime to, HistoryCursor after, int size);
+
   DailyStepAggregate saveDailyAggregate(DailyStepAggregate aggregate);
 
+  Optional<DailyStepAggregate> findDailyAggregate(Long guardianId, LocalDate date);
+
   List<DailyStepAggregate> findDailyAggregatesByGuardianIdAndDateRange(
       Long guardianId, LocalDate fromDate, LocalDate toDate);
 
-  int countSubmissionsInLastHour(Long guardianId, LocalDateTime timestamp);
+  /**
+   * Returns the guardian's buckets of the given resolution whose period starts within [from, to),
+   * ordered by period. Hourly, weekly and monthly rollups are maintained by {@link #save} and
+   * {@link #saveAll} like the daily aggregates.
+   */
+  List<StepRollup> findRollups(
+      Long guardianId, StepResolution resolution, LocalDateTime from, LocalDateTime to);
 }
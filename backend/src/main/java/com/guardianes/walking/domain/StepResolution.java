@@ -0,0 +1,41 @@
+package com.guardianes.walking.domain;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+
+/** Granularity of step history buckets. Weeks start on Monday. */
+public enum StepResolution {
+  HOURLY,
+  DAILY,
+  WEEKLY,
+  MONTHLY;
+
+  private static final long MAX_DAILY_RANGE_DAYS = 62;
+  private static final long MAX_WEEKLY_RANGE_DAYS = 366;
+
+  /** Start of the bucket of this resolution that contains the given timestamp. */
+  public LocalDateTime periodStart(LocalDateTime timestamp) {
+    LocalDate date = timestamp.toLocalDate();
+    return switch (this) {
+      case HOURLY -> timestamp.truncatedTo(ChronoUnit.HOURS);
+      case DAILY -> date.atStartOfDay();
+      case WEEKLY -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)).atStartOfDay();
+      case MONTHLY -> date.withDayOfMonth(1).atStartOfDay();
+    };
+  }
+
+  /**
+   * Coarsest resolution that still resolves the shape of an inclusive date range: daily up to two
+   * months, weekly up to a year and monthly beyond. Hourly buckets are only returned on request.
+   */
+  public static StepResolution forRange(LocalDate fromDate, LocalDate toDate) {
+    long days = ChronoUnit.DAYS.between(fromDate, toDate) + 1;
+    if (days <= MAX_DAILY_RANGE_DAYS) {
+      return DAILY;
+    }
+    return days <= MAX_WEEKLY_RANGE_DAYS ? WEEKLY : MONTHLY;
+  }
+}
@@ -0,0 +1,74 @@
+package com.guardianes.walking.domain;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/** Total steps of a guardian within one bucket of a given resolution. */
+public class StepRollup {
+  private final Long guardianId;
+  private final StepResolution resolution;
+  private final LocalDateTime periodStart;
+  private final int totalSteps;
+
+  public StepRollup(
+      Long guardianId, StepResolution resolution, LocalDateTime periodStart, int totalSteps) {
+    this.guardianId = guardianId;
+    this.resolution = resolution;
+    this.periodStart = periodStart;
+    this.totalSteps = totalSteps;
+  }
+
+  public static StepRollup fromDailyAggregate(DailyStepAggregate aggregate) {
+    return new StepRollup(
+        aggregate.getGuardianId(),
+        StepResolution.DAILY,
+        aggregate.getDate().atStartOfDay(),
+        aggregate.getTotalSteps());
+  }
+
+  public Long getGuardianId() {
+    return guardianId;
+  }
+
+  public StepResolution getResolution() {
+    return resolution;
+  }
+
+  public LocalDateTime getPeriodStart() {
+    return periodStart;
+  }
+
+  public int getTotalSteps() {
+    return totalSteps;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (o == null || getClass() != o.getClass()) return false;
+    StepRollup that = (StepRollup) o;
+    return totalSteps == that.totalSteps
+        && Objects.equals(guardianId, that.guardianId)
+        && resolution == that.resolution
+        && Objects.equals(periodStart, that.periodStart);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(guardianId, resolution, periodStart, totalSteps);
+  }
+
+  @Override
+  public String toString() {
+    return "StepRollup{"
+        + "guardianId="
+        + guardianId
+        + ", resolution="
+        + resolution
+        + ", periodStart="
+        + periodStart
+        + ", totalSteps="
+        + totalSteps
+        + '}';
+  }
+}
@@ -5,10 +5,17 @@ import io.micrometer.core.instrument.Timer;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.IntSupplier;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 @Component
 public class StepValidationService {
@@ -17,16 +24,22 @@ public class StepValidationService {
   private final StepRepository stepRepository;
   private final AnomalyDetectionService anomalyDetectionService;
   private final BusinessMetricsService metricsService;
+  private final SubmissionRateLimiter submissionRateLimiter;
+  private final StepIngestionQueue stepIngestionQueue;
   private static final int MAX_DAILY_STEPS = 50000;
-  private static final int MAX_SUBMISSIONS_PER_HOUR = 100;
 
   public StepValidationService(
       StepRepository stepRepository,
       AnomalyDetectionService anomalyDetectionService,
-      BusinessMetricsService metricsService) {
+      BusinessMetricsService metricsService,
+      SubmissionRateLimiter submissionRateLimiter,
+      ObjectProvider<StepIngestionQueue> stepIngestionQueue) {
     this.stepRepository = stepRepository;
     this.anomalyDetectionService = anomalyDetectionService;
     this.metricsService = metricsService;
+    this.submissionRateLimiter = submissionRateLimiter;
+    // Only present when write-behind ingestion is enabled
+    this.stepIngestionQueue = stepIngestionQueue.getIfAvailable();
   }
 
   public StepValidationResult validateStepCount(
@@ -36,56 +49,131 @@ public class StepValidationService {
         "Validating step count for guardian {}: {} steps at {}", guardianId, stepCount, timestamp);
 
     try {
-      if (stepCount < 0) {
-        logger.warn("Invalid step count for guardian {}: negative value {}", guardianId, stepCount);
-        metricsService.recordStepValidationFailure(guardianId, "negative_value");
-        return StepValidationResult.invalid("Step count cannot be negative");
-      }
-
-      if (stepCount > MAX_DAILY_STEPS) {
-        logger.warn(
-            "Step count exceeds daily maximum for guardian {}: {} > {}",
-            guardianId,
-            stepCount,
-            MAX_DAILY_STEPS);
-        metricsService.recordStepValidationFailure(guardianId, "exceeds_daily_maximum");
-        return StepValidationResult.invalid("Step count exceeds daily maximum (50000)");
-      }
+      return checkStepCount(
+          guardianId,
+          stepCount,
+          timestamp,
+          () -> findDailyTotal(guardianId, timestamp.toLocalDate()));
+    } finally {
+      metricsService.endStepValidation(validationTimer);
+    }
+  }
 
-      List<StepRecord> todaySteps =
-          stepRepository.findByGuardianIdAndDate(guardianId, timestamp.toLocalDate());
-      int currentDailyTotal = todaySteps.stream().mapToInt(StepRecord::getStepCount).sum();
-      logger.debug("Current daily total for guardian {}: {} steps", guardianId, currentDailyTotal);
-
-      if (currentDailyTotal + stepCount > MAX_DAILY_STEPS) {
-        logger.warn(
-            "Daily step count would exceed maximum for guardian {}: {} + {} > {}",
-            guardianId,
-            currentDailyTotal,
-            stepCount,
-            MAX_DAILY_STEPS);
-        metricsService.recordStepValidationFailure(guardianId, "daily_total_exceeded");
-        return StepValidationResult.invalid(
-            "Daily step count would exceed maximum allowed (50000)");
-      }
+  /**
+   * Validates a batch of samples against a single snapshot of the guardian's daily totals. Each
+   * day's total is read at most once; samples accepted earlier in the batch count towards the daily
+   * maximum of later ones, exactly as if they had been submitted one by one.
+   *
+   * @return one result per sample, in the same order
+   */
+  public List<StepValidationResult> validateStepBatch(Long guardianId, List<StepRecord> samples) {
+    Timer.Sample validationTimer = metricsService.startStepValidation();
+    logger.debug("Validating batch of {} step samples for guardian {}", samples.size(), guardianId);
 
-      if (anomalyDetectionService.isAnomalous(guardianId, stepCount, timestamp)) {
-        logger.warn(
-            "Anomalous step count detected for guardian {}: {} steps", guardianId, stepCount);
-        metricsService.recordAnomalousSteps(guardianId, stepCount, "anomaly_detection_triggered");
-        return StepValidationResult.invalid(
-            "Step count appears anomalous and requires verification");
+    try {
+      Map<LocalDate, Integer> dailyTotals = new HashMap<>();
+      List<StepValidationResult> results = new ArrayList<>(samples.size());
+      for (StepRecord sample : samples) {
+        LocalDate date = sample.getTimestamp().toLocalDate();
+        StepValidationResult result =
+            checkStepCount(
+                guardianId,
+                sample.getStepCount(),
+                sample.getTimestamp(),
+                () -> dailyTotals.computeIfAbsent(date, d -> findDailyTotal(guardianId, d)));
+        if (result.isValid()) {
+          dailyTotals.merge(date, sample.getStepCount(), Integer::sum);
+        }
+        results.add(result);
       }
-
-      logger.debug(
-          "Step count validation successful for guardian {}: {} steps", guardianId, stepCount);
-      metricsService.recordStepSubmission(guardianId, stepCount);
-      return StepValidationResult.valid();
+      return results;
     } finally {
       metricsService.endStepValidation(validationTimer);
     }
   }
 
+  private StepValidationResult checkStepCount(
+      Long guardianId, int stepCount, LocalDateTime timestamp, IntSupplier dailyTotal) {
+    if (stepCount < 0) {
+      logger.warn("Invalid step count for guardian {}: negative value {}", guardianId, stepCount);
+      metricsService.recordStepValidationFailure(guardianId, "negative_value");
+      return StepValidationResult.invalid("Step count cannot be negative");
+    }
+
+    if (stepCount > MAX_DAILY_STEPS) {
+      logger.warn(
+          "Step count exceeds daily maximum for guardian {}: {} > {}",
+          guardianId,
+          stepCount,
+          MAX_DAILY_STEPS);
+      metricsService.recordStepValidationFailure(guardianId, "exceeds_daily_maximum");
+      return StepValidationResult.invalid("Step count exceeds daily maximum (50000)");
+    }
+
+    int currentDailyTotal = dailyTotal.getAsInt();
+    logger.debug("Current daily total for guardian {}: {} steps", guardianId, currentDailyTotal);
+
+    if (currentDailyTotal + stepCount > MAX_DAILY_STEPS) {
+      logger.warn(
+          "Daily step count would exceed maximum for guardian {}: {} + {} > {}",
+          guardianId,
+          currentDailyTotal,
+          stepCount,
+          MAX_DAILY_STEPS);
+      metricsService.recordStepValidationFailure(guardianId, "daily_total_exceeded");
+      return StepValidationResult.invalid("Daily step count would exceed maximum allowed (50000)");
+    }
+
+    if (anomalyDetectionService.isAnomalous(guardianId, stepCount, timestamp)) {
+      logger.warn("Anomalous step count detected for guardian {}: {} steps", guardianId, stepCount);
+      metricsService.recordAnomalousSteps(guardianId, stepCount, "anomaly_detection_triggered");
+      return StepValidationResult.invalid("Step count appears anomalous and requires verification");
+    }
+
+    logger.debug(
+        "Step count validation successful for guardian {}: {} steps", guardianId, stepCount);
+    metricsService.recordStepSubmission(guardianId, stepCount);
+    return StepValidationResult.valid();
+  }
+
+  /**
+   * Feeds submissions that have been saved into the guardian's anomaly statistics. Inside a
+   * transaction the statistics are only updated once it commits, so a submission that is rate
+   * limited or rolled back after passing validation never shifts the guardian's baseline.
+   */
+  public void recordAccepted(List<StepRecord> stepRecords) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      feedAnomalyStatistics(stepRecords);
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(
+        new TransactionSynchronization() {
+          @Override
+          public void afterCommit() {
+            feedAnomalyStatistics(stepRecords);
+          }
+        });
+  }
+
+  private void feedAnomalyStatistics(List<StepRecord> stepRecords) {
+    for (StepRecord stepRecord : stepRecords) {
+      anomalyDetectionService.recordAccepted(
+          stepRecord.getGuardianId(), stepRecord.getStepCount(), stepRecord.getTimestamp());
+    }
+  }
+
+  /** The stored daily total plus any steps accepted into the write-behind queue but not flushed. */
+  private int findDailyTotal(Long guardianId, LocalDate date) {
+    int storedTotal =
+        stepRepository
+            .findDailyAggregate(guardianId, date)
+            .map(DailyStepAggregate::getTotalSteps)
+            .orElse(0);
+    return stepIngestionQueue != null
+        ? storedTotal + stepIngestionQueue.pendingSteps(guardianId, date)
+        : storedTotal;
+  }
+
   public boolean isReasonableIncrement(
       Long guardianId,
       int previousSteps,
@@ -102,46 +190,21 @@ public class StepValidationService {
     return stepIncrement <= maxReasonableSteps;
   }
 
+  /**
+   * Compares the guardian's stored total for the day with their usual daily totals. This reads a
+   * single aggregate; the history lives in the anomaly detector's running statistics.
+   */
   public boolean hasStepCountSpike(Long guardianId, LocalDate date) {
-    List<StepRecord> recentSteps =
-        stepRepository.findByGuardianIdAndDateRange(guardianId, date.minusDays(7), date);
-
-    if (recentSteps.size() < 2) return false;
-
-    // Calculate average of previous days
-    double averageSteps =
-        recentSteps.stream()
-            .filter(step -> !step.getTimestamp().toLocalDate().equals(date))
-            .mapToInt(StepRecord::getStepCount)
-            .average()
-            .orElse(0.0);
-
-    // Check if today's steps are more than 10x the average
-    int todaySteps =
-        recentSteps.stream()
-            .filter(step -> step.getTimestamp().toLocalDate().equals(date))
-            .mapToInt(StepRecord::getStepCount)
-            .sum();
-
-    return todaySteps > averageSteps * 10;
+    return anomalyDetectionService.isDailySpike(guardianId, date, findDailyTotal(guardianId, date));
   }
 
-  public boolean isWithinSubmissionRateLimit(Long guardianId, LocalDateTime timestamp) {
-    int submissionsInLastHour = stepRepository.countSubmissionsInLastHour(guardianId, timestamp);
-    boolean withinLimit = submissionsInLastHour < MAX_SUBMISSIONS_PER_HOUR;
+  /** Checks the submission rate limit and, when within it, counts this submission. */
+  public boolean isWithinSubmissionRateLimit(Long guardianId) {
+    boolean withinLimit = submissionRateLimiter.tryAcquire(guardianId);
 
     if (!withinLimit) {
-      logger.warn(
-          "Rate limit exceeded for guardian {}: {} submissions in last hour (limit: {})",
-          guardianId,
-          submissionsInLastHour,
-          MAX_SUBMISSIONS_PER_HOUR);
+      logger.warn("Submission rate limit exceeded for guardian {}", guardianId);
       metricsService.recordRateLimitExceeded(guardianId, "step_submission");
-    } else {
-      logger.debug(
-          "Guardian {} within rate limit: {} submissions in last hour",
-          guardianId,
-          submissionsInLastHour);
     }
 
     return withinLimit;
@@ -0,0 +1,12 @@
+package com.guardianes.walking.domain;
+
+/** Limits how often a guardian may submit steps within a sliding time window. */
+public interface SubmissionRateLimiter {
+
+  /**
+   * Records a submission for the guardian if it still fits in the current window.
+   *
+   * @return {@code true} if the submission is allowed, {@code false} if the limit is reached
+   */
+  boolean tryAcquire(Long guardianId);
+}
@@ -0,0 +1,310 @@
+package com.guardianes.walking.infrastructure.ingestion;
+
+import com.guardianes.shared.infrastructure.metrics.BusinessMetricsService;
+import com.guardianes.walking.domain.AnomalyDetectionService;
+import com.guardianes.walking.domain.EnergyCalculationService;
+import com.guardianes.walking.domain.EnergyRepository;
+import com.guardianes.walking.domain.EnergyTransaction;
+import com.guardianes.walking.domain.EnergyTransactionType;
+import com.guardianes.walking.domain.StepIngestionQueue;
+import com.guardianes.walking.domain.StepRecord;
+import com.guardianes.walking.domain.StepRepository;
+import io.micrometer.core.instrument.Timer;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Write-behind step ingestion. Validated submissions are acknowledged as soon as they are queued; a
+ * single background thread drains the bounded queue every flush interval and persists the records
+ * with batched inserts, one aggregate update per guardian and day and one energy transaction per
+ * guardian and day. A failed batch is retried on the next flushes; once it has failed the maximum
+ * number of attempts its records are saved one by one and any record that still fails is logged as
+ * dead-lettered and dropped, so one bad record cannot stall the queue. A full queue pushes back on
+ * callers instead of growing. Steps stay reserved against the guardian's daily total from the
+ * moment they are queued until they are flushed, so the daily maximum also covers records that are
+ * not stored yet. On shutdown the queue stops accepting records and is drained before the
+ * datasource closes.
+ */
+@Component
+@ConditionalOnProperty(name = "guardianes.walking.ingestion.mode", havingValue = "async")
+public class WriteBehindStepIngestionQueue implements StepIngestionQueue, SmartLifecycle {
+  private static final Logger logger = LoggerFactory.getLogger(WriteBehindStepIngestionQueue.class);
+
+  private final StepRepository stepRepository;
+  private final EnergyRepository energyRepository;
+  private final EnergyCalculationService energyCalculationService;
+  private final AnomalyDetectionService anomalyDetectionService;
+  private final BusinessMetricsService metricsService;
+  private final TransactionTemplate transactionTemplate;
+  private final BlockingQueue<StepRecord> queue;
+  private final int maxBatchSize;
+  private final long flushIntervalMillis;
+  private final long shutdownTimeoutMillis;
+  private final int maxFlushAttempts;
+
+  private final Map<GuardianDay, Integer> reservedSteps = new ConcurrentHashMap<>();
+  private final List<StepRecord> pendingBatch = new ArrayList<>();
+  private int failedFlushes;
+  private ScheduledExecutorService flusher;
+  private volatile boolean running;
+
+  public WriteBehindStepIngestionQueue(
+      StepRepository stepRepository,
+      EnergyRepository energyRepository,
+      EnergyCalculationService energyCalculationService,
+      AnomalyDetectionService anomalyDetectionService,
+      BusinessMetricsService metricsService,
+      PlatformTransactionManager transactionManager,
+      @Value("${guardianes.walking.ingestion.queue-capacity:10000}") int queueCapacity,
+      @Value("${guardianes.walking.ingestion.max-batch-size:500}") int maxBatchSize,
+      @Value("${guardianes.walking.ingestion.flush-interval-ms:200}") long flushIntervalMillis,
+      @Value("${guardianes.walking.ingestion.shutdown-timeout-ms:30000}")
+          long shutdownTimeoutMillis,
+      @Value("${guardianes.walking.ingestion.max-flush-attempts:3}") int maxFlushAttempts) {
+    this.stepRepository = stepRepository;
+    this.energyRepository = energyRepository;
+    this.energyCalculationService = energyCalculationService;
+    this.anomalyDetectionService = anomalyDetectionService;
+    this.metricsService = metricsService;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    this.maxBatchSize = maxBatchSize;
+    this.flushIntervalMillis = flushIntervalMillis;
+    this.shutdownTimeoutMillis = shutdownTimeoutMillis;
+    this.maxFlushAttempts = maxFlushAttempts;
+    metricsService.registerStepIngestionQueue(queue);
+  }
+
+  @Override
+  public boolean offer(StepRecord stepRecord) {
+    if (!running) {
+      metricsService.recordStepIngestionRejected();
+      return false;
+    }
+    // Reserve before queueing so the flusher can never release steps that were not reserved yet
+    reserve(stepRecord);
+    if (!queue.offer(stepRecord)) {
+      release(List.of(stepRecord));
+      metricsService.recordStepIngestionRejected();
+      return false;
+    }
+    return true;
+  }
+
+  @Override
+  public int pendingSteps(Long guardianId, LocalDate date) {
+    return reservedSteps.getOrDefault(new GuardianDay(guardianId, date), 0);
+  }
+
+  @Override
+  public void start() {
+    flusher =
+        Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, "step-ingestion-flusher");
+              thread.setDaemon(true);
+              return thread;
+            });
+    flusher.scheduleWithFixedDelay(
+        this::flushSafely, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+    running = true;
+    logger.info(
+        "Step write-behind ingestion started (capacity {}, batch {}, interval {} ms)",
+        queue.remainingCapacity(),
+        maxBatchSize,
+        flushIntervalMillis);
+  }
+
+  @Override
+  public void stop() {
+    running = false;
+    flusher.shutdown();
+    try {
+      if (!flusher.awaitTermination(shutdownTimeoutMillis, TimeUnit.MILLISECONDS)) {
+        logger.warn("Step ingestion flusher did not finish within {} ms", shutdownTimeoutMillis);
+        flusher.shutdownNow();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+
+    // Nothing can be enqueued any more; drain what is left on the stopping thread
+    long deadline = System.currentTimeMillis() + shutdownTimeoutMillis;
+    while ((!queue.isEmpty() || !pendingBatch.isEmpty()) && System.currentTimeMillis() < deadline) {
+      flushBatch();
+    }
+    if (!queue.isEmpty() || !pendingBatch.isEmpty()) {
+      logger.error(
+          "Step ingestion stopped with {} unpersisted step records",
+          queue.size() + pendingBatch.size());
+    } else {
+      logger.info("Step ingestion queue drained");
+    }
+  }
+
+  @Override
+  public boolean isRunning() {
+    return running;
+  }
+
+  /** Stops after the web server has stopped taking requests and starts before it. */
+  @Override
+  public int getPhase() {
+    return 0;
+  }
+
+  private void flushSafely() {
+    try {
+      // Keep draining while full batches are waiting so a burst does not wait several intervals
+      while (flushBatch() && pendingBatch.isEmpty() && queue.size() >= maxBatchSize) {
+        logger.debug("Step ingestion backlog of {} records, flushing again", queue.size());
+      }
+    } catch (RuntimeException e) {
+      logger.error("Unexpected error in step ingestion flusher", e);
+    }
+  }
+
+  /**
+   * Persists the pending batch, topping it up from the queue first. Only called from the flusher
+   * thread, or from {@link #stop()} once that thread has terminated.
+   *
+   * @return {@code false} if the batch could not be persisted and will be retried; {@code true}
+   *     once it has been persisted or, after its last attempt, saved record by record
+   */
+  synchronized boolean flushBatch() {
+    if (pendingBatch.isEmpty()) {
+      queue.drainTo(pendingBatch, maxBatchSize);
+    }
+    if (pendingBatch.isEmpty()) {
+      return true;
+    }
+
+    Timer.Sample flushTimer = metricsService.startStepIngestionFlush();
+    int batchSize = pendingBatch.size();
+    try {
+      // A copy, since the pending batch is cleared once it is flushed
+      List<StepRecord> batch = List.copyOf(pendingBatch);
+      transactionTemplate.executeWithoutResult(status -> persist(batch));
+      recordAccepted(pendingBatch);
+      metricsService.endStepIngestionFlush(flushTimer, batchSize, true);
+      logger.debug("Flushed {} queued step records", batchSize);
+    } catch (RuntimeException e) {
+      metricsService.endStepIngestionFlush(flushTimer, batchSize, false);
+      if (++failedFlushes < maxFlushAttempts) {
+        logger.error(
+            "Failed to flush {} step records (attempt {} of {}), retrying next interval",
+            batchSize,
+            failedFlushes,
+            maxFlushAttempts,
+            e);
+        return false;
+      }
+      logger.error(
+          "Failed to flush {} step records after {} attempts, saving them one by one",
+          batchSize,
+          failedFlushes,
+          e);
+      pendingBatch.forEach(this::persistIndividually);
+    }
+    release(pendingBatch);
+    pendingBatch.clear();
+    failedFlushes = 0;
+    return true;
+  }
+
+  private void persistIndividually(StepRecord stepRecord) {
+    try {
+      transactionTemplate.executeWithoutResult(status -> persist(List.of(stepRecord)));
+      recordAccepted(List.of(stepRecord));
+    } catch (RuntimeException e) {
+      metricsService.recordStepIngestionDeadLettered();
+      logger.error(
+          "Dead-lettering step record for guardian {}: {} steps at {}",
+          stepRecord.getGuardianId(),
+          stepRecord.getStepCount(),
+          stepRecord.getTimestamp(),
+          e);
+    }
+  }
+
+  /** Feeds committed records into the anomaly statistics, as synchronous submissions do. */
+  private void recordAccepted(List<StepRecord> records) {
+    for (StepRecord stepRecord : records) {
+      anomalyDetectionService.recordAccepted(
+          stepRecord.getGuardianId(), stepRecord.getStepCount(), stepRecord.getTimestamp());
+    }
+  }
+
+  private void reserve(StepRecord stepRecord) {
+    reservedSteps.merge(GuardianDay.of(stepRecord), stepRecord.getStepCount(), Integer::sum);
+  }
+
+  private void release(List<StepRecord> records) {
+    for (StepRecord stepRecord : records) {
+      reservedSteps.computeIfPresent(
+          GuardianDay.of(stepRecord),
+          (key, steps) -> {
+            int remaining = steps - stepRecord.getStepCount();
+            return remaining > 0 ? remaining : null;
+          });
+    }
+  }
+
+  private void persist(List<StepRecord> batch) {
+    stepRepository.saveAll(batch);
+
+    Map<Long, Map<LocalDate, Integer>> energyByGuardianAndDate = new HashMap<>();
+    Map<Long, Map<LocalDate, LocalDateTime>> lastTimestamps = new HashMap<>();
+    for (StepRecord stepRecord : batch) {
+      LocalDate date = stepRecord.getTimestamp().toLocalDate();
+      energyByGuardianAndDate
+          .computeIfAbsent(stepRecord.getGuardianId(), guardianId -> new HashMap<>())
+          .merge(
+              date,
+              energyCalculationService.calculateEnergyFromSteps(stepRecord.getStepCount()),
+              Integer::sum);
+      lastTimestamps
+          .computeIfAbsent(stepRecord.getGuardianId(), guardianId -> new HashMap<>())
+          .merge(date, stepRecord.getTimestamp(), (a, b) -> a.isAfter(b) ? a : b);
+    }
+
+    energyByGuardianAndDate.forEach(
+        (guardianId, energyByDate) ->
+            energyByDate.forEach(
+                (date, energy) -> {
+                  if (energy > 0) {
+                    energyRepository.saveTransaction(
+                        new EnergyTransaction(
+                            guardianId,
+                            EnergyTransactionType.EARNED,
+                            energy,
+                            "Steps",
+                            lastTimestamps.get(guardianId).get(date)));
+                  }
+                }));
+  }
+
+  private record GuardianDay(Long guardianId, LocalDate date) {
+    static GuardianDay of(StepRecord stepRecord) {
+      return new GuardianDay(stepRecord.getGuardianId(), stepRecord.getTimestamp().toLocalDate());
+    }
+  }
+}
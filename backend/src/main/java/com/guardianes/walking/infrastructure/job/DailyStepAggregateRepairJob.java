@@ -0,0 +1,116 @@
+package com.guardianes.walking.infrastructure.job;
+
+import com.guardianes.walking.infrastructure.persistence.entity.DailyStepAggregateEntity;
+import com.guardianes.walking.infrastructure.persistence.repository.DailyStepAggregateJpaRepository;
+import com.guardianes.walking.infrastructure.persistence.repository.StepRecordJpaRepository;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Rebuilds daily_step_aggregates from the raw step_records. Aggregates are maintained at write time
+ * by the step repository, so this job only backfills historical data and repairs drift. Guardians
+ * are processed in chunks, each chunk in its own transaction, to keep lock time and memory bounded.
+ */
+@Component
+public class DailyStepAggregateRepairJob {
+  private static final Logger logger = LoggerFactory.getLogger(DailyStepAggregateRepairJob.class);
+
+  private final StepRecordJpaRepository stepRecordJpaRepository;
+  private final DailyStepAggregateJpaRepository dailyStepAggregateJpaRepository;
+  private final TransactionTemplate transactionTemplate;
+  private final boolean enabled;
+  private final int chunkSize;
+  private final int lookbackDays;
+
+  public DailyStepAggregateRepairJob(
+      StepRecordJpaRepository stepRecordJpaRepository,
+      DailyStepAggregateJpaRepository dailyStepAggregateJpaRepository,
+      PlatformTransactionManager transactionManager,
+      @Value("${guardianes.walking.aggregate-repair.enabled:false}") boolean enabled,
+      @Value("${guardianes.walking.aggregate-repair.chunk-size:500}") int chunkSize,
+      @Value("${guardianes.walking.aggregate-repair.lookback-days:2}") int lookbackDays) {
+    this.stepRecordJpaRepository = stepRecordJpaRepository;
+    this.dailyStepAggregateJpaRepository = dailyStepAggregateJpaRepository;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.enabled = enabled;
+    this.chunkSize = chunkSize;
+    this.lookbackDays = lookbackDays;
+  }
+
+  @Scheduled(cron = "${guardianes.walking.aggregate-repair.cron:0 30 3 * * *}")
+  public void repairRecentAggregates() {
+    if (!enabled) {
+      return;
+    }
+    // Today's aggregates are still being incremented by submissions, which an overwrite would lose
+    LocalDate yesterday = LocalDate.now().minusDays(1);
+    rebuild(yesterday.minusDays(lookbackDays - 1), yesterday);
+  }
+
+  /**
+   * Recomputes the aggregates of every guardian with step records between the given dates
+   * (inclusive) and overwrites the stored totals. Days without raw records are left untouched.
+   * Increments made by submissions while a chunk is rebuilt are overwritten, so the range should
+   * not include days that still receive submissions.
+   *
+   * @return the number of daily aggregates written
+   */
+  public int rebuild(LocalDate fromDate, LocalDate toDate) {
+    LocalDateTime from = fromDate.atStartOfDay();
+    LocalDateTime to = toDate.plusDays(1).atStartOfDay();
+    logger.info("Rebuilding daily step aggregates from {} to {}", fromDate, toDate);
+
+    long lastGuardianId = 0L;
+    int rebuilt = 0;
+    while (true) {
+      List<Long> guardianIds =
+          stepRecordJpaRepository.findGuardianIdsWithRecordsAfter(
+              lastGuardianId, from, to, PageRequest.of(0, chunkSize));
+      if (guardianIds.isEmpty()) {
+        break;
+      }
+
+      Integer written = transactionTemplate.execute(status -> rebuildChunk(guardianIds, from, to));
+      rebuilt += written != null ? written : 0;
+      lastGuardianId = guardianIds.get(guardianIds.size() - 1);
+      logger.debug("Rebuilt aggregates up to guardian {} ({} so far)", lastGuardianId, rebuilt);
+    }
+
+    logger.info("Rebuilt {} daily step aggregates from {} to {}", rebuilt, fromDate, toDate);
+    return rebuilt;
+  }
+
+  private int rebuildChunk(List<Long> guardianIds, LocalDateTime from, LocalDateTime to) {
+    List<Object[]> dailyTotals =
+        stepRecordJpaRepository.sumDailyStepsByGuardianIds(guardianIds, from, to);
+
+    for (Object[] row : dailyTotals) {
+      Long guardianId = (Long) row[0];
+      LocalDate date = toLocalDate(row[1]);
+      int totalSteps = ((Number) row[2]).intValue();
+
+      DailyStepAggregateEntity aggregate =
+          dailyStepAggregateJpaRepository
+              .findByGuardianIdAndDate(guardianId, date)
+              .orElseGet(() -> new DailyStepAggregateEntity(guardianId, date, 0));
+      aggregate.setTotalSteps(totalSteps);
+      dailyStepAggregateJpaRepository.save(aggregate);
+    }
+    return dailyTotals.size();
+  }
+
+  private LocalDate toLocalDate(Object value) {
+    // CAST(... AS date) is returned as java.sql.Date or LocalDate depending on the dialect
+    return value instanceof Date sqlDate ? sqlDate.toLocalDate() : (LocalDate) value;
+  }
+}
@@ -0,0 +1,315 @@
+package com.guardianes.walking.infrastructure.job;
+
+import com.guardianes.shared.infrastructure.metrics.BusinessMetricsService;
+import com.guardianes.walking.domain.EnergyCalculationService;
+import com.guardianes.walking.domain.EnergyRepository;
+import io.micrometer.core.instrument.Timer;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Converts each active guardian's steps of a day into energy. Active guardian ids are split into
+ * ranges that a pool of workers converts in parallel, each range in its own transaction: the day's
+ * totals are read from daily_step_aggregates in one query and credited as EARNED transactions with
+ * the source {@code DAILY_STEPS} in JDBC batches, instead of one aggregation and one write per
+ * guardian.
+ *
+ * <p>Progress is checkpointed per day in energy_conversion_checkpoints: once a range and every
+ * range before it have committed, the checkpoint advances past it, so a failed run resumes after
+ * the last contiguous range. Guardians already credited for the day are skipped, so the ranges
+ * after the checkpoint that had committed before the failure are not credited twice; the unique key
+ * on (guardian_id, credit_date, source) of energy_transactions rejects any credit that slips
+ * through. A run holds a lease on the day's checkpoint row, renewed with every checkpoint, so
+ * instances running the job at the same time do not convert the same day.
+ *
+ * <p>Step submissions already credit their energy as they are recorded, under the source {@code
+ * Steps}. That energy is subtracted from the day's, so the job only credits what rounding the
+ * individual submissions left out, or the whole day where submissions do not credit energy. The job
+ * is disabled by default.
+ */
+@Component
+public class DailyStepEnergyConversionJob {
+  private static final Logger logger = LoggerFactory.getLogger(DailyStepEnergyConversionJob.class);
+
+  static final String SOURCE = "DAILY_STEPS";
+
+  // The source of the energy credited as each step submission is recorded
+  static final String SUBMISSION_SOURCE = "Steps";
+
+  private final EnergyRepository energyRepository;
+  private final EnergyCalculationService energyCalculationService;
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final BusinessMetricsService metricsService;
+  private final boolean enabled;
+  private final int chunkSize;
+  private final int workers;
+  private final Duration lease;
+
+  public DailyStepEnergyConversionJob(
+      EnergyRepository energyRepository,
+      EnergyCalculationService energyCalculationService,
+      JdbcTemplate jdbcTemplate,
+      PlatformTransactionManager transactionManager,
+      BusinessMetricsService metricsService,
+      @Value("${guardianes.walking.energy-conversion.enabled:false}") boolean enabled,
+      @Value("${guardianes.walking.energy-conversion.chunk-size:1000}") int chunkSize,
+      @Value("${guardianes.walking.energy-conversion.workers:4}") int workers,
+      @Value("${guardianes.walking.energy-conversion.lease-minutes:30}") long leaseMinutes) {
+    this.energyRepository = energyRepository;
+    this.energyCalculationService = energyCalculationService;
+    this.jdbcTemplate = jdbcTemplate;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.metricsService = metricsService;
+    this.enabled = enabled;
+    this.chunkSize = chunkSize;
+    this.workers = workers;
+    this.lease = Duration.ofMinutes(leaseMinutes);
+  }
+
+  @Scheduled(cron = "${guardianes.walking.energy-conversion.cron:0 15 0 * * *}")
+  public void convertYesterday() {
+    if (!enabled) {
+      return;
+    }
+    convert(LocalDate.now().minusDays(1));
+  }
+
+  /**
+   * Credits the energy earned by the steps of {@code date} to every active guardian not yet
+   * credited for that day, resuming from the day's checkpoint. Returns without converting anything
+   * while another instance holds the day's lease.
+   *
+   * @return the number of guardians credited by this run
+   */
+  public int convert(LocalDate date) {
+    createCheckpoint(date);
+    String owner = UUID.randomUUID().toString();
+    if (!acquireLease(date, owner)) {
+      logger.info("Daily steps of {} are being converted by another instance", date);
+      return 0;
+    }
+    try {
+      Map<String, Object> checkpoint =
+          jdbcTemplate.queryForMap(
+              "SELECT converted_through_guardian_id, completed FROM energy_conversion_checkpoints"
+                  + " WHERE conversion_date = ?",
+              Date.valueOf(date));
+      if (Boolean.TRUE.equals(checkpoint.get("completed"))) {
+        logger.info("Daily steps of {} were already converted to energy", date);
+        return 0;
+      }
+      long convertedThrough =
+          ((Number) checkpoint.get("converted_through_guardian_id")).longValue();
+      Map<String, Object> range =
+          jdbcTemplate.queryForMap(
+              "SELECT MIN(id) AS first_id, MAX(id) AS last_id FROM guardians"
+                  + " WHERE active = TRUE AND id > ?",
+              convertedThrough);
+
+      int credited = 0;
+      if (range.get("first_id") != null) {
+        credited =
+            convertRange(
+                date,
+                owner,
+                ((Number) range.get("first_id")).longValue(),
+                ((Number) range.get("last_id")).longValue());
+      }
+      jdbcTemplate.update(
+          "UPDATE energy_conversion_checkpoints SET completed = TRUE, updated_at = ?"
+              + " WHERE conversion_date = ? AND locked_by = ?",
+          Timestamp.valueOf(LocalDateTime.now()),
+          Date.valueOf(date),
+          owner);
+      logger.info("Converted daily steps of {} to energy for {} guardians", date, credited);
+      return credited;
+    } finally {
+      releaseLease(date, owner);
+    }
+  }
+
+  private int convertRange(LocalDate date, String owner, long firstId, long lastId) {
+    ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, workers));
+    try {
+      List<long[]> chunks = new ArrayList<>();
+      List<Future<Integer>> results = new ArrayList<>();
+      for (long start = firstId; start <= lastId; start += chunkSize) {
+        long from = start;
+        long to = Math.min(start + chunkSize - 1, lastId);
+        chunks.add(new long[] {from, to});
+        results.add(executor.submit(() -> convertChunk(date, from, to)));
+      }
+
+      // Chunks complete out of order; the checkpoint only advances over a contiguous prefix
+      int credited = 0;
+      for (int index = 0; index < chunks.size(); index++) {
+        int chunk = await(results.get(index));
+        credited += chunk;
+        saveCheckpoint(date, owner, chunks.get(index)[1], chunk);
+      }
+      return credited;
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private int convertChunk(LocalDate date, long fromGuardianId, long toGuardianId) {
+    Timer.Sample sample = metricsService.startEnergyConversionChunk();
+    Integer credited =
+        transactionTemplate.execute(
+            status -> {
+              Map<Long, Integer> energyByGuardian =
+                  findUnconvertedEnergy(date, fromGuardianId, toGuardianId);
+              if (!energyByGuardian.isEmpty()) {
+                energyRepository.creditEnergy(
+                    energyByGuardian, SOURCE, date, date.atTime(23, 59, 59));
+              }
+              return energyByGuardian.size();
+            });
+    int chunk = credited != null ? credited : 0;
+    metricsService.endEnergyConversionChunk(sample, chunk);
+    logger.debug(
+        "Converted daily steps of {} for guardians {}-{}: {} credited",
+        date,
+        fromGuardianId,
+        toGuardianId,
+        chunk);
+    return chunk;
+  }
+
+  private Map<Long, Integer> findUnconvertedEnergy(
+      LocalDate date, long fromGuardianId, long toGuardianId) {
+    Map<Long, Integer> energyByGuardian = new LinkedHashMap<>();
+    jdbcTemplate.query(
+        "SELECT d.guardian_id, d.total_steps, (SELECT COALESCE(SUM(s.amount), 0)"
+            + " FROM energy_transactions s WHERE s.guardian_id = d.guardian_id"
+            + " AND s.source = ? AND s.transaction_type = 'EARNED'"
+            + " AND s.recorded_at >= ? AND s.recorded_at < ?) AS submitted_energy"
+            + " FROM daily_step_aggregates d JOIN guardians g ON g.id = d.guardian_id"
+            + " WHERE d.date = ? AND d.guardian_id BETWEEN ? AND ? AND g.active = TRUE"
+            + " AND NOT EXISTS (SELECT 1 FROM energy_transactions t"
+            + " WHERE t.guardian_id = d.guardian_id AND t.credit_date = ? AND t.source = ?)"
+            + " ORDER BY d.guardian_id",
+        (RowCallbackHandler)
+            rs -> {
+              int energy =
+                  energyCalculationService.calculateEnergyFromSteps(rs.getInt("total_steps"))
+                      - rs.getInt("submitted_energy");
+              if (energy > 0) {
+                energyByGuardian.put(rs.getLong("guardian_id"), energy);
+              }
+            },
+        SUBMISSION_SOURCE,
+        Timestamp.valueOf(date.atStartOfDay()),
+        Timestamp.valueOf(date.plusDays(1).atStartOfDay()),
+        Date.valueOf(date),
+        fromGuardianId,
+        toGuardianId,
+        Date.valueOf(date),
+        SOURCE);
+    return energyByGuardian;
+  }
+
+  private void createCheckpoint(LocalDate date) {
+    Integer existing =
+        jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM energy_conversion_checkpoints WHERE conversion_date = ?",
+            Integer.class,
+            Date.valueOf(date));
+    if (existing != null && existing > 0) {
+      return;
+    }
+    try {
+      jdbcTemplate.update(
+          "INSERT INTO energy_conversion_checkpoints"
+              + " (conversion_date, converted_through_guardian_id, guardians_credited, completed,"
+              + " updated_at) VALUES (?, 0, 0, FALSE, ?)",
+          Date.valueOf(date),
+          Timestamp.valueOf(LocalDateTime.now()));
+    } catch (DuplicateKeyException e) {
+      // Created by another instance starting the same day
+    }
+  }
+
+  /**
+   * Takes the day's lease with a conditional update of its checkpoint row, which the database
+   * applies under the row lock, so only one instance can take it. A lease left behind by a crashed
+   * run expires.
+   */
+  private boolean acquireLease(LocalDate date, String owner) {
+    LocalDateTime now = LocalDateTime.now();
+    int updated =
+        jdbcTemplate.update(
+            "UPDATE energy_conversion_checkpoints SET locked_by = ?, locked_until = ?"
+                + " WHERE conversion_date = ? AND (locked_until IS NULL OR locked_until < ?)",
+            owner,
+            Timestamp.valueOf(now.plus(lease)),
+            Date.valueOf(date),
+            Timestamp.valueOf(now));
+    return updated == 1;
+  }
+
+  private void releaseLease(LocalDate date, String owner) {
+    jdbcTemplate.update(
+        "UPDATE energy_conversion_checkpoints SET locked_by = NULL, locked_until = NULL"
+            + " WHERE conversion_date = ? AND locked_by = ?",
+        Date.valueOf(date),
+        owner);
+  }
+
+  private void saveCheckpoint(LocalDate date, String owner, long convertedThrough, int credited) {
+    LocalDateTime now = LocalDateTime.now();
+    int updated =
+        jdbcTemplate.update(
+            "UPDATE energy_conversion_checkpoints SET converted_through_guardian_id = ?,"
+                + " guardians_credited = guardians_credited + ?, locked_until = ?, updated_at = ?"
+                + " WHERE conversion_date = ? AND locked_by = ?",
+            convertedThrough,
+            credited,
+            Timestamp.valueOf(now.plus(lease)),
+            Timestamp.valueOf(now),
+            Date.valueOf(date),
+            owner);
+    if (updated == 0) {
+      throw new IllegalStateException(
+          "Lost the lease on the energy conversion of " + date + " to another instance");
+    }
+  }
+
+  private static int await(Future<Integer> result) {
+    try {
+      return result.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while converting daily steps to energy", e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw new IllegalStateException("Failed to convert daily steps to energy", e.getCause());
+    }
+  }
+}
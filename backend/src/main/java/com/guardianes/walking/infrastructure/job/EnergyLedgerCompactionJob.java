@@ -0,0 +1,243 @@
+package com.guardianes.walking.infrastructure.job;
+
+import com.guardianes.shared.infrastructure.metrics.BusinessMetricsService;
+import com.guardianes.walking.infrastructure.persistence.repository.EnergyLedgerRepository.LedgerTransaction;
+import com.guardianes.walking.infrastructure.persistence.repository.EnergyTransactionJpaRepository;
+import io.micrometer.core.instrument.Timer;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Bounds the growth of energy_transactions. Each run first advances the per-guardian ledger
+ * snapshots, one guardian id range per transaction, so that balance audits only sum the tail of
+ * transactions after the snapshot. Transactions recorded before the retention horizon and covered
+ * by their guardian's snapshot are then archived to a gzip-compressed CSV file (id, guardian_id,
+ * transaction_type, amount, source, recorded_at) and deleted in bounded chunks, each in its own
+ * transaction, pausing between chunks.
+ *
+ * <p>Compacting a transaction leaves its snapshot unchanged, so the ledger balance is preserved.
+ * The horizon is rounded down to the first day of a month, so a month is archived in full. Rows are
+ * archived before their chunk commits, so a failed commit can archive them twice but never deletes
+ * a row that was not archived.
+ */
+@Component
+public class EnergyLedgerCompactionJob {
+  private static final Logger logger = LoggerFactory.getLogger(EnergyLedgerCompactionJob.class);
+
+  private static final String JOB_NAME = "energy_transactions";
+
+  private final EnergyTransactionJpaRepository transactionJpaRepository;
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final BusinessMetricsService metricsService;
+  private final boolean enabled;
+  private final int retentionDays;
+  private final int guardianChunkSize;
+  private final int chunkSize;
+  private final long pauseMillis;
+  private final int maxRecordsPerRun;
+  private final Path archiveDirectory;
+
+  public EnergyLedgerCompactionJob(
+      EnergyTransactionJpaRepository transactionJpaRepository,
+      JdbcTemplate jdbcTemplate,
+      PlatformTransactionManager transactionManager,
+      BusinessMetricsService metricsService,
+      @Value("${guardianes.walking.energy-compaction.enabled:false}") boolean enabled,
+      @Value("${guardianes.walking.energy-compaction.retention-days:365}") int retentionDays,
+      @Value("${guardianes.walking.energy-compaction.guardian-chunk-size:1000}")
+          int guardianChunkSize,
+      @Value("${guardianes.walking.energy-compaction.chunk-size:1000}") int chunkSize,
+      @Value("${guardianes.walking.energy-compaction.pause-ms:200}") long pauseMillis,
+      @Value("${guardianes.walking.energy-compaction.max-records-per-run:1000000}")
+          int maxRecordsPerRun,
+      @Value("${guardianes.walking.energy-compaction.archive-dir:archive/energy-transactions}")
+          String archiveDirectory) {
+    this.transactionJpaRepository = transactionJpaRepository;
+    this.jdbcTemplate = jdbcTemplate;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.metricsService = metricsService;
+    this.enabled = enabled;
+    this.retentionDays = retentionDays;
+    this.guardianChunkSize = guardianChunkSize;
+    this.chunkSize = chunkSize;
+    this.pauseMillis = pauseMillis;
+    this.maxRecordsPerRun = maxRecordsPerRun;
+    this.archiveDirectory = Path.of(archiveDirectory);
+  }
+
+  @Scheduled(cron = "${guardianes.walking.energy-compaction.cron:0 30 4 * * *}")
+  public void compactExpiredTransactions() {
+    if (!enabled) {
+      return;
+    }
+    refreshSnapshots();
+    compact(LocalDate.now().minusDays(retentionDays).withDayOfMonth(1));
+  }
+
+  /**
+   * Advances the ledger snapshot of every guardian to its newest transaction.
+   *
+   * @return the number of snapshots created or advanced
+   */
+  public int refreshSnapshots() {
+    Map<String, Object> range =
+        jdbcTemplate.queryForMap(
+            "SELECT MIN(guardian_id) AS first_id, MAX(guardian_id) AS last_id"
+                + " FROM energy_transactions");
+    if (range.get("first_id") == null) {
+      return 0;
+    }
+    long firstId = ((Number) range.get("first_id")).longValue();
+    long lastId = ((Number) range.get("last_id")).longValue();
+
+    int refreshed = 0;
+    for (long start = firstId; start <= lastId; start += guardianChunkSize) {
+      long from = start;
+      long to = Math.min(start + guardianChunkSize - 1, lastId);
+      Integer chunk =
+          transactionTemplate.execute(
+              status -> transactionJpaRepository.refreshSnapshots(from, to));
+      refreshed += chunk != null ? chunk : 0;
+    }
+    metricsService.recordEnergySnapshotsRefreshed(refreshed);
+    logger.info("Refreshed {} energy ledger snapshots", refreshed);
+    return refreshed;
+  }
+
+  /**
+   * Archives and removes the snapshotted transactions recorded before {@code cutoffDate}.
+   *
+   * @return the number of transactions compacted
+   */
+  public int compact(LocalDate cutoffDate) {
+    saveCheckpoint(cutoffDate.minusDays(1));
+    LocalDateTime deleteBefore = cutoffDate.atStartOfDay();
+    Path archive = archiveDirectory.resolve("energy_transactions-" + LocalDate.now() + ".csv.gz");
+    int compacted = 0;
+    while (compacted < maxRecordsPerRun) {
+      int limit = Math.min(chunkSize, maxRecordsPerRun - compacted);
+      Timer.Sample sample = metricsService.startEnergyCompactionChunk();
+      Integer deleted =
+          transactionTemplate.execute(status -> compactChunk(deleteBefore, limit, archive));
+      int chunk = deleted != null ? deleted : 0;
+      if (chunk == 0) {
+        break;
+      }
+      metricsService.endEnergyCompactionChunk(sample, chunk);
+      compacted += chunk;
+      logger.debug("Compacted {} energy transactions ({} so far)", chunk, compacted);
+      if (!pause()) {
+        break;
+      }
+    }
+
+    logger.info(
+        "Compacted {} energy transactions recorded before {} into {}",
+        compacted,
+        cutoffDate,
+        archive);
+    return compacted;
+  }
+
+  private int compactChunk(LocalDateTime deleteBefore, int limit, Path archive) {
+    List<LedgerTransaction> transactions =
+        transactionJpaRepository.findSnapshottedRecordedBefore(deleteBefore, limit);
+    if (transactions.isEmpty()) {
+      return 0;
+    }
+    appendToArchive(archive, transactions);
+    int deleted = transactionJpaRepository.deleteTransactions(transactions);
+    jdbcTemplate.update(
+        "UPDATE compaction_checkpoints SET records_compacted = records_compacted + ?,"
+            + " updated_at = ? WHERE job_name = ?",
+        deleted,
+        Timestamp.valueOf(LocalDateTime.now()),
+        JOB_NAME);
+    return deleted;
+  }
+
+  private void appendToArchive(Path archive, List<LedgerTransaction> transactions) {
+    // Each chunk is written as its own gzip member; concatenated members form a valid gzip file
+    try {
+      Files.createDirectories(archive.getParent());
+      try (OutputStream file =
+              Files.newOutputStream(archive, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+          BufferedWriter writer =
+              new BufferedWriter(
+                  new OutputStreamWriter(new GZIPOutputStream(file), StandardCharsets.UTF_8))) {
+        for (LedgerTransaction transaction : transactions) {
+          writer.write(
+              transaction.id()
+                  + ","
+                  + transaction.guardianId()
+                  + ","
+                  + transaction.type()
+                  + ","
+                  + transaction.amount()
+                  + ","
+                  + transaction.source()
+                  + ","
+                  + transaction.timestamp());
+          writer.newLine();
+        }
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to archive energy transactions to " + archive, e);
+    }
+  }
+
+  private void saveCheckpoint(LocalDate compactedThrough) {
+    Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+    int updated =
+        jdbcTemplate.update(
+            "UPDATE compaction_checkpoints SET compacted_through = ?, updated_at = ?"
+                + " WHERE job_name = ?",
+            Date.valueOf(compactedThrough),
+            now,
+            JOB_NAME);
+    if (updated == 0) {
+      jdbcTemplate.update(
+          "INSERT INTO compaction_checkpoints"
+              + " (job_name, compacted_through, records_compacted, updated_at) VALUES (?, ?, 0, ?)",
+          JOB_NAME,
+          Date.valueOf(compactedThrough),
+          now);
+    }
+  }
+
+  private boolean pause() {
+    if (pauseMillis <= 0) {
+      return true;
+    }
+    try {
+      Thread.sleep(pauseMillis);
+      return true;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+  }
+}
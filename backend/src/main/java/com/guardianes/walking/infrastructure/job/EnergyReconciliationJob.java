@@ -0,0 +1,338 @@
+package com.guardianes.walking.infrastructure.job;
+
+import com.guardianes.shared.infrastructure.metrics.BusinessMetricsService;
+import com.guardianes.walking.infrastructure.persistence.cache.EnergyBalanceCache;
+import com.guardianes.walking.infrastructure.persistence.repository.EnergyTransactionJpaRepository;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Checks that the materialized balances in energy_balances match the ledger. Guardian ids are split
+ * into ranges that a fork-join pool checks in parallel, at most {@code max-partitions-per-second}
+ * ranges being started per second. Each range streams the ledger balances (snapshot plus tail) of
+ * its guardians in pages of guardian ids and compares them with their balances read in one query.
+ *
+ * <p>Both reads are lock-free, so a write committed between them shows up as a candidate; each
+ * candidate is confirmed under the lock of its balance row, which every ledger writer takes before
+ * inserting its transaction, so only real drift is reported. Negative balances, which the battle
+ * services clamp to zero, are reported too. When {@code repair} is enabled, a drifted balance is
+ * overwritten with the ledger balance under that same lock, unless the ledger balance is negative:
+ * energy_balances only holds non-negative balances, so such a balance is reported as unrepairable.
+ * Each run writes its findings to a CSV report (guardian_id, balance, ledger_balance, issue,
+ * repaired).
+ */
+@Component
+public class EnergyReconciliationJob {
+  private static final Logger logger = LoggerFactory.getLogger(EnergyReconciliationJob.class);
+
+  private static final DateTimeFormatter REPORT_TIMESTAMP =
+      DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+  private final EnergyTransactionJpaRepository transactionJpaRepository;
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final TransactionTemplate readOnlyTransactionTemplate;
+  private final EnergyBalanceCache balanceCache;
+  private final BusinessMetricsService metricsService;
+  private final boolean enabled;
+  private final boolean repair;
+  private final int partitionSize;
+  private final int parallelism;
+  private final long permitIntervalNanos;
+  private final int pageSize;
+  private final Path reportDirectory;
+
+  private long nextPermitNanos = Long.MIN_VALUE;
+
+  public EnergyReconciliationJob(
+      EnergyTransactionJpaRepository transactionJpaRepository,
+      JdbcTemplate jdbcTemplate,
+      PlatformTransactionManager transactionManager,
+      EnergyBalanceCache balanceCache,
+      BusinessMetricsService metricsService,
+      @Value("${guardianes.walking.energy-reconciliation.enabled:false}") boolean enabled,
+      @Value("${guardianes.walking.energy-reconciliation.repair:false}") boolean repair,
+      @Value("${guardianes.walking.energy-reconciliation.partition-size:5000}") int partitionSize,
+      @Value("${guardianes.walking.energy-reconciliation.parallelism:2}") int parallelism,
+      @Value("${guardianes.walking.energy-reconciliation.max-partitions-per-second:2}")
+          double maxPartitionsPerSecond,
+      @Value("${guardianes.walking.energy-reconciliation.page-size:500}") int pageSize,
+      @Value("${guardianes.walking.energy-reconciliation.report-dir:reports/energy-reconciliation}")
+          String reportDirectory) {
+    this.transactionJpaRepository = transactionJpaRepository;
+    this.jdbcTemplate = jdbcTemplate;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+    this.readOnlyTransactionTemplate.setReadOnly(true);
+    this.balanceCache = balanceCache;
+    this.metricsService = metricsService;
+    this.enabled = enabled;
+    this.repair = repair;
+    this.partitionSize = partitionSize;
+    this.parallelism = parallelism;
+    // A rate of zero or less disables the limit
+    this.permitIntervalNanos =
+        maxPartitionsPerSecond > 0
+            ? (long) (TimeUnit.SECONDS.toNanos(1) / maxPartitionsPerSecond)
+            : 0;
+    this.pageSize = pageSize;
+    this.reportDirectory = Path.of(reportDirectory);
+  }
+
+  @Scheduled(cron = "${guardianes.walking.energy-reconciliation.cron:0 0 5 * * *}")
+  public void reconcileBalances() {
+    if (!enabled) {
+      return;
+    }
+    // Each table's bounds are read from the leading column of one of its indexes
+    Map<String, Object> range =
+        jdbcTemplate.queryForMap(
+            "SELECT MIN(first_id) AS first_id, MAX(last_id) AS last_id FROM ("
+                + "SELECT MIN(guardian_id) AS first_id, MAX(guardian_id) AS last_id"
+                + " FROM energy_balances"
+                + " UNION ALL SELECT MIN(guardian_id), MAX(guardian_id) FROM energy_transactions"
+                + " UNION ALL SELECT MIN(guardian_id), MAX(guardian_id)"
+                + " FROM energy_ledger_snapshots) bounds");
+    if (range.get("first_id") == null) {
+      return;
+    }
+    reconcile(
+        ((Number) range.get("first_id")).longValue(), ((Number) range.get("last_id")).longValue());
+  }
+
+  /** Reconciles the guardians whose ids are in [fromGuardianId, toGuardianId]. */
+  public Result reconcile(long fromGuardianId, long toGuardianId) {
+    logger.info(
+        "Reconciling energy balances of guardians {} to {} with parallelism {}{}",
+        fromGuardianId,
+        toGuardianId,
+        parallelism,
+        repair ? " and repair enabled" : "");
+    ForkJoinPool pool = new ForkJoinPool(parallelism);
+    PartitionResult result;
+    try {
+      result = pool.invoke(new PartitionTask(fromGuardianId, toGuardianId));
+    } finally {
+      pool.shutdown();
+    }
+
+    int repaired = (int) result.discrepancies.stream().filter(Discrepancy::repaired).count();
+    Path report = writeReport(result.discrepancies);
+    metricsService.recordEnergyReconciliation(
+        result.checked, result.discrepancies.size(), repaired);
+    logger.info(
+        "Reconciled {} energy balances: {} discrepancies, {} repaired, report {}",
+        result.checked,
+        result.discrepancies.size(),
+        repaired,
+        report);
+    return new Result(result.checked, result.discrepancies, report);
+  }
+
+  private PartitionResult reconcilePartition(long fromGuardianId, long toGuardianId) {
+    awaitPermit();
+    Map<Long, Integer> balances = new HashMap<>();
+    jdbcTemplate.query(
+        "SELECT guardian_id, current_balance FROM energy_balances"
+            + " WHERE guardian_id BETWEEN ? AND ?",
+        (RowCallbackHandler)
+            rs -> balances.put(rs.getLong("guardian_id"), rs.getInt("current_balance")),
+        fromGuardianId,
+        toGuardianId);
+
+    List<Long> candidates = new ArrayList<>();
+    long[] checked = {0};
+    readOnlyTransactionTemplate.executeWithoutResult(
+        status ->
+            transactionJpaRepository.streamLedgerBalances(
+                fromGuardianId,
+                toGuardianId,
+                pageSize,
+                (guardianId, ledgerBalance) -> {
+                  checked[0]++;
+                  Integer balance = balances.remove(guardianId);
+                  if (balance == null || balance != ledgerBalance || ledgerBalance < 0) {
+                    candidates.add(guardianId);
+                  }
+                }));
+    // Balances left over have no ledger at all, so they should be zero
+    balances.forEach(
+        (guardianId, balance) -> {
+          checked[0]++;
+          if (balance != 0) {
+            candidates.add(guardianId);
+          }
+        });
+
+    List<Discrepancy> discrepancies = new ArrayList<>();
+    for (Long guardianId : candidates) {
+      Discrepancy discrepancy = transactionTemplate.execute(status -> confirm(guardianId));
+      if (discrepancy != null) {
+        discrepancies.add(discrepancy);
+        if (discrepancy.repaired()) {
+          balanceCache.invalidate(guardianId);
+        }
+      }
+    }
+    return new PartitionResult(checked[0], discrepancies);
+  }
+
+  private Discrepancy confirm(long guardianId) {
+    List<Integer> locked =
+        jdbcTemplate.queryForList(
+            "SELECT current_balance FROM energy_balances WHERE guardian_id = ? FOR UPDATE",
+            Integer.class,
+            guardianId);
+    Integer balance = locked.isEmpty() ? null : locked.get(0);
+    long ledgerBalance = transactionJpaRepository.ledgerBalance(guardianId);
+    long materialized = balance != null ? balance : 0;
+    if (materialized == ledgerBalance && ledgerBalance >= 0) {
+      return null;
+    }
+    if (materialized == ledgerBalance) {
+      return new Discrepancy(guardianId, balance, ledgerBalance, Issue.NEGATIVE_BALANCE, false);
+    }
+    if (ledgerBalance < 0) {
+      return new Discrepancy(guardianId, balance, ledgerBalance, Issue.NEGATIVE_LEDGER, false);
+    }
+    if (repair) {
+      Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+      int newBalance = Math.toIntExact(ledgerBalance);
+      if (balance != null) {
+        jdbcTemplate.update(
+            "UPDATE energy_balances SET current_balance = ?, last_updated = ?"
+                + " WHERE guardian_id = ?",
+            newBalance,
+            now,
+            guardianId);
+      } else {
+        jdbcTemplate.update(
+            "INSERT INTO energy_balances (guardian_id, current_balance, last_updated)"
+                + " VALUES (?, ?, ?)",
+            guardianId,
+            newBalance,
+            now);
+      }
+    }
+    return new Discrepancy(guardianId, balance, ledgerBalance, Issue.MISMATCH, repair);
+  }
+
+  private void awaitPermit() {
+    if (permitIntervalNanos <= 0) {
+      return;
+    }
+    long waitNanos;
+    synchronized (this) {
+      long now = System.nanoTime();
+      long permit = Math.max(nextPermitNanos, now);
+      nextPermitNanos = permit + permitIntervalNanos;
+      waitNanos = permit - now;
+    }
+    if (waitNanos > 0) {
+      try {
+        TimeUnit.NANOSECONDS.sleep(waitNanos);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException("Energy reconciliation was interrupted", e);
+      }
+    }
+  }
+
+  private Path writeReport(List<Discrepancy> discrepancies) {
+    Path report =
+        reportDirectory.resolve(
+            "energy-reconciliation-" + LocalDateTime.now().format(REPORT_TIMESTAMP) + ".csv");
+    try {
+      Files.createDirectories(reportDirectory);
+      try (BufferedWriter writer = Files.newBufferedWriter(report, StandardCharsets.UTF_8)) {
+        writer.write("guardian_id,balance,ledger_balance,issue,repaired");
+        writer.newLine();
+        for (Discrepancy discrepancy : discrepancies) {
+          writer.write(
+              discrepancy.guardianId()
+                  + ","
+                  + (discrepancy.balance() != null ? discrepancy.balance() : "")
+                  + ","
+                  + discrepancy.ledgerBalance()
+                  + ","
+                  + discrepancy.issue()
+                  + ","
+                  + discrepancy.repaired());
+          writer.newLine();
+        }
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to write energy reconciliation report " + report, e);
+    }
+    return report;
+  }
+
+  /** Splits a guardian id range in halves until it fits in one partition. */
+  private final class PartitionTask extends RecursiveTask<PartitionResult> {
+    private final long fromGuardianId;
+    private final long toGuardianId;
+
+    PartitionTask(long fromGuardianId, long toGuardianId) {
+      this.fromGuardianId = fromGuardianId;
+      this.toGuardianId = toGuardianId;
+    }
+
+    @Override
+    protected PartitionResult compute() {
+      if (toGuardianId - fromGuardianId < partitionSize) {
+        return reconcilePartition(fromGuardianId, toGuardianId);
+      }
+      long middle = fromGuardianId + (toGuardianId - fromGuardianId) / 2;
+      PartitionTask lower = new PartitionTask(fromGuardianId, middle);
+      lower.fork();
+      PartitionResult upper = new PartitionTask(middle + 1, toGuardianId).compute();
+      return lower.join().merge(upper);
+    }
+  }
+
+  private record PartitionResult(long checked, List<Discrepancy> discrepancies) {
+    PartitionResult merge(PartitionResult other) {
+      List<Discrepancy> merged = new ArrayList<>(discrepancies);
+      merged.addAll(other.discrepancies);
+      return new PartitionResult(checked + other.checked, merged);
+    }
+  }
+
+  public enum Issue {
+    /** The materialized balance differs from the ledger balance. */
+    MISMATCH,
+    /** Balance and ledger agree, but are negative. */
+    NEGATIVE_BALANCE,
+    /** The balances differ and the ledger balance is negative, so it cannot be repaired. */
+    NEGATIVE_LEDGER
+  }
+
+  /** A confirmed discrepancy; {@code balance} is null when the guardian has no balance row. */
+  public record Discrepancy(
+      long guardianId, Integer balance, long ledgerBalance, Issue issue, boolean repaired) {}
+
+  public record Result(long checked, List<Discrepancy> discrepancies, Path report) {}
+}
@@ -0,0 +1,269 @@
+package com.guardianes.walking.infrastructure.job;
+
+import com.guardianes.shared.infrastructure.metrics.BusinessMetricsService;
+import com.guardianes.walking.infrastructure.persistence.entity.StepRecordEntity;
+import com.guardianes.walking.infrastructure.persistence.repository.StepRecordJpaRepository;
+import com.guardianes.walking.infrastructure.persistence.repository.StepRollupJpaRepository;
+import io.micrometer.core.instrument.Timer;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Keeps step_records limited to the retention window. Days older than the window are first folded
+ * into daily_step_aggregates through {@link DailyStepAggregateRepairJob}, and the last folded day
+ * is checkpointed in compaction_checkpoints. Raw records up to that day are then archived to a
+ * gzip-compressed CSV file (id, guardian_id, step_count, recorded_at) and deleted in bounded
+ * chunks, each in its own transaction, pausing between chunks. Hourly step_rollups before the same
+ * day are deleted the same way; daily, weekly and monthly totals are kept.
+ *
+ * <p>A day is never folded again once it is checkpointed, because its raw records may already be
+ * partially deleted. Rows are archived before their chunk commits, so a failed commit can archive
+ * them twice but never deletes a row that was not archived.
+ */
+@Component
+public class StepRecordCompactionJob {
+  private static final Logger logger = LoggerFactory.getLogger(StepRecordCompactionJob.class);
+
+  private static final String JOB_NAME = "step_records";
+
+  private final StepRecordJpaRepository stepRecordJpaRepository;
+  private final StepRollupJpaRepository stepRollupJpaRepository;
+  private final DailyStepAggregateRepairJob aggregateRepairJob;
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final BusinessMetricsService metricsService;
+  private final AtomicLong compactedThroughEpochDay = new AtomicLong();
+  private final boolean enabled;
+  private final int retentionDays;
+  private final int chunkSize;
+  private final long pauseMillis;
+  private final int maxRecordsPerRun;
+  private final Path archiveDirectory;
+
+  public StepRecordCompactionJob(
+      StepRecordJpaRepository stepRecordJpaRepository,
+      StepRollupJpaRepository stepRollupJpaRepository,
+      DailyStepAggregateRepairJob aggregateRepairJob,
+      JdbcTemplate jdbcTemplate,
+      PlatformTransactionManager transactionManager,
+      BusinessMetricsService metricsService,
+      @Value("${guardianes.walking.compaction.enabled:false}") boolean enabled,
+      @Value("${guardianes.walking.compaction.retention-days:90}") int retentionDays,
+      @Value("${guardianes.walking.compaction.chunk-size:1000}") int chunkSize,
+      @Value("${guardianes.walking.compaction.pause-ms:200}") long pauseMillis,
+      @Value("${guardianes.walking.compaction.max-records-per-run:1000000}") int maxRecordsPerRun,
+      @Value("${guardianes.walking.compaction.archive-dir:archive/step-records}")
+          String archiveDirectory) {
+    this.stepRecordJpaRepository = stepRecordJpaRepository;
+    this.stepRollupJpaRepository = stepRollupJpaRepository;
+    this.aggregateRepairJob = aggregateRepairJob;
+    this.jdbcTemplate = jdbcTemplate;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.metricsService = metricsService;
+    this.enabled = enabled;
+    this.retentionDays = retentionDays;
+    this.chunkSize = chunkSize;
+    this.pauseMillis = pauseMillis;
+    this.maxRecordsPerRun = maxRecordsPerRun;
+    this.archiveDirectory = Path.of(archiveDirectory);
+    metricsService.registerStepCompactionProgress(compactedThroughEpochDay);
+  }
+
+  @Scheduled(cron = "${guardianes.walking.compaction.cron:0 0 4 * * *}")
+  public void compactExpiredRecords() {
+    if (!enabled) {
+      return;
+    }
+    compact(LocalDate.now().minusDays(retentionDays));
+  }
+
+  /**
+   * Folds and removes the raw records of every day before {@code cutoffDate}.
+   *
+   * @return the number of raw records archived and deleted
+   */
+  public int compact(LocalDate cutoffDate) {
+    Optional<LocalDate> compactedThrough = fold(cutoffDate.minusDays(1));
+    if (compactedThrough.isEmpty()) {
+      return 0;
+    }
+    compactedThroughEpochDay.set(compactedThrough.get().toEpochDay());
+
+    LocalDateTime deleteBefore = compactedThrough.get().plusDays(1).atStartOfDay();
+    Path archive = archiveDirectory.resolve("step_records-" + LocalDate.now() + ".csv.gz");
+    int compacted = 0;
+    while (compacted < maxRecordsPerRun) {
+      int limit = Math.min(chunkSize, maxRecordsPerRun - compacted);
+      Timer.Sample sample = metricsService.startStepCompactionChunk();
+      Integer deleted =
+          transactionTemplate.execute(status -> compactChunk(deleteBefore, limit, archive));
+      int chunk = deleted != null ? deleted : 0;
+      if (chunk == 0) {
+        break;
+      }
+      metricsService.endStepCompactionChunk(sample, chunk);
+      compacted += chunk;
+      logger.debug("Compacted {} step records ({} so far)", chunk, compacted);
+      if (!pause()) {
+        break;
+      }
+    }
+
+    logger.info(
+        "Compacted {} step records through {} into {}", compacted, compactedThrough.get(), archive);
+    deleteExpiredHourlyRollups(deleteBefore);
+    return compacted;
+  }
+
+  private void deleteExpiredHourlyRollups(LocalDateTime deleteBefore) {
+    int deleted = 0;
+    while (true) {
+      Integer chunk =
+          transactionTemplate.execute(
+              status -> stepRollupJpaRepository.deleteHourlyBefore(deleteBefore, chunkSize));
+      if (chunk == null || chunk == 0) {
+        break;
+      }
+      deleted += chunk;
+      if (!pause()) {
+        break;
+      }
+    }
+    logger.info("Deleted {} hourly step rollups before {}", deleted, deleteBefore);
+  }
+
+  /**
+   * Folds the days after the checkpoint up to {@code lastDay} and advances the checkpoint.
+   *
+   * @return the last folded day, or empty when nothing is old enough to compact
+   */
+  private Optional<LocalDate> fold(LocalDate lastDay) {
+    Optional<LocalDate> checkpoint = findCheckpoint();
+    LocalDate firstDay;
+    if (checkpoint.isPresent()) {
+      firstDay = checkpoint.get().plusDays(1);
+    } else {
+      Optional<LocalDateTime> oldest = stepRecordJpaRepository.findOldestTimestamp();
+      if (oldest.isEmpty()) {
+        return Optional.empty();
+      }
+      firstDay = oldest.get().toLocalDate();
+    }
+    if (firstDay.isAfter(lastDay)) {
+      return checkpoint;
+    }
+
+    aggregateRepairJob.rebuild(firstDay, lastDay);
+    saveCheckpoint(lastDay);
+    return Optional.of(lastDay);
+  }
+
+  private int compactChunk(LocalDateTime deleteBefore, int limit, Path archive) {
+    List<StepRecordEntity> records =
+        stepRecordJpaRepository.findOldestRecordedBefore(deleteBefore, PageRequest.of(0, limit));
+    if (records.isEmpty()) {
+      return 0;
+    }
+    appendToArchive(archive, records);
+    int deleted =
+        stepRecordJpaRepository.deleteByIds(records.stream().map(StepRecordEntity::getId).toList());
+    jdbcTemplate.update(
+        "UPDATE compaction_checkpoints SET records_compacted = records_compacted + ?,"
+            + " updated_at = ? WHERE job_name = ?",
+        deleted,
+        Timestamp.valueOf(LocalDateTime.now()),
+        JOB_NAME);
+    return deleted;
+  }
+
+  private void appendToArchive(Path archive, List<StepRecordEntity> records) {
+    // Each chunk is written as its own gzip member; concatenated members form a valid gzip file
+    try {
+      Files.createDirectories(archive.getParent());
+      try (OutputStream file =
+              Files.newOutputStream(archive, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+          BufferedWriter writer =
+              new BufferedWriter(
+                  new OutputStreamWriter(new GZIPOutputStream(file), StandardCharsets.UTF_8))) {
+        for (StepRecordEntity record : records) {
+          writer.write(
+              record.getId()
+                  + ","
+                  + record.getGuardianId()
+                  + ","
+                  + record.getStepCount()
+                  + ","
+                  + record.getTimestamp());
+          writer.newLine();
+        }
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to archive step records to " + archive, e);
+    }
+  }
+
+  private Optional<LocalDate> findCheckpoint() {
+    List<Date> checkpoints =
+        jdbcTemplate.queryForList(
+            "SELECT compacted_through FROM compaction_checkpoints WHERE job_name = ?",
+            Date.class,
+            JOB_NAME);
+    return checkpoints.stream().filter(date -> date != null).findFirst().map(Date::toLocalDate);
+  }
+
+  private void saveCheckpoint(LocalDate compactedThrough) {
+    Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+    int updated =
+        jdbcTemplate.update(
+            "UPDATE compaction_checkpoints SET compacted_through = ?, updated_at = ?"
+                + " WHERE job_name = ?",
+            Date.valueOf(compactedThrough),
+            now,
+            JOB_NAME);
+    if (updated == 0) {
+      jdbcTemplate.update(
+          "INSERT INTO compaction_checkpoints"
+              + " (job_name, compacted_through, records_compacted, updated_at) VALUES (?, ?, 0, ?)",
+          JOB_NAME,
+          Date.valueOf(compactedThrough),
+          now);
+    }
+  }
+
+  private boolean pause() {
+    if (pauseMillis <= 0) {
+      return true;
+    }
+    try {
+      Thread.sleep(pauseMillis);
+      return true;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+  }
+}
@@ -0,0 +1,140 @@
+package com.guardianes.walking.infrastructure.persistence.cache;
+
+import com.guardianes.shared.infrastructure.metrics.BusinessMetricsService;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bounded in-process cache of guardian energy balances, so that a battle reading the balance on
+ * every move hits the database once per TTL instead of once per move. Entries live in a {@link
+ * ConcurrentHashMap}, so reads and writes for different guardians never contend for a lock.
+ *
+ * <p>A miss stamps the guardian's entry with a fresh version before loading, and the loaded balance
+ * is only cached if the entry still carries that version. Writers must call {@link #invalidate}
+ * whenever a balance changes; it removes the entry, so a load that raced with it is not cached and
+ * a balance read before a concurrent write commits cannot outlive that write. Invalidating one
+ * guardian never discards loads in flight for another. Once the capacity is reached, expired
+ * balances are purged and otherwise an arbitrary one is evicted. Balances are not shared between
+ * instances; the TTL bounds how stale another instance's write can leave them. A capacity of zero
+ * disables the cache.
+ */
+@Component
+public class EnergyBalanceCache {
+
+  private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+  private final AtomicLong versions = new AtomicLong();
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+  private final int maxEntries;
+  private final long ttlMillis;
+  private final LongSupplier clock;
+
+  @Autowired
+  public EnergyBalanceCache(
+      BusinessMetricsService metricsService,
+      @Value("${guardianes.walking.energy-cache.max-entries:10000}") int maxEntries,
+      @Value("${guardianes.walking.energy-cache.ttl-seconds:30}") long ttlSeconds) {
+    this(maxEntries, ttlSeconds, System::currentTimeMillis);
+    metricsService.registerEnergyBalanceCache(
+        this,
+        EnergyBalanceCache::hits,
+        EnergyBalanceCache::misses,
+        EnergyBalanceCache::evictions,
+        EnergyBalanceCache::size);
+  }
+
+  EnergyBalanceCache(int maxEntries, long ttlSeconds, LongSupplier clock) {
+    this.maxEntries = maxEntries;
+    this.ttlMillis = ttlSeconds * 1000;
+    this.clock = clock;
+  }
+
+  /** Returns the cached balance of the guardian, loading and caching it on a miss. */
+  public int getBalance(Long guardianId, IntSupplier loader) {
+    if (maxEntries <= 0) {
+      misses.increment();
+      return loader.getAsInt();
+    }
+    Entry entry = entries.get(guardianId);
+    if (entry != null && entry.expiresAt > clock.getAsLong()) {
+      hits.increment();
+      return entry.balance;
+    }
+    misses.increment();
+    long version = stamp(guardianId);
+    // Loaded without holding any lock so a slow query does not block other guardians
+    int balance = loader.getAsInt();
+    long expiresAt = clock.getAsLong() + ttlMillis;
+    entries.computeIfPresent(
+        guardianId,
+        (id, current) ->
+            current.version == version ? new Entry(balance, expiresAt, version) : current);
+    return balance;
+  }
+
+  /** Drops the cached balance of the guardian after its balance changed. */
+  public void invalidate(Long guardianId) {
+    entries.remove(guardianId);
+  }
+
+  /** Returns the version a load of the guardian must still find in its entry to be cached. */
+  private long stamp(Long guardianId) {
+    if (!entries.containsKey(guardianId) && entries.size() >= maxEntries) {
+      evict();
+    }
+    return entries.compute(
+            guardianId,
+            (id, current) ->
+                current != null ? current : new Entry(0, 0, versions.incrementAndGet()))
+        .version;
+  }
+
+  private void evict() {
+    long now = clock.getAsLong();
+    long evicted = 0;
+    Iterator<Entry> iterator = entries.values().iterator();
+    while (iterator.hasNext()) {
+      if (iterator.next().expiresAt <= now) {
+        iterator.remove();
+        evicted++;
+      }
+    }
+    if (evicted == 0) {
+      Iterator<Long> any = entries.keySet().iterator();
+      if (any.hasNext()) {
+        any.next();
+        any.remove();
+        evicted++;
+      }
+    }
+    evictions.add(evicted);
+  }
+
+  long hits() {
+    return hits.sum();
+  }
+
+  long misses() {
+    return misses.sum();
+  }
+
+  long evictions() {
+    return evictions.sum();
+  }
+
+  int size() {
+    return entries.size();
+  }
+
+  /** A balance cached until expiresAt; an entry stamped for its first load is never served. */
+  private record Entry(int balance, long expiresAt, long version) {}
+}
@@ -0,0 +1,89 @@
+package com.guardianes.walking.infrastructure.persistence.cache;
+
+import com.guardianes.walking.domain.EnergyTransaction;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fixed-capacity ring buffer of a guardian's newest energy transactions, ordered newest first by
+ * timestamp and then by id. Transactions usually arrive in order and are written in front of the
+ * head in constant time; a backdated transaction is shifted into place, which costs at most the
+ * capacity, and one older than every buffered transaction of a full buffer is dropped.
+ */
+public final class RecentEnergyTransactions {
+
+  private final Entry[] ring;
+  private int head;
+  private int size;
+
+  public RecentEnergyTransactions(int capacity) {
+    this.ring = new Entry[capacity];
+  }
+
+  /** Creates a buffer holding the given transactions, which may be in any order. */
+  public static RecentEnergyTransactions of(int capacity, List<Entry> entries) {
+    RecentEnergyTransactions recent = new RecentEnergyTransactions(capacity);
+    for (Entry entry : entries) {
+      recent.add(entry.id(), entry.transaction());
+    }
+    return recent;
+  }
+
+  public int capacity() {
+    return ring.length;
+  }
+
+  public synchronized void add(long id, EnergyTransaction transaction) {
+    if (ring.length == 0) {
+      return;
+    }
+    Entry entry = new Entry(id, transaction);
+    int position = 0;
+    while (position < size && isNewer(get(position), entry)) {
+      position++;
+    }
+    if (position == ring.length) {
+      return;
+    }
+    if (position == 0) {
+      // In-order append: the slot before the head is free, or holds the oldest entry when full
+      head = Math.floorMod(head - 1, ring.length);
+      ring[head] = entry;
+      size = Math.min(size + 1, ring.length);
+      return;
+    }
+    int last = Math.min(size, ring.length - 1);
+    for (int index = last; index > position; index--) {
+      set(index, get(index - 1));
+    }
+    set(position, entry);
+    size = Math.min(size + 1, ring.length);
+  }
+
+  /** Returns up to {@code limit} of the newest transactions, newest first. */
+  public synchronized List<EnergyTransaction> latest(int limit) {
+    int count = Math.min(Math.max(limit, 0), size);
+    List<EnergyTransaction> transactions = new ArrayList<>(count);
+    for (int index = 0; index < count; index++) {
+      transactions.add(get(index).transaction());
+    }
+    return transactions;
+  }
+
+  private Entry get(int index) {
+    return ring[(head + index) % ring.length];
+  }
+
+  private void set(int index, Entry entry) {
+    ring[(head + index) % ring.length] = entry;
+  }
+
+  private static boolean isNewer(Entry buffered, Entry entry) {
+    int byTime =
+        buffered.transaction().getTimestamp().compareTo(entry.transaction().getTimestamp());
+    return byTime > 0 || (byTime == 0 && buffered.id() > entry.id());
+  }
+
+  /** A transaction with the id that orders it among transactions with the same timestamp. */
+  public record Entry(long id, EnergyTransaction transaction) {}
+}
@@ -0,0 +1,138 @@
+package com.guardianes.walking.infrastructure.persistence.cache;
+
+import com.guardianes.walking.domain.EnergyTransaction;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bounded in-process cache of each guardian's newest energy transactions, held in a {@link
+ * RecentEnergyTransactions} ring buffer. A cold guardian is loaded with a single query for the
+ * newest {@link #capacity} rows; committed writes are then appended to the warm buffer, so the
+ * energy screen is served without touching the ledger. Entries expire like the balance cache, which
+ * bounds how long writes made by another instance stay invisible.
+ *
+ * <p>As in {@link EnergyBalanceCache}, buffers live in a {@link ConcurrentHashMap} and a miss
+ * stamps the guardian's entry with a fresh version before loading. An append or invalidation that
+ * races with the load removes the entry, so the load is not cached, and never discards loads in
+ * flight for another guardian. Once the capacity is reached, expired buffers are purged and
+ * otherwise an arbitrary one is evicted.
+ */
+@Component
+public class RecentEnergyTransactionsCache {
+
+  private final Map<Long, Buffer> buffers = new ConcurrentHashMap<>();
+  private final AtomicLong versions = new AtomicLong();
+  private final int capacity;
+  private final int maxGuardians;
+  private final long ttlMillis;
+  private final LongSupplier clock;
+
+  @Autowired
+  public RecentEnergyTransactionsCache(
+      @Value("${guardianes.walking.recent-transactions.capacity:10}") int capacity,
+      @Value("${guardianes.walking.recent-transactions.max-guardians:10000}") int maxGuardians,
+      @Value("${guardianes.walking.recent-transactions.ttl-seconds:60}") long ttlSeconds) {
+    this(capacity, maxGuardians, ttlSeconds, System::currentTimeMillis);
+  }
+
+  RecentEnergyTransactionsCache(
+      int capacity, int maxGuardians, long ttlSeconds, LongSupplier clock) {
+    this.capacity = capacity;
+    this.maxGuardians = maxGuardians;
+    this.ttlMillis = ttlSeconds * 1000;
+    this.clock = clock;
+  }
+
+  /** Number of transactions buffered per guardian; larger requests must bypass the cache. */
+  public int capacity() {
+    return capacity;
+  }
+
+  /**
+   * Returns up to {@code limit} of the guardian's newest transactions, newest first, loading the
+   * buffer with {@code loader} when it is cold. The loader must return the newest {@link #capacity}
+   * transactions.
+   */
+  public List<EnergyTransaction> getRecent(
+      Long guardianId, int limit, Supplier<List<RecentEnergyTransactions.Entry>> loader) {
+    Buffer buffer = buffers.get(guardianId);
+    if (buffer != null && buffer.isWarm(clock.getAsLong())) {
+      return buffer.transactions.latest(limit);
+    }
+    if (maxGuardians <= 0) {
+      return RecentEnergyTransactions.of(capacity, loader.get()).latest(limit);
+    }
+    long version = stamp(guardianId);
+    // Loaded without holding any lock so a slow query does not block other guardians
+    RecentEnergyTransactions loaded = RecentEnergyTransactions.of(capacity, loader.get());
+    long expiresAt = clock.getAsLong() + ttlMillis;
+    buffers.computeIfPresent(
+        guardianId,
+        (id, current) ->
+            current.version == version ? new Buffer(loaded, expiresAt, version) : current);
+    return loaded.latest(limit);
+  }
+
+  /** Adds a committed transaction to the guardian's buffer, if it is warm. */
+  public void append(Long guardianId, long id, EnergyTransaction transaction) {
+    buffers.computeIfPresent(
+        guardianId,
+        (key, buffer) -> {
+          if (buffer.transactions == null) {
+            // A load in flight may have missed the transaction
+            return null;
+          }
+          buffer.transactions.add(id, transaction);
+          return buffer;
+        });
+  }
+
+  /** Drops the guardian's buffer after transactions were written without being appended. */
+  public void invalidate(Long guardianId) {
+    buffers.remove(guardianId);
+  }
+
+  /** Returns the version a load of the guardian must still find in its entry to be cached. */
+  private long stamp(Long guardianId) {
+    if (!buffers.containsKey(guardianId) && buffers.size() >= maxGuardians) {
+      evict();
+    }
+    return buffers.compute(
+            guardianId,
+            (id, current) ->
+                current != null ? current : new Buffer(null, 0, versions.incrementAndGet()))
+        .version;
+  }
+
+  private void evict() {
+    long now = clock.getAsLong();
+    boolean evicted = buffers.values().removeIf(buffer -> buffer.expiresAt <= now);
+    if (!evicted) {
+      Iterator<Long> any = buffers.keySet().iterator();
+      if (any.hasNext()) {
+        any.next();
+        any.remove();
+      }
+    }
+  }
+
+  int size() {
+    return buffers.size();
+  }
+
+  /** A buffer cached until expiresAt; an entry stamped for its first load has no transactions. */
+  private record Buffer(RecentEnergyTransactions transactions, long expiresAt, long version) {
+
+    boolean isWarm(long now) {
+      return transactions != null && expiresAt > now;
+    }
+  }
+}
@@ -7,7 +7,10 @@ import java.util.Objects;
 @Entity
 @Table(
     name = "daily_step_aggregates",
-    uniqueConstraints = @UniqueConstraint(columnNames = {"guardian_id", "date"}),
+    uniqueConstraints =
+        @UniqueConstraint(
+            name = "uk_guardian_date",
+            columnNames = {"guardian_id", "date"}),
     indexes = {@Index(name = "idx_daily_steps_guardian_date", columnList = "guardian_id, date")})
 public class DailyStepAggregateEntity {
 
@@ -0,0 +1,41 @@
+package com.guardianes.walking.infrastructure.persistence.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "energy_balances")
+public class EnergyBalanceEntity {
+
+  @Id
+  @Column(name = "guardian_id")
+  private Long guardianId;
+
+  @Column(name = "current_balance", nullable = false)
+  private Integer currentBalance;
+
+  @Column(name = "last_updated")
+  private LocalDateTime lastUpdated;
+
+  protected EnergyBalanceEntity() {
+    // JPA requires default constructor
+  }
+
+  public EnergyBalanceEntity(Long guardianId, Integer currentBalance, LocalDateTime lastUpdated) {
+    this.guardianId = guardianId;
+    this.currentBalance = currentBalance;
+    this.lastUpdated = lastUpdated;
+  }
+
+  public Long getGuardianId() {
+    return guardianId;
+  }
+
+  public Integer getCurrentBalance() {
+    return currentBalance;
+  }
+
+  public LocalDateTime getLastUpdated() {
+    return lastUpdated;
+  }
+}
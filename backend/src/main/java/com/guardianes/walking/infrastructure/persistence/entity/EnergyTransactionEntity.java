@@ -0,0 +1,87 @@
+package com.guardianes.walking.infrastructure.persistence.entity;
+
+import com.guardianes.walking.domain.EnergyTransactionType;
+import jakarta.persistence.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(
+    name = "energy_transactions",
+    indexes = {
+      @Index(
+          name = "idx_energy_transactions_guardian_recorded_at",
+          columnList = "guardian_id, recorded_at")
+    },
+    uniqueConstraints = {
+      @UniqueConstraint(
+          name = "uk_energy_transactions_daily_credit",
+          columnNames = {"guardian_id", "credit_date", "source"})
+    })
+public class EnergyTransactionEntity {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @Column(name = "guardian_id", nullable = false)
+  private Long guardianId;
+
+  @Enumerated(EnumType.STRING)
+  @Column(name = "transaction_type", nullable = false, length = 20)
+  private EnergyTransactionType type;
+
+  @Column(name = "amount", nullable = false)
+  private Integer amount;
+
+  @Column(name = "source", nullable = false, length = 50)
+  private String source;
+
+  @Column(name = "recorded_at", nullable = false)
+  private LocalDateTime timestamp;
+
+  // Only set on once-per-day credits, which are written with JDBC; mapped for the unique key
+  @Column(name = "credit_date")
+  private LocalDate creditDate;
+
+  protected EnergyTransactionEntity() {
+    // JPA requires default constructor
+  }
+
+  public EnergyTransactionEntity(
+      Long guardianId,
+      EnergyTransactionType type,
+      Integer amount,
+      String source,
+      LocalDateTime timestamp) {
+    this.guardianId = guardianId;
+    this.type = type;
+    this.amount = amount;
+    this.source = source;
+    this.timestamp = timestamp;
+  }
+
+  public Long getId() {
+    return id;
+  }
+
+  public Long getGuardianId() {
+    return guardianId;
+  }
+
+  public EnergyTransactionType getType() {
+    return type;
+  }
+
+  public Integer getAmount() {
+    return amount;
+  }
+
+  public String getSource() {
+    return source;
+  }
+
+  public LocalDateTime getTimestamp() {
+    return timestamp;
+  }
+}
@@ -0,0 +1,108 @@
+package com.guardianes.walking.infrastructure.persistence.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "guardian_step_statistics")
+public class GuardianStepStatisticsEntity {
+
+  @Id
+  @Column(name = "guardian_id")
+  private Long guardianId;
+
+  @Column(name = "submission_mean", nullable = false)
+  private double submissionMean;
+
+  @Column(name = "submission_variance", nullable = false)
+  private double submissionVariance;
+
+  @Column(name = "submission_count", nullable = false)
+  private long submissionCount;
+
+  @Column(name = "daily_mean", nullable = false)
+  private double dailyMean;
+
+  @Column(name = "daily_variance", nullable = false)
+  private double dailyVariance;
+
+  @Column(name = "day_count", nullable = false)
+  private long dayCount;
+
+  @Column(name = "open_day")
+  private LocalDate openDay;
+
+  @Column(name = "open_day_total", nullable = false)
+  private int openDayTotal;
+
+  @Column(name = "updated_at", nullable = false)
+  private LocalDateTime updatedAt;
+
+  protected GuardianStepStatisticsEntity() {
+    // JPA requires default constructor
+  }
+
+  public GuardianStepStatisticsEntity(
+      Long guardianId,
+      double submissionMean,
+      double submissionVariance,
+      long submissionCount,
+      double dailyMean,
+      double dailyVariance,
+      long dayCount,
+      LocalDate openDay,
+      int openDayTotal,
+      LocalDateTime updatedAt) {
+    this.guardianId = guardianId;
+    this.submissionMean = submissionMean;
+    this.submissionVariance = submissionVariance;
+    this.submissionCount = submissionCount;
+    this.dailyMean = dailyMean;
+    this.dailyVariance = dailyVariance;
+    this.dayCount = dayCount;
+    this.openDay = openDay;
+    this.openDayTotal = openDayTotal;
+    this.updatedAt = updatedAt;
+  }
+
+  public Long getGuardianId() {
+    return guardianId;
+  }
+
+  public double getSubmissionMean() {
+    return submissionMean;
+  }
+
+  public double getSubmissionVariance() {
+    return submissionVariance;
+  }
+
+  public long getSubmissionCount() {
+    return submissionCount;
+  }
+
+  public double getDailyMean() {
+    return dailyMean;
+  }
+
+  public double getDailyVariance() {
+    return dailyVariance;
+  }
+
+  public long getDayCount() {
+    return dayCount;
+  }
+
+  public LocalDate getOpenDay() {
+    return openDay;
+  }
+
+  public int getOpenDayTotal() {
+    return openDayTotal;
+  }
+
+  public LocalDateTime getUpdatedAt() {
+    return updatedAt;
+  }
+}
@@ -8,8 +8,9 @@ import java.util.Objects;
 @Table(
     name = "step_records",
     indexes = {
-      @Index(name = "idx_step_records_guardian_date", columnList = "guardianId, recorded_at"),
-      @Index(name = "idx_step_records_guardian_recorded_at", columnList = "guardianId, recorded_at")
+      @Index(
+          name = "idx_step_records_guardian_recorded_at",
+          columnList = "guardian_id, recorded_at")
     })
 public class StepRecordEntity {
 
@@ -0,0 +1,71 @@
+package com.guardianes.walking.infrastructure.persistence.entity;
+
+import com.guardianes.walking.domain.StepResolution;
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(
+    name = "step_rollups",
+    uniqueConstraints =
+        @UniqueConstraint(
+            name = "uk_step_rollups_guardian_resolution_period",
+            columnNames = {"guardian_id", "resolution", "period_start"}),
+    indexes = {
+      @Index(name = "idx_step_rollups_resolution_period", columnList = "resolution, period_start")
+    })
+public class StepRollupEntity {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @Column(name = "guardian_id", nullable = false)
+  private Long guardianId;
+
+  @Enumerated(EnumType.STRING)
+  @Column(name = "resolution", nullable = false, length = 16)
+  private StepResolution resolution;
+
+  @Column(name = "period_start", nullable = false)
+  private LocalDateTime periodStart;
+
+  @Column(name = "total_steps", nullable = false)
+  private Integer totalSteps;
+
+  protected StepRollupEntity() {
+    // JPA requires default constructor
+  }
+
+  public StepRollupEntity(
+      Long guardianId, StepResolution resolution, LocalDateTime periodStart, Integer totalSteps) {
+    this.guardianId = guardianId;
+    this.resolution = resolution;
+    this.periodStart = periodStart;
+    this.totalSteps = totalSteps;
+  }
+
+  public Long getId() {
+    return id;
+  }
+
+  public Long getGuardianId() {
+    return guardianId;
+  }
+
+  public StepResolution getResolution() {
+    return resolution;
+  }
+
+  public LocalDateTime getPeriodStart() {
+    return periodStart;
+  }
+
+  public Integer getTotalSteps() {
+    return totalSteps;
+  }
+
+  public void setTotalSteps(Integer totalSteps) {
+    this.totalSteps = totalSteps;
+  }
+}
@@ -0,0 +1,33 @@
+package com.guardianes.walking.infrastructure.persistence.mapper;
+
+import com.guardianes.walking.domain.EnergyTransaction;
+import com.guardianes.walking.infrastructure.persistence.entity.EnergyTransactionEntity;
+import org.springframework.stereotype.Component;
+
+@Component
+public class EnergyTransactionMapper {
+
+  public EnergyTransactionEntity toEntity(EnergyTransaction domain) {
+    if (domain == null) {
+      return null;
+    }
+    return new EnergyTransactionEntity(
+        domain.getGuardianId(),
+        domain.getType(),
+        domain.getAmount(),
+        domain.getSource(),
+        domain.getTimestamp());
+  }
+
+  public EnergyTransaction toDomain(EnergyTransactionEntity entity) {
+    if (entity == null) {
+      return null;
+    }
+    return new EnergyTransaction(
+        entity.getGuardianId(),
+        entity.getType(),
+        entity.getAmount(),
+        entity.getSource(),
+        entity.getTimestamp());
+  }
+}
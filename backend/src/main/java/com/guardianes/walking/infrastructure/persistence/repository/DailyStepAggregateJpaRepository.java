@@ -5,6 +5,7 @@ import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
@@ -19,4 +20,21 @@ public interface DailyStepAggregateJpaRepository
       @Param("guardianId") Long guardianId,
       @Param("fromDate") LocalDate fromDate,
       @Param("toDate") LocalDate toDate);
+
+  /**
+   * Adds steps to the aggregate of a guardian and day, inserting it for the first record of the
+   * day. A single INSERT ... ON DUPLICATE KEY UPDATE on uk_guardian_date, so concurrent first
+   * submissions neither fail on the unique key nor lose steps.
+   */
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query(
+      value =
+          "INSERT INTO daily_step_aggregates (guardian_id, date, total_steps)"
+              + " VALUES (:guardianId, :date, :steps)"
+              + " ON DUPLICATE KEY UPDATE total_steps = total_steps + VALUES(total_steps)",
+      nativeQuery = true)
+  int addTotalSteps(
+      @Param("guardianId") Long guardianId,
+      @Param("date") LocalDate date,
+      @Param("steps") int steps);
 }
@@ -0,0 +1,43 @@
+package com.guardianes.walking.infrastructure.persistence.repository;
+
+import com.guardianes.walking.infrastructure.persistence.entity.EnergyBalanceEntity;
+import java.time.LocalDateTime;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface EnergyBalanceJpaRepository extends JpaRepository<EnergyBalanceEntity, Long> {
+
+  /**
+   * Adds {@code delta} to the guardian's balance, inserting the row on their first transaction, in
+   * one statement. Racing first transactions cannot both insert, so neither fails on the primary
+   * key.
+   *
+   * @return 1 if the row was inserted, 2 if an existing balance was updated
+   */
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query(
+      value =
+          "INSERT INTO energy_balances (guardian_id, current_balance, last_updated)"
+              + " VALUES (:guardianId, :delta, :now)"
+              + " ON DUPLICATE KEY UPDATE"
+              + " current_balance = current_balance + VALUES(current_balance),"
+              + " last_updated = VALUES(last_updated)",
+      nativeQuery = true)
+  int addToBalance(
+      @Param("guardianId") Long guardianId,
+      @Param("delta") int delta,
+      @Param("now") LocalDateTime now);
+
+  /** Conditional debit; the row lock taken by the update serializes spends of one guardian. */
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query(
+      "UPDATE EnergyBalanceEntity b SET b.currentBalance = b.currentBalance - :amount,"
+          + " b.lastUpdated = :now WHERE b.guardianId = :guardianId"
+          + " AND b.currentBalance >= :amount")
+  int debitIfSufficient(
+      @Param("guardianId") Long guardianId,
+      @Param("amount") int amount,
+      @Param("now") LocalDateTime now);
+}
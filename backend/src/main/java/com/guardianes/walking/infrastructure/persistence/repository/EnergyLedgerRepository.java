@@ -0,0 +1,85 @@
+package com.guardianes.walking.infrastructure.persistence.repository;
+
+import com.guardianes.walking.domain.EnergyTransactionType;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Custom {@link EnergyTransactionJpaRepository} fragment for the ledger snapshots, the compaction
+ * of snapshotted transactions and bulk grants, which bypass the entity manager and are maintained
+ * with set-based SQL. A snapshot holds the balance of every transaction of its guardian up to
+ * last_transaction_id, so the ledger balance is the snapshot plus the tail after it, and
+ * transactions covered by a snapshot can be compacted without changing it.
+ */
+public interface EnergyLedgerRepository {
+
+  /** Balance recomputed from the ledger: the guardian's snapshot plus the transactions after it. */
+  long ledgerBalance(Long guardianId);
+
+  /**
+   * Streams the ledger balance of every guardian whose id is in [fromGuardianId, toGuardianId] and
+   * who has a snapshot or a transaction, in guardian id order. The range is read in consecutive
+   * pages of {@code pageSize} guardian ids, one query each, so at most one page is held in memory
+   * whatever the driver; MySQL's driver ignores JDBC fetch sizes and buffers whole result sets
+   * unless useCursorFetch is set.
+   */
+  void streamLedgerBalances(
+      long fromGuardianId, long toGuardianId, int pageSize, LedgerBalanceHandler handler);
+
+  /**
+   * Advances the snapshots of the guardians whose ids are in [fromGuardianId, toGuardianId] to the
+   * newest transaction. Must run in the caller's transaction: the guardians' energy_balances rows
+   * are locked first, and every ledger writer updates the balance before inserting its transaction,
+   * so no transaction below the new snapshot can still be uncommitted.
+   *
+   * @return the number of snapshots created or advanced
+   */
+  int refreshSnapshots(long fromGuardianId, long toGuardianId);
+
+  /**
+   * Oldest transactions recorded before {@code before} that are covered by their guardian's
+   * snapshot, in (recorded_at, id) order.
+   */
+  List<LedgerTransaction> findSnapshottedRecordedBefore(LocalDateTime before, int limit);
+
+  /**
+   * Deletes the transactions in the caller's transaction. They must be covered by their guardian's
+   * snapshot, which already holds their amounts.
+   *
+   * @return the number of deleted transactions
+   */
+  int deleteTransactions(List<LedgerTransaction> transactions);
+
+  /**
+   * Credits {@code amount} to each of the distinct guardians and records one EARNED transaction per
+   * guardian, in the caller's transaction. Balances are upserted and the ledger rows inserted with
+   * JDBC batches, so guardians receiving their first energy need no separate insert. As for every
+   * ledger writer, the balances are updated before the transactions are inserted.
+   */
+  void grant(List<Long> guardianIds, int amount, String source, LocalDateTime timestamp);
+
+  /**
+   * Credits each guardian the amount mapped to it and records one EARNED transaction per guardian
+   * with {@code creditDate} as its credit_date, in the caller's transaction, with JDBC batches. As
+   * for {@link #grant}, the balances are upserted before the transactions are inserted. The unique
+   * key on (guardian_id, credit_date, source) fails the insert, and so the caller's transaction,
+   * for a guardian already credited for that day from that source.
+   */
+  void credit(
+      Map<Long, Integer> amounts, String source, LocalDate creditDate, LocalDateTime timestamp);
+
+  record LedgerTransaction(
+      long id,
+      long guardianId,
+      EnergyTransactionType type,
+      int amount,
+      String source,
+      LocalDateTime timestamp) {}
+
+  @FunctionalInterface
+  interface LedgerBalanceHandler {
+    void handle(long guardianId, long ledgerBalance);
+  }
+}
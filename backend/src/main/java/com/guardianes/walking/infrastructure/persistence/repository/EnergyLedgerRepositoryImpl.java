@@ -0,0 +1,207 @@
+package com.guardianes.walking.infrastructure.persistence.repository;
+
+import com.guardianes.walking.domain.EnergyTransactionType;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToIntFunction;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+public class EnergyLedgerRepositoryImpl implements EnergyLedgerRepository {
+
+  private static final String SIGNED_AMOUNT =
+      "CASE WHEN t.transaction_type = 'EARNED' THEN t.amount ELSE -t.amount END";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final int batchSize;
+
+  public EnergyLedgerRepositoryImpl(
+      JdbcTemplate jdbcTemplate,
+      @Value("${guardianes.walking.energy-ledger.jdbc-batch-size:500}") int batchSize) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.batchSize = batchSize;
+  }
+
+  @Override
+  public long ledgerBalance(Long guardianId) {
+    // One statement, so a concurrent refresh or compaction cannot fall between the two reads
+    Long balance =
+        jdbcTemplate.queryForObject(
+            "SELECT COALESCE((SELECT s.balance FROM energy_ledger_snapshots s"
+                + " WHERE s.guardian_id = ?), 0)"
+                + " + COALESCE((SELECT SUM("
+                + SIGNED_AMOUNT
+                + ") FROM energy_transactions t WHERE t.guardian_id = ?"
+                + " AND t.id > COALESCE((SELECT s.last_transaction_id"
+                + " FROM energy_ledger_snapshots s WHERE s.guardian_id = ?), 0)), 0)",
+            Long.class,
+            guardianId,
+            guardianId,
+            guardianId);
+    return balance != null ? balance : 0;
+  }
+
+  @Override
+  public void streamLedgerBalances(
+      long fromGuardianId, long toGuardianId, int pageSize, LedgerBalanceHandler handler) {
+    String sql =
+        "SELECT g.guardian_id, COALESCE(s.balance, 0) + COALESCE(SUM("
+            + SIGNED_AMOUNT
+            + "), 0) AS ledger_balance"
+            + " FROM (SELECT guardian_id FROM energy_ledger_snapshots"
+            + " WHERE guardian_id BETWEEN ? AND ?"
+            + " UNION SELECT guardian_id FROM energy_transactions"
+            + " WHERE guardian_id BETWEEN ? AND ?) g"
+            + " LEFT JOIN energy_ledger_snapshots s ON s.guardian_id = g.guardian_id"
+            + " LEFT JOIN energy_transactions t ON t.guardian_id = g.guardian_id"
+            + " AND t.id > COALESCE(s.last_transaction_id, 0)"
+            + " GROUP BY g.guardian_id, s.balance ORDER BY g.guardian_id";
+    for (long start = fromGuardianId; start <= toGuardianId; start += pageSize) {
+      long end = Math.min(start + pageSize - 1, toGuardianId);
+      jdbcTemplate.query(
+          sql,
+          (RowCallbackHandler)
+              rs -> handler.handle(rs.getLong("guardian_id"), rs.getLong("ledger_balance")),
+          start,
+          end,
+          start,
+          end);
+    }
+  }
+
+  @Override
+  public int refreshSnapshots(long fromGuardianId, long toGuardianId) {
+    jdbcTemplate.queryForList(
+        "SELECT guardian_id FROM energy_balances WHERE guardian_id BETWEEN ? AND ? FOR UPDATE",
+        Long.class,
+        fromGuardianId,
+        toGuardianId);
+    Long throughId =
+        jdbcTemplate.queryForObject("SELECT MAX(id) FROM energy_transactions", Long.class);
+    if (throughId == null) {
+      return 0;
+    }
+    Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+    // balance is assigned before last_transaction_id, so it still reads the previous snapshot id
+    int advanced =
+        jdbcTemplate.update(
+            "UPDATE energy_ledger_snapshots s SET balance = balance + COALESCE((SELECT SUM("
+                + SIGNED_AMOUNT
+                + ") FROM energy_transactions t WHERE t.guardian_id = s.guardian_id"
+                + " AND t.id > s.last_transaction_id AND t.id <= ?), 0),"
+                + " last_transaction_id = ?, updated_at = ?"
+                + " WHERE s.guardian_id BETWEEN ? AND ? AND s.last_transaction_id < ?",
+            throughId,
+            throughId,
+            now,
+            fromGuardianId,
+            toGuardianId,
+            throughId);
+    int created =
+        jdbcTemplate.update(
+            "INSERT INTO energy_ledger_snapshots"
+                + " (guardian_id, balance, last_transaction_id, updated_at)"
+                + " SELECT t.guardian_id, SUM("
+                + SIGNED_AMOUNT
+                + "), ?, ? FROM energy_transactions t"
+                + " WHERE t.guardian_id BETWEEN ? AND ? AND t.id <= ?"
+                + " AND NOT EXISTS (SELECT 1 FROM energy_ledger_snapshots s"
+                + " WHERE s.guardian_id = t.guardian_id)"
+                + " GROUP BY t.guardian_id",
+            throughId,
+            now,
+            fromGuardianId,
+            toGuardianId,
+            throughId);
+    return advanced + created;
+  }
+
+  @Override
+  public List<LedgerTransaction> findSnapshottedRecordedBefore(LocalDateTime before, int limit) {
+    return jdbcTemplate.query(
+        "SELECT t.id, t.guardian_id, t.transaction_type, t.amount, t.source, t.recorded_at"
+            + " FROM energy_transactions t"
+            + " JOIN energy_ledger_snapshots s ON s.guardian_id = t.guardian_id"
+            + " WHERE t.recorded_at < ? AND t.id <= s.last_transaction_id"
+            + " ORDER BY t.recorded_at, t.id LIMIT ?",
+        (rs, rowNum) ->
+            new LedgerTransaction(
+                rs.getLong("id"),
+                rs.getLong("guardian_id"),
+                EnergyTransactionType.valueOf(rs.getString("transaction_type")),
+                rs.getInt("amount"),
+                rs.getString("source"),
+                rs.getTimestamp("recorded_at").toLocalDateTime()),
+        Timestamp.valueOf(before),
+        limit);
+  }
+
+  @Override
+  public int deleteTransactions(List<LedgerTransaction> transactions) {
+    int[] deleted =
+        jdbcTemplate.batchUpdate(
+            "DELETE FROM energy_transactions WHERE id = ?",
+            transactions.stream().map(transaction -> new Object[] {transaction.id()}).toList());
+    return deleted.length;
+  }
+
+  @Override
+  public void grant(List<Long> guardianIds, int amount, String source, LocalDateTime timestamp) {
+    upsertBalances(guardianIds, id -> amount, Timestamp.valueOf(LocalDateTime.now()));
+    insertEarnedTransactions(guardianIds, id -> amount, source, null, timestamp);
+  }
+
+  @Override
+  public void credit(
+      Map<Long, Integer> amounts, String source, LocalDate creditDate, LocalDateTime timestamp) {
+    List<Long> guardianIds = new ArrayList<>(amounts.keySet());
+    upsertBalances(guardianIds, amounts::get, Timestamp.valueOf(LocalDateTime.now()));
+    insertEarnedTransactions(guardianIds, amounts::get, source, creditDate, timestamp);
+  }
+
+  private void upsertBalances(List<Long> guardianIds, ToIntFunction<Long> amountOf, Timestamp now) {
+    // A guardian's first energy inserts the row, which a concurrent first credit would otherwise
+    // fail on the primary key; ascending ids keep the row locks of concurrent grants in one order
+    jdbcTemplate.batchUpdate(
+        "INSERT INTO energy_balances (guardian_id, current_balance, last_updated)"
+            + " VALUES (?, ?, ?)"
+            + " ON DUPLICATE KEY UPDATE"
+            + " current_balance = current_balance + VALUES(current_balance),"
+            + " last_updated = VALUES(last_updated)",
+        guardianIds.stream().sorted().toList(),
+        batchSize,
+        (statement, guardianId) -> {
+          statement.setLong(1, guardianId);
+          statement.setInt(2, amountOf.applyAsInt(guardianId));
+          statement.setTimestamp(3, now);
+        });
+  }
+
+  private void insertEarnedTransactions(
+      List<Long> guardianIds,
+      ToIntFunction<Long> amountOf,
+      String source,
+      LocalDate creditDate,
+      LocalDateTime timestamp) {
+    jdbcTemplate.batchUpdate(
+        "INSERT INTO energy_transactions"
+            + " (guardian_id, transaction_type, amount, source, recorded_at, credit_date)"
+            + " VALUES (?, ?, ?, ?, ?, ?)",
+        guardianIds,
+        batchSize,
+        (statement, guardianId) -> {
+          statement.setLong(1, guardianId);
+          statement.setString(2, EnergyTransactionType.EARNED.name());
+          statement.setInt(3, amountOf.applyAsInt(guardianId));
+          statement.setString(4, source);
+          statement.setTimestamp(5, Timestamp.valueOf(timestamp));
+          statement.setDate(6, creditDate != null ? Date.valueOf(creditDate) : null);
+        });
+  }
+}
@@ -0,0 +1,54 @@
+package com.guardianes.walking.infrastructure.persistence.repository;
+
+import com.guardianes.walking.infrastructure.persistence.entity.EnergyTransactionEntity;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface EnergyTransactionJpaRepository
+    extends JpaRepository<EnergyTransactionEntity, Long>, EnergyLedgerRepository {
+
+  @Query(
+      "SELECT t FROM EnergyTransactionEntity t WHERE t.guardianId = :guardianId"
+          + " ORDER BY t.timestamp, t.id")
+  List<EnergyTransactionEntity> findByGuardianId(@Param("guardianId") Long guardianId);
+
+  /** Transactions in the half-open interval [from, to), served by the composite index. */
+  @Query(
+      "SELECT t FROM EnergyTransactionEntity t WHERE t.guardianId = :guardianId"
+          + " AND t.timestamp >= :from AND t.timestamp < :to ORDER BY t.timestamp, t.id")
+  List<EnergyTransactionEntity> findByGuardianIdAndTimestampRange(
+      @Param("guardianId") Long guardianId,
+      @Param("from") LocalDateTime from,
+      @Param("to") LocalDateTime to);
+
+  /**
+   * Keyset page of [afterTimestamp, to) strictly after (afterTimestamp, afterId). The redundant
+   * lower bound lets the (guardian_id, recorded_at) index, which also carries the id, serve the
+   * page as a range scan that stops after the requested rows.
+   */
+  @Query(
+      "SELECT t FROM EnergyTransactionEntity t WHERE t.guardianId = :guardianId"
+          + " AND t.timestamp >= :afterTimestamp AND t.timestamp < :to"
+          + " AND (t.timestamp > :afterTimestamp OR t.id > :afterId)"
+          + " ORDER BY t.timestamp, t.id")
+  List<EnergyTransactionEntity> findPageAfter(
+      @Param("guardianId") Long guardianId,
+      @Param("afterTimestamp") LocalDateTime afterTimestamp,
+      @Param("afterId") Long afterId,
+      @Param("to") LocalDateTime to,
+      Pageable pageable);
+
+  /**
+   * Newest transactions first. The (guardian_id, recorded_at) index is read backwards, so only the
+   * requested page is touched.
+   */
+  @Query(
+      "SELECT t FROM EnergyTransactionEntity t WHERE t.guardianId = :guardianId"
+          + " ORDER BY t.timestamp DESC, t.id DESC")
+  List<EnergyTransactionEntity> findRecentByGuardianId(
+      @Param("guardianId") Long guardianId, Pageable pageable);
+}
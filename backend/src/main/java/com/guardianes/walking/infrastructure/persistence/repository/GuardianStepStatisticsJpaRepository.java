@@ -0,0 +1,7 @@
+package com.guardianes.walking.infrastructure.persistence.repository;
+
+import com.guardianes.walking.infrastructure.persistence.entity.GuardianStepStatisticsEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface GuardianStepStatisticsJpaRepository
+    extends JpaRepository<GuardianStepStatisticsEntity, Long> {}
@@ -0,0 +1,240 @@
+package com.guardianes.walking.infrastructure.persistence.repository;
+
+import com.guardianes.walking.domain.EnergyRepository;
+import com.guardianes.walking.domain.EnergyTransaction;
+import com.guardianes.walking.domain.EnergyTransactionType;
+import com.guardianes.walking.domain.HistoryCursor;
+import com.guardianes.walking.domain.HistoryPage;
+import com.guardianes.walking.infrastructure.persistence.cache.EnergyBalanceCache;
+import com.guardianes.walking.infrastructure.persistence.cache.RecentEnergyTransactions;
+import com.guardianes.walking.infrastructure.persistence.cache.RecentEnergyTransactionsCache;
+import com.guardianes.walking.infrastructure.persistence.entity.EnergyBalanceEntity;
+import com.guardianes.walking.infrastructure.persistence.entity.EnergyTransactionEntity;
+import com.guardianes.walking.infrastructure.persistence.mapper.EnergyTransactionMapper;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.stream.Collectors;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Energy ledger in energy_transactions with the running balance of each guardian materialized in
+ * energy_balances. Both are written in the same transaction, so the balance is read with a single
+ * primary-key lookup however long the guardian's ledger grows. Balances are additionally served
+ * from {@link EnergyBalanceCache}, which every write invalidates both immediately and once its
+ * transaction completes, and the newest transactions from {@link RecentEnergyTransactionsCache}, to
+ * which every committed write is appended and which bulk grants invalidate.
+ */
+@Repository
+@Transactional
+@ConditionalOnProperty(
+    name = "guardianes.test.memory-repository",
+    havingValue = "false",
+    matchIfMissing = true)
+public class JpaEnergyRepository implements EnergyRepository {
+
+  private final EnergyTransactionJpaRepository transactionJpaRepository;
+  private final EnergyBalanceJpaRepository balanceJpaRepository;
+  private final EnergyTransactionMapper transactionMapper;
+  private final EnergyBalanceCache balanceCache;
+  private final RecentEnergyTransactionsCache recentTransactionsCache;
+
+  public JpaEnergyRepository(
+      EnergyTransactionJpaRepository transactionJpaRepository,
+      EnergyBalanceJpaRepository balanceJpaRepository,
+      EnergyTransactionMapper transactionMapper,
+      EnergyBalanceCache balanceCache,
+      RecentEnergyTransactionsCache recentTransactionsCache) {
+    this.transactionJpaRepository = transactionJpaRepository;
+    this.balanceJpaRepository = balanceJpaRepository;
+    this.transactionMapper = transactionMapper;
+    this.balanceCache = balanceCache;
+    this.recentTransactionsCache = recentTransactionsCache;
+  }
+
+  @Override
+  public EnergyTransaction saveTransaction(EnergyTransaction transaction) {
+    // The balance row is locked before the ledger row is inserted, which ledger snapshots rely on
+    addToBalance(transaction.getGuardianId(), signedAmount(transaction));
+    EnergyTransactionEntity saved =
+        transactionJpaRepository.save(transactionMapper.toEntity(transaction));
+    afterWrite(saved);
+    return transactionMapper.toDomain(saved);
+  }
+
+  @Override
+  public OptionalInt trySpend(EnergyTransaction spending) {
+    // The ledger row is only inserted once the debit succeeded, in the same transaction
+    int debited =
+        balanceJpaRepository.debitIfSufficient(
+            spending.getGuardianId(), spending.getAmount(), LocalDateTime.now());
+    if (debited == 0) {
+      return OptionalInt.empty();
+    }
+    afterWrite(transactionJpaRepository.save(transactionMapper.toEntity(spending)));
+    // Read past the cache, which must not see the balance before this transaction commits
+    return OptionalInt.of(loadBalance(spending.getGuardianId()));
+  }
+
+  @Override
+  public void grantEnergy(
+      List<Long> guardianIds, int amount, String source, LocalDateTime timestamp) {
+    transactionJpaRepository.grant(guardianIds, amount, source, timestamp);
+    afterBulkWrite(guardianIds);
+  }
+
+  @Override
+  public void creditEnergy(
+      Map<Long, Integer> energyByGuardian,
+      String source,
+      LocalDate creditDate,
+      LocalDateTime timestamp) {
+    transactionJpaRepository.credit(energyByGuardian, source, creditDate, timestamp);
+    afterBulkWrite(new ArrayList<>(energyByGuardian.keySet()));
+  }
+
+  private void afterWrite(EnergyTransactionEntity saved) {
+    // A concurrent read may cache the committed balance until this transaction completes, so the
+    // entry is dropped again afterwards, whether the transaction committed or rolled back. The
+    // transaction only joins the recent transactions once it is visible to their loader.
+    Long guardianId = saved.getGuardianId();
+    balanceCache.invalidate(guardianId);
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      recentTransactionsCache.append(guardianId, saved.getId(), transactionMapper.toDomain(saved));
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(
+        new TransactionSynchronization() {
+          @Override
+          public void afterCommit() {
+            recentTransactionsCache.append(
+                guardianId, saved.getId(), transactionMapper.toDomain(saved));
+          }
+
+          @Override
+          public void afterCompletion(int status) {
+            balanceCache.invalidate(guardianId);
+          }
+        });
+  }
+
+  private void afterBulkWrite(List<Long> guardianIds) {
+    // Bulk inserts do not return the ids the recent transactions are ordered by, so the buffers
+    // of the guardians are dropped and reloaded on their next read
+    guardianIds.forEach(this::invalidateCaches);
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(
+          new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+              guardianIds.forEach(JpaEnergyRepository.this::invalidateCaches);
+            }
+          });
+    }
+  }
+
+  private void invalidateCaches(Long guardianId) {
+    balanceCache.invalidate(guardianId);
+    recentTransactionsCache.invalidate(guardianId);
+  }
+
+  private void addToBalance(Long guardianId, int delta) {
+    // Single-statement upsert, as for the daily step aggregates; the row is only inserted by the
+    // guardian's first transaction
+    balanceJpaRepository.addToBalance(guardianId, delta, LocalDateTime.now());
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public List<EnergyTransaction> findTransactionsByGuardianId(Long guardianId) {
+    return transactionJpaRepository.findByGuardianId(guardianId).stream()
+        .map(transactionMapper::toDomain)
+        .collect(Collectors.toList());
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public List<EnergyTransaction> findTransactionsByGuardianIdAndDateRange(
+      Long guardianId, LocalDate fromDate, LocalDate toDate) {
+    return transactionJpaRepository
+        .findByGuardianIdAndTimestampRange(
+            guardianId, fromDate.atStartOfDay(), toDate.plusDays(1).atStartOfDay())
+        .stream()
+        .map(transactionMapper::toDomain)
+        .collect(Collectors.toList());
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public HistoryPage<EnergyTransaction> findTransactionsPage(
+      Long guardianId, LocalDateTime from, LocalDateTime to, HistoryCursor after, int size) {
+    HistoryCursor start = HistoryCursor.startOf(from, after);
+    List<EnergyTransactionEntity> entities =
+        transactionJpaRepository.findPageAfter(
+            guardianId, start.timestamp(), start.id(), to, PageRequest.of(0, size + 1));
+    return HistoryPage.of(
+            entities, size, entity -> new HistoryCursor(entity.getTimestamp(), entity.getId()))
+        .map(transactionMapper::toDomain);
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public int getEnergyBalance(Long guardianId) {
+    return balanceCache.getBalance(guardianId, () -> loadBalance(guardianId));
+  }
+
+  private int loadBalance(Long guardianId) {
+    return balanceJpaRepository
+        .findById(guardianId)
+        .map(EnergyBalanceEntity::getCurrentBalance)
+        .orElse(0);
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public int getLedgerBalance(Long guardianId) {
+    return Math.toIntExact(transactionJpaRepository.ledgerBalance(guardianId));
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public List<EnergyTransaction> getRecentTransactions(Long guardianId, int limit) {
+    if (limit <= 0) {
+      return List.of();
+    }
+    if (limit > recentTransactionsCache.capacity()) {
+      return transactionJpaRepository
+          .findRecentByGuardianId(guardianId, PageRequest.of(0, limit))
+          .stream()
+          .map(transactionMapper::toDomain)
+          .collect(Collectors.toList());
+    }
+    return recentTransactionsCache.getRecent(
+        guardianId,
+        limit,
+        () ->
+            transactionJpaRepository
+                .findRecentByGuardianId(
+                    guardianId, PageRequest.of(0, recentTransactionsCache.capacity()))
+                .stream()
+                .map(
+                    entity ->
+                        new RecentEnergyTransactions.Entry(
+                            entity.getId(), transactionMapper.toDomain(entity)))
+                .collect(Collectors.toList()));
+  }
+
+  private int signedAmount(EnergyTransaction transaction) {
+    return transaction.getType() == EnergyTransactionType.EARNED
+        ? transaction.getAmount()
+        : -transaction.getAmount();
+  }
+}
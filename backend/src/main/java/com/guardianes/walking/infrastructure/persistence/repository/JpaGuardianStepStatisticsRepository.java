@@ -0,0 +1,64 @@
+package com.guardianes.walking.infrastructure.persistence.repository;
+
+import com.guardianes.walking.domain.GuardianStepStatistics;
+import com.guardianes.walking.domain.GuardianStepStatisticsRepository;
+import com.guardianes.walking.infrastructure.persistence.entity.GuardianStepStatisticsEntity;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+@Transactional
+public class JpaGuardianStepStatisticsRepository implements GuardianStepStatisticsRepository {
+
+  private final GuardianStepStatisticsJpaRepository jpaRepository;
+
+  public JpaGuardianStepStatisticsRepository(GuardianStepStatisticsJpaRepository jpaRepository) {
+    this.jpaRepository = jpaRepository;
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public Optional<GuardianStepStatistics> findByGuardianId(Long guardianId) {
+    return jpaRepository.findById(guardianId).map(this::toDomain);
+  }
+
+  @Override
+  public void saveAll(Collection<GuardianStepStatistics> statistics) {
+    LocalDateTime now = LocalDateTime.now();
+    List<GuardianStepStatisticsEntity> entities =
+        statistics.stream().map(snapshot -> toEntity(snapshot, now)).toList();
+    jpaRepository.saveAll(entities);
+  }
+
+  private GuardianStepStatistics toDomain(GuardianStepStatisticsEntity entity) {
+    return new GuardianStepStatistics(
+        entity.getGuardianId(),
+        entity.getSubmissionMean(),
+        entity.getSubmissionVariance(),
+        entity.getSubmissionCount(),
+        entity.getDailyMean(),
+        entity.getDailyVariance(),
+        entity.getDayCount(),
+        entity.getOpenDay(),
+        entity.getOpenDayTotal());
+  }
+
+  private GuardianStepStatisticsEntity toEntity(
+      GuardianStepStatistics statistics, LocalDateTime updatedAt) {
+    return new GuardianStepStatisticsEntity(
+        statistics.guardianId(),
+        statistics.submissionMean(),
+        statistics.submissionVariance(),
+        statistics.submissionCount(),
+        statistics.dailyMean(),
+        statistics.dailyVariance(),
+        statistics.dayCount(),
+        statistics.openDay(),
+        statistics.openDayTotal(),
+        updatedAt);
+  }
+}
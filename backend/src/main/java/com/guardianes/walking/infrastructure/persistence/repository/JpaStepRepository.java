@@ -1,8 +1,12 @@
 package com.guardianes.walking.infrastructure.persistence.repository;
 
 import com.guardianes.walking.domain.DailyStepAggregate;
+import com.guardianes.walking.domain.HistoryCursor;
+import com.guardianes.walking.domain.HistoryPage;
 import com.guardianes.walking.domain.StepRecord;
 import com.guardianes.walking.domain.StepRepository;
+import com.guardianes.walking.domain.StepResolution;
+import com.guardianes.walking.domain.StepRollup;
 import com.guardianes.walking.infrastructure.persistence.entity.DailyStepAggregateEntity;
 import com.guardianes.walking.infrastructure.persistence.entity.StepRecordEntity;
 import com.guardianes.walking.infrastructure.persistence.mapper.DailyStepAggregateMapper;
@@ -10,9 +14,12 @@ import com.guardianes.walking.infrastructure.persistence.mapper.StepRecordMapper
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -22,6 +29,7 @@ public class JpaStepRepository implements StepRepository {
 
   private final StepRecordJpaRepository stepRecordJpaRepository;
   private final DailyStepAggregateJpaRepository dailyStepAggregateJpaRepository;
+  private final StepRollupJpaRepository stepRollupJpaRepository;
   private final StepRecordMapper stepRecordMapper;
   private final DailyStepAggregateMapper dailyStepAggregateMapper;
 
@@ -29,10 +37,12 @@ public class JpaStepRepository implements StepRepository {
   public JpaStepRepository(
       StepRecordJpaRepository stepRecordJpaRepository,
       DailyStepAggregateJpaRepository dailyStepAggregateJpaRepository,
+      StepRollupJpaRepository stepRollupJpaRepository,
       StepRecordMapper stepRecordMapper,
       DailyStepAggregateMapper dailyStepAggregateMapper) {
     this.stepRecordJpaRepository = stepRecordJpaRepository;
     this.dailyStepAggregateJpaRepository = dailyStepAggregateJpaRepository;
+    this.stepRollupJpaRepository = stepRollupJpaRepository;
     this.stepRecordMapper = stepRecordMapper;
     this.dailyStepAggregateMapper = dailyStepAggregateMapper;
   }
@@ -41,13 +51,59 @@ public class JpaStepRepository implements StepRepository {
   public StepRecord save(StepRecord stepRecord) {
     StepRecordEntity entity = stepRecordMapper.toEntity(stepRecord);
     StepRecordEntity savedEntity = stepRecordJpaRepository.save(entity);
+    dailyStepAggregateJpaRepository.addTotalSteps(
+        stepRecord.getGuardianId(),
+        stepRecord.getTimestamp().toLocalDate(),
+        stepRecord.getStepCount());
+    addToRollups(stepRecord.getGuardianId(), stepRecord.getTimestamp(), stepRecord.getStepCount());
     return stepRecordMapper.toDomain(savedEntity);
   }
 
+  @Override
+  public List<StepRecord> saveAll(List<StepRecord> stepRecords) {
+    stepRecordJpaRepository.batchInsert(stepRecords);
+
+    // One aggregate update per guardian and day and one rollup update per guardian and hour
+    // instead of one per record, in key order so concurrent batches lock their rows in the same
+    // order
+    Map<Long, Map<LocalDate, Integer>> dailySteps = new TreeMap<>();
+    Map<Long, Map<LocalDateTime, Integer>> hourlySteps = new TreeMap<>();
+    for (StepRecord stepRecord : stepRecords) {
+      dailySteps
+          .computeIfAbsent(stepRecord.getGuardianId(), guardianId -> new TreeMap<>())
+          .merge(stepRecord.getTimestamp().toLocalDate(), stepRecord.getStepCount(), Integer::sum);
+      hourlySteps
+          .computeIfAbsent(stepRecord.getGuardianId(), guardianId -> new TreeMap<>())
+          .merge(
+              StepResolution.HOURLY.periodStart(stepRecord.getTimestamp()),
+              stepRecord.getStepCount(),
+              Integer::sum);
+    }
+    dailySteps.forEach(
+        (guardianId, totals) ->
+            totals.forEach(
+                (date, steps) ->
+                    dailyStepAggregateJpaRepository.addTotalSteps(guardianId, date, steps)));
+    hourlySteps.forEach(
+        (guardianId, totals) ->
+            totals.forEach((hour, steps) -> addToRollups(guardianId, hour, steps)));
+    return stepRecords;
+  }
+
+  private void addToRollups(Long guardianId, LocalDateTime timestamp, int steps) {
+    stepRollupJpaRepository.addTotalSteps(
+        guardianId,
+        StepResolution.HOURLY.periodStart(timestamp),
+        StepResolution.WEEKLY.periodStart(timestamp),
+        StepResolution.MONTHLY.periodStart(timestamp),
+        steps);
+  }
+
   @Override
   public List<StepRecord> findByGuardianIdAndDate(Long guardianId, LocalDate date) {
     List<StepRecordEntity> entities =
-        stepRecordJpaRepository.findByGuardianIdAndDate(guardianId, date);
+        stepRecordJpaRepository.findByGuardianIdAndTimestampRange(
+            guardianId, date.atStartOfDay(), date.plusDays(1).atStartOfDay());
     return entities.stream().map(stepRecordMapper::toDomain).collect(Collectors.toList());
   }
 
@@ -55,10 +111,23 @@ public class JpaStepRepository implements StepRepository {
   public List<StepRecord> findByGuardianIdAndDateRange(
       Long guardianId, LocalDate fromDate, LocalDate toDate) {
     List<StepRecordEntity> entities =
-        stepRecordJpaRepository.findByGuardianIdAndDateRange(guardianId, fromDate, toDate);
+        stepRecordJpaRepository.findByGuardianIdAndTimestampRange(
+            guardianId, fromDate.atStartOfDay(), toDate.plusDays(1).atStartOfDay());
     return entities.stream().map(stepRecordMapper::toDomain).collect(Collectors.toList());
   }
 
+  @Override
+  public HistoryPage<StepRecord> findRecordsPage(
+      Long guardianId, LocalDateTime from, LocalDateTime to, HistoryCursor after, int size) {
+    HistoryCursor start = HistoryCursor.startOf(from, after);
+    List<StepRecordEntity> entities =
+        stepRecordJpaRepository.findPageAfter(
+            guardianId, start.timestamp(), start.id(), to, PageRequest.of(0, size + 1));
+    return HistoryPage.of(
+            entities, size, entity -> new HistoryCursor(entity.getTimestamp(), entity.getId()))
+        .map(stepRecordMapper::toDomain);
+  }
+
   @Override
   public DailyStepAggregate saveDailyAggregate(DailyStepAggregate aggregate) {
     // Check if aggregate already exists for this guardian and date
@@ -80,6 +149,13 @@ public class JpaStepRepository implements StepRepository {
     return dailyStepAggregateMapper.toDomain(savedEntity);
   }
 
+  @Override
+  public Optional<DailyStepAggregate> findDailyAggregate(Long guardianId, LocalDate date) {
+    return dailyStepAggregateJpaRepository
+        .findByGuardianIdAndDate(guardianId, date)
+        .map(dailyStepAggregateMapper::toDomain);
+  }
+
   @Override
   public List<DailyStepAggregate> findDailyAggregatesByGuardianIdAndDateRange(
       Long guardianId, LocalDate fromDate, LocalDate toDate) {
@@ -89,8 +165,25 @@ public class JpaStepRepository implements StepRepository {
   }
 
   @Override
-  public int countSubmissionsInLastHour(Long guardianId, LocalDateTime timestamp) {
-    LocalDateTime oneHourAgo = timestamp.minusHours(1);
-    return stepRecordJpaRepository.countSubmissionsInLastHour(guardianId, oneHourAgo, timestamp);
+  public List<StepRollup> findRollups(
+      Long guardianId, StepResolution resolution, LocalDateTime from, LocalDateTime to) {
+    if (resolution == StepResolution.DAILY) {
+      LocalDate lastDate = to.minusNanos(1).toLocalDate();
+      return findDailyAggregatesByGuardianIdAndDateRange(guardianId, from.toLocalDate(), lastDate)
+          .stream()
+          .map(StepRollup::fromDailyAggregate)
+          .collect(Collectors.toList());
+    }
+    return stepRollupJpaRepository
+        .findByGuardianIdAndResolutionAndPeriodRange(guardianId, resolution, from, to)
+        .stream()
+        .map(
+            entity ->
+                new StepRollup(
+                    entity.getGuardianId(),
+                    entity.getResolution(),
+                    entity.getPeriodStart(),
+                    entity.getTotalSteps()))
+        .collect(Collectors.toList());
   }
 }
@@ -0,0 +1,17 @@
+package com.guardianes.walking.infrastructure.persistence.repository;
+
+import com.guardianes.walking.domain.StepRecord;
+import java.util.List;
+
+/** Custom {@link StepRecordJpaRepository} fragment for inserts that bypass the entity manager. */
+public interface StepRecordBatchRepository {
+
+  /**
+   * Inserts the records with JDBC batches in the caller's transaction. Step record ids are
+   * database-generated (IDENTITY), which disables Hibernate insert batching, so this goes straight
+   * to JDBC.
+   *
+   * @return the number of inserted rows
+   */
+  int batchInsert(List<StepRecord> stepRecords);
+}
@@ -0,0 +1,46 @@
+package com.guardianes.walking.infrastructure.persistence.repository;
+
+import com.guardianes.walking.domain.StepRecord;
+import java.sql.Timestamp;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+public class StepRecordBatchRepositoryImpl implements StepRecordBatchRepository {
+
+  private static final String INSERT_SQL =
+      "INSERT INTO step_records (guardian_id, step_count, recorded_at) VALUES (?, ?, ?)";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final int batchSize;
+
+  public StepRecordBatchRepositoryImpl(
+      JdbcTemplate jdbcTemplate,
+      @Value("${guardianes.walking.step-batch.jdbc-batch-size:100}") int batchSize) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.batchSize = batchSize;
+  }
+
+  @Override
+  public int batchInsert(List<StepRecord> stepRecords) {
+    if (stepRecords.isEmpty()) {
+      return 0;
+    }
+    int[][] updateCounts =
+        jdbcTemplate.batchUpdate(
+            INSERT_SQL,
+            stepRecords,
+            batchSize,
+            (statement, stepRecord) -> {
+              statement.setLong(1, stepRecord.getGuardianId());
+              statement.setInt(2, stepRecord.getStepCount());
+              statement.setTimestamp(3, Timestamp.valueOf(stepRecord.getTimestamp()));
+            });
+    // Drivers that rewrite batches report SUCCESS_NO_INFO (-2) instead of row counts
+    int inserted = 0;
+    for (int[] batch : updateCounts) {
+      inserted += batch.length;
+    }
+    return inserted;
+  }
+}
@@ -1,31 +1,73 @@
 package com.guardianes.walking.infrastructure.persistence.repository;
 
 import com.guardianes.walking.infrastructure.persistence.entity.StepRecordEntity;
-import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
-public interface StepRecordJpaRepository extends JpaRepository<StepRecordEntity, Long> {
+public interface StepRecordJpaRepository
+    extends JpaRepository<StepRecordEntity, Long>, StepRecordBatchRepository {
 
+  /**
+   * Records in the half-open interval [from, to). The predicate stays on the raw recorded_at column
+   * so the (guardian_id, recorded_at) index serves it as a range scan.
+   */
   @Query(
-      "SELECT s FROM StepRecordEntity s WHERE s.guardianId = :guardianId AND CAST(s.timestamp AS date) = :date")
-  List<StepRecordEntity> findByGuardianIdAndDate(
-      @Param("guardianId") Long guardianId, @Param("date") LocalDate date);
+      "SELECT s FROM StepRecordEntity s WHERE s.guardianId = :guardianId"
+          + " AND s.timestamp >= :from AND s.timestamp < :to")
+  List<StepRecordEntity> findByGuardianIdAndTimestampRange(
+      @Param("guardianId") Long guardianId,
+      @Param("from") LocalDateTime from,
+      @Param("to") LocalDateTime to);
 
+  /** Keyset page of [afterTimestamp, to) strictly after (afterTimestamp, afterId). */
   @Query(
-      "SELECT s FROM StepRecordEntity s WHERE s.guardianId = :guardianId AND CAST(s.timestamp AS date) BETWEEN :fromDate AND :toDate")
-  List<StepRecordEntity> findByGuardianIdAndDateRange(
+      "SELECT s FROM StepRecordEntity s WHERE s.guardianId = :guardianId"
+          + " AND s.timestamp >= :afterTimestamp AND s.timestamp < :to"
+          + " AND (s.timestamp > :afterTimestamp OR s.id > :afterId)"
+          + " ORDER BY s.timestamp, s.id")
+  List<StepRecordEntity> findPageAfter(
       @Param("guardianId") Long guardianId,
-      @Param("fromDate") LocalDate fromDate,
-      @Param("toDate") LocalDate toDate);
+      @Param("afterTimestamp") LocalDateTime afterTimestamp,
+      @Param("afterId") Long afterId,
+      @Param("to") LocalDateTime to,
+      Pageable pageable);
 
   @Query(
-      "SELECT COUNT(s) FROM StepRecordEntity s WHERE s.guardianId = :guardianId AND s.timestamp > :oneHourAgo AND s.timestamp < :timestamp")
-  int countSubmissionsInLastHour(
-      @Param("guardianId") Long guardianId,
-      @Param("oneHourAgo") LocalDateTime oneHourAgo,
-      @Param("timestamp") LocalDateTime timestamp);
+      "SELECT DISTINCT s.guardianId FROM StepRecordEntity s WHERE s.guardianId > :afterGuardianId"
+          + " AND s.timestamp >= :from AND s.timestamp < :to ORDER BY s.guardianId")
+  List<Long> findGuardianIdsWithRecordsAfter(
+      @Param("afterGuardianId") Long afterGuardianId,
+      @Param("from") LocalDateTime from,
+      @Param("to") LocalDateTime to,
+      Pageable pageable);
+
+  @Query(
+      "SELECT s.guardianId, CAST(s.timestamp AS date), SUM(s.stepCount) FROM StepRecordEntity s"
+          + " WHERE s.guardianId IN :guardianIds AND s.timestamp >= :from AND s.timestamp < :to"
+          + " GROUP BY s.guardianId, CAST(s.timestamp AS date)")
+  List<Object[]> sumDailyStepsByGuardianIds(
+      @Param("guardianIds") List<Long> guardianIds,
+      @Param("from") LocalDateTime from,
+      @Param("to") LocalDateTime to);
+
+  @Query("SELECT MIN(s.timestamp) FROM StepRecordEntity s")
+  Optional<LocalDateTime> findOldestTimestamp();
+
+  /**
+   * The oldest records recorded before the given instant. Earlier chunks have already been deleted
+   * by the time the next one is read, so every chunk starts at the head of the recorded_at index.
+   */
+  @Query("SELECT s FROM StepRecordEntity s WHERE s.timestamp < :before ORDER BY s.timestamp, s.id")
+  List<StepRecordEntity> findOldestRecordedBefore(
+      @Param("before") LocalDateTime before, Pageable pageable);
+
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query("DELETE FROM StepRecordEntity s WHERE s.id IN :ids")
+  int deleteByIds(@Param("ids") List<Long> ids);
 }
@@ -0,0 +1,56 @@
+package com.guardianes.walking.infrastructure.persistence.repository;
+
+import com.guardianes.walking.domain.StepResolution;
+import com.guardianes.walking.infrastructure.persistence.entity.StepRollupEntity;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface StepRollupJpaRepository extends JpaRepository<StepRollupEntity, Long> {
+
+  @Query(
+      "SELECT r FROM StepRollupEntity r WHERE r.guardianId = :guardianId AND r.resolution = :resolution AND r.periodStart >= :from AND r.periodStart < :to ORDER BY r.periodStart")
+  List<StepRollupEntity> findByGuardianIdAndResolutionAndPeriodRange(
+      @Param("guardianId") Long guardianId,
+      @Param("resolution") StepResolution resolution,
+      @Param("from") LocalDateTime from,
+      @Param("to") LocalDateTime to);
+
+  /**
+   * Adds steps to the hourly, weekly and monthly buckets of a guardian, inserting the buckets that
+   * do not exist yet. One INSERT ... ON DUPLICATE KEY UPDATE on
+   * uk_step_rollups_guardian_resolution_period for all three, so concurrent first submissions of a
+   * bucket neither fail on the unique key nor lose steps. Daily totals live in
+   * daily_step_aggregates.
+   */
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query(
+      value =
+          "INSERT INTO step_rollups (guardian_id, resolution, period_start, total_steps)"
+              + " VALUES (:guardianId, 'HOURLY', :hourStart, :steps),"
+              + " (:guardianId, 'WEEKLY', :weekStart, :steps),"
+              + " (:guardianId, 'MONTHLY', :monthStart, :steps)"
+              + " ON DUPLICATE KEY UPDATE total_steps = total_steps + VALUES(total_steps)",
+      nativeQuery = true)
+  int addTotalSteps(
+      @Param("guardianId") Long guardianId,
+      @Param("hourStart") LocalDateTime hourStart,
+      @Param("weekStart") LocalDateTime weekStart,
+      @Param("monthStart") LocalDateTime monthStart,
+      @Param("steps") int steps);
+
+  /**
+   * Deletes up to {@code limit} hourly buckets that start before the given instant, through the
+   * (resolution, period_start) index.
+   */
+  @Modifying
+  @Query(
+      value =
+          "DELETE FROM step_rollups WHERE resolution = 'HOURLY' AND period_start < :before"
+              + " LIMIT :limit",
+      nativeQuery = true)
+  int deleteHourlyBefore(@Param("before") LocalDateTime before, @Param("limit") int limit);
+}
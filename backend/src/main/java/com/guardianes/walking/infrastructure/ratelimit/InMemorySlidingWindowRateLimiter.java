@@ -0,0 +1,119 @@
+package com.guardianes.walking.infrastructure.ratelimit;
+
+import com.guardianes.walking.domain.SubmissionRateLimiter;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Sliding-window rate limiter that keeps the timestamps of each guardian's recent submissions in a
+ * small ring buffer. Windows live in a {@link ConcurrentHashMap} and are only touched inside {@code
+ * compute}, so contention is limited to guardians sharing a hash bin. Windows without submissions
+ * in the last period are evicted periodically.
+ */
+@Component
+@ConditionalOnProperty(
+    name = "guardianes.walking.rate-limit.store",
+    havingValue = "memory",
+    matchIfMissing = true)
+public class InMemorySlidingWindowRateLimiter implements SubmissionRateLimiter {
+  private static final Logger logger =
+      LoggerFactory.getLogger(InMemorySlidingWindowRateLimiter.class);
+
+  private final ConcurrentHashMap<Long, SlidingWindow> windows = new ConcurrentHashMap<>();
+  private final int maxSubmissions;
+  private final long windowNanos;
+  private final LongSupplier nanoClock;
+
+  @Autowired
+  public InMemorySlidingWindowRateLimiter(
+      @Value("${guardianes.walking.rate-limit.max-submissions:100}") int maxSubmissions,
+      @Value("${guardianes.walking.rate-limit.window-seconds:3600}") long windowSeconds) {
+    this(maxSubmissions, windowSeconds, System::nanoTime);
+  }
+
+  InMemorySlidingWindowRateLimiter(int maxSubmissions, long windowSeconds, LongSupplier nanoClock) {
+    this.maxSubmissions = maxSubmissions;
+    this.windowNanos = TimeUnit.SECONDS.toNanos(windowSeconds);
+    this.nanoClock = nanoClock;
+  }
+
+  @Override
+  public boolean tryAcquire(Long guardianId) {
+    long now = nanoClock.getAsLong();
+    boolean[] acquired = new boolean[1];
+    windows.compute(
+        guardianId,
+        (id, window) -> {
+          SlidingWindow current = window != null ? window : new SlidingWindow();
+          acquired[0] = current.tryAcquire(now - windowNanos, now, maxSubmissions);
+          return current;
+        });
+    return acquired[0];
+  }
+
+  @Scheduled(fixedDelayString = "${guardianes.walking.rate-limit.eviction-interval-ms:300000}")
+  public void evictIdleWindows() {
+    long windowStart = nanoClock.getAsLong() - windowNanos;
+    int before = windows.size();
+    windows.forEach(
+        (guardianId, window) ->
+            windows.computeIfPresent(
+                guardianId, (id, current) -> current.isIdle(windowStart) ? null : current));
+    logger.debug("Evicted {} idle rate-limit windows", before - windows.size());
+  }
+
+  int trackedGuardians() {
+    return windows.size();
+  }
+
+  /** Ring buffer of submission times, oldest first. Only accessed under the map's bin lock. */
+  private static final class SlidingWindow {
+    private static final int INITIAL_CAPACITY = 8;
+
+    private long[] timestamps = new long[INITIAL_CAPACITY];
+    private int head;
+    private int size;
+
+    boolean tryAcquire(long windowStart, long now, int limit) {
+      expire(windowStart);
+      if (size >= limit) {
+        return false;
+      }
+      if (size == timestamps.length) {
+        grow(limit);
+      }
+      timestamps[(head + size) % timestamps.length] = now;
+      size++;
+      return true;
+    }
+
+    boolean isIdle(long windowStart) {
+      expire(windowStart);
+      return size == 0;
+    }
+
+    private void expire(long windowStart) {
+      while (size > 0 && timestamps[head] - windowStart <= 0) {
+        head = (head + 1) % timestamps.length;
+        size--;
+      }
+    }
+
+    private void grow(int limit) {
+      long[] grown = new long[Math.min(timestamps.length * 2, limit)];
+      for (int i = 0; i < size; i++) {
+        grown[i] = timestamps[(head + i) % timestamps.length];
+      }
+      timestamps = grown;
+      head = 0;
+    }
+  }
+}
@@ -0,0 +1,94 @@
+package com.guardianes.walking.infrastructure.ratelimit;
+
+import com.guardianes.walking.domain.SubmissionRateLimiter;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+/**
+ * Sliding-window rate limiter shared by all application instances. Each guardian's submissions are
+ * kept in a Redis sorted set scored by time; trimming, counting and recording run atomically in a
+ * single Lua script, so a check costs one round trip.
+ *
+ * <p>The limiter fails open: when Redis is unreachable or the script fails, the submission is
+ * allowed and a warning is logged, so a Redis outage disables rate limiting instead of rejecting
+ * every step submission. Anomaly detection and the daily maximum still apply meanwhile.
+ */
+@Component
+@ConditionalOnProperty(name = "guardianes.walking.rate-limit.store", havingValue = "redis")
+public class RedisSlidingWindowRateLimiter implements SubmissionRateLimiter {
+  private static final Logger logger = LoggerFactory.getLogger(RedisSlidingWindowRateLimiter.class);
+
+  private static final String KEY_PREFIX = "guardianes:rate-limit:steps:";
+
+  private static final RedisScript<Long> SLIDING_WINDOW_SCRIPT =
+      new DefaultRedisScript<>(
+          """
+          local now = tonumber(ARGV[1])
+          local window = tonumber(ARGV[2])
+          redis.call('ZREMRANGEBYSCORE', KEYS[1], '-inf', now - window)
+          if redis.call('ZCARD', KEYS[1]) >= tonumber(ARGV[3]) then
+            return 0
+          end
+          redis.call('ZADD', KEYS[1], now, ARGV[4])
+          redis.call('PEXPIRE', KEYS[1], window)
+          return 1
+          """,
+          Long.class);
+
+  private final StringRedisTemplate redisTemplate;
+  private final int maxSubmissions;
+  private final long windowMillis;
+  private final LongSupplier clock;
+
+  @Autowired
+  public RedisSlidingWindowRateLimiter(
+      StringRedisTemplate redisTemplate,
+      @Value("${guardianes.walking.rate-limit.max-submissions:100}") int maxSubmissions,
+      @Value("${guardianes.walking.rate-limit.window-seconds:3600}") long windowSeconds) {
+    this(redisTemplate, maxSubmissions, windowSeconds, System::currentTimeMillis);
+  }
+
+  RedisSlidingWindowRateLimiter(
+      StringRedisTemplate redisTemplate,
+      int maxSubmissions,
+      long windowSeconds,
+      LongSupplier clock) {
+    this.redisTemplate = redisTemplate;
+    this.maxSubmissions = maxSubmissions;
+    this.windowMillis = TimeUnit.SECONDS.toMillis(windowSeconds);
+    this.clock = clock;
+  }
+
+  @Override
+  public boolean tryAcquire(Long guardianId) {
+    try {
+      Long acquired =
+          redisTemplate.execute(
+              SLIDING_WINDOW_SCRIPT,
+              List.of(KEY_PREFIX + guardianId),
+              String.valueOf(clock.getAsLong()),
+              String.valueOf(windowMillis),
+              String.valueOf(maxSubmissions),
+              UUID.randomUUID().toString());
+      return acquired != null && acquired == 1L;
+    } catch (RuntimeException e) {
+      // Rate limiting protects the backend but must not take step submission down with Redis
+      logger.warn(
+          "Redis rate limit check failed for guardian {}, allowing submission: {}",
+          guardianId,
+          e.getMessage());
+      return true;
+    }
+  }
+}
@@ -3,65 +3,231 @@ package com.guardianes.walking.infrastructure.repository;
 import com.guardianes.walking.domain.EnergyRepository;
 import com.guardianes.walking.domain.EnergyTransaction;
 import com.guardianes.walking.domain.EnergyTransactionType;
+import com.guardianes.walking.domain.HistoryCursor;
+import com.guardianes.walking.domain.HistoryPage;
+import com.guardianes.walking.infrastructure.persistence.cache.RecentEnergyTransactions;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.OptionalInt;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Repository;
 
+/**
+ * Lock-free in-memory energy ledger. Each guardian owns a skip list of append-only segments, one
+ * per day, and a running balance updated atomically on every append, so balance reads are constant
+ * time and history reads only touch the guardian's segments within the requested days. Entries
+ * carry an id from a global sequence, which orders transactions with equal timestamps. The newest
+ * transactions are also kept in a small ring buffer per guardian, which serves recent transaction
+ * reads without scanning or sorting the segments.
+ */
 @Repository
+@ConditionalOnProperty(
+    name = "guardianes.test.memory-repository",
+    havingValue = "true",
+    matchIfMissing = false)
 public class InMemoryEnergyRepository implements EnergyRepository {
 
-  private final Map<String, EnergyTransaction> transactions = new ConcurrentHashMap<>();
-  private long transactionIdCounter = 1;
+  private static final int RECENT_CAPACITY = 10;
+
+  private static final Comparator<LedgerEntry> NEWEST_FIRST =
+      Comparator.comparing((LedgerEntry entry) -> entry.transaction().getTimestamp())
+          .thenComparingLong(LedgerEntry::id)
+          .reversed();
+  private static final Comparator<LedgerEntry> OLDEST_FIRST = NEWEST_FIRST.reversed();
+
+  private final Map<Long, GuardianLedger> ledgers = new ConcurrentHashMap<>();
+  private final AtomicLong transactionIdSequence = new AtomicLong();
 
   @Override
   public EnergyTransaction saveTransaction(EnergyTransaction transaction) {
-    String key = String.valueOf(transactionIdCounter++);
-    transactions.put(key, transaction);
+    GuardianLedger ledger = ledger(transaction.getGuardianId());
+    append(ledger, transaction);
+    ledger.balance.addAndGet(signedAmount(transaction));
     return transaction;
   }
 
+  @Override
+  public OptionalInt trySpend(EnergyTransaction spending) {
+    GuardianLedger ledger = ledger(spending.getGuardianId());
+    int amount = spending.getAmount();
+    int balance;
+    do {
+      balance = ledger.balance.get();
+      if (balance < amount) {
+        return OptionalInt.empty();
+      }
+    } while (!ledger.balance.compareAndSet(balance, balance - amount));
+    append(ledger, spending);
+    return OptionalInt.of(balance - amount);
+  }
+
+  @Override
+  public void grantEnergy(
+      List<Long> guardianIds, int amount, String source, LocalDateTime timestamp) {
+    for (Long guardianId : guardianIds) {
+      saveTransaction(
+          new EnergyTransaction(
+              guardianId, EnergyTransactionType.EARNED, amount, source, timestamp));
+    }
+  }
+
+  @Override
+  public void creditEnergy(
+      Map<Long, Integer> energyByGuardian,
+      String source,
+      LocalDate creditDate,
+      LocalDateTime timestamp) {
+    energyByGuardian.forEach(
+        (guardianId, amount) ->
+            saveTransaction(
+                new EnergyTransaction(
+                    guardianId, EnergyTransactionType.EARNED, amount, source, timestamp)));
+  }
+
+  private GuardianLedger ledger(Long guardianId) {
+    return ledgers.computeIfAbsent(guardianId, id -> new GuardianLedger());
+  }
+
+  private void append(GuardianLedger ledger, EnergyTransaction transaction) {
+    LedgerEntry entry = new LedgerEntry(transactionIdSequence.incrementAndGet(), transaction);
+    ledger
+        .segments
+        .computeIfAbsent(
+            transaction.getTimestamp().toLocalDate(), date -> new ConcurrentLinkedQueue<>())
+        .add(entry);
+    ledger.recent.add(entry.id(), transaction);
+  }
+
   @Override
   public List<EnergyTransaction> findTransactionsByGuardianId(Long guardianId) {
-    return transactions.values().stream()
-        .filter(transaction -> transaction.getGuardianId().equals(guardianId))
-        .collect(Collectors.toList());
+    GuardianLedger ledger = ledgers.get(guardianId);
+    if (ledger == null) {
+      return new ArrayList<>();
+    }
+    return transactionsOf(ledger.segments.values());
   }
 
   @Override
   public List<EnergyTransaction> findTransactionsByGuardianIdAndDateRange(
       Long guardianId, LocalDate fromDate, LocalDate toDate) {
-    return transactions.values().stream()
-        .filter(transaction -> transaction.getGuardianId().equals(guardianId))
-        .filter(
-            transaction -> {
-              LocalDate transactionDate = transaction.getTimestamp().toLocalDate();
-              return !transactionDate.isBefore(fromDate) && !transactionDate.isAfter(toDate);
-            })
-        .collect(Collectors.toList());
+    // Same inclusive day range as the half-open [fromDate, toDate + 1) of the JPA repositories
+    GuardianLedger ledger = ledgers.get(guardianId);
+    if (ledger == null || fromDate.isAfter(toDate)) {
+      return new ArrayList<>();
+    }
+    return transactionsOf(ledger.segments.subMap(fromDate, true, toDate, true).values());
+  }
+
+  @Override
+  public HistoryPage<EnergyTransaction> findTransactionsPage(
+      Long guardianId, LocalDateTime from, LocalDateTime to, HistoryCursor after, int size) {
+    GuardianLedger ledger = ledgers.get(guardianId);
+    HistoryCursor position = HistoryCursor.startOf(from, after);
+    LocalDateTime start = position.timestamp();
+    long afterId = position.id();
+    if (ledger == null || !start.isBefore(to)) {
+      return new HistoryPage<>(List.of(), null);
+    }
+    // Days are visited in order and only the segment of the current day is sorted
+    List<LedgerEntry> page = new ArrayList<>();
+    for (ConcurrentLinkedQueue<LedgerEntry> segment :
+        ledger.segments.subMap(start.toLocalDate(), true, to.toLocalDate(), true).values()) {
+      segment.stream()
+          .filter(entry -> isWithinPage(entry, start, afterId, to))
+          .sorted(OLDEST_FIRST)
+          .limit(size + 1L - page.size())
+          .forEach(page::add);
+      if (page.size() > size) {
+        break;
+      }
+    }
+    return HistoryPage.of(
+            page, size, entry -> new HistoryCursor(entry.transaction().getTimestamp(), entry.id()))
+        .map(LedgerEntry::transaction);
+  }
+
+  private boolean isWithinPage(
+      LedgerEntry entry, LocalDateTime start, long afterId, LocalDateTime to) {
+    LocalDateTime timestamp = entry.transaction().getTimestamp();
+    return timestamp.isBefore(to)
+        && (timestamp.isAfter(start) || (timestamp.isEqual(start) && entry.id() > afterId));
   }
 
   @Override
   public int getEnergyBalance(Long guardianId) {
-    return findTransactionsByGuardianId(guardianId).stream()
-        .mapToInt(
-            transaction -> {
-              if (transaction.getType() == EnergyTransactionType.EARNED) {
-                return transaction.getAmount();
-              } else {
-                return -transaction.getAmount();
-              }
-            })
-        .sum();
+    GuardianLedger ledger = ledgers.get(guardianId);
+    return ledger != null ? ledger.balance.get() : 0;
+  }
+
+  @Override
+  public int getLedgerBalance(Long guardianId) {
+    GuardianLedger ledger = ledgers.get(guardianId);
+    if (ledger == null) {
+      return 0;
+    }
+    return transactionsOf(ledger.segments.values()).stream().mapToInt(this::signedAmount).sum();
   }
 
   @Override
   public List<EnergyTransaction> getRecentTransactions(Long guardianId, int limit) {
-    return findTransactionsByGuardianId(guardianId).stream()
-        .sorted((t1, t2) -> t2.getTimestamp().compareTo(t1.getTimestamp()))
+    GuardianLedger ledger = ledgers.get(guardianId);
+    if (ledger == null || limit <= 0) {
+      return new ArrayList<>();
+    }
+    if (limit <= RECENT_CAPACITY) {
+      return ledger.recent.latest(limit);
+    }
+    // Every transaction of a later day is newer than those of earlier days, so only the newest
+    // segments that together hold at least limit entries need to be sorted
+    List<LedgerEntry> candidates = new ArrayList<>();
+    for (ConcurrentLinkedQueue<LedgerEntry> segment : ledger.segments.descendingMap().values()) {
+      candidates.addAll(segment);
+      if (candidates.size() >= limit) {
+        break;
+      }
+    }
+    return candidates.stream()
+        .sorted(NEWEST_FIRST)
         .limit(limit)
+        .map(LedgerEntry::transaction)
         .collect(Collectors.toList());
   }
+
+  private List<EnergyTransaction> transactionsOf(
+      Collection<ConcurrentLinkedQueue<LedgerEntry>> segments) {
+    List<EnergyTransaction> transactions = new ArrayList<>();
+    for (ConcurrentLinkedQueue<LedgerEntry> segment : segments) {
+      for (LedgerEntry entry : segment) {
+        transactions.add(entry.transaction());
+      }
+    }
+    return transactions;
+  }
+
+  private int signedAmount(EnergyTransaction transaction) {
+    return transaction.getType() == EnergyTransactionType.EARNED
+        ? transaction.getAmount()
+        : -transaction.getAmount();
+  }
+
+  private record LedgerEntry(long id, EnergyTransaction transaction) {}
+
+  /** Day segments, running balance and newest transactions of one guardian. */
+  private static final class GuardianLedger {
+    final ConcurrentSkipListMap<LocalDate, ConcurrentLinkedQueue<LedgerEntry>> segments =
+        new ConcurrentSkipListMap<>();
+    final AtomicInteger balance = new AtomicInteger();
+    final RecentEnergyTransactions recent = new RecentEnergyTransactions(RECENT_CAPACITY);
+  }
 }
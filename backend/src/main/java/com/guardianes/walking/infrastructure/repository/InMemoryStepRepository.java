@@ -1,17 +1,34 @@
 package com.guardianes.walking.infrastructure.repository;
 
 import com.guardianes.walking.domain.DailyStepAggregate;
+import com.guardianes.walking.domain.HistoryCursor;
+import com.guardianes.walking.domain.HistoryPage;
 import com.guardianes.walking.domain.StepRecord;
 import com.guardianes.walking.domain.StepRepository;
+import com.guardianes.walking.domain.StepResolution;
+import com.guardianes.walking.domain.StepRollup;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentSkipListMap;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Repository;
 
+/**
+ * {@link StepRepository} for local runs and load simulations. Each guardian owns a skip list of
+ * records keyed by the epoch nanosecond of their timestamp, plus one skip list of running totals
+ * per resolution keyed by the epoch nanosecond of the bucket start, so every lookup is a range view
+ * over a single guardian's data. As before, a record with the same guardian and timestamp as an
+ * existing one replaces it. Writes to a guardian are serialized on that guardian only; reads do not
+ * lock.
+ */
 @Repository
 @ConditionalOnProperty(
     name = "guardianes.test.memory-repository",
@@ -19,71 +36,155 @@ import org.springframework.stereotype.Repository;
     matchIfMissing = false)
 public class InMemoryStepRepository implements StepRepository {
 
-  private final Map<String, StepRecord> stepRecords = new ConcurrentHashMap<>();
-  private final Map<String, DailyStepAggregate> dailyAggregates = new ConcurrentHashMap<>();
+  private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+  private final Map<Long, GuardianSteps> guardians = new ConcurrentHashMap<>();
 
   @Override
   public StepRecord save(StepRecord stepRecord) {
-    String key = stepRecord.getGuardianId() + "_" + stepRecord.getTimestamp();
-    stepRecords.put(key, stepRecord);
+    GuardianSteps steps = guardians.computeIfAbsent(stepRecord.getGuardianId(), this::newGuardian);
+    long key = toKey(stepRecord.getTimestamp());
+    synchronized (steps) {
+      StepRecord previous = steps.records.put(key, stepRecord);
+      int delta = stepRecord.getStepCount() - (previous != null ? previous.getStepCount() : 0);
+      for (StepResolution resolution : StepResolution.values()) {
+        steps
+            .totals
+            .get(resolution)
+            .merge(toKey(resolution.periodStart(stepRecord.getTimestamp())), delta, Integer::sum);
+      }
+    }
     return stepRecord;
   }
 
+  @Override
+  public List<StepRecord> saveAll(List<StepRecord> records) {
+    records.forEach(this::save);
+    return records;
+  }
+
   @Override
   public List<StepRecord> findByGuardianIdAndDate(Long guardianId, LocalDate date) {
-    return stepRecords.values().stream()
-        .filter(record -> record.getGuardianId().equals(guardianId))
-        .filter(record -> record.getTimestamp().toLocalDate().equals(date))
-        .collect(Collectors.toList());
+    return findByGuardianIdAndDateRange(guardianId, date, date);
   }
 
   @Override
   public List<StepRecord> findByGuardianIdAndDateRange(
       Long guardianId, LocalDate fromDate, LocalDate toDate) {
-    return stepRecords.values().stream()
-        .filter(record -> record.getGuardianId().equals(guardianId))
-        .filter(
-            record -> {
-              LocalDate recordDate = record.getTimestamp().toLocalDate();
-              return !recordDate.isBefore(fromDate) && !recordDate.isAfter(toDate);
-            })
-        .collect(Collectors.toList());
+    GuardianSteps steps = guardians.get(guardianId);
+    if (steps == null || fromDate.isAfter(toDate)) {
+      return new ArrayList<>();
+    }
+    long from = toKey(fromDate.atStartOfDay());
+    long to = toKey(toDate.plusDays(1).atStartOfDay());
+    return new ArrayList<>(steps.records.subMap(from, true, to, false).values());
+  }
+
+  @Override
+  public HistoryPage<StepRecord> findRecordsPage(
+      Long guardianId, LocalDateTime from, LocalDateTime to, HistoryCursor after, int size) {
+    GuardianSteps steps = guardians.get(guardianId);
+    // A cursor before the range, e.g. one issued for another range, restarts at its beginning
+    boolean resumed = after != null && !after.timestamp().isBefore(from);
+    LocalDateTime start = resumed ? after.timestamp() : from;
+    if (steps == null || !start.isBefore(to)) {
+      return new HistoryPage<>(List.of(), null);
+    }
+    // Timestamps are unique per guardian here, so the cursor's timestamp alone positions the page
+    List<StepRecord> records =
+        steps.records.subMap(toKey(start), !resumed, toKey(to), false).values().stream()
+            .limit(size + 1L)
+            .toList();
+    return HistoryPage.of(records, size, record -> new HistoryCursor(record.getTimestamp(), 0L));
   }
 
   @Override
   public DailyStepAggregate saveDailyAggregate(DailyStepAggregate aggregate) {
-    String key = aggregate.getGuardianId() + "_" + aggregate.getDate();
-    dailyAggregates.put(key, aggregate);
+    GuardianSteps steps = guardians.computeIfAbsent(aggregate.getGuardianId(), this::newGuardian);
+    synchronized (steps) {
+      steps
+          .totals
+          .get(StepResolution.DAILY)
+          .put(toKey(aggregate.getDate().atStartOfDay()), aggregate.getTotalSteps());
+    }
     return aggregate;
   }
 
+  @Override
+  public Optional<DailyStepAggregate> findDailyAggregate(Long guardianId, LocalDate date) {
+    GuardianSteps steps = guardians.get(guardianId);
+    if (steps == null) {
+      return Optional.empty();
+    }
+    Integer total = steps.totals.get(StepResolution.DAILY).get(toKey(date.atStartOfDay()));
+    return total != null
+        ? Optional.of(new DailyStepAggregate(guardianId, date, total))
+        : Optional.empty();
+  }
+
   @Override
   public List<DailyStepAggregate> findDailyAggregatesByGuardianIdAndDateRange(
       Long guardianId, LocalDate fromDate, LocalDate toDate) {
-    return dailyAggregates.values().stream()
-        .filter(aggregate -> aggregate.getGuardianId().equals(guardianId))
-        .filter(
-            aggregate -> {
-              LocalDate aggregateDate = aggregate.getDate();
-              return !aggregateDate.isBefore(fromDate) && !aggregateDate.isAfter(toDate);
-            })
-        .collect(Collectors.toList());
+    List<DailyStepAggregate> aggregates = new ArrayList<>();
+    for (StepRollup rollup :
+        findRollups(
+            guardianId,
+            StepResolution.DAILY,
+            fromDate.atStartOfDay(),
+            toDate.plusDays(1).atStartOfDay())) {
+      aggregates.add(
+          new DailyStepAggregate(
+              guardianId, rollup.getPeriodStart().toLocalDate(), rollup.getTotalSteps()));
+    }
+    return aggregates;
   }
 
   @Override
-  public int countSubmissionsInLastHour(Long guardianId, LocalDateTime timestamp) {
-    LocalDateTime oneHourAgo = timestamp.minusHours(1);
-    return (int)
-        stepRecords.values().stream()
-            .filter(record -> record.getGuardianId().equals(guardianId))
-            .filter(record -> record.getTimestamp().isAfter(oneHourAgo))
-            .filter(record -> record.getTimestamp().isBefore(timestamp))
-            .count();
+  public List<StepRollup> findRollups(
+      Long guardianId, StepResolution resolution, LocalDateTime from, LocalDateTime to) {
+    GuardianSteps steps = guardians.get(guardianId);
+    List<StepRollup> rollups = new ArrayList<>();
+    if (steps == null || !from.isBefore(to)) {
+      return rollups;
+    }
+    NavigableMap<Long, Integer> range =
+        steps.totals.get(resolution).subMap(toKey(from), true, toKey(to), false);
+    range.forEach(
+        (periodStart, totalSteps) ->
+            rollups.add(new StepRollup(guardianId, resolution, fromKey(periodStart), totalSteps)));
+    return rollups;
   }
 
   // Helper method to add step records for testing
   public void addStepRecord(StepRecord record) {
-    String key = record.getGuardianId() + "_" + record.getTimestamp();
-    stepRecords.put(key, record);
+    save(record);
+  }
+
+  private GuardianSteps newGuardian(Long guardianId) {
+    return new GuardianSteps();
+  }
+
+  private static long toKey(LocalDateTime timestamp) {
+    return timestamp.toEpochSecond(ZoneOffset.UTC) * NANOS_PER_SECOND + timestamp.getNano();
+  }
+
+  private static LocalDateTime fromKey(long key) {
+    return LocalDateTime.ofEpochSecond(
+        Math.floorDiv(key, NANOS_PER_SECOND),
+        (int) Math.floorMod(key, NANOS_PER_SECOND),
+        ZoneOffset.UTC);
+  }
+
+  /** Records and running totals of one guardian; writers synchronize on the instance. */
+  private static final class GuardianSteps {
+    final ConcurrentSkipListMap<Long, StepRecord> records = new ConcurrentSkipListMap<>();
+    final Map<StepResolution, ConcurrentSkipListMap<Long, Integer>> totals =
+        new EnumMap<>(StepResolution.class);
+
+    GuardianSteps() {
+      for (StepResolution resolution : StepResolution.values()) {
+        totals.put(resolution, new ConcurrentSkipListMap<>());
+      }
+    }
   }
 }
@@ -1,10 +1,13 @@
 package com.guardianes.walking.infrastructure.service;
 
 import com.guardianes.walking.domain.AnomalyDetectionService;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 
 @Service
+@ConditionalOnProperty(name = "guardianes.walking.anomaly.model", havingValue = "simple")
 public class SimpleAnomalyDetectionService implements AnomalyDetectionService {
 
   @Override
@@ -12,4 +15,10 @@ public class SimpleAnomalyDetectionService implements AnomalyDetectionService {
     // Simple rule: more than 15000 steps in one submission is considered anomalous
     return stepCount > 15000;
   }
+
+  @Override
+  public boolean isDailySpike(Long guardianId, LocalDate date, int dailyTotal) {
+    // The static rule keeps no per-guardian history to compare against
+    return false;
+  }
 }
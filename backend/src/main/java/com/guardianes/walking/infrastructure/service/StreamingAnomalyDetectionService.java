@@ -0,0 +1,306 @@
+package com.guardianes.walking.infrastructure.service;
+
+import com.guardianes.walking.domain.AnomalyDetectionService;
+import com.guardianes.walking.domain.GuardianStepStatistics;
+import com.guardianes.walking.domain.GuardianStepStatisticsRepository;
+import jakarta.annotation.PreDestroy;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Adaptive anomaly detection backed by running statistics per guardian. Each accepted submission
+ * updates an exponentially weighted mean and variance of the steps per submission and, when a new
+ * day starts, of the guardian's daily totals, so both checks are constant time and constant memory
+ * per guardian. A submission is anomalous when it exceeds the absolute per-submission ceiling or,
+ * once enough history exists, lies more than {@code z-threshold} deviations above the guardian's
+ * mean. Statistics are loaded lazily from their last checkpoint and checkpointed periodically;
+ * guardians idle for longer than {@code max-idle-seconds} are dropped after a checkpoint once their
+ * statistics are saved, so memory is bounded by the recently active guardians, and reloaded from
+ * the checkpoint on their next submission.
+ */
+@Service
+@ConditionalOnProperty(
+    name = "guardianes.walking.anomaly.model",
+    havingValue = "streaming",
+    matchIfMissing = true)
+public class StreamingAnomalyDetectionService implements AnomalyDetectionService {
+  private static final Logger logger =
+      LoggerFactory.getLogger(StreamingAnomalyDetectionService.class);
+
+  // Deviation is never assumed smaller than this fraction of the mean, so steady walkers with a
+  // near-zero variance are not flagged for an ordinary busier day
+  private static final double MIN_RELATIVE_DEVIATION = 0.5;
+
+  private final ConcurrentHashMap<Long, GuardianModel> models = new ConcurrentHashMap<>();
+  private final Set<Long> dirtyGuardians = ConcurrentHashMap.newKeySet();
+  private final GuardianStepStatisticsRepository statisticsRepository;
+  private final int maxStepsPerSubmission;
+  private final int minAnomalousSteps;
+  private final double alpha;
+  private final double dailyAlpha;
+  private final double zThreshold;
+  private final int warmupSubmissions;
+  private final int warmupDays;
+  private final long maxIdleMillis;
+  private final LongSupplier clock;
+
+  @Autowired
+  public StreamingAnomalyDetectionService(
+      GuardianStepStatisticsRepository statisticsRepository,
+      @Value("${guardianes.walking.anomaly.max-steps-per-submission:15000}")
+          int maxStepsPerSubmission,
+      @Value("${guardianes.walking.anomaly.min-anomalous-steps:5000}") int minAnomalousSteps,
+      @Value("${guardianes.walking.anomaly.alpha:0.1}") double alpha,
+      @Value("${guardianes.walking.anomaly.daily-alpha:0.2}") double dailyAlpha,
+      @Value("${guardianes.walking.anomaly.z-threshold:4.0}") double zThreshold,
+      @Value("${guardianes.walking.anomaly.warmup-submissions:10}") int warmupSubmissions,
+      @Value("${guardianes.walking.anomaly.warmup-days:2}") int warmupDays,
+      @Value("${guardianes.walking.anomaly.max-idle-seconds:3600}") long maxIdleSeconds) {
+    this(
+        statisticsRepository,
+        maxStepsPerSubmission,
+        minAnomalousSteps,
+        alpha,
+        dailyAlpha,
+        zThreshold,
+        warmupSubmissions,
+        warmupDays,
+        maxIdleSeconds,
+        System::currentTimeMillis);
+  }
+
+  StreamingAnomalyDetectionService(
+      GuardianStepStatisticsRepository statisticsRepository,
+      int maxStepsPerSubmission,
+      int minAnomalousSteps,
+      double alpha,
+      double dailyAlpha,
+      double zThreshold,
+      int warmupSubmissions,
+      int warmupDays,
+      long maxIdleSeconds,
+      LongSupplier clock) {
+    this.statisticsRepository = statisticsRepository;
+    this.maxStepsPerSubmission = maxStepsPerSubmission;
+    this.minAnomalousSteps = minAnomalousSteps;
+    this.alpha = alpha;
+    this.dailyAlpha = dailyAlpha;
+    this.zThreshold = zThreshold;
+    this.warmupSubmissions = warmupSubmissions;
+    this.warmupDays = warmupDays;
+    this.maxIdleMillis = maxIdleSeconds * 1000;
+    this.clock = clock;
+  }
+
+  @Override
+  public boolean isAnomalous(Long guardianId, int stepCount, LocalDateTime timestamp) {
+    if (stepCount > maxStepsPerSubmission) {
+      return true;
+    }
+    if (stepCount <= minAnomalousSteps) {
+      return false;
+    }
+    return withModel(
+        guardianId,
+        model ->
+            model.submissionCount >= warmupSubmissions
+                && exceeds(stepCount, model.submissionMean, model.submissionVariance));
+  }
+
+  @Override
+  public boolean isDailySpike(Long guardianId, LocalDate date, int dailyTotal) {
+    return withModel(
+        guardianId,
+        model ->
+            model.dayCount >= warmupDays
+                && exceeds(dailyTotal, model.dailyMean, model.dailyVariance));
+  }
+
+  @Override
+  public void recordAccepted(Long guardianId, int stepCount, LocalDateTime timestamp) {
+    withModel(
+        guardianId,
+        model -> {
+          model.recordSubmission(stepCount, alpha);
+          model.recordDailySteps(timestamp.toLocalDate(), stepCount, dailyAlpha);
+          // Marked under the model's monitor, so eviction never drops an unsaved update
+          return dirtyGuardians.add(guardianId);
+        });
+  }
+
+  /**
+   * Writes the statistics of every guardian updated since the previous checkpoint, then drops the
+   * idle guardians whose statistics are saved.
+   */
+  @Scheduled(fixedDelayString = "${guardianes.walking.anomaly.checkpoint-interval-ms:300000}")
+  @PreDestroy
+  public void checkpoint() {
+    List<GuardianStepStatistics> snapshots = new ArrayList<>();
+    for (Long guardianId : dirtyGuardians) {
+      // Removed before the snapshot is taken, so a concurrent update marks the guardian again
+      dirtyGuardians.remove(guardianId);
+      GuardianModel model = models.get(guardianId);
+      if (model != null) {
+        synchronized (model) {
+          snapshots.add(model.toStatistics(guardianId));
+        }
+      }
+    }
+    if (!snapshots.isEmpty()) {
+      try {
+        statisticsRepository.saveAll(snapshots);
+        logger.debug("Checkpointed step statistics of {} guardians", snapshots.size());
+      } catch (RuntimeException e) {
+        snapshots.forEach(snapshot -> dirtyGuardians.add(snapshot.guardianId()));
+        logger.warn("Failed to checkpoint step statistics: {}", e.getMessage());
+      }
+    }
+    evictIdle();
+  }
+
+  private void evictIdle() {
+    long idleSince = clock.getAsLong() - maxIdleMillis;
+    int evicted = 0;
+    for (Map.Entry<Long, GuardianModel> entry : models.entrySet()) {
+      GuardianModel model = entry.getValue();
+      synchronized (model) {
+        if (model.lastUsedMillis <= idleSince && !dirtyGuardians.contains(entry.getKey())) {
+          model.evicted = true;
+          models.remove(entry.getKey(), model);
+          evicted++;
+        }
+      }
+    }
+    if (evicted > 0) {
+      logger.debug("Dropped step statistics of {} idle guardians", evicted);
+    }
+  }
+
+  int trackedGuardians() {
+    return models.size();
+  }
+
+  /** Runs the action under the guardian's model monitor, reloading a model evicted meanwhile. */
+  private <T> T withModel(Long guardianId, Function<GuardianModel, T> action) {
+    while (true) {
+      GuardianModel model = model(guardianId);
+      synchronized (model) {
+        if (!model.evicted) {
+          model.lastUsedMillis = clock.getAsLong();
+          return action.apply(model);
+        }
+      }
+    }
+  }
+
+  private GuardianModel model(Long guardianId) {
+    GuardianModel model = models.get(guardianId);
+    if (model != null) {
+      return model;
+    }
+    // Loaded outside computeIfAbsent to keep the database call out of the map's bin lock
+    GuardianModel loaded =
+        statisticsRepository
+            .findByGuardianId(guardianId)
+            .map(GuardianModel::fromStatistics)
+            .orElseGet(GuardianModel::new);
+    GuardianModel existing = models.putIfAbsent(guardianId, loaded);
+    return existing != null ? existing : loaded;
+  }
+
+  private boolean exceeds(double value, double mean, double variance) {
+    double deviation = Math.max(Math.sqrt(variance), mean * MIN_RELATIVE_DEVIATION);
+    return value > mean + zThreshold * deviation;
+  }
+
+  /** Mutable running statistics of one guardian; guarded by its own monitor. */
+  private static final class GuardianModel {
+    double submissionMean;
+    double submissionVariance;
+    long submissionCount;
+    double dailyMean;
+    double dailyVariance;
+    long dayCount;
+    LocalDate openDay;
+    int openDayTotal;
+    long lastUsedMillis;
+    boolean evicted;
+
+    static GuardianModel fromStatistics(GuardianStepStatistics statistics) {
+      GuardianModel model = new GuardianModel();
+      model.submissionMean = statistics.submissionMean();
+      model.submissionVariance = statistics.submissionVariance();
+      model.submissionCount = statistics.submissionCount();
+      model.dailyMean = statistics.dailyMean();
+      model.dailyVariance = statistics.dailyVariance();
+      model.dayCount = statistics.dayCount();
+      model.openDay = statistics.openDay();
+      model.openDayTotal = statistics.openDayTotal();
+      return model;
+    }
+
+    void recordSubmission(int stepCount, double alpha) {
+      if (submissionCount == 0) {
+        submissionMean = stepCount;
+      } else {
+        double diff = stepCount - submissionMean;
+        double increment = alpha * diff;
+        submissionMean += increment;
+        submissionVariance = (1 - alpha) * (submissionVariance + diff * increment);
+      }
+      submissionCount++;
+    }
+
+    void recordDailySteps(LocalDate date, int stepCount, double alpha) {
+      if (openDay == null || date.isAfter(openDay)) {
+        if (openDay != null) {
+          closeDay(alpha);
+        }
+        openDay = date;
+        openDayTotal = stepCount;
+      } else if (date.equals(openDay)) {
+        openDayTotal += stepCount;
+      }
+      // Late submissions for days already closed only count towards the submission statistics
+    }
+
+    private void closeDay(double alpha) {
+      if (dayCount == 0) {
+        dailyMean = openDayTotal;
+      } else {
+        double diff = openDayTotal - dailyMean;
+        double increment = alpha * diff;
+        dailyMean += increment;
+        dailyVariance = (1 - alpha) * (dailyVariance + diff * increment);
+      }
+      dayCount++;
+    }
+
+    GuardianStepStatistics toStatistics(Long guardianId) {
+      return new GuardianStepStatistics(
+          guardianId,
+          submissionMean,
+          submissionVariance,
+          submissionCount,
+          dailyMean,
+          dailyVariance,
+          dayCount,
+          openDay,
+          openDayTotal);
+    }
+  }
+}
@@ -3,6 +3,7 @@ package com.guardianes.walking.infrastructure.web;
 import com.guardianes.walking.application.dto.EnergyBalanceResponse;
 import com.guardianes.walking.application.dto.EnergySpendingRequest;
 import com.guardianes.walking.application.dto.EnergySpendingResponse;
+import com.guardianes.walking.application.dto.EnergyTransactionPageResponse;
 import com.guardianes.walking.application.service.EnergyManagementApplicationService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -12,6 +13,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import java.time.LocalDate;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -69,6 +71,43 @@ public class EnergyController {
     return ResponseEntity.ok(response);
   }
 
+  @GetMapping("/transactions")
+  @Operation(
+      summary = "Get energy transaction history",
+      description =
+          "Retrieve a guardian's energy transactions within a date range, oldest first, one page at"
+              + " a time. Pass the returned cursor to read the next page.")
+  @ApiResponses(
+      value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Energy transactions retrieved successfully",
+            content =
+                @Content(schema = @Schema(implementation = EnergyTransactionPageResponse.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid date range, cursor or size"),
+        @ApiResponse(responseCode = "404", description = "Guardian not found")
+      })
+  public ResponseEntity<EnergyTransactionPageResponse> getTransactionHistory(
+      @Parameter(description = "Guardian ID", required = true) @PathVariable Long guardianId,
+      @Parameter(description = "Start date (YYYY-MM-DD)", required = true) @RequestParam("from")
+          LocalDate fromDate,
+      @Parameter(description = "End date (YYYY-MM-DD)", required = true) @RequestParam("to")
+          LocalDate toDate,
+      @Parameter(description = "Cursor returned with the previous page")
+          @RequestParam(value = "cursor", required = false)
+          String cursor,
+      @Parameter(description = "Page size, 50 by default and at most 200")
+          @RequestParam(value = "size", required = false)
+          Integer size) {
+    if (fromDate.isAfter(toDate)) {
+      throw new IllegalArgumentException("Invalid date range: from date cannot be after to date");
+    }
+
+    EnergyTransactionPageResponse response =
+        energyService.getTransactionHistory(guardianId, fromDate, toDate, cursor, size);
+    return ResponseEntity.ok(response);
+  }
+
   @GetMapping("/health")
   @Operation(
       summary = "Energy service health check",
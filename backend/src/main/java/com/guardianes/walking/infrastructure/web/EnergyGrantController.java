@@ -0,0 +1,57 @@
+package com.guardianes.walking.infrastructure.web;
+
+import com.guardianes.walking.application.dto.EnergyGrantRequest;
+import com.guardianes.walking.application.dto.EnergyGrantResponse;
+import com.guardianes.walking.application.service.EnergyManagementApplicationService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/v1/energy/grants")
+@Tag(name = "Energy", description = "Energy management for card battles and challenges")
+public class EnergyGrantController {
+
+  private final EnergyManagementApplicationService energyService;
+
+  @Autowired
+  public EnergyGrantController(EnergyManagementApplicationService energyService) {
+    this.energyService = energyService;
+  }
+
+  @PostMapping
+  @PreAuthorize("hasRole('ADMIN')")
+  @Operation(
+      summary = "Grant energy to many guardians",
+      description =
+          "Credit the same amount of energy to up to 5000 guardians, for example a class after a"
+              + " school walk or the participants of an event. The grant is stored in one"
+              + " transaction; unknown and repeated guardian ids are reported and skipped."
+              + " Restricted to administrators.")
+  @ApiResponses(
+      value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Grant processed, see per-guardian results",
+            content = @Content(schema = @Schema(implementation = EnergyGrantResponse.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid request or validation error"),
+        @ApiResponse(responseCode = "403", description = "Caller is not an administrator")
+      })
+  public ResponseEntity<EnergyGrantResponse> grantEnergy(
+      @Parameter(description = "Guardians, amount and reason of the grant", required = true)
+          @Valid
+          @RequestBody
+          EnergyGrantRequest request) {
+    EnergyGrantResponse response = energyService.grantEnergy(request);
+    return ResponseEntity.ok(response);
+  }
+}
@@ -1,10 +1,14 @@
 package com.guardianes.walking.infrastructure.web;
 
 import com.guardianes.walking.application.dto.CurrentStepCountResponse;
+import com.guardianes.walking.application.dto.StepBatchSubmissionRequest;
+import com.guardianes.walking.application.dto.StepBatchSubmissionResponse;
 import com.guardianes.walking.application.dto.StepHistoryResponse;
+import com.guardianes.walking.application.dto.StepRecordPageResponse;
 import com.guardianes.walking.application.dto.StepSubmissionRequest;
 import com.guardianes.walking.application.dto.StepSubmissionResponse;
 import com.guardianes.walking.application.service.StepTrackingApplicationService;
+import com.guardianes.walking.domain.StepResolution;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -47,7 +51,10 @@ public class StepController {
             content = @Content(schema = @Schema(implementation = StepSubmissionResponse.class))),
         @ApiResponse(responseCode = "400", description = "Invalid request or validation error"),
         @ApiResponse(responseCode = "404", description = "Guardian not found"),
-        @ApiResponse(responseCode = "429", description = "Rate limit exceeded")
+        @ApiResponse(responseCode = "429", description = "Rate limit exceeded"),
+        @ApiResponse(
+            responseCode = "503",
+            description = "Step ingestion queue is full (write-behind mode), retry later")
       })
   public ResponseEntity<StepSubmissionResponse> submitSteps(
       @Parameter(description = "Guardian ID", required = true) @PathVariable Long guardianId,
@@ -63,6 +70,38 @@ public class StepController {
     return ResponseEntity.status(HttpStatus.CREATED).body(response);
   }
 
+  @PostMapping("/batch")
+  @Operation(
+      summary = "Submit a batch of step samples",
+      description =
+          "Submit up to 500 step samples recorded while offline. Samples are validated together against the guardian's daily totals and stored in one transaction; the response reports the outcome of each sample.")
+  @ApiResponses(
+      value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Batch processed, see per-sample results",
+            content =
+                @Content(schema = @Schema(implementation = StepBatchSubmissionResponse.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid request or validation error"),
+        @ApiResponse(responseCode = "404", description = "Guardian not found"),
+        @ApiResponse(responseCode = "429", description = "Rate limit exceeded")
+      })
+  public ResponseEntity<StepBatchSubmissionResponse> submitStepBatch(
+      @Parameter(description = "Guardian ID", required = true) @PathVariable Long guardianId,
+      @Parameter(description = "Buffered step samples", required = true) @Valid @RequestBody
+          StepBatchSubmissionRequest request) {
+    logger.info(
+        "Received step batch for guardian {}: {} samples", guardianId, request.samples().size());
+
+    StepBatchSubmissionResponse response = stepTrackingService.submitStepBatch(guardianId, request);
+    logger.info(
+        "Processed step batch for guardian {}: {} accepted, {} rejected",
+        guardianId,
+        response.acceptedCount(),
+        response.rejectedCount());
+    return ResponseEntity.ok(response);
+  }
+
   @GetMapping("/current")
   @Operation(
       summary = "Get current daily step count",
@@ -86,7 +125,9 @@ public class StepController {
   @Operation(
       summary = "Get step history",
       description =
-          "Retrieve step history for a guardian within a specified date range. Maximum range is 30 days.")
+          "Retrieve step history for a guardian within a specified date range. Without a resolution,"
+              + " ranges of up to 62 days are returned daily, up to a year weekly and longer ranges"
+              + " monthly. Hourly history is limited to 31 days.")
   @ApiResponses(
       value = {
         @ApiResponse(
@@ -101,12 +142,52 @@ public class StepController {
       @Parameter(description = "Start date (YYYY-MM-DD)", required = true) @RequestParam("from")
           LocalDate fromDate,
       @Parameter(description = "End date (YYYY-MM-DD)", required = true) @RequestParam("to")
-          LocalDate toDate) {
+          LocalDate toDate,
+      @Parameter(description = "Bucket size: HOURLY, DAILY, WEEKLY or MONTHLY")
+          @RequestParam(value = "resolution", required = false)
+          StepResolution resolution) {
+    if (fromDate.isAfter(toDate)) {
+      throw new IllegalArgumentException("Invalid date range: from date cannot be after to date");
+    }
+
+    StepHistoryResponse response =
+        stepTrackingService.getStepHistory(guardianId, fromDate, toDate, resolution);
+    return ResponseEntity.ok(response);
+  }
+
+  @GetMapping("/records")
+  @Operation(
+      summary = "Get step records",
+      description =
+          "Retrieve a guardian's individual step submissions within a date range, oldest first, one"
+              + " page at a time. Pass the returned cursor to read the next page.")
+  @ApiResponses(
+      value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Step records retrieved successfully",
+            content = @Content(schema = @Schema(implementation = StepRecordPageResponse.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid date range, cursor or size"),
+        @ApiResponse(responseCode = "404", description = "Guardian not found")
+      })
+  public ResponseEntity<StepRecordPageResponse> getStepRecords(
+      @Parameter(description = "Guardian ID", required = true) @PathVariable Long guardianId,
+      @Parameter(description = "Start date (YYYY-MM-DD)", required = true) @RequestParam("from")
+          LocalDate fromDate,
+      @Parameter(description = "End date (YYYY-MM-DD)", required = true) @RequestParam("to")
+          LocalDate toDate,
+      @Parameter(description = "Cursor returned with the previous page")
+          @RequestParam(value = "cursor", required = false)
+          String cursor,
+      @Parameter(description = "Page size, 50 by default and at most 200")
+          @RequestParam(value = "size", required = false)
+          Integer size) {
     if (fromDate.isAfter(toDate)) {
       throw new IllegalArgumentException("Invalid date range: from date cannot be after to date");
     }
 
-    StepHistoryResponse response = stepTrackingService.getStepHistory(guardianId, fromDate, toDate);
+    StepRecordPageResponse response =
+        stepTrackingService.getStepRecords(guardianId, fromDate, toDate, cursor, size);
     return ResponseEntity.ok(response);
   }
 }
@@ -0,0 +1,33 @@
+-- Hourly, weekly and monthly step totals per guardian, maintained at write time next to
+-- daily_step_aggregates so long-range history reads a few rows per guardian instead of every day
+-- Weeks start on Monday; period_start is the first instant of the bucket
+
+CREATE TABLE step_rollups (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    guardian_id BIGINT NOT NULL,
+    resolution VARCHAR(16) NOT NULL,
+    period_start TIMESTAMP NOT NULL,
+    total_steps INTEGER NOT NULL DEFAULT 0,
+
+    FOREIGN KEY (guardian_id) REFERENCES guardians(id) ON DELETE CASCADE,
+
+    -- Also serves the (guardian, resolution, period range) history lookups
+    CONSTRAINT uk_step_rollups_guardian_resolution_period UNIQUE (guardian_id, resolution, period_start),
+    CONSTRAINT chk_step_rollups_total_steps_non_negative CHECK (total_steps >= 0)
+);
+
+-- Backfill from the raw step records and the daily aggregates
+INSERT INTO step_rollups (guardian_id, resolution, period_start, total_steps)
+SELECT guardian_id, 'HOURLY', DATE_FORMAT(recorded_at, '%Y-%m-%d %H:00:00'), SUM(step_count)
+FROM step_records
+GROUP BY guardian_id, DATE_FORMAT(recorded_at, '%Y-%m-%d %H:00:00');
+
+INSERT INTO step_rollups (guardian_id, resolution, period_start, total_steps)
+SELECT guardian_id, 'WEEKLY', DATE_SUB(date, INTERVAL WEEKDAY(date) DAY), SUM(total_steps)
+FROM daily_step_aggregates
+GROUP BY guardian_id, DATE_SUB(date, INTERVAL WEEKDAY(date) DAY);
+
+INSERT INTO step_rollups (guardian_id, resolution, period_start, total_steps)
+SELECT guardian_id, 'MONTHLY', DATE_FORMAT(date, '%Y-%m-01'), SUM(total_steps)
+FROM daily_step_aggregates
+GROUP BY guardian_id, DATE_FORMAT(date, '%Y-%m-01');
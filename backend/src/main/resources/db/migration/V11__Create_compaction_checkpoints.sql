@@ -0,0 +1,9 @@
+-- Progress of the retention jobs that compact raw history into aggregates
+-- compacted_through is the last day whose raw rows were folded and may be deleted
+
+CREATE TABLE compaction_checkpoints (
+    job_name VARCHAR(64) NOT NULL PRIMARY KEY,
+    compacted_through DATE,
+    records_compacted BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL
+);
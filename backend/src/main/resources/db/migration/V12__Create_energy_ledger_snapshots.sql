@@ -0,0 +1,10 @@
+-- Per-guardian energy ledger checkpoints: balance is the sum of every transaction with
+-- id <= last_transaction_id, so the ledger balance is the snapshot plus the tail after it
+-- The tail lookup (guardian_id = ? AND id > ?) is a range scan of the guardian_id index
+
+CREATE TABLE energy_ledger_snapshots (
+    guardian_id BIGINT NOT NULL PRIMARY KEY,
+    balance INTEGER NOT NULL,
+    last_transaction_id BIGINT NOT NULL,
+    updated_at TIMESTAMP NOT NULL
+);
@@ -0,0 +1,11 @@
+-- Progress of the nightly conversion of daily steps into energy
+-- converted_through_guardian_id is the highest guardian id whose steps of the day were converted,
+-- so a run that failed resumes after it instead of starting over
+
+CREATE TABLE energy_conversion_checkpoints (
+    conversion_date DATE NOT NULL PRIMARY KEY,
+    converted_through_guardian_id BIGINT NOT NULL DEFAULT 0,
+    guardians_credited BIGINT NOT NULL DEFAULT 0,
+    completed BOOLEAN NOT NULL DEFAULT FALSE,
+    updated_at TIMESTAMP NOT NULL
+);
@@ -0,0 +1,13 @@
+-- The day a once-per-day credit, such as the nightly conversion of daily steps, is for; NULL for
+-- every other transaction, so the unique key only allows one such credit per guardian, day and
+-- source and never constrains ordinary ledger rows
+
+ALTER TABLE energy_transactions ADD COLUMN credit_date DATE;
+CREATE UNIQUE INDEX uk_energy_transactions_daily_credit
+    ON energy_transactions (guardian_id, credit_date, source);
+
+-- Lease taken by the instance converting a day, so concurrent runs do not convert it together
+-- locked_until is renewed with every checkpoint; an expired lease can be taken over
+
+ALTER TABLE energy_conversion_checkpoints ADD COLUMN locked_by VARCHAR(36);
+ALTER TABLE energy_conversion_checkpoints ADD COLUMN locked_until TIMESTAMP NULL;
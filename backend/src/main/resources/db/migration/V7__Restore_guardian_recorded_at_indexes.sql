@@ -0,0 +1,6 @@
+-- Restore the composite (guardian_id, recorded_at) indexes lost when V4 recreated the tables
+-- Per-day and date-range lookups filter on half-open recorded_at ranges, which these indexes
+-- serve as a single range scan instead of reading each guardian's full history
+
+CREATE INDEX idx_step_records_guardian_recorded_at ON step_records(guardian_id, recorded_at);
+CREATE INDEX idx_energy_transactions_guardian_recorded_at ON energy_transactions(guardian_id, recorded_at);
@@ -0,0 +1,13 @@
+-- Responses of mutating API calls sent with an Idempotency-Key header, replayed on retry
+-- Only used when guardianes.idempotency.store=jdbc; rows without a status_code are in flight
+
+CREATE TABLE idempotency_keys (
+    idempotency_key VARCHAR(64) NOT NULL PRIMARY KEY,
+    status_code INT,
+    content_type VARCHAR(255),
+    response_body BLOB,
+    created_at TIMESTAMP NOT NULL,
+    expires_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_idempotency_keys_expires_at ON idempotency_keys(expires_at);
@@ -9,10 +9,9 @@ import com.guardianes.cards.domain.repository.CardCollectionRepository;
 import com.guardianes.cards.domain.repository.CardRepository;
 import com.guardianes.cards.domain.service.QRValidationService;
 import com.guardianes.cards.domain.service.QRValidationService.QRValidationResult;
+import com.guardianes.shared.infrastructure.metrics.BusinessMetricsService;
 import java.time.LocalDateTime;
 import java.util.Collections;
-import java.util.HashMap;
-import java.util.Map;
 import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -28,6 +27,7 @@ class CardCollectionServiceTest {
   @Mock private CardRepository cardRepository;
   @Mock private CardCollectionRepository collectionRepository;
   @Mock private QRValidationService qrValidationService;
+  @Mock private BusinessMetricsService metricsService;
 
   private CardCollectionService cardCollectionService;
   private Card testCard;
@@ -35,7 +35,8 @@ class CardCollectionServiceTest {
   @BeforeEach
   void setUp() {
     cardCollectionService =
-        new CardCollectionService(cardRepository, collectionRepository, qrValidationService);
+        new CardCollectionService(
+            cardRepository, collectionRepository, qrValidationService, metricsService);
 
     testCard =
         new Card(
@@ -89,6 +90,8 @@ class CardCollectionServiceTest {
       // Then
       assertFalse(result.isSuccess());
       assertTrue(result.getMessage().contains("Card not found"));
+      verify(metricsService).recordCardScanRejected("unknown_card");
+      verifyNoInteractions(collectionRepository);
     }
 
     @Test
@@ -130,7 +133,8 @@ class CardCollectionServiceTest {
       String qrCode = "FIRESTRIKE000001";
       when(qrValidationService.validateQRCode(qrCode)).thenReturn(QRValidationResult.valid(qrCode));
       when(cardRepository.findByQrCode(qrCode)).thenReturn(Optional.of(testCard));
-      when(collectionRepository.guardianOwnsCard(1L, testCard.getId())).thenReturn(false);
+      when(collectionRepository.collectCard(1L, testCard.getId(), 1))
+          .thenReturn(new CardCollectionRepository.CollectedCount(1, true));
 
       // When
       CardCollectionService.CardScanResult result = cardCollectionService.scanQRCode(1L, qrCode);
@@ -139,7 +143,7 @@ class CardCollectionServiceTest {
       assertTrue(result.isSuccess());
       assertTrue(result.isNew());
       assertEquals(testCard, result.getCard());
-      verify(collectionRepository).addCardToCollection(1L, testCard.getId(), 1);
+      verify(collectionRepository, never()).findByGuardianId(1L);
     }
 
     @Test
@@ -149,8 +153,8 @@ class CardCollectionServiceTest {
       String qrCode = "FIRESTRIKE000001";
       when(qrValidationService.validateQRCode(qrCode)).thenReturn(QRValidationResult.valid(qrCode));
       when(cardRepository.findByQrCode(qrCode)).thenReturn(Optional.of(testCard));
-      when(collectionRepository.guardianOwnsCard(1L, testCard.getId())).thenReturn(true);
-      when(collectionRepository.getCardCount(1L, testCard.getId())).thenReturn(5); // Now 5
+      when(collectionRepository.collectCard(1L, testCard.getId(), 1))
+          .thenReturn(new CardCollectionRepository.CollectedCount(5, false)); // Now 5
 
       // When
       CardCollectionService.CardScanResult result = cardCollectionService.scanQRCode(1L, qrCode);
@@ -159,7 +163,7 @@ class CardCollectionServiceTest {
       assertTrue(result.isSuccess());
       assertFalse(result.isNew()); // Not new
       assertEquals(5, result.getCount());
-      verify(collectionRepository).addCardToCollection(1L, testCard.getId(), 1);
+      verify(collectionRepository, never()).addCardToCollection(1L, testCard.getId(), 1);
     }
   }
 
@@ -173,19 +177,12 @@ class CardCollectionServiceTest {
       // Given
       Long guardianId = 1L;
       when(cardRepository.countActive()).thenReturn(100L);
-      when(collectionRepository.getUniqueCardCount(guardianId)).thenReturn(20);
-      when(collectionRepository.getTotalCardCount(guardianId)).thenReturn(50);
-      when(collectionRepository.getCompletionPercentage(guardianId, 100)).thenReturn(20.0);
-      when(collectionRepository.getTotalTradeValue(guardianId)).thenReturn(500);
-      when(collectionRepository.hasElementalBalance(guardianId)).thenReturn(true);
-
-      Map<CardElement, Integer> elemCounts = new HashMap<>();
-      elemCounts.put(CardElement.FIRE, 10);
-      when(collectionRepository.getCardCountsByElement(guardianId)).thenReturn(elemCounts);
-
-      Map<CardRarity, Integer> rarityCounts = new HashMap<>();
-      rarityCounts.put(CardRarity.COMMON, 30);
-      when(collectionRepository.getCardCountsByRarity(guardianId)).thenReturn(rarityCounts);
+      CollectionSummary summary = new CollectionSummary();
+      summary.add(CardElement.FIRE, CardRarity.COMMON, 5, 10);
+      summary.add(CardElement.WATER, CardRarity.COMMON, 10, 20);
+      summary.add(CardElement.EARTH, CardRarity.RARE, 3, 15);
+      summary.add(CardElement.AIR, CardRarity.LEGENDARY, 2, 5);
+      when(collectionRepository.getCollectionSummary(guardianId)).thenReturn(summary);
 
       // When
       CardCollectionService.CollectionStatistics stats =
@@ -195,10 +192,12 @@ class CardCollectionServiceTest {
       assertEquals(20, stats.getUniqueCardCount());
       assertEquals(50, stats.getTotalCardCount());
       assertEquals(20.0, stats.getCompletionPercentage());
-      assertEquals(500, stats.getTotalTradeValue());
+      assertEquals(680, stats.getTotalTradeValue());
       assertTrue(stats.hasElementalBalance());
       assertEquals(10, stats.getCardCountsByElement().get(CardElement.FIRE));
       assertEquals(30, stats.getCardCountsByRarity().get(CardRarity.COMMON));
+      assertEquals(0, stats.getCardCountsByRarity().get(CardRarity.EPIC));
+      verify(collectionRepository, never()).getTotalTradeValue(guardianId);
     }
   }
 
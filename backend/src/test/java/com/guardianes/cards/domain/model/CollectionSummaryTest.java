@@ -0,0 +1,67 @@
+package com.guardianes.cards.domain.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("Collection Summary Tests")
+class CollectionSummaryTest {
+
+  @Test
+  @DisplayName("Should total the grouped counts by element, rarity and trade value")
+  void shouldTotalGroupedCounts() {
+    // Given
+    CollectionSummary summary = new CollectionSummary();
+
+    // When
+    summary.add(CardElement.FIRE, CardRarity.COMMON, 2, 5);
+    summary.add(CardElement.FIRE, CardRarity.RARE, 1, 1);
+    summary.add(CardElement.WATER, CardRarity.COMMON, 1, 3);
+
+    // Then
+    assertThat(summary.getUniqueCardCount()).isEqualTo(4);
+    assertThat(summary.getTotalCardCount()).isEqualTo(9);
+    assertThat(summary.getCardCountsByElement())
+        .containsEntry(CardElement.FIRE, 6)
+        .containsEntry(CardElement.WATER, 3)
+        .containsEntry(CardElement.EARTH, 0)
+        .containsEntry(CardElement.AIR, 0);
+    assertThat(summary.getCardCountsByRarity())
+        .containsEntry(CardRarity.COMMON, 8)
+        .containsEntry(CardRarity.RARE, 1)
+        .containsEntry(CardRarity.LEGENDARY, 0);
+    assertThat(summary.getTotalTradeValue())
+        .isEqualTo(8 * CardRarity.COMMON.getTradeValue() + CardRarity.RARE.getTradeValue());
+    assertThat(summary.getCompletionPercentage(8)).isEqualTo(50.0);
+  }
+
+  @Test
+  @DisplayName("Should report elemental balance only once every element was collected")
+  void shouldReportElementalBalance() {
+    // Given
+    CollectionSummary summary = new CollectionSummary();
+    summary.add(CardElement.FIRE, CardRarity.COMMON, 1, 1);
+    summary.add(CardElement.EARTH, CardRarity.COMMON, 1, 1);
+    summary.add(CardElement.WATER, CardRarity.EPIC, 1, 1);
+
+    // When / Then
+    assertThat(summary.hasElementalBalance()).isFalse();
+    summary.add(CardElement.AIR, CardRarity.UNCOMMON, 1, 2);
+    assertThat(summary.hasElementalBalance()).isTrue();
+  }
+
+  @Test
+  @DisplayName("Should summarize an empty collection")
+  void shouldSummarizeEmptyCollection() {
+    // Given
+    CollectionSummary summary = new CollectionSummary();
+
+    // When / Then
+    assertThat(summary.getTotalCardCount()).isZero();
+    assertThat(summary.getTotalTradeValue()).isZero();
+    assertThat(summary.getCompletionPercentage(0)).isZero();
+    assertThat(summary.getCardCountsByElement()).hasSize(CardElement.values().length);
+    assertThat(summary.hasElementalBalance()).isFalse();
+  }
+}
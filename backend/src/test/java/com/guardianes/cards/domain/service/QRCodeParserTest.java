@@ -0,0 +1,91 @@
+package com.guardianes.cards.domain.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.guardianes.cards.domain.model.CardElement;
+import com.guardianes.cards.domain.model.CardRarity;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("QR Code Parser Tests")
+class QRCodeParserTest {
+
+  private final QRValidationService qrValidationService = new QRValidationService();
+
+  @Test
+  @DisplayName("Should pack the card id, element and rarity of a valid code")
+  void shouldPackCardIdElementAndRarity() {
+    // Given
+    String code =
+        qrValidationService.generateQRCode(9_876_543_210L, CardElement.AIR, CardRarity.LEGENDARY);
+
+    // When
+    long parsed = QRCodeParser.parseQRCode(code);
+
+    // Then
+    assertThat(QRCodeParser.isValid(parsed)).isTrue();
+    assertThat(QRCodeParser.cardId(parsed)).isEqualTo(9_876_543_210L);
+    assertThat(QRCodeParser.element(parsed)).isEqualTo(CardElement.AIR);
+    assertThat(QRCodeParser.rarity(parsed)).isEqualTo(CardRarity.LEGENDARY);
+  }
+
+  @Test
+  @DisplayName("Should ignore surrounding whitespace and letter case")
+  void shouldIgnoreWhitespaceAndCase() {
+    // Given
+    String code = qrValidationService.generateQRCode(42L, CardElement.FIRE, CardRarity.RARE);
+    String scanned = "  " + code.toLowerCase() + "\n";
+
+    // When / Then
+    assertThat(QRCodeParser.cardId(QRCodeParser.parseQRCode(scanned))).isEqualTo(42L);
+    assertThat(QRCodeParser.normalize(scanned)).isEqualTo(code);
+    assertThat(QRCodeParser.normalize(code)).isSameAs(code);
+  }
+
+  @Test
+  @DisplayName("Should report format errors before prefix and checksum errors")
+  void shouldReportErrorsInValidationOrder() {
+    // Given
+    String code = qrValidationService.generateQRCode(7L, CardElement.WATER, CardRarity.COMMON);
+    char wrongChecksum = code.charAt(15) == '0' ? '1' : '0';
+
+    // When / Then
+    assertThat(QRCodeParser.parseQRCode(null)).isEqualTo(QRCodeParser.EMPTY);
+    assertThat(QRCodeParser.parseQRCode("   ")).isEqualTo(QRCodeParser.EMPTY);
+    assertThat(QRCodeParser.parseQRCode("SHORT")).isEqualTo(QRCodeParser.INVALID_FORMAT);
+    assertThat(QRCodeParser.parseQRCode("ABCFC000000000-X")).isEqualTo(QRCodeParser.INVALID_FORMAT);
+    assertThat(QRCodeParser.parseQRCode("ABC" + code.substring(3)))
+        .isEqualTo(QRCodeParser.INVALID_PREFIX);
+    assertThat(QRCodeParser.parseQRCode(code.substring(0, 15) + wrongChecksum))
+        .isEqualTo(QRCodeParser.INVALID_CHECKSUM);
+  }
+
+  @Test
+  @DisplayName("Should accept codes with unknown element, rarity or card id characters")
+  void shouldAcceptUnknownComponentsWithValidChecksum() {
+    // Given
+    String base = "GDGXZ00000000AB";
+    int sum = 0;
+    for (int index = 0; index < base.length(); index++) {
+      sum += QRCodeParser.alphanumericValue(base.charAt(index));
+    }
+
+    // When
+    long parsed = QRCodeParser.parseQRCode(base + QRCodeParser.checksumCharacter(sum));
+
+    // Then
+    assertThat(QRCodeParser.isValid(parsed)).isTrue();
+    assertThat(QRCodeParser.element(parsed)).isNull();
+    assertThat(QRCodeParser.rarity(parsed)).isNull();
+    assertThat(QRCodeParser.cardId(parsed)).isEqualTo(-1);
+  }
+
+  @Test
+  @DisplayName("Should accept only 24 hexadecimal characters as an NFC code")
+  void shouldValidateNfcCodes() {
+    assertThat(QRCodeParser.isValidNFCCode(" 0123456789abcdef01234567 ")).isTrue();
+    assertThat(QRCodeParser.isValidNFCCode("0123456789ABCDEF0123456G")).isFalse();
+    assertThat(QRCodeParser.isValidNFCCode("0123456789ABCDEF")).isFalse();
+    assertThat(QRCodeParser.isValidNFCCode(null)).isFalse();
+  }
+}
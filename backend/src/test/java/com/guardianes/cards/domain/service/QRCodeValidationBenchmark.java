@@ -0,0 +1,147 @@
+package com.guardianes.cards.domain.service;
+
+import com.guardianes.cards.domain.model.CardElement;
+import com.guardianes.cards.domain.model.CardRarity;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Cost of validating and parsing scanned QR codes with the regex and substring based validator the
+ * service used before, compared with {@link QRCodeParser}. Each invocation takes the next code of a
+ * fixed mix: well-formed codes, codes scanned in lower case or with surrounding whitespace, and
+ * codes that are too short, contain symbols, have a foreign prefix or a wrong checksum. Run with
+ * the benchmark profile, or through {@link #main}, which adds the GC profiler so the allocation
+ * rates per operation can be compared.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QRCodeValidationBenchmark {
+
+  private static final int CODES = 1024;
+
+  /** Percentage of the scanned codes that are malformed. */
+  @Param({"10", "50"})
+  public int malformedPercent;
+
+  private final QRValidationService service = new QRValidationService();
+  private final LegacyQRValidator legacy = new LegacyQRValidator();
+  private String[] codes;
+  private int next;
+
+  @Setup
+  public void setUp() {
+    Random random = new Random(42);
+    CardElement[] elements = CardElement.values();
+    CardRarity[] rarities = CardRarity.values();
+    codes = new String[CODES];
+    for (int index = 0; index < CODES; index++) {
+      String code =
+          service.generateQRCode(
+              1L + random.nextInt(5_000),
+              elements[random.nextInt(elements.length)],
+              rarities[random.nextInt(rarities.length)]);
+      codes[index] =
+          random.nextInt(100) < malformedPercent ? malform(code, random) : scanned(code, random);
+    }
+  }
+
+  private static String scanned(String code, Random random) {
+    return switch (random.nextInt(10)) {
+      case 0 -> code.toLowerCase();
+      case 1 -> " " + code + "\n";
+      default -> code;
+    };
+  }
+
+  private static String malform(String code, Random random) {
+    char checksum = code.charAt(15);
+    return switch (random.nextInt(4)) {
+      case 0 -> code.substring(0, 4 + random.nextInt(10));
+      case 1 -> code.substring(0, 15) + '-';
+      case 2 -> "QRX" + code.substring(3);
+      default -> code.substring(0, 15) + (checksum == '0' ? '1' : '0');
+    };
+  }
+
+  private String nextCode() {
+    String code = codes[next];
+    next = (next + 1) & (CODES - 1);
+    return code;
+  }
+
+  @Benchmark
+  public Object legacyExtract() {
+    String code = nextCode();
+    return legacy.isValid(code) ? legacy.cardId(code) : null;
+  }
+
+  @Benchmark
+  public Object serviceValidate() {
+    return service.validateQRCode(nextCode());
+  }
+
+  @Benchmark
+  public long parserExtract() {
+    long parsed = QRCodeParser.parseQRCode(nextCode());
+    return QRCodeParser.isValid(parsed) ? QRCodeParser.cardId(parsed) : parsed;
+  }
+
+  /** The validation and parsing code the service used before the single-pass parser. */
+  static final class LegacyQRValidator {
+    private static final Pattern QR_CODE_PATTERN = Pattern.compile("^[A-Z0-9]{16}$");
+
+    boolean isValid(String qrCode) {
+      if (qrCode == null || qrCode.trim().isEmpty()) {
+        return false;
+      }
+      String cleanCode = qrCode.trim().toUpperCase();
+      return QR_CODE_PATTERN.matcher(cleanCode).matches()
+          && cleanCode.startsWith("GDG")
+          && checksum(cleanCode.substring(0, 15)).equals(cleanCode.substring(15));
+    }
+
+    Long cardId(String qrCode) {
+      // Validated a second time, as extractQRCodeInfo did
+      if (!isValid(qrCode)) {
+        throw new IllegalArgumentException("Invalid QR code");
+      }
+      return Long.parseLong(qrCode.trim().toUpperCase().substring(5, 15));
+    }
+
+    private static String checksum(String baseCode) {
+      int sum = 0;
+      for (char c : baseCode.toCharArray()) {
+        sum += Character.isDigit(c) ? Character.getNumericValue(c) : (c - 'A' + 10);
+      }
+      return String.valueOf(sum % 36 < 10 ? (char) ('0' + sum % 36) : (char) ('A' + sum % 36 - 10));
+    }
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(
+            new OptionsBuilder()
+                .include(QRCodeValidationBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build())
+        .run();
+  }
+}
@@ -0,0 +1,109 @@
+package com.guardianes.cards.infrastructure.persistence.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.guardianes.cards.domain.model.Card;
+import com.guardianes.cards.domain.model.CardElement;
+import com.guardianes.cards.domain.model.CardRarity;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("Card Catalog Tests")
+class CardCatalogTest {
+
+  private List<Card> cards;
+  private AtomicInteger loads;
+  private CardCatalog catalog;
+
+  @BeforeEach
+  void setUp() {
+    cards = new ArrayList<>();
+    cards.add(card(1L, "FIRESTRIKE000001", null, true));
+    cards.add(card(2L, "WATERWAVE0000002", "NFC-WATER-2", true));
+    loads = new AtomicInteger();
+    AtomicLong clock = new AtomicLong();
+    catalog =
+        new CardCatalog(
+            () -> {
+              loads.incrementAndGet();
+              return List.copyOf(cards);
+            },
+            () -> clock.addAndGet(1_000_000L));
+  }
+
+  private static Card card(Long id, String qrCode, String nfcCode, boolean active) {
+    return new Card(
+        id,
+        "Card " + id,
+        "Description",
+        CardElement.FIRE,
+        CardRarity.COMMON,
+        10,
+        10,
+        5,
+        null,
+        qrCode,
+        nfcCode,
+        LocalDateTime.now(),
+        active);
+  }
+
+  @Test
+  @DisplayName("Should load the catalog once and resolve cards by id, QR code and NFC code")
+  void shouldResolveCardsFromOneLoad() {
+    // When / Then
+    for (int scan = 0; scan < 10; scan++) {
+      assertThat(catalog.findByQrCode("FIRESTRIKE000001")).map(Card::getId).contains(1L);
+    }
+    assertThat(catalog.findByNfcCode("NFC-WATER-2")).map(Card::getId).contains(2L);
+    assertThat(catalog.findById(2L)).map(Card::getQrCode).contains("WATERWAVE0000002");
+    assertThat(catalog.findByQrCode("UNKNOWN000000000")).isEmpty();
+    assertThat(loads.get()).isEqualTo(1);
+    assertThat(catalog.version()).isEqualTo(1);
+    assertThat(catalog.size()).isEqualTo(2);
+    assertThat(catalog.lastRebuildSeconds()).isEqualTo(0.001);
+  }
+
+  @Test
+  @DisplayName("Should swap in a new version when a card is added or updated")
+  void shouldSwapInNewVersionOnWrites() {
+    // Given
+    catalog.warmUp();
+
+    // When
+    catalog.put(card(3L, "EARTHSHAKE000003", null, true));
+    catalog.put(card(2L, "WATERWAVE0000022", null, false));
+
+    // Then
+    assertThat(catalog.findByQrCode("EARTHSHAKE000003")).map(Card::getId).contains(3L);
+    assertThat(catalog.findByQrCode("WATERWAVE0000002")).isEmpty();
+    assertThat(catalog.findByNfcCode("NFC-WATER-2")).isEmpty();
+    assertThat(catalog.findByQrCode("WATERWAVE0000022")).map(Card::isActive).contains(false);
+    assertThat(catalog.version()).isEqualTo(3);
+    assertThat(catalog.size()).isEqualTo(3);
+    assertThat(catalog.countActive()).isEqualTo(2);
+    assertThat(loads.get()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("Should pick up cards written elsewhere when rebuilt")
+  void shouldPickUpExternalWritesOnRebuild() {
+    // Given
+    catalog.warmUp();
+    cards.add(card(4L, "AIRGUST000000004", null, true));
+
+    // When
+    catalog.refresh();
+
+    // Then
+    assertThat(catalog.findByQrCode("AIRGUST000000004")).map(Card::getId).contains(4L);
+    assertThat(catalog.version()).isEqualTo(2);
+    assertThat(catalog.rebuilds()).isEqualTo(2);
+  }
+}
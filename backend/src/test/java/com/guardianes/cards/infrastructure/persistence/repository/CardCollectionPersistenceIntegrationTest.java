@@ -0,0 +1,159 @@
+package com.guardianes.cards.infrastructure.persistence.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.guardianes.cards.domain.model.Card;
+import com.guardianes.cards.domain.model.CardElement;
+import com.guardianes.cards.domain.model.CardRarity;
+import com.guardianes.cards.domain.model.CollectionSummary;
+import com.guardianes.cards.domain.repository.CardCollectionRepository;
+import com.guardianes.cards.domain.repository.CardCollectionRepository.CollectedCount;
+import com.guardianes.cards.domain.repository.CardRepository;
+import com.guardianes.testconfig.GuardianTestConfiguration;
+import java.time.LocalDateTime;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@SpringBootTest
+@TestPropertySource(locations = "classpath:application-test.properties")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+@Import(GuardianTestConfiguration.class)
+public class CardCollectionPersistenceIntegrationTest {
+
+  @Autowired private CardRepository cardRepository;
+  @Autowired private CardCollectionRepository collectionRepository;
+  @Autowired private CardCollectionJpaRepository collectionJpaRepository;
+  @Autowired private CollectedCardJpaRepository collectedCardJpaRepository;
+  @Autowired private PlatformTransactionManager transactionManager;
+
+  private Card saveCard(String name, String qrCode) {
+    return saveCard(name, qrCode, CardElement.FIRE, CardRarity.COMMON);
+  }
+
+  private Card saveCard(String name, String qrCode, CardElement element, CardRarity rarity) {
+    return cardRepository.save(
+        new Card(
+            null,
+            name,
+            "Description",
+            element,
+            rarity,
+            10,
+            10,
+            5,
+            null,
+            qrCode,
+            null,
+            LocalDateTime.now(),
+            true));
+  }
+
+  @Test
+  public void shouldCreateCollectionAndIncrementCountWhenCollectingScannedCards() {
+    // Given
+    Long guardianId = 1L;
+    Card fireCard = saveCard("Fire Strike", "GDGFC00000000011");
+    Card secondCard = saveCard("Fire Wall", "GDGFC00000000022");
+
+    // When
+    CollectedCount first = collectionRepository.collectCard(guardianId, fireCard.getId(), 1);
+    CollectedCount second = collectionRepository.collectCard(guardianId, fireCard.getId(), 1);
+    CollectedCount third = collectionRepository.collectCard(guardianId, fireCard.getId(), 2);
+    CollectedCount other = collectionRepository.collectCard(guardianId, secondCard.getId(), 1);
+
+    // Then
+    assertThat(first).isEqualTo(new CollectedCount(1, true));
+    assertThat(second).isEqualTo(new CollectedCount(2, false));
+    assertThat(third).isEqualTo(new CollectedCount(4, false));
+    assertThat(other).isEqualTo(new CollectedCount(1, true));
+    assertThat(collectionRepository.getCardCount(guardianId, fireCard.getId())).isEqualTo(4);
+    assertThat(collectionRepository.getTotalCardCount(guardianId)).isEqualTo(5);
+    assertThat(collectionRepository.collectCard(2L, fireCard.getId(), 1))
+        .isEqualTo(new CollectedCount(1, true));
+  }
+
+  @Test
+  public void shouldAddCopiesToTheEntryAConcurrentFirstScanInserted() {
+    // Given
+    Long guardianId = 1L;
+    Card fireCard = saveCard("Fire Strike", "GDGFC00000000011");
+    LocalDateTime now = LocalDateTime.now();
+    TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+    transaction.executeWithoutResult(
+        status -> collectionJpaRepository.insertIfAbsent(guardianId, now));
+
+    // When
+    Integer inserted =
+        transaction.execute(
+            status -> collectedCardJpaRepository.addCopies(guardianId, fireCard.getId(), 1, now));
+    // The second first scan adds its copy to the entry the first one inserted
+    Integer added =
+        transaction.execute(
+            status -> collectedCardJpaRepository.addCopies(guardianId, fireCard.getId(), 1, now));
+
+    // Then
+    assertThat(inserted).isEqualTo(1);
+    assertThat(added).isEqualTo(2);
+    assertThat(collectionRepository.getCardCount(guardianId, fireCard.getId())).isEqualTo(2);
+  }
+
+  @Test
+  public void shouldCreateTheCollectionOnceWhenFirstScansRace() {
+    // Given
+    Long guardianId = 1L;
+    Card fireCard = saveCard("Fire Strike", "GDGFC00000000011");
+    LocalDateTime now = LocalDateTime.now();
+    TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+    // When
+    transaction.executeWithoutResult(
+        status -> collectionJpaRepository.insertIfAbsent(guardianId, now));
+    transaction.executeWithoutResult(
+        status -> collectionJpaRepository.insertIfAbsent(guardianId, now));
+
+    // Then
+    Integer withoutCollection =
+        transaction.execute(
+            status -> collectedCardJpaRepository.addCopies(2L, fireCard.getId(), 1, now));
+    assertThat(withoutCollection).isZero();
+    assertThat(collectionRepository.collectCard(guardianId, fireCard.getId(), 1))
+        .isEqualTo(new CollectedCount(1, true));
+    assertThat(collectionJpaRepository.findByGuardianId(guardianId)).isPresent();
+  }
+
+  @Test
+  public void shouldSummarizeCollectionByElementAndRarity() {
+    // Given
+    Long guardianId = 1L;
+    Card fireCommon = saveCard("Fire Strike", "GDGFC00000000011");
+    Card fireRare = saveCard("Fire Storm", "GDGFR00000000022", CardElement.FIRE, CardRarity.RARE);
+    Card waterRare = saveCard("Tidal Wave", "GDGWR00000000033", CardElement.WATER, CardRarity.RARE);
+    collectionRepository.collectCard(guardianId, fireCommon.getId(), 3);
+    collectionRepository.collectCard(guardianId, fireRare.getId(), 1);
+    collectionRepository.collectCard(guardianId, waterRare.getId(), 2);
+    collectionRepository.collectCard(2L, waterRare.getId(), 5);
+
+    // When
+    CollectionSummary summary = collectionRepository.getCollectionSummary(guardianId);
+
+    // Then
+    assertThat(summary.getUniqueCardCount()).isEqualTo(3);
+    assertThat(summary.getTotalCardCount()).isEqualTo(6);
+    assertThat(summary.getCardCountsByElement())
+        .containsEntry(CardElement.FIRE, 4)
+        .containsEntry(CardElement.WATER, 2)
+        .containsEntry(CardElement.EARTH, 0);
+    assertThat(summary.getCardCountsByRarity())
+        .containsEntry(CardRarity.COMMON, 3)
+        .containsEntry(CardRarity.RARE, 3);
+    assertThat(summary.getTotalTradeValue()).isEqualTo(33);
+    assertThat(summary.hasElementalBalance()).isFalse();
+    assertThat(collectionRepository.getCollectionSummary(3L).getTotalCardCount()).isZero();
+  }
+}
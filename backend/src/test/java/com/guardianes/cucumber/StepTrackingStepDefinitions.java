@@ -5,12 +5,16 @@ import static org.mockito.Mockito.*;
 
 import com.guardianes.shared.infrastructure.metrics.BusinessMetricsService;
 import com.guardianes.walking.domain.*;
+import com.guardianes.walking.infrastructure.ratelimit.InMemorySlidingWindowRateLimiter;
 import io.cucumber.datatable.DataTable;
 import io.cucumber.java.en.*;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalInt;
+import org.springframework.beans.factory.ObjectProvider;
 
 public class StepTrackingStepDefinitions {
 
@@ -23,6 +27,7 @@ public class StepTrackingStepDefinitions {
   private EnergyRepository energyRepository;
   private AnomalyDetectionService anomalyDetectionService;
   private BusinessMetricsService metricsService;
+  private SubmissionRateLimiter submissionRateLimiter;
 
   private StepValidationResult lastValidationResult;
   private String lastErrorMessage;
@@ -40,17 +45,24 @@ public class StepTrackingStepDefinitions {
     energyRepository = mock(EnergyRepository.class);
     anomalyDetectionService = mock(AnomalyDetectionService.class);
     metricsService = mock(BusinessMetricsService.class);
+    submissionRateLimiter = new InMemorySlidingWindowRateLimiter(100, 3600);
 
     // Initialize services
     stepAggregationService = new StepAggregationService(stepRepository);
     energyCalculationService =
         new EnergyCalculationService(energyRepository, stepAggregationService);
+    @SuppressWarnings("unchecked")
+    ObjectProvider<StepIngestionQueue> stepIngestionQueueProvider = mock(ObjectProvider.class);
     stepValidationService =
-        new StepValidationService(stepRepository, anomalyDetectionService, metricsService);
+        new StepValidationService(
+            stepRepository,
+            anomalyDetectionService,
+            metricsService,
+            submissionRateLimiter,
+            stepIngestionQueueProvider);
 
     // Default mocks setup
     when(anomalyDetectionService.isAnomalous(any(), anyInt(), any())).thenReturn(false);
-    when(stepRepository.countSubmissionsInLastHour(any(), any())).thenReturn(0);
   }
 
   @Given("today is {string}")
@@ -60,11 +72,9 @@ public class StepTrackingStepDefinitions {
 
   @Given("I have taken {int} steps today")
   public void i_have_taken_steps_today(Integer steps) {
-    List<StepRecord> todaySteps =
-        List.of(new StepRecord(guardianId, steps, currentDate.atTime(8, 0)));
-    when(stepRepository.findByGuardianIdAndDate(guardianId, currentDate)).thenReturn(todaySteps);
-
     this.currentDayAggregate = new DailyStepAggregate(guardianId, currentDate, steps);
+    when(stepRepository.findDailyAggregate(guardianId, currentDate))
+        .thenReturn(Optional.of(currentDayAggregate));
   }
 
   @When("I walk and record {int} steps at {}")
@@ -112,8 +122,8 @@ public class StepTrackingStepDefinitions {
   @When("I complete my daily walking with {int} steps")
   public void i_complete_my_daily_walking_with_steps(Integer totalSteps) {
     // Set up the daily aggregate
-    when(stepRepository.findByGuardianIdAndDate(guardianId, currentDate))
-        .thenReturn(List.of(new StepRecord(guardianId, totalSteps, currentDate.atTime(18, 0))));
+    when(stepRepository.findDailyAggregate(guardianId, currentDate))
+        .thenReturn(Optional.of(new DailyStepAggregate(guardianId, currentDate, totalSteps)));
 
     // Calculate and record energy transaction
     stepAggregationService.aggregateDailySteps(guardianId, currentDate);
@@ -165,15 +175,12 @@ public class StepTrackingStepDefinitions {
 
   @When("I try to spend {int} energy points on a battle")
   public void i_try_to_spend_energy_points_on_a_battle(Integer energyToSpend) {
-    when(energyRepository.findTransactionsByGuardianId(guardianId))
+    when(energyRepository.getEnergyBalance(guardianId)).thenReturn(currentEnergyBalance);
+    when(energyRepository.trySpend(any(EnergyTransaction.class)))
         .thenReturn(
-            List.of(
-                new EnergyTransaction(
-                    guardianId,
-                    EnergyTransactionType.EARNED,
-                    currentEnergyBalance,
-                    "DAILY_STEPS",
-                    LocalDateTime.now())));
+            currentEnergyBalance >= energyToSpend
+                ? OptionalInt.of(currentEnergyBalance - energyToSpend)
+                : OptionalInt.empty());
 
     try {
       energyCalculationService.spendEnergy(guardianId, energyToSpend, "BATTLE");
@@ -319,7 +326,7 @@ public class StepTrackingStepDefinitions {
   // Helper methods
   private void updateStepMockWithNewSteps(Integer steps, LocalDateTime timestamp) {
     // Update the mock repository to reflect the new steps
-    stepRepository.findByGuardianIdAndDate(guardianId, currentDate);
+    stepRepository.findDailyAggregate(guardianId, currentDate);
     // Add new step record (this would be handled by the actual repository)
   }
 
@@ -365,11 +372,11 @@ public class StepTrackingStepDefinitions {
                 })
             .toList();
 
-    when(stepRepository.findByGuardianIdAndDate(guardianId, currentDate)).thenReturn(stepRecords);
-
     // Calculate total steps
     int totalSteps = stepRecords.stream().mapToInt(StepRecord::getStepCount).sum();
     currentDayAggregate = new DailyStepAggregate(guardianId, currentDate, totalSteps);
+    when(stepRepository.findDailyAggregate(guardianId, currentDate))
+        .thenReturn(Optional.of(currentDayAggregate));
   }
 
   @Given("I have a normal step pattern averaging {int} steps daily")
@@ -399,12 +406,15 @@ public class StepTrackingStepDefinitions {
 
     when(stepRepository.findByGuardianIdAndDate(guardianId, currentDate))
         .thenReturn(List.of(new StepRecord(guardianId, steps, timestamp)));
+    when(stepRepository.findDailyAggregate(guardianId, currentDate))
+        .thenReturn(Optional.of(new DailyStepAggregate(guardianId, currentDate, steps)));
   }
 
   @Given("I have submitted steps {int} times in the last hour")
   public void i_have_submitted_steps_times_in_the_last_hour(Integer submissionCount) {
-    when(stepRepository.countSubmissionsInLastHour(eq(guardianId), any()))
-        .thenReturn(submissionCount);
+    for (int i = 0; i < submissionCount; i++) {
+      submissionRateLimiter.tryAcquire(guardianId);
+    }
   }
 
   @When("I try to record {int} additional steps at {}")
@@ -421,7 +431,7 @@ public class StepTrackingStepDefinitions {
     // This will trigger rate limiting check
     lastValidationResult =
         stepValidationService.validateStepCount(guardianId, 1000, LocalDateTime.now());
-    if (!stepValidationService.isWithinSubmissionRateLimit(guardianId, LocalDateTime.now())) {
+    if (!stepValidationService.isWithinSubmissionRateLimit(guardianId)) {
       lastValidationResult = StepValidationResult.invalid("Submission rate limit exceeded");
       lastErrorMessage = lastValidationResult.getErrorMessage();
     }
@@ -0,0 +1,65 @@
+package com.guardianes.guardian.infrastructure.persistence.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.guardianes.guardian.infrastructure.persistence.mapper.GuardianMapper;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("JPA Guardian Repository Tests")
+class JpaGuardianRepositoryTest {
+
+  @Mock private GuardianJpaRepository jpaRepository;
+
+  private JpaGuardianRepository repository;
+
+  @BeforeEach
+  void setUp() {
+    repository = new JpaGuardianRepository(jpaRepository, new GuardianMapper());
+  }
+
+  @Test
+  @DisplayName("Should look up existing ids in chunks of at most 1000")
+  void shouldLookUpExistingIdsInChunks() {
+    // Given
+    List<Long> ids = LongStream.rangeClosed(1, 2500).boxed().toList();
+    List<Integer> chunkSizes = new ArrayList<>();
+    when(jpaRepository.findIdsByIdIn(anyCollection()))
+        .thenAnswer(
+            invocation -> {
+              Collection<Long> chunk = invocation.getArgument(0);
+              chunkSizes.add(chunk.size());
+              return chunk.stream().filter(id -> id % 2 == 0).toList();
+            });
+
+    // When
+    Set<Long> existing = repository.findExistingIds(ids);
+
+    // Then
+    verify(jpaRepository, times(3)).findIdsByIdIn(anyCollection());
+    assertThat(chunkSizes).containsExactly(1000, 1000, 500);
+    assertThat(existing).hasSize(1250).allMatch(id -> id % 2 == 0);
+  }
+
+  @Test
+  @DisplayName("Should not query when no ids are given")
+  void shouldNotQueryWithoutIds() {
+    assertThat(repository.findExistingIds(List.of())).isEmpty();
+    verifyNoInteractions(jpaRepository);
+  }
+}
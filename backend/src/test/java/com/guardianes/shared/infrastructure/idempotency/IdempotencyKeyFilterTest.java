@@ -0,0 +1,258 @@
+package com.guardianes.shared.infrastructure.idempotency;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+@DisplayName("Idempotency-Key Filter Tests")
+class IdempotencyKeyFilterTest {
+
+  private InMemoryIdempotencyStore store;
+  private IdempotencyKeyFilter filter;
+  private AtomicInteger handlerInvocations;
+  private int handlerStatus;
+
+  @BeforeEach
+  void setUp() {
+    store = new InMemoryIdempotencyStore(100, 3600);
+    filter = new IdempotencyKeyFilter(store);
+    handlerInvocations = new AtomicInteger();
+    handlerStatus = 200;
+  }
+
+  @Test
+  @DisplayName("Should replay the stored response for a retried request")
+  void shouldReplayStoredResponseForRetry() throws Exception {
+    // Given
+    MockHttpServletResponse first = execute(post("/api/v1/guardians/1/steps", "key-1"));
+
+    // When
+    MockHttpServletResponse retry = execute(post("/api/v1/guardians/1/steps", "key-1"));
+
+    // Then
+    assertThat(handlerInvocations).hasValue(1);
+    assertThat(retry.getStatus()).isEqualTo(200);
+    assertThat(retry.getContentAsString()).isEqualTo(first.getContentAsString());
+    assertThat(retry.getContentType()).isEqualTo("application/json");
+    assertThat(retry.getHeader(IdempotencyKeyFilter.REPLAYED_HEADER)).isEqualTo("true");
+    assertThat(first.getHeader(IdempotencyKeyFilter.REPLAYED_HEADER)).isNull();
+  }
+
+  @Test
+  @DisplayName("Should reject a reused key whose request body differs from the original")
+  void shouldRejectReusedKeyWithDifferentBody() throws Exception {
+    // Given
+    execute(post("/api/v1/guardians/1/steps", "key-1", "{\"stepCount\":1000}"));
+
+    // When
+    MockHttpServletResponse sameBody =
+        execute(post("/api/v1/guardians/1/steps", "key-1", "{\"stepCount\":1000}"));
+    MockHttpServletResponse differentBody =
+        execute(post("/api/v1/guardians/1/steps", "key-1", "{\"stepCount\":2000}"));
+
+    // Then
+    assertThat(handlerInvocations).hasValue(1);
+    assertThat(sameBody.getStatus()).isEqualTo(200);
+    assertThat(sameBody.getHeader(IdempotencyKeyFilter.REPLAYED_HEADER)).isEqualTo("true");
+    assertThat(differentBody.getStatus()).isEqualTo(422);
+    assertThat(differentBody.getHeader(IdempotencyKeyFilter.REPLAYED_HEADER)).isNull();
+  }
+
+  @Test
+  @DisplayName("Should pass the request body on to the handler after hashing it")
+  void shouldPassRequestBodyToHandler() throws Exception {
+    // Given
+    String[] received = new String[1];
+    MockFilterChain readingChain =
+        new MockFilterChain(
+            new HttpServlet() {
+              @Override
+              protected void service(HttpServletRequest req, HttpServletResponse resp)
+                  throws IOException {
+                received[0] = req.getReader().readLine();
+                resp.setStatus(201);
+              }
+            });
+
+    // When
+    filter.doFilter(
+        post("/api/v1/guardians/1/steps", "key-1", "{\"stepCount\":1000}"),
+        new MockHttpServletResponse(),
+        readingChain);
+
+    // Then
+    assertThat(received[0]).isEqualTo("{\"stepCount\":1000}");
+  }
+
+  @Test
+  @DisplayName("Should scope keys to the request path")
+  void shouldScopeKeysToPath() throws Exception {
+    // When
+    execute(post("/api/v1/guardians/1/steps", "key-1"));
+    execute(post("/api/v1/guardians/2/steps", "key-1"));
+
+    // Then
+    assertThat(handlerInvocations).hasValue(2);
+  }
+
+  @Test
+  @DisplayName("Should scope keys to the authenticated user")
+  void shouldScopeKeysToPrincipal() throws Exception {
+    // Given
+    MockHttpServletRequest alice = post("/api/v1/guardians/1/steps", "key-1");
+    alice.setUserPrincipal(() -> "alice");
+    MockHttpServletRequest bob = post("/api/v1/guardians/1/steps", "key-1");
+    bob.setUserPrincipal(() -> "bob");
+
+    // When
+    execute(alice);
+    execute(bob);
+
+    // Then
+    assertThat(handlerInvocations).hasValue(2);
+  }
+
+  @Test
+  @DisplayName("Should ignore requests without a key and read-only requests")
+  void shouldIgnoreRequestsWithoutKeyOrReadOnly() throws Exception {
+    // Given
+    MockHttpServletRequest get = new MockHttpServletRequest("GET", "/api/v1/guardians/1/steps");
+    get.addHeader(IdempotencyKeyFilter.IDEMPOTENCY_KEY_HEADER, "key-1");
+
+    // When
+    execute(new MockHttpServletRequest("POST", "/api/v1/guardians/1/steps"));
+    execute(new MockHttpServletRequest("POST", "/api/v1/guardians/1/steps"));
+    execute(get);
+    execute(get);
+
+    // Then
+    assertThat(handlerInvocations).hasValue(4);
+    assertThat(store.size()).isZero();
+  }
+
+  @Test
+  @DisplayName("Should not store failed responses so the request can be retried")
+  void shouldReleaseKeyOnFailure() throws Exception {
+    // Given
+    handlerStatus = 503;
+    execute(post("/api/v1/guardians/1/steps", "key-1"));
+    handlerStatus = 200;
+
+    // When
+    MockHttpServletResponse retry = execute(post("/api/v1/guardians/1/steps", "key-1"));
+
+    // Then
+    assertThat(handlerInvocations).hasValue(2);
+    assertThat(retry.getStatus()).isEqualTo(200);
+    assertThat(retry.getHeader(IdempotencyKeyFilter.REPLAYED_HEADER)).isNull();
+  }
+
+  @Test
+  @DisplayName("Should release the key when the handler throws")
+  void shouldReleaseKeyWhenHandlerThrows() {
+    // Given
+    MockHttpServletRequest request = post("/api/v1/guardians/1/steps", "key-1");
+    MockFilterChain failingChain =
+        new MockFilterChain(
+            new HttpServlet() {
+              @Override
+              protected void service(HttpServletRequest req, HttpServletResponse resp)
+                  throws ServletException {
+                throw new ServletException("boom");
+              }
+            });
+
+    // When
+    assertThatThrownBy(() -> filter.doFilter(request, new MockHttpServletResponse(), failingChain))
+        .isInstanceOf(ServletException.class);
+
+    // Then
+    assertThat(store.size()).isZero();
+  }
+
+  @Test
+  @DisplayName("Should reject a retry while the original request is still in flight")
+  void shouldRejectConcurrentDuplicate() throws Exception {
+    // Given
+    MockHttpServletResponse[] nested = new MockHttpServletResponse[1];
+    MockFilterChain reentrantChain =
+        new MockFilterChain(
+            new HttpServlet() {
+              @Override
+              protected void service(HttpServletRequest req, HttpServletResponse resp)
+                  throws IOException {
+                try {
+                  nested[0] = execute(post("/api/v1/guardians/1/steps", "key-1"));
+                } catch (ServletException e) {
+                  throw new IOException(e);
+                }
+                resp.setStatus(201);
+              }
+            });
+
+    // When
+    MockHttpServletResponse original = new MockHttpServletResponse();
+    filter.doFilter(post("/api/v1/guardians/1/steps", "key-1"), original, reentrantChain);
+
+    // Then
+    assertThat(original.getStatus()).isEqualTo(201);
+    assertThat(nested[0].getStatus()).isEqualTo(409);
+    assertThat(handlerInvocations).hasValue(0);
+  }
+
+  @Test
+  @DisplayName("Should reject keys longer than 255 characters")
+  void shouldRejectOverlongKey() throws Exception {
+    // When
+    MockHttpServletResponse response = execute(post("/api/v1/guardians/1/steps", "k".repeat(256)));
+
+    // Then
+    assertThat(response.getStatus()).isEqualTo(400);
+    assertThat(handlerInvocations).hasValue(0);
+  }
+
+  private MockHttpServletRequest post(String uri, String idempotencyKey) {
+    MockHttpServletRequest request = new MockHttpServletRequest("POST", uri);
+    request.addHeader(IdempotencyKeyFilter.IDEMPOTENCY_KEY_HEADER, idempotencyKey);
+    return request;
+  }
+
+  private MockHttpServletRequest post(String uri, String idempotencyKey, String body) {
+    MockHttpServletRequest request = post(uri, idempotencyKey);
+    request.setContentType("application/json");
+    request.setContent(body.getBytes(StandardCharsets.UTF_8));
+    return request;
+  }
+
+  private MockHttpServletResponse execute(MockHttpServletRequest request)
+      throws ServletException, IOException {
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    MockFilterChain chain =
+        new MockFilterChain(
+            new HttpServlet() {
+              @Override
+              protected void service(HttpServletRequest req, HttpServletResponse resp)
+                  throws IOException {
+                int invocation = handlerInvocations.incrementAndGet();
+                resp.setStatus(handlerStatus);
+                resp.setContentType("application/json");
+                resp.getWriter().write("{\"invocation\":" + invocation + "}");
+              }
+            });
+    filter.doFilter(request, response, chain);
+    return response;
+  }
+}
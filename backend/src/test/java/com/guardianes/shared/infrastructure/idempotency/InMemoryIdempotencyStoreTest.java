@@ -0,0 +1,72 @@
+package com.guardianes.shared.infrastructure.idempotency;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("In-Memory Idempotency Store Tests")
+class InMemoryIdempotencyStoreTest {
+
+  private static final IdempotencyStore.StoredResponse RESPONSE =
+      new IdempotencyStore.StoredResponse("hash", 200, "application/json", "{}".getBytes());
+
+  private AtomicLong clock;
+  private InMemoryIdempotencyStore store;
+
+  @BeforeEach
+  void setUp() {
+    clock = new AtomicLong(1_000_000L);
+    store = new InMemoryIdempotencyStore(3, 60, clock::get);
+  }
+
+  @Test
+  @DisplayName("Should not reserve a key twice until it is released")
+  void shouldReserveKeyOnce() {
+    // When / Then
+    assertThat(store.tryReserve("a")).isTrue();
+    assertThat(store.tryReserve("a")).isFalse();
+    assertThat(store.findCompleted("a")).isEmpty();
+
+    store.release("a");
+    assertThat(store.tryReserve("a")).isTrue();
+  }
+
+  @Test
+  @DisplayName("Should keep completed responses until they expire")
+  void shouldExpireCompletedResponses() {
+    // Given
+    store.tryReserve("a");
+    store.complete("a", RESPONSE);
+    store.release("a");
+
+    // When / Then
+    assertThat(store.findCompleted("a")).contains(RESPONSE);
+    assertThat(store.tryReserve("a")).isFalse();
+
+    clock.addAndGet(60_000L);
+    assertThat(store.findCompleted("a")).isEmpty();
+    assertThat(store.tryReserve("a")).isTrue();
+  }
+
+  @Test
+  @DisplayName("Should evict the oldest entry when full")
+  void shouldEvictOldestEntryWhenFull() {
+    // Given
+    for (String key : new String[] {"a", "b", "c"}) {
+      store.tryReserve(key);
+      store.complete(key, RESPONSE);
+      clock.incrementAndGet();
+    }
+
+    // When
+    store.tryReserve("d");
+
+    // Then
+    assertThat(store.size()).isEqualTo(3);
+    assertThat(store.findCompleted("a")).isEmpty();
+    assertThat(store.findCompleted("b")).contains(RESPONSE);
+  }
+}
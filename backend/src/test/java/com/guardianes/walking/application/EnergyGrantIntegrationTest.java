@@ -0,0 +1,90 @@
+package com.guardianes.walking.application;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.when;
+
+import com.guardianes.guardian.domain.repository.GuardianRepository;
+import com.guardianes.testconfig.GuardianTestConfiguration;
+import com.guardianes.walking.application.dto.EnergyGrantRequest;
+import com.guardianes.walking.application.dto.EnergyGrantResponse;
+import com.guardianes.walking.application.dto.EnergyGrantResult;
+import com.guardianes.walking.application.service.EnergyManagementApplicationService;
+import com.guardianes.walking.domain.EnergyRepository;
+import com.guardianes.walking.domain.EnergyTransaction;
+import com.guardianes.walking.domain.EnergyTransactionType;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+
+@SpringBootTest
+@TestPropertySource(locations = "classpath:application-test.properties")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+@Import(GuardianTestConfiguration.class)
+public class EnergyGrantIntegrationTest {
+
+  @Autowired private EnergyManagementApplicationService energyService;
+
+  @Autowired private EnergyRepository energyRepository;
+
+  @Autowired private GuardianRepository guardianRepository;
+
+  @Test
+  public void shouldCreditKnownGuardiansAndReportTheOthers() {
+    // Given
+    when(guardianRepository.findExistingIds(anyCollection())).thenReturn(Set.of(10L, 11L, 12L));
+    energyRepository.saveTransaction(
+        new EnergyTransaction(
+            10L, EnergyTransactionType.EARNED, 5, "Steps", LocalDateTime.now().minusHours(1)));
+    assertThat(energyRepository.getEnergyBalance(10L)).isEqualTo(5);
+
+    // When
+    EnergyGrantResponse response =
+        energyService.grantEnergy(
+            new EnergyGrantRequest(List.of(10L, 11L, 10L, 99L, 12L), 25, "SCHOOL_WALK"));
+
+    // Then
+    assertThat(response.grantedCount()).isEqualTo(3);
+    assertThat(response.rejectedCount()).isEqualTo(2);
+    assertThat(response.results())
+        .extracting(EnergyGrantResult::guardianId, EnergyGrantResult::granted)
+        .containsExactly(
+            tuple(10L, true),
+            tuple(11L, true),
+            tuple(10L, false),
+            tuple(99L, false),
+            tuple(12L, true));
+
+    assertThat(energyRepository.getEnergyBalance(10L)).isEqualTo(30);
+    assertThat(energyRepository.getLedgerBalance(10L)).isEqualTo(30);
+    assertThat(energyRepository.getEnergyBalance(11L)).isEqualTo(25);
+    assertThat(energyRepository.getEnergyBalance(99L)).isZero();
+    assertThat(energyRepository.getRecentTransactions(10L, 10))
+        .extracting(EnergyTransaction::getSource)
+        .containsExactly("SCHOOL_WALK", "Steps");
+  }
+
+  @Test
+  public void shouldGrantEnergyToThousandsOfGuardiansInOneCall() {
+    // Given
+    List<Long> guardianIds = LongStream.rangeClosed(1_001, 6_000).boxed().toList();
+    when(guardianRepository.findExistingIds(anyCollection())).thenReturn(Set.copyOf(guardianIds));
+
+    // When
+    EnergyGrantResponse response =
+        energyService.grantEnergy(new EnergyGrantRequest(guardianIds, 10, "EVENT"));
+
+    // Then
+    assertThat(response.grantedCount()).isEqualTo(5_000);
+    assertThat(energyRepository.getEnergyBalance(1_001L)).isEqualTo(10);
+    assertThat(energyRepository.getLedgerBalance(6_000L)).isEqualTo(10);
+  }
+}
@@ -3,13 +3,17 @@ package com.guardianes.walking.application;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import com.guardianes.testconfig.GuardianTestConfiguration;
+import com.guardianes.walking.application.dto.StepBatchSubmissionRequest;
+import com.guardianes.walking.application.dto.StepBatchSubmissionResponse;
 import com.guardianes.walking.application.dto.StepSubmissionRequest;
 import com.guardianes.walking.application.dto.StepSubmissionResponse;
 import com.guardianes.walking.application.service.StepTrackingApplicationService;
 import com.guardianes.walking.domain.EnergyRepository;
 import com.guardianes.walking.domain.EnergyTransaction;
 import com.guardianes.walking.domain.EnergyTransactionType;
+import com.guardianes.walking.domain.StepRepository;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -28,12 +32,15 @@ public class StepSubmissionEnergyIntegrationTest {
 
   @Autowired private EnergyRepository energyRepository;
 
+  @Autowired private StepRepository stepRepository;
+
   @Test
   public void shouldCreateEnergyTransactionWhenStepsAreSubmitted() {
     // Given
     Long guardianId = 1L;
     int stepCount = 1000; // Should generate 100 energy (1000 steps / 10)
-    LocalDateTime timestamp = LocalDateTime.now();
+    // The ledger stores timestamps with microsecond precision
+    LocalDateTime timestamp = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
     StepSubmissionRequest request = new StepSubmissionRequest(stepCount, timestamp);
 
     // When
@@ -82,4 +89,39 @@ public class StepSubmissionEnergyIntegrationTest {
     int totalBalance = energyRepository.getEnergyBalance(guardianId);
     assertThat(totalBalance).isEqualTo(125); // 50 + 75 = 125
   }
+
+  @Test
+  public void shouldStoreValidSamplesOfBatchAndReportRejectedOnes() {
+    // Given
+    Long guardianId = 3L;
+    LocalDateTime morning = LocalDateTime.of(2025, 7, 4, 9, 0);
+    StepBatchSubmissionRequest request =
+        new StepBatchSubmissionRequest(
+            List.of(
+                new StepSubmissionRequest(1000, morning), // 100 energy
+                new StepSubmissionRequest(2005, morning.plusHours(1)), // 200 energy
+                new StepSubmissionRequest(20000, morning.plusHours(2)))); // anomalous
+
+    // When
+    StepBatchSubmissionResponse response = stepTrackingService.submitStepBatch(guardianId, request);
+
+    // Then
+    assertThat(response.acceptedCount()).isEqualTo(2);
+    assertThat(response.rejectedCount()).isEqualTo(1);
+    assertThat(response.energyEarned()).isEqualTo(300);
+    assertThat(response.results().get(2).accepted()).isFalse();
+    assertThat(response.results().get(2).message())
+        .isEqualTo("Step count appears anomalous and requires verification");
+
+    assertThat(stepRepository.findByGuardianIdAndDate(guardianId, morning.toLocalDate()))
+        .hasSize(2);
+    assertThat(stepRepository.findDailyAggregate(guardianId, morning.toLocalDate()))
+        .hasValueSatisfying(aggregate -> assertThat(aggregate.getTotalSteps()).isEqualTo(3005));
+
+    // A single energy transaction is recorded for the day
+    List<EnergyTransaction> transactions =
+        energyRepository.findTransactionsByGuardianId(guardianId);
+    assertThat(transactions).hasSize(1);
+    assertThat(transactions.get(0).getAmount()).isEqualTo(300);
+  }
 }
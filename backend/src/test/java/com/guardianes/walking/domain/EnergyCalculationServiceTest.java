@@ -8,6 +8,7 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.OptionalInt;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -113,23 +114,15 @@ class EnergyCalculationServiceTest {
   void shouldGetCurrentEnergyBalanceForGuardian() {
     // Given
     Long guardianId = 1L;
-    List<EnergyTransaction> transactions =
-        Arrays.asList(
-            new EnergyTransaction(
-                guardianId, EnergyTransactionType.EARNED, 100, "DAILY_STEPS", LocalDateTime.now()),
-            new EnergyTransaction(
-                guardianId, EnergyTransactionType.EARNED, 200, "DAILY_STEPS", LocalDateTime.now()),
-            new EnergyTransaction(
-                guardianId, EnergyTransactionType.SPENT, 50, "BATTLE", LocalDateTime.now()));
-
-    when(energyRepository.findTransactionsByGuardianId(guardianId)).thenReturn(transactions);
+    when(energyRepository.getEnergyBalance(guardianId)).thenReturn(250); // 100 + 200 - 50
 
     // When
     int currentBalance = energyCalculationService.getCurrentEnergyBalance(guardianId);
 
     // Then
-    assertEquals(250, currentBalance); // 100 + 200 - 50
-    verify(energyRepository, times(1)).findTransactionsByGuardianId(guardianId);
+    assertEquals(250, currentBalance);
+    verify(energyRepository, times(1)).getEnergyBalance(guardianId);
+    verify(energyRepository, never()).findTransactionsByGuardianId(guardianId);
   }
 
   @Test
@@ -137,21 +130,14 @@ class EnergyCalculationServiceTest {
   void shouldHandleNegativeBalanceCorrectly() {
     // Given
     Long guardianId = 1L;
-    List<EnergyTransaction> transactions =
-        Arrays.asList(
-            new EnergyTransaction(
-                guardianId, EnergyTransactionType.EARNED, 100, "DAILY_STEPS", LocalDateTime.now()),
-            new EnergyTransaction(
-                guardianId, EnergyTransactionType.SPENT, 150, "BATTLE", LocalDateTime.now()));
-
-    when(energyRepository.findTransactionsByGuardianId(guardianId)).thenReturn(transactions);
+    when(energyRepository.getEnergyBalance(guardianId)).thenReturn(-50); // 100 - 150
 
     // When
     int currentBalance = energyCalculationService.getCurrentEnergyBalance(guardianId);
 
     // Then
     assertEquals(0, currentBalance); // Should not go negative
-    verify(energyRepository, times(1)).findTransactionsByGuardianId(guardianId);
+    verify(energyRepository, times(1)).getEnergyBalance(guardianId);
   }
 
   @Test
@@ -162,22 +148,8 @@ class EnergyCalculationServiceTest {
     int energyToSpend = 50;
     String source = "BATTLE";
 
-    // Mock current balance
-    when(energyRepository.findTransactionsByGuardianId(guardianId))
-        .thenReturn(
-            Arrays.asList(
-                new EnergyTransaction(
-                    guardianId,
-                    EnergyTransactionType.EARNED,
-                    100,
-                    "DAILY_STEPS",
-                    LocalDateTime.now())));
-
-    EnergyTransaction expectedTransaction =
-        new EnergyTransaction(
-            guardianId, EnergyTransactionType.SPENT, energyToSpend, source, LocalDateTime.now());
-    when(energyRepository.saveTransaction(any(EnergyTransaction.class)))
-        .thenReturn(expectedTransaction);
+    // Mock the atomic debit of a balance of 100
+    when(energyRepository.trySpend(any(EnergyTransaction.class))).thenReturn(OptionalInt.of(50));
 
     // When
     EnergyTransaction result =
@@ -190,8 +162,9 @@ class EnergyCalculationServiceTest {
     assertEquals(source, result.getSource());
     assertEquals(guardianId, result.getGuardianId());
 
-    verify(energyRepository, times(1)).findTransactionsByGuardianId(guardianId);
-    verify(energyRepository, times(1)).saveTransaction(any(EnergyTransaction.class));
+    verify(energyRepository, times(1)).trySpend(any(EnergyTransaction.class));
+    verify(energyRepository, never()).getEnergyBalance(guardianId);
+    verify(energyRepository, never()).saveTransaction(any(EnergyTransaction.class));
   }
 
   @Test
@@ -202,16 +175,8 @@ class EnergyCalculationServiceTest {
     int energyToSpend = 150;
     String source = "BATTLE";
 
-    // Mock current balance (only 100 energy available)
-    when(energyRepository.findTransactionsByGuardianId(guardianId))
-        .thenReturn(
-            Arrays.asList(
-                new EnergyTransaction(
-                    guardianId,
-                    EnergyTransactionType.EARNED,
-                    100,
-                    "DAILY_STEPS",
-                    LocalDateTime.now())));
+    // Mock a rejected debit (only 100 energy available)
+    when(energyRepository.trySpend(any(EnergyTransaction.class))).thenReturn(OptionalInt.empty());
 
     // When & Then
     assertThrows(
@@ -220,7 +185,7 @@ class EnergyCalculationServiceTest {
           energyCalculationService.spendEnergy(guardianId, energyToSpend, source);
         });
 
-    verify(energyRepository, times(1)).findTransactionsByGuardianId(guardianId);
+    verify(energyRepository, times(1)).trySpend(any(EnergyTransaction.class));
     verify(energyRepository, never()).saveTransaction(any(EnergyTransaction.class));
   }
 
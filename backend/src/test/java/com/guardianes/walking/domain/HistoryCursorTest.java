@@ -0,0 +1,72 @@
+package com.guardianes.walking.domain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("History Cursor Tests")
+class HistoryCursorTest {
+
+  @Test
+  @DisplayName("Should decode the cursor it encoded")
+  void shouldRoundTripThroughToken() {
+    HistoryCursor cursor = new HistoryCursor(LocalDateTime.of(2026, 3, 10, 8, 30, 15, 123000), 42L);
+
+    assertThat(HistoryCursor.fromToken(cursor.toToken())).isEqualTo(cursor);
+  }
+
+  @Test
+  @DisplayName("Should reject malformed tokens")
+  void shouldRejectMalformedTokens() {
+    String notACursor = Base64.getUrlEncoder().encodeToString("2026-03-10T08:30".getBytes());
+
+    for (String token : List.of("not base64!", notACursor, "")) {
+      assertThatThrownBy(() -> HistoryCursor.fromToken(token))
+          .isInstanceOf(IllegalArgumentException.class)
+          .hasMessage("Invalid history cursor");
+    }
+  }
+
+  @Test
+  @DisplayName("Should start a page at the cursor, or at the range start when it precedes it")
+  void shouldClampPageStartToRangeStart() {
+    LocalDateTime from = LocalDateTime.of(2026, 3, 10, 0, 0);
+    HistoryCursor inRange = new HistoryCursor(from.plusHours(8), 42L);
+    HistoryCursor beforeRange = new HistoryCursor(from.minusDays(3), 42L);
+
+    assertThat(HistoryCursor.startOf(from, inRange)).isEqualTo(inRange);
+    assertThat(HistoryCursor.startOf(from, beforeRange)).isEqualTo(new HistoryCursor(from, 0L));
+    assertThat(HistoryCursor.startOf(from, null)).isEqualTo(new HistoryCursor(from, 0L));
+  }
+
+  @Test
+  @DisplayName("Should only point to a next page when more items than the page size were read")
+  void shouldPointToNextPageOnlyWhenMoreItemsExist() {
+    LocalDateTime start = LocalDateTime.of(2026, 3, 10, 8, 0);
+    List<Integer> items = List.of(1, 2, 3);
+
+    HistoryPage<Integer> page =
+        HistoryPage.of(items, 2, item -> new HistoryCursor(start.plusMinutes(item), item));
+    HistoryPage<Integer> last =
+        HistoryPage.of(items, 3, item -> new HistoryCursor(start.plusMinutes(item), item));
+
+    assertThat(page.items()).containsExactly(1, 2);
+    assertThat(page.next()).isEqualTo(new HistoryCursor(start.plusMinutes(2), 2));
+    assertThat(last.items()).containsExactly(1, 2, 3);
+    assertThat(last.next()).isNull();
+  }
+
+  @Test
+  @DisplayName("Should default and cap the requested page size")
+  void shouldDefaultAndCapPageSize() {
+    assertThat(HistoryPage.sizeFor(null)).isEqualTo(HistoryPage.DEFAULT_SIZE);
+    assertThat(HistoryPage.sizeFor(10)).isEqualTo(10);
+    assertThat(HistoryPage.sizeFor(10_000)).isEqualTo(HistoryPage.MAX_SIZE);
+    assertThatThrownBy(() -> HistoryPage.sizeFor(0)).isInstanceOf(IllegalArgumentException.class);
+  }
+}
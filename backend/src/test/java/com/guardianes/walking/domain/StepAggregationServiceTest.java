@@ -7,6 +7,7 @@ import static org.mockito.Mockito.*;
 import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -32,12 +33,8 @@ class StepAggregationServiceTest {
     // Given
     Long guardianId = 1L;
     LocalDate date = LocalDate.now();
-    List<StepRecord> stepRecords =
-        Arrays.asList(
-            new StepRecord(guardianId, 1000, date.atTime(9, 0)),
-            new StepRecord(guardianId, 2000, date.atTime(12, 0)),
-            new StepRecord(guardianId, 1500, date.atTime(15, 0)));
-    when(stepRepository.findByGuardianIdAndDate(guardianId, date)).thenReturn(stepRecords);
+    when(stepRepository.findDailyAggregate(guardianId, date))
+        .thenReturn(Optional.of(new DailyStepAggregate(guardianId, date, 4500)));
 
     // When
     DailyStepAggregate result = stepAggregationService.aggregateDailySteps(guardianId, date);
@@ -47,7 +44,8 @@ class StepAggregationServiceTest {
     assertEquals(4500, result.getTotalSteps());
     assertEquals(guardianId, result.getGuardianId());
     assertEquals(date, result.getDate());
-    verify(stepRepository, times(1)).findByGuardianIdAndDate(guardianId, date);
+    verify(stepRepository, times(1)).findDailyAggregate(guardianId, date);
+    verify(stepRepository, never()).findByGuardianIdAndDate(any(), any());
   }
 
   @Test
@@ -56,7 +54,7 @@ class StepAggregationServiceTest {
     // Given
     Long guardianId = 1L;
     LocalDate date = LocalDate.now();
-    when(stepRepository.findByGuardianIdAndDate(guardianId, date)).thenReturn(Arrays.asList());
+    when(stepRepository.findDailyAggregate(guardianId, date)).thenReturn(Optional.empty());
 
     // When
     DailyStepAggregate result = stepAggregationService.aggregateDailySteps(guardianId, date);
@@ -74,15 +72,15 @@ class StepAggregationServiceTest {
     // Given
     Long guardianId = 1L;
     LocalDate today = LocalDate.now();
-    when(stepRepository.findByGuardianIdAndDate(guardianId, today))
-        .thenReturn(Arrays.asList(new StepRecord(guardianId, 5000, today.atTime(10, 0))));
+    when(stepRepository.findDailyAggregate(guardianId, today))
+        .thenReturn(Optional.of(new DailyStepAggregate(guardianId, today, 5000)));
 
     // When
     int currentSteps = stepAggregationService.getCurrentStepCount(guardianId);
 
     // Then
     assertEquals(5000, currentSteps);
-    verify(stepRepository, times(1)).findByGuardianIdAndDate(guardianId, today);
+    verify(stepRepository, times(1)).findDailyAggregate(guardianId, today);
   }
 
   @Test
@@ -136,4 +134,45 @@ class StepAggregationServiceTest {
     verify(stepRepository, times(1))
         .findDailyAggregatesByGuardianIdAndDateRange(guardianId, fromDate, toDate);
   }
+
+  @Test
+  @DisplayName("Should read weekly history from the start of the first week")
+  void shouldGetWeeklyHistoryFromStartOfFirstWeek() {
+    // Given
+    Long guardianId = 1L;
+    LocalDate fromDate = LocalDate.of(2025, 7, 2); // Wednesday
+    LocalDate toDate = LocalDate.of(2025, 9, 30);
+    List<StepRollup> expectedHistory =
+        Arrays.asList(
+            new StepRollup(
+                guardianId, StepResolution.WEEKLY, LocalDate.of(2025, 6, 30).atStartOfDay(), 21000),
+            new StepRollup(
+                guardianId, StepResolution.WEEKLY, LocalDate.of(2025, 7, 7).atStartOfDay(), 35000));
+
+    when(stepRepository.findRollups(
+            guardianId,
+            StepResolution.WEEKLY,
+            LocalDate.of(2025, 6, 30).atStartOfDay(),
+            LocalDate.of(2025, 10, 1).atStartOfDay()))
+        .thenReturn(expectedHistory);
+
+    // When
+    List<StepRollup> result =
+        stepAggregationService.getStepHistory(guardianId, fromDate, toDate, StepResolution.WEEKLY);
+
+    // Then
+    assertEquals(expectedHistory, result);
+  }
+
+  @Test
+  @DisplayName("Should pick the coarsest resolution suited to the range")
+  void shouldPickResolutionForRange() {
+    LocalDate start = LocalDate.of(2025, 1, 1);
+
+    assertEquals(StepResolution.DAILY, StepResolution.forRange(start, start));
+    assertEquals(StepResolution.DAILY, StepResolution.forRange(start, start.plusDays(61)));
+    assertEquals(StepResolution.WEEKLY, StepResolution.forRange(start, start.plusDays(62)));
+    assertEquals(StepResolution.WEEKLY, StepResolution.forRange(start, start.plusDays(365)));
+    assertEquals(StepResolution.MONTHLY, StepResolution.forRange(start, start.plusYears(2)));
+  }
 }
@@ -9,11 +9,13 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.beans.factory.ObjectProvider;
 
 @DisplayName("Step Validation Service Tests")
 class StepValidationServiceTest {
@@ -24,13 +26,22 @@ class StepValidationServiceTest {
 
   @Mock private BusinessMetricsService metricsService;
 
+  @Mock private SubmissionRateLimiter submissionRateLimiter;
+
+  @Mock private ObjectProvider<StepIngestionQueue> stepIngestionQueueProvider;
+
   private StepValidationService stepValidationService;
 
   @BeforeEach
   void setUp() {
     MockitoAnnotations.openMocks(this);
     stepValidationService =
-        new StepValidationService(stepRepository, anomalyDetectionService, metricsService);
+        new StepValidationService(
+            stepRepository,
+            anomalyDetectionService,
+            metricsService,
+            submissionRateLimiter,
+            stepIngestionQueueProvider);
   }
 
   @Test
@@ -41,8 +52,8 @@ class StepValidationServiceTest {
     int stepCount = 5000;
     LocalDateTime timestamp = LocalDateTime.now();
 
-    when(stepRepository.findByGuardianIdAndDate(guardianId, timestamp.toLocalDate()))
-        .thenReturn(Arrays.asList(new StepRecord(guardianId, 2000, timestamp.minusHours(2))));
+    when(stepRepository.findDailyAggregate(guardianId, timestamp.toLocalDate()))
+        .thenReturn(Optional.of(new DailyStepAggregate(guardianId, timestamp.toLocalDate(), 2000)));
     when(anomalyDetectionService.isAnomalous(guardianId, stepCount, timestamp)).thenReturn(false);
 
     // When
@@ -52,7 +63,7 @@ class StepValidationServiceTest {
     // Then
     assertTrue(result.isValid());
     assertNull(result.getErrorMessage());
-    verify(stepRepository, times(1)).findByGuardianIdAndDate(guardianId, timestamp.toLocalDate());
+    verify(stepRepository, times(1)).findDailyAggregate(guardianId, timestamp.toLocalDate());
     verify(anomalyDetectionService, times(1)).isAnomalous(guardianId, stepCount, timestamp);
   }
 
@@ -71,7 +82,7 @@ class StepValidationServiceTest {
     // Then
     assertFalse(result.isValid());
     assertEquals("Step count cannot be negative", result.getErrorMessage());
-    verify(stepRepository, never()).findByGuardianIdAndDate(anyLong(), any(LocalDate.class));
+    verify(stepRepository, never()).findDailyAggregate(anyLong(), any(LocalDate.class));
     verify(anomalyDetectionService, never())
         .isAnomalous(anyLong(), anyInt(), any(LocalDateTime.class));
   }
@@ -84,8 +95,9 @@ class StepValidationServiceTest {
     int stepCount = 10000;
     LocalDateTime timestamp = LocalDateTime.now();
 
-    when(stepRepository.findByGuardianIdAndDate(guardianId, timestamp.toLocalDate()))
-        .thenReturn(Arrays.asList(new StepRecord(guardianId, 45000, timestamp.minusHours(1))));
+    when(stepRepository.findDailyAggregate(guardianId, timestamp.toLocalDate()))
+        .thenReturn(
+            Optional.of(new DailyStepAggregate(guardianId, timestamp.toLocalDate(), 45000)));
 
     // When
     StepValidationResult result =
@@ -94,7 +106,7 @@ class StepValidationServiceTest {
     // Then
     assertFalse(result.isValid());
     assertEquals("Daily step count would exceed maximum allowed (50000)", result.getErrorMessage());
-    verify(stepRepository, times(1)).findByGuardianIdAndDate(guardianId, timestamp.toLocalDate());
+    verify(stepRepository, times(1)).findDailyAggregate(guardianId, timestamp.toLocalDate());
     verify(anomalyDetectionService, never())
         .isAnomalous(anyLong(), anyInt(), any(LocalDateTime.class));
   }
@@ -114,11 +126,41 @@ class StepValidationServiceTest {
     // Then
     assertFalse(result.isValid());
     assertEquals("Step count exceeds daily maximum (50000)", result.getErrorMessage());
-    verify(stepRepository, never()).findByGuardianIdAndDate(anyLong(), any(LocalDate.class));
+    verify(stepRepository, never()).findDailyAggregate(anyLong(), any(LocalDate.class));
     verify(anomalyDetectionService, never())
         .isAnomalous(anyLong(), anyInt(), any(LocalDateTime.class));
   }
 
+  @Test
+  @DisplayName("Should count steps still waiting in the ingestion queue towards the daily maximum")
+  void shouldCountQueuedStepsTowardsDailyMaximum() {
+    // Given
+    Long guardianId = 1L;
+    LocalDateTime timestamp = LocalDateTime.now();
+    StepIngestionQueue stepIngestionQueue = mock(StepIngestionQueue.class);
+    when(stepIngestionQueueProvider.getIfAvailable()).thenReturn(stepIngestionQueue);
+    stepValidationService =
+        new StepValidationService(
+            stepRepository,
+            anomalyDetectionService,
+            metricsService,
+            submissionRateLimiter,
+            stepIngestionQueueProvider);
+
+    when(stepRepository.findDailyAggregate(guardianId, timestamp.toLocalDate()))
+        .thenReturn(
+            Optional.of(new DailyStepAggregate(guardianId, timestamp.toLocalDate(), 30000)));
+    when(stepIngestionQueue.pendingSteps(guardianId, timestamp.toLocalDate())).thenReturn(15000);
+
+    // When
+    StepValidationResult result =
+        stepValidationService.validateStepCount(guardianId, 6000, timestamp);
+
+    // Then
+    assertFalse(result.isValid());
+    assertEquals("Daily step count would exceed maximum allowed (50000)", result.getErrorMessage());
+  }
+
   @Test
   @DisplayName("Should reject anomalous step count")
   void shouldRejectAnomalousStepCount() {
@@ -127,8 +169,8 @@ class StepValidationServiceTest {
     int stepCount = 15000;
     LocalDateTime timestamp = LocalDateTime.now();
 
-    when(stepRepository.findByGuardianIdAndDate(guardianId, timestamp.toLocalDate()))
-        .thenReturn(Arrays.asList(new StepRecord(guardianId, 2000, timestamp.minusHours(2))));
+    when(stepRepository.findDailyAggregate(guardianId, timestamp.toLocalDate()))
+        .thenReturn(Optional.of(new DailyStepAggregate(guardianId, timestamp.toLocalDate(), 2000)));
     when(anomalyDetectionService.isAnomalous(guardianId, stepCount, timestamp)).thenReturn(true);
 
     // When
@@ -139,7 +181,7 @@ class StepValidationServiceTest {
     assertFalse(result.isValid());
     assertEquals(
         "Step count appears anomalous and requires verification", result.getErrorMessage());
-    verify(stepRepository, times(1)).findByGuardianIdAndDate(guardianId, timestamp.toLocalDate());
+    verify(stepRepository, times(1)).findDailyAggregate(guardianId, timestamp.toLocalDate());
     verify(anomalyDetectionService, times(1)).isAnomalous(guardianId, stepCount, timestamp);
   }
 
@@ -182,28 +224,23 @@ class StepValidationServiceTest {
   }
 
   @Test
-  @DisplayName("Should detect step count spikes")
+  @DisplayName("Should detect step count spikes from the stored daily total")
   void shouldDetectStepCountSpikes() {
     // Given
     Long guardianId = 1L;
     LocalDate date = LocalDate.now();
-    List<StepRecord> recentSteps =
-        Arrays.asList(
-            new StepRecord(guardianId, 1000, date.minusDays(2).atTime(10, 0)),
-            new StepRecord(guardianId, 1200, date.minusDays(1).atTime(10, 0)),
-            new StepRecord(guardianId, 15000, date.atTime(10, 0)) // Spike
-            );
 
-    when(stepRepository.findByGuardianIdAndDateRange(guardianId, date.minusDays(7), date))
-        .thenReturn(recentSteps);
+    when(stepRepository.findDailyAggregate(guardianId, date))
+        .thenReturn(Optional.of(new DailyStepAggregate(guardianId, date, 15000)));
+    when(anomalyDetectionService.isDailySpike(guardianId, date, 15000)).thenReturn(true);
 
     // When
     boolean result = stepValidationService.hasStepCountSpike(guardianId, date);
 
     // Then
     assertTrue(result);
-    verify(stepRepository, times(1))
-        .findByGuardianIdAndDateRange(guardianId, date.minusDays(7), date);
+    verify(anomalyDetectionService, times(1)).isDailySpike(guardianId, date, 15000);
+    verify(stepRepository, never()).findByGuardianIdAndDateRange(any(), any(), any());
   }
 
   @Test
@@ -212,23 +249,43 @@ class StepValidationServiceTest {
     // Given
     Long guardianId = 1L;
     LocalDate date = LocalDate.now();
-    List<StepRecord> recentSteps =
-        Arrays.asList(
-            new StepRecord(guardianId, 1000, date.minusDays(2).atTime(10, 0)),
-            new StepRecord(guardianId, 1200, date.minusDays(1).atTime(10, 0)),
-            new StepRecord(guardianId, 1500, date.atTime(10, 0)) // Normal progression
-            );
 
-    when(stepRepository.findByGuardianIdAndDateRange(guardianId, date.minusDays(7), date))
-        .thenReturn(recentSteps);
+    when(stepRepository.findDailyAggregate(guardianId, date))
+        .thenReturn(Optional.of(new DailyStepAggregate(guardianId, date, 1500)));
+    when(anomalyDetectionService.isDailySpike(guardianId, date, 1500)).thenReturn(false);
 
     // When
     boolean result = stepValidationService.hasStepCountSpike(guardianId, date);
 
     // Then
     assertFalse(result);
-    verify(stepRepository, times(1))
-        .findByGuardianIdAndDateRange(guardianId, date.minusDays(7), date);
+    verify(stepRepository, never()).findByGuardianIdAndDateRange(any(), any(), any());
+  }
+
+  @Test
+  @DisplayName("Should feed only saved submissions into the anomaly statistics")
+  void shouldRecordAcceptedSubmissions() {
+    // Given
+    Long guardianId = 1L;
+    LocalDateTime timestamp = LocalDateTime.now();
+
+    when(stepRepository.findDailyAggregate(guardianId, timestamp.toLocalDate()))
+        .thenReturn(Optional.empty());
+    when(anomalyDetectionService.isAnomalous(guardianId, 3000, timestamp)).thenReturn(false);
+
+    // When
+    StepValidationResult result =
+        stepValidationService.validateStepCount(guardianId, 3000, timestamp);
+
+    // Then
+    assertTrue(result.isValid());
+    verify(anomalyDetectionService, never()).recordAccepted(anyLong(), anyInt(), any());
+
+    // When
+    stepValidationService.recordAccepted(List.of(new StepRecord(guardianId, 3000, timestamp)));
+
+    // Then
+    verify(anomalyDetectionService, times(1)).recordAccepted(guardianId, 3000, timestamp);
   }
 
   @Test
@@ -236,16 +293,16 @@ class StepValidationServiceTest {
   void shouldValidateStepSubmissionRate() {
     // Given
     Long guardianId = 1L;
-    LocalDateTime timestamp = LocalDateTime.now();
 
-    when(stepRepository.countSubmissionsInLastHour(guardianId, timestamp)).thenReturn(10);
+    when(submissionRateLimiter.tryAcquire(guardianId)).thenReturn(true);
 
     // When
-    boolean result = stepValidationService.isWithinSubmissionRateLimit(guardianId, timestamp);
+    boolean result = stepValidationService.isWithinSubmissionRateLimit(guardianId);
 
     // Then
     assertTrue(result);
-    verify(stepRepository, times(1)).countSubmissionsInLastHour(guardianId, timestamp);
+    verify(submissionRateLimiter, times(1)).tryAcquire(guardianId);
+    verifyNoInteractions(stepRepository);
   }
 
   @Test
@@ -253,17 +310,15 @@ class StepValidationServiceTest {
   void shouldRejectWhenSubmissionRateLimitExceeded() {
     // Given
     Long guardianId = 1L;
-    LocalDateTime timestamp = LocalDateTime.now();
 
-    when(stepRepository.countSubmissionsInLastHour(guardianId, timestamp))
-        .thenReturn(120); // Exceeds limit
+    when(submissionRateLimiter.tryAcquire(guardianId)).thenReturn(false); // Window is full
 
     // When
-    boolean result = stepValidationService.isWithinSubmissionRateLimit(guardianId, timestamp);
+    boolean result = stepValidationService.isWithinSubmissionRateLimit(guardianId);
 
     // Then
     assertFalse(result);
-    verify(stepRepository, times(1)).countSubmissionsInLastHour(guardianId, timestamp);
+    verify(metricsService, times(1)).recordRateLimitExceeded(guardianId, "step_submission");
   }
 
   @Test
@@ -291,4 +346,35 @@ class StepValidationServiceTest {
     // Then
     assertFalse(result);
   }
+
+  @Test
+  @DisplayName("Should validate batch against a single snapshot of the daily total")
+  void shouldValidateBatchAgainstSingleDailyTotalSnapshot() {
+    // Given
+    Long guardianId = 1L;
+    LocalDateTime morning = LocalDate.now().atTime(8, 0);
+    List<StepRecord> samples =
+        Arrays.asList(
+            new StepRecord(guardianId, 4000, morning),
+            new StepRecord(guardianId, 4000, morning.plusHours(1)),
+            new StepRecord(guardianId, 3000, morning.plusHours(2)));
+
+    when(stepRepository.findDailyAggregate(guardianId, morning.toLocalDate()))
+        .thenReturn(Optional.of(new DailyStepAggregate(guardianId, morning.toLocalDate(), 40000)));
+    when(anomalyDetectionService.isAnomalous(anyLong(), anyInt(), any(LocalDateTime.class)))
+        .thenReturn(false);
+
+    // When
+    List<StepValidationResult> results =
+        stepValidationService.validateStepBatch(guardianId, samples);
+
+    // Then
+    assertEquals(3, results.size());
+    assertTrue(results.get(0).isValid()); // 44000
+    assertTrue(results.get(1).isValid()); // 48000
+    assertFalse(results.get(2).isValid()); // 51000 exceeds the daily maximum
+    assertEquals(
+        "Daily step count would exceed maximum allowed (50000)", results.get(2).getErrorMessage());
+    verify(stepRepository, times(1)).findDailyAggregate(guardianId, morning.toLocalDate());
+  }
 }
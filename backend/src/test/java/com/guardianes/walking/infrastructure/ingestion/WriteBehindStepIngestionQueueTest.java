@@ -0,0 +1,211 @@
+package com.guardianes.walking.infrastructure.ingestion;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import com.guardianes.shared.infrastructure.metrics.BusinessMetricsService;
+import com.guardianes.walking.domain.AnomalyDetectionService;
+import com.guardianes.walking.domain.EnergyCalculationService;
+import com.guardianes.walking.domain.EnergyRepository;
+import com.guardianes.walking.domain.EnergyTransaction;
+import com.guardianes.walking.domain.StepRecord;
+import com.guardianes.walking.domain.StepRepository;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@DisplayName("Write-Behind Step Ingestion Queue Tests")
+class WriteBehindStepIngestionQueueTest {
+
+  private static final long ONE_HOUR_MS = 3_600_000L;
+
+  @Mock private StepRepository stepRepository;
+  @Mock private EnergyRepository energyRepository;
+  @Mock private AnomalyDetectionService anomalyDetectionService;
+  @Mock private BusinessMetricsService metricsService;
+  @Mock private PlatformTransactionManager transactionManager;
+
+  private WriteBehindStepIngestionQueue ingestionQueue;
+
+  @BeforeEach
+  void setUp() {
+    MockitoAnnotations.openMocks(this);
+    // Flush interval far in the future so only explicit flushes run
+    ingestionQueue = createQueue(3);
+    ingestionQueue.start();
+  }
+
+  @AfterEach
+  void tearDown() {
+    if (ingestionQueue.isRunning()) {
+      ingestionQueue.stop();
+    }
+  }
+
+  @Test
+  @DisplayName("Should persist queued records and one energy transaction per guardian and day")
+  void shouldPersistQueuedRecordsInOneBatch() {
+    // Given
+    LocalDateTime morning = LocalDateTime.of(2025, 7, 4, 9, 0);
+    ingestionQueue.offer(new StepRecord(1L, 1000, morning));
+    ingestionQueue.offer(new StepRecord(1L, 555, morning.plusHours(1)));
+    ingestionQueue.offer(new StepRecord(2L, 300, morning));
+
+    // When
+    boolean flushed = ingestionQueue.flushBatch();
+
+    // Then
+    assertTrue(flushed);
+    verify(stepRepository, times(1)).saveAll(argThat(batch -> batch.size() == 3));
+
+    ArgumentCaptor<EnergyTransaction> transactions =
+        ArgumentCaptor.forClass(EnergyTransaction.class);
+    verify(energyRepository, times(2)).saveTransaction(transactions.capture());
+    assertEquals(
+        155,
+        transactions.getAllValues().stream()
+            .filter(transaction -> transaction.getGuardianId().equals(1L))
+            .findFirst()
+            .orElseThrow()
+            .getAmount());
+  }
+
+  @Test
+  @DisplayName("Should reject records when the queue is full")
+  void shouldRejectRecordsWhenQueueIsFull() {
+    // Given
+    LocalDateTime now = LocalDateTime.now();
+    for (int i = 0; i < 3; i++) {
+      assertTrue(ingestionQueue.offer(new StepRecord(1L, 100, now)));
+    }
+
+    // When
+    boolean accepted = ingestionQueue.offer(new StepRecord(1L, 100, now));
+
+    // Then
+    assertFalse(accepted);
+    verify(metricsService, times(1)).recordStepIngestionRejected();
+    assertEquals(300, ingestionQueue.pendingSteps(1L, now.toLocalDate()));
+  }
+
+  @Test
+  @DisplayName("Should reserve queued steps against the daily total until they are flushed")
+  void shouldReservePendingStepsUntilFlushed() {
+    // Given
+    LocalDateTime morning = LocalDateTime.of(2025, 7, 4, 9, 0);
+    LocalDate day = morning.toLocalDate();
+    ingestionQueue.offer(new StepRecord(1L, 1000, morning));
+    ingestionQueue.offer(new StepRecord(1L, 500, morning.plusHours(1)));
+    ingestionQueue.offer(new StepRecord(1L, 700, morning.plusDays(1)));
+
+    // Then
+    assertEquals(1500, ingestionQueue.pendingSteps(1L, day));
+    assertEquals(700, ingestionQueue.pendingSteps(1L, day.plusDays(1)));
+    assertEquals(0, ingestionQueue.pendingSteps(2L, day));
+
+    // When
+    ingestionQueue.flushBatch();
+
+    // Then
+    assertEquals(0, ingestionQueue.pendingSteps(1L, day));
+    assertEquals(0, ingestionQueue.pendingSteps(1L, day.plusDays(1)));
+  }
+
+  @Test
+  @DisplayName("Should keep a failed batch and retry it on the next flush")
+  void shouldRetryFailedBatch() {
+    // Given
+    ingestionQueue.offer(new StepRecord(1L, 1000, LocalDateTime.now()));
+    when(stepRepository.saveAll(anyList()))
+        .thenThrow(new IllegalStateException("database unavailable"))
+        .thenAnswer(invocation -> invocation.getArgument(0));
+
+    // When
+    boolean firstAttempt = ingestionQueue.flushBatch();
+    boolean secondAttempt = ingestionQueue.flushBatch();
+
+    // Then
+    assertFalse(firstAttempt);
+    assertTrue(secondAttempt);
+    verify(stepRepository, times(2)).saveAll(argThat(batch -> batch.size() == 1));
+    verify(energyRepository, times(1)).saveTransaction(any(EnergyTransaction.class));
+    verify(anomalyDetectionService, times(1)).recordAccepted(anyLong(), anyInt(), any());
+  }
+
+  @Test
+  @DisplayName("Should save a failing batch record by record and dead-letter the bad record")
+  void shouldDeadLetterFailingRecordAfterMaxAttempts() {
+    // Given
+    LocalDateTime now = LocalDateTime.now();
+    ingestionQueue.offer(new StepRecord(1L, 1000, now));
+    ingestionQueue.offer(new StepRecord(2L, 2000, now));
+    when(stepRepository.saveAll(anyList()))
+        .thenAnswer(
+            invocation -> {
+              List<StepRecord> batch = invocation.getArgument(0);
+              if (batch.size() > 1 || batch.get(0).getGuardianId().equals(2L)) {
+                throw new IllegalStateException("constraint violation");
+              }
+              return batch;
+            });
+
+    // When
+    boolean firstAttempt = ingestionQueue.flushBatch();
+    boolean secondAttempt = ingestionQueue.flushBatch();
+    boolean lastAttempt = ingestionQueue.flushBatch();
+
+    // Then
+    assertFalse(firstAttempt);
+    assertFalse(secondAttempt);
+    assertTrue(lastAttempt);
+    verify(stepRepository, times(3)).saveAll(argThat(batch -> batch.size() == 2));
+    verify(energyRepository, times(1)).saveTransaction(any(EnergyTransaction.class));
+    verify(metricsService, times(1)).recordStepIngestionDeadLettered();
+    verify(anomalyDetectionService, times(1)).recordAccepted(1L, 1000, now);
+    verify(anomalyDetectionService, never()).recordAccepted(eq(2L), anyInt(), any());
+    assertEquals(0, ingestionQueue.pendingSteps(2L, now.toLocalDate()));
+
+    // The next flush starts from an empty batch again
+    assertTrue(ingestionQueue.flushBatch());
+    verify(stepRepository, times(5)).saveAll(anyList());
+  }
+
+  @Test
+  @DisplayName("Should drain the queue on shutdown and stop accepting records")
+  void shouldDrainQueueOnShutdown() {
+    // Given
+    ingestionQueue.offer(new StepRecord(1L, 1000, LocalDateTime.now()));
+    ingestionQueue.offer(new StepRecord(2L, 2000, LocalDateTime.now()));
+
+    // When
+    ingestionQueue.stop();
+
+    // Then
+    verify(stepRepository, times(1)).saveAll(argThat(batch -> batch.size() == 2));
+    assertFalse(ingestionQueue.offer(new StepRecord(1L, 1000, LocalDateTime.now())));
+  }
+
+  private WriteBehindStepIngestionQueue createQueue(int capacity) {
+    return new WriteBehindStepIngestionQueue(
+        stepRepository,
+        energyRepository,
+        new EnergyCalculationService(energyRepository, null),
+        anomalyDetectionService,
+        metricsService,
+        transactionManager,
+        capacity,
+        500,
+        ONE_HOUR_MS,
+        1000,
+        3);
+  }
+}
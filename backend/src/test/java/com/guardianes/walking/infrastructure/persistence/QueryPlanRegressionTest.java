@@ -0,0 +1,188 @@
+package com.guardianes.walking.infrastructure.persistence;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.guardianes.testconfig.GuardianTestConfiguration;
+import com.guardianes.walking.infrastructure.persistence.repository.EnergyTransactionJpaRepository;
+import com.guardianes.walking.infrastructure.persistence.repository.StepRecordJpaRepository;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.flywaydb.core.Flyway;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Runs EXPLAIN for the SQL that the repositories issue for the hot guardian/time-range queries,
+ * captured from Hibernate, against the migrated schema on H2 in MySQL mode. Each query must be
+ * answered by a range scan of its (guardian_id, recorded_at) index; a predicate that wraps
+ * recorded_at in a function, or a missing index, makes these tests fail.
+ */
+@SpringBootTest
+@TestPropertySource(
+    locations = "classpath:application-test.properties",
+    properties =
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+            + "com.guardianes.walking.infrastructure.persistence"
+            + ".QueryPlanRegressionTest$RecordingStatementInspector")
+@Import(GuardianTestConfiguration.class)
+@DisplayName("Query Plan Regression Tests")
+class QueryPlanRegressionTest {
+
+  private static final String URL = "jdbc:h2:mem:query_plan;MODE=MySQL;DB_CLOSE_DELAY=-1";
+  private static final String STEP_INDEX = "IDX_STEP_RECORDS_GUARDIAN_RECORDED_AT";
+  private static final String ENERGY_INDEX = "IDX_ENERGY_TRANSACTIONS_GUARDIAN_RECORDED_AT";
+  private static final LocalDateTime FROM = LocalDateTime.of(2025, 7, 4, 0, 0);
+  private static final LocalDateTime TO = FROM.plusDays(1);
+
+  private static Connection connection;
+
+  @Autowired private StepRecordJpaRepository stepRecordJpaRepository;
+  @Autowired private EnergyTransactionJpaRepository energyTransactionJpaRepository;
+
+  @BeforeAll
+  static void migrate() throws SQLException {
+    Flyway.configure()
+        .dataSource(URL, "sa", "")
+        .locations("classpath:db/migration-test")
+        .load()
+        .migrate();
+    connection = DriverManager.getConnection(URL, "sa", "");
+  }
+
+  @AfterAll
+  static void close() throws SQLException {
+    connection.close();
+  }
+
+  @Test
+  @DisplayName("Step records for a day should range-scan the guardian/recorded_at index")
+  void stepRecordsForDayShouldUseCompositeIndex() throws SQLException {
+    String sql =
+        capture(() -> stepRecordJpaRepository.findByGuardianIdAndTimestampRange(1L, FROM, TO));
+
+    assertRangeScan(explain(sql), STEP_INDEX);
+  }
+
+  @Test
+  @DisplayName("Step history pages should range-scan the guardian/recorded_at index")
+  void stepHistoryPageShouldUseCompositeIndex() throws SQLException {
+    String sql =
+        capture(
+            () -> stepRecordJpaRepository.findPageAfter(1L, FROM, 0L, TO, PageRequest.of(0, 51)));
+
+    assertRangeScan(explain(sql), STEP_INDEX);
+  }
+
+  @Test
+  @DisplayName("Energy history should range-scan the guardian/recorded_at index")
+  void energyHistoryShouldUseCompositeIndex() throws SQLException {
+    String sql =
+        capture(
+            () -> energyTransactionJpaRepository.findByGuardianIdAndTimestampRange(1L, FROM, TO));
+
+    assertRangeScan(explain(sql), ENERGY_INDEX);
+  }
+
+  @Test
+  @DisplayName("Energy history pages should range-scan the guardian/recorded_at index")
+  void energyHistoryPageShouldUseCompositeIndex() throws SQLException {
+    String sql =
+        capture(
+            () ->
+                energyTransactionJpaRepository.findPageAfter(
+                    1L, FROM, 0L, TO, PageRequest.of(0, 51)));
+
+    assertRangeScan(explain(sql), ENERGY_INDEX);
+  }
+
+  @Test
+  @DisplayName("Casting recorded_at to a date should not be usable as a range condition")
+  void castPredicateShouldNotRangeScan() throws SQLException {
+    String plan =
+        explainLiteral(
+            "SELECT id FROM step_records"
+                + " WHERE guardian_id = 1 AND CAST(recorded_at AS DATE) = DATE '2025-07-04'");
+
+    assertThat(indexCondition(plan)).as(plan).doesNotContain("RECORDED_AT");
+  }
+
+  /** The last query the repository call sent to the database. */
+  private static String capture(Runnable repositoryCall) {
+    RecordingStatementInspector.STATEMENTS.clear();
+    repositoryCall.run();
+    List<String> statements = RecordingStatementInspector.STATEMENTS;
+    assertThat(statements).isNotEmpty();
+    return statements.get(statements.size() - 1);
+  }
+
+  private static String explain(String sql) throws SQLException {
+    try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+      // The plan is chosen when the statement is prepared, whatever the bound values
+      int parameters = statement.getParameterMetaData().getParameterCount();
+      for (int index = 1; index <= parameters; index++) {
+        statement.setNull(index, Types.NULL);
+      }
+      try (ResultSet resultSet = statement.executeQuery()) {
+        assertThat(resultSet.next()).isTrue();
+        return resultSet.getString(1).replace("\"", "").toUpperCase();
+      }
+    }
+  }
+
+  private static String explainLiteral(String sql) throws SQLException {
+    try (Statement statement = connection.createStatement();
+        ResultSet resultSet = statement.executeQuery("EXPLAIN " + sql)) {
+      assertThat(resultSet.next()).isTrue();
+      return resultSet.getString(1).replace("\"", "").toUpperCase();
+    }
+  }
+
+  private static void assertRangeScan(String plan, String indexName) {
+    assertThat(indexComment(plan)).as(plan).startsWith("PUBLIC." + indexName + ":");
+    assertThat(indexCondition(plan)).as(plan).containsAnyOf("RECORDED_AT >=", "RECORDED_AT <");
+    assertThat(plan).doesNotContain("TABLESCAN");
+  }
+
+  /** The conditions the chosen index evaluates, without the index name. */
+  private static String indexCondition(String plan) {
+    String comment = indexComment(plan);
+    int separator = comment.indexOf(':');
+    assertThat(separator).as(plan).isNotNegative();
+    return comment.substring(separator + 1).trim();
+  }
+
+  /** H2 prints the chosen index and the conditions it evaluates as a comment after the table. */
+  private static String indexComment(String plan) {
+    int start = plan.indexOf("/*");
+    int end = plan.indexOf("*/", start);
+    assertThat(start).as(plan).isNotNegative();
+    return plan.substring(start + 2, end).trim();
+  }
+
+  /** Records the SQL Hibernate sends, so the plans checked are those of the real queries. */
+  public static final class RecordingStatementInspector implements StatementInspector {
+    static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+    @Override
+    public String inspect(String sql) {
+      STATEMENTS.add(sql);
+      return sql;
+    }
+  }
+}
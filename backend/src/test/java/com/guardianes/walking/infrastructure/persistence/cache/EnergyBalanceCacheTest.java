@@ -0,0 +1,144 @@
+package com.guardianes.walking.infrastructure.persistence.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("Energy Balance Cache Tests")
+class EnergyBalanceCacheTest {
+
+  private AtomicLong clock;
+  private AtomicInteger loads;
+  private EnergyBalanceCache cache;
+
+  @BeforeEach
+  void setUp() {
+    clock = new AtomicLong(1_000_000L);
+    loads = new AtomicInteger();
+    cache = new EnergyBalanceCache(2, 30, clock::get);
+  }
+
+  private int load(int balance) {
+    loads.incrementAndGet();
+    return balance;
+  }
+
+  @Test
+  @DisplayName("Should load a balance once and serve repeated reads from the cache")
+  void shouldServeRepeatedReadsFromCache() {
+    // When
+    for (int move = 0; move < 30; move++) {
+      assertThat(cache.getBalance(1L, () -> load(100))).isEqualTo(100);
+    }
+
+    // Then
+    assertThat(loads.get()).isEqualTo(1);
+    assertThat(cache.misses()).isEqualTo(1);
+    assertThat(cache.hits()).isEqualTo(29);
+  }
+
+  @Test
+  @DisplayName("Should reload a balance after it was invalidated or expired")
+  void shouldReloadAfterInvalidationOrExpiry() {
+    // Given
+    cache.getBalance(1L, () -> load(100));
+
+    // When / Then
+    cache.invalidate(1L);
+    assertThat(cache.getBalance(1L, () -> load(80))).isEqualTo(80);
+
+    clock.addAndGet(30_000L);
+    assertThat(cache.getBalance(1L, () -> load(70))).isEqualTo(70);
+    assertThat(loads.get()).isEqualTo(3);
+  }
+
+  @Test
+  @DisplayName("Should evict a balance when full")
+  void shouldEvictBalanceWhenFull() {
+    // Given
+    cache.getBalance(1L, () -> load(10));
+    cache.getBalance(2L, () -> load(20));
+
+    // When
+    cache.getBalance(3L, () -> load(30));
+
+    // Then
+    assertThat(cache.size()).isEqualTo(2);
+    assertThat(cache.evictions()).isEqualTo(1);
+    assertThat(cache.getBalance(3L, () -> load(31))).isEqualTo(30);
+  }
+
+  @Test
+  @DisplayName("Should purge expired balances before evicting live ones")
+  void shouldPurgeExpiredBalancesBeforeEvicting() {
+    // Given
+    cache.getBalance(1L, () -> load(10));
+    clock.addAndGet(20_000L);
+    cache.getBalance(2L, () -> load(20));
+    clock.addAndGet(15_000L);
+
+    // When
+    cache.getBalance(3L, () -> load(30));
+
+    // Then
+    assertThat(cache.evictions()).isEqualTo(1);
+    assertThat(cache.getBalance(2L, () -> load(21))).isEqualTo(20);
+    assertThat(loads.get()).isEqualTo(3);
+  }
+
+  @Test
+  @DisplayName("Should not cache a balance loaded while the guardian's balance changed")
+  void shouldNotCacheBalanceLoadedDuringInvalidation() {
+    // When
+    int stale =
+        cache.getBalance(
+            1L,
+            () -> {
+              cache.invalidate(1L);
+              return load(100);
+            });
+
+    // Then
+    assertThat(stale).isEqualTo(100);
+    assertThat(cache.size()).isZero();
+    assertThat(cache.getBalance(1L, () -> load(60))).isEqualTo(60);
+  }
+
+  @Test
+  @DisplayName("Should cache a balance loaded while another guardian's balance changed")
+  void shouldCacheBalanceLoadedDuringAnotherGuardiansInvalidation() {
+    // Given
+    cache.getBalance(2L, () -> load(20));
+
+    // When
+    cache.getBalance(
+        1L,
+        () -> {
+          cache.invalidate(2L);
+          return load(100);
+        });
+
+    // Then
+    assertThat(cache.getBalance(1L, () -> load(60))).isEqualTo(100);
+    assertThat(loads.get()).isEqualTo(2);
+  }
+
+  @Test
+  @DisplayName("Should always load when the capacity is zero")
+  void shouldBypassCacheWhenDisabled() {
+    // Given
+    EnergyBalanceCache disabled = new EnergyBalanceCache(0, 30, clock::get);
+
+    // When
+    disabled.getBalance(1L, () -> load(10));
+    disabled.getBalance(1L, () -> load(10));
+
+    // Then
+    assertThat(loads.get()).isEqualTo(2);
+    assertThat(disabled.size()).isZero();
+  }
+}
@@ -0,0 +1,119 @@
+package com.guardianes.walking.infrastructure.persistence.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.guardianes.walking.domain.EnergyTransaction;
+import com.guardianes.walking.domain.EnergyTransactionType;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("Recent Energy Transactions Cache Tests")
+class RecentEnergyTransactionsCacheTest {
+
+  private static final LocalDateTime START = LocalDateTime.of(2026, 3, 10, 8, 0);
+
+  private static EnergyTransaction earned(int amount, LocalDateTime timestamp) {
+    return new EnergyTransaction(1L, EnergyTransactionType.EARNED, amount, "Steps", timestamp);
+  }
+
+  private static List<Integer> amounts(List<EnergyTransaction> transactions) {
+    return transactions.stream().map(EnergyTransaction::getAmount).toList();
+  }
+
+  @Test
+  @DisplayName("Should load a cold guardian once and append committed writes to the buffer")
+  void shouldServeWarmGuardiansFromCache() {
+    // Given
+    AtomicLong clock = new AtomicLong(1_000_000L);
+    AtomicInteger loads = new AtomicInteger();
+    RecentEnergyTransactionsCache cache = new RecentEnergyTransactionsCache(2, 10, 60, clock::get);
+    List<RecentEnergyTransactions.Entry> stored =
+        List.of(new RecentEnergyTransactions.Entry(1, earned(1, START)));
+
+    // When
+    cache.getRecent(
+        1L,
+        2,
+        () -> {
+          loads.incrementAndGet();
+          return stored;
+        });
+    cache.append(1L, 2, earned(2, START.plusMinutes(1)));
+    List<EnergyTransaction> recent = cache.getRecent(1L, 2, () -> List.of());
+
+    // Then
+    assertThat(loads.get()).isEqualTo(1);
+    assertThat(amounts(recent)).containsExactly(2, 1);
+
+    clock.addAndGet(60_000L);
+    assertThat(cache.getRecent(1L, 2, () -> List.of())).isEmpty();
+  }
+
+  @Test
+  @DisplayName("Should not cache a load that raced with an append")
+  void shouldNotCacheLoadRacingWithAppend() {
+    // Given
+    RecentEnergyTransactionsCache cache =
+        new RecentEnergyTransactionsCache(2, 10, 60, () -> 1_000_000L);
+
+    // When
+    cache.getRecent(
+        1L,
+        2,
+        () -> {
+          cache.append(1L, 1, earned(1, START));
+          return List.of();
+        });
+
+    // Then
+    assertThat(cache.size()).isZero();
+  }
+
+  @Test
+  @DisplayName("Should cache a load that raced with another guardian's append or invalidation")
+  void shouldCacheLoadRacingWithAnotherGuardiansWrite() {
+    // Given
+    RecentEnergyTransactionsCache cache =
+        new RecentEnergyTransactionsCache(2, 10, 60, () -> 1_000_000L);
+    cache.getRecent(2L, 2, () -> List.of());
+    List<RecentEnergyTransactions.Entry> stored =
+        List.of(new RecentEnergyTransactions.Entry(1, earned(1, START)));
+
+    // When
+    cache.getRecent(
+        1L,
+        2,
+        () -> {
+          cache.append(2L, 2, earned(2, START));
+          cache.invalidate(3L);
+          return stored;
+        });
+    List<EnergyTransaction> recent =
+        cache.getRecent(
+            1L, 2, () -> List.of(new RecentEnergyTransactions.Entry(9, earned(9, START))));
+
+    // Then
+    assertThat(amounts(recent)).containsExactly(1);
+    assertThat(cache.size()).isEqualTo(2);
+  }
+
+  @Test
+  @DisplayName("Should evict a buffer when full")
+  void shouldEvictBufferWhenFull() {
+    // Given
+    RecentEnergyTransactionsCache cache =
+        new RecentEnergyTransactionsCache(2, 2, 60, () -> 1_000_000L);
+
+    // When
+    for (long guardianId = 1; guardianId <= 5; guardianId++) {
+      cache.getRecent(guardianId, 2, () -> List.of());
+    }
+
+    // Then
+    assertThat(cache.size()).isEqualTo(2);
+  }
+}
@@ -0,0 +1,73 @@
+package com.guardianes.walking.infrastructure.persistence.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.guardianes.walking.domain.EnergyTransaction;
+import com.guardianes.walking.domain.EnergyTransactionType;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("Recent Energy Transactions Tests")
+class RecentEnergyTransactionsTest {
+
+  private static final LocalDateTime START = LocalDateTime.of(2026, 3, 10, 8, 0);
+
+  private static EnergyTransaction earned(int amount, LocalDateTime timestamp) {
+    return new EnergyTransaction(1L, EnergyTransactionType.EARNED, amount, "Steps", timestamp);
+  }
+
+  private static List<Integer> amounts(List<EnergyTransaction> transactions) {
+    return transactions.stream().map(EnergyTransaction::getAmount).toList();
+  }
+
+  @Test
+  @DisplayName("Should keep only the newest transactions, newest first")
+  void shouldKeepNewestTransactions() {
+    // Given
+    RecentEnergyTransactions recent = new RecentEnergyTransactions(3);
+
+    // When
+    for (int i = 1; i <= 5; i++) {
+      recent.add(i, earned(i, START.plusMinutes(i)));
+    }
+
+    // Then
+    assertThat(amounts(recent.latest(10))).containsExactly(5, 4, 3);
+    assertThat(amounts(recent.latest(2))).containsExactly(5, 4);
+  }
+
+  @Test
+  @DisplayName("Should shift backdated transactions into place and drop those older than all")
+  void shouldOrderBackdatedTransactions() {
+    // Given
+    RecentEnergyTransactions recent = new RecentEnergyTransactions(3);
+    recent.add(1, earned(10, START.plusHours(1)));
+    recent.add(2, earned(30, START.plusHours(3)));
+
+    // When
+    recent.add(3, earned(20, START.plusHours(2)));
+    recent.add(4, earned(5, START));
+    recent.add(5, earned(31, START.plusHours(3)));
+
+    // Then
+    assertThat(amounts(recent.latest(3))).containsExactly(31, 30, 20);
+  }
+
+  @Test
+  @DisplayName("Should build a buffer from transactions in any order")
+  void shouldBuildFromUnorderedEntries() {
+    // When
+    RecentEnergyTransactions recent =
+        RecentEnergyTransactions.of(
+            2,
+            List.of(
+                new RecentEnergyTransactions.Entry(7, earned(2, START.plusMinutes(2))),
+                new RecentEnergyTransactions.Entry(9, earned(3, START.plusMinutes(3))),
+                new RecentEnergyTransactions.Entry(8, earned(1, START.plusMinutes(1)))));
+
+    // Then
+    assertThat(amounts(recent.latest(5))).containsExactly(3, 2);
+  }
+}
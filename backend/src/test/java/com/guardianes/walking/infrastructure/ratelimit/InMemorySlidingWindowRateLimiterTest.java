@@ -0,0 +1,97 @@
+package com.guardianes.walking.infrastructure.ratelimit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("In-Memory Sliding Window Rate Limiter Tests")
+class InMemorySlidingWindowRateLimiterTest {
+
+  private final AtomicLong clock = new AtomicLong();
+  private InMemorySlidingWindowRateLimiter rateLimiter;
+
+  @BeforeEach
+  void setUp() {
+    rateLimiter = new InMemorySlidingWindowRateLimiter(3, 60, clock::get);
+  }
+
+  @Test
+  @DisplayName("Should allow submissions up to the limit within the window")
+  void shouldAllowSubmissionsUpToLimit() {
+    assertTrue(rateLimiter.tryAcquire(1L));
+    assertTrue(rateLimiter.tryAcquire(1L));
+    assertTrue(rateLimiter.tryAcquire(1L));
+    assertFalse(rateLimiter.tryAcquire(1L));
+  }
+
+  @Test
+  @DisplayName("Should track each guardian independently")
+  void shouldTrackGuardiansIndependently() {
+    for (int i = 0; i < 3; i++) {
+      rateLimiter.tryAcquire(1L);
+    }
+
+    assertFalse(rateLimiter.tryAcquire(1L));
+    assertTrue(rateLimiter.tryAcquire(2L));
+  }
+
+  @Test
+  @DisplayName("Should free capacity as old submissions slide out of the window")
+  void shouldFreeCapacityAsSubmissionsExpire() {
+    rateLimiter.tryAcquire(1L);
+    advanceSeconds(30);
+    rateLimiter.tryAcquire(1L);
+    rateLimiter.tryAcquire(1L);
+    assertFalse(rateLimiter.tryAcquire(1L));
+
+    advanceSeconds(30); // first submission leaves the window
+
+    assertTrue(rateLimiter.tryAcquire(1L));
+    assertFalse(rateLimiter.tryAcquire(1L));
+  }
+
+  @Test
+  @DisplayName("Should not count rejected submissions")
+  void shouldNotCountRejectedSubmissions() {
+    for (int i = 0; i < 10; i++) {
+      rateLimiter.tryAcquire(1L);
+    }
+
+    advanceSeconds(61);
+
+    assertTrue(rateLimiter.tryAcquire(1L));
+  }
+
+  @Test
+  @DisplayName("Should grow beyond the initial buffer capacity")
+  void shouldGrowBeyondInitialCapacity() {
+    InMemorySlidingWindowRateLimiter largeLimiter =
+        new InMemorySlidingWindowRateLimiter(100, 3600, clock::get);
+
+    for (int i = 0; i < 100; i++) {
+      assertTrue(largeLimiter.tryAcquire(1L), "submission " + i);
+    }
+    assertFalse(largeLimiter.tryAcquire(1L));
+  }
+
+  @Test
+  @DisplayName("Should evict windows of idle guardians")
+  void shouldEvictIdleWindows() {
+    rateLimiter.tryAcquire(1L);
+    advanceSeconds(45);
+    rateLimiter.tryAcquire(2L);
+    advanceSeconds(30);
+
+    rateLimiter.evictIdleWindows();
+
+    assertEquals(1, rateLimiter.trackedGuardians());
+  }
+
+  private void advanceSeconds(long seconds) {
+    clock.addAndGet(TimeUnit.SECONDS.toNanos(seconds));
+  }
+}
@@ -0,0 +1,73 @@
+package com.guardianes.walking.infrastructure.ratelimit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * Runs the Lua sliding-window script against a throwaway Redis container. Needs Docker, so like the
+ * other integration tests it is left out of the default test run.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@DisplayName("Redis Sliding Window Rate Limiter Integration Tests")
+class RedisSlidingWindowRateLimiterIntegrationTest {
+
+  @Container
+  @SuppressWarnings("resource")
+  static final GenericContainer<?> redis =
+      new GenericContainer<>("redis:7-alpine").withExposedPorts(6379);
+
+  private static LettuceConnectionFactory connectionFactory;
+  private static StringRedisTemplate redisTemplate;
+
+  @BeforeAll
+  static void connect() {
+    connectionFactory =
+        new LettuceConnectionFactory(
+            new RedisStandaloneConfiguration(redis.getHost(), redis.getMappedPort(6379)));
+    connectionFactory.afterPropertiesSet();
+    redisTemplate = new StringRedisTemplate(connectionFactory);
+  }
+
+  @AfterAll
+  static void disconnect() {
+    connectionFactory.destroy();
+  }
+
+  @Test
+  @DisplayName("Should allow submissions up to the limit and share state between instances")
+  void shouldEnforceLimitAcrossInstances() {
+    RedisSlidingWindowRateLimiter firstInstance =
+        new RedisSlidingWindowRateLimiter(redisTemplate, 3, 60);
+    RedisSlidingWindowRateLimiter secondInstance =
+        new RedisSlidingWindowRateLimiter(redisTemplate, 3, 60);
+
+    assertTrue(firstInstance.tryAcquire(10L));
+    assertTrue(secondInstance.tryAcquire(10L));
+    assertTrue(firstInstance.tryAcquire(10L));
+    assertFalse(secondInstance.tryAcquire(10L));
+    assertTrue(firstInstance.tryAcquire(11L));
+  }
+
+  @Test
+  @DisplayName("Should expire the window key after the window length")
+  void shouldExpireWindowKey() {
+    RedisSlidingWindowRateLimiter rateLimiter =
+        new RedisSlidingWindowRateLimiter(redisTemplate, 3, 60);
+
+    rateLimiter.tryAcquire(20L);
+
+    Long ttl = redisTemplate.getExpire("guardianes:rate-limit:steps:20");
+    assertNotNull(ttl);
+    assertTrue(ttl > 0 && ttl <= 60);
+  }
+}
@@ -0,0 +1,122 @@
+package com.guardianes.walking.infrastructure.ratelimit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+/**
+ * Runs the limiter against an in-memory stand-in for the sliding-window script, so the arguments it
+ * passes and its handling of the script's result are covered without Docker. The script itself is
+ * exercised against a real Redis by {@link RedisSlidingWindowRateLimiterIntegrationTest}.
+ */
+@DisplayName("Redis Sliding Window Rate Limiter Tests")
+class RedisSlidingWindowRateLimiterTest {
+
+  private final AtomicLong clock = new AtomicLong(1_000_000L);
+  private final FakeSlidingWindowScript script = new FakeSlidingWindowScript();
+  private StringRedisTemplate redisTemplate;
+  private RedisSlidingWindowRateLimiter rateLimiter;
+
+  @BeforeEach
+  @SuppressWarnings("unchecked")
+  void setUp() {
+    redisTemplate = mock(StringRedisTemplate.class);
+    when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class)))
+        .thenAnswer(script::execute);
+    rateLimiter = new RedisSlidingWindowRateLimiter(redisTemplate, 3, 60, clock::get);
+  }
+
+  @Test
+  @DisplayName("Should allow submissions up to the limit within the window")
+  void shouldAllowSubmissionsUpToLimit() {
+    assertTrue(rateLimiter.tryAcquire(1L));
+    assertTrue(rateLimiter.tryAcquire(1L));
+    assertTrue(rateLimiter.tryAcquire(1L));
+    assertFalse(rateLimiter.tryAcquire(1L));
+  }
+
+  @Test
+  @DisplayName("Should keep each guardian's submissions under their own key")
+  void shouldTrackGuardiansIndependently() {
+    for (int i = 0; i < 3; i++) {
+      rateLimiter.tryAcquire(1L);
+    }
+
+    assertFalse(rateLimiter.tryAcquire(1L));
+    assertTrue(rateLimiter.tryAcquire(2L));
+    assertEquals(3, script.size("guardianes:rate-limit:steps:1"));
+    assertEquals(1, script.size("guardianes:rate-limit:steps:2"));
+  }
+
+  @Test
+  @DisplayName("Should free capacity as old submissions slide out of the window")
+  void shouldFreeCapacityAsSubmissionsExpire() {
+    rateLimiter.tryAcquire(1L);
+    advanceSeconds(30);
+    rateLimiter.tryAcquire(1L);
+    rateLimiter.tryAcquire(1L);
+    assertFalse(rateLimiter.tryAcquire(1L));
+
+    advanceSeconds(30); // first submission leaves the window
+
+    assertTrue(rateLimiter.tryAcquire(1L));
+    assertFalse(rateLimiter.tryAcquire(1L));
+  }
+
+  @Test
+  @DisplayName("Should fail open when Redis is unavailable")
+  @SuppressWarnings("unchecked")
+  void shouldAllowSubmissionsWhenRedisFails() {
+    when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class)))
+        .thenThrow(new RedisConnectionFailureException("Connection refused"));
+
+    for (int i = 0; i < 10; i++) {
+      assertTrue(rateLimiter.tryAcquire(1L));
+    }
+  }
+
+  private void advanceSeconds(long seconds) {
+    clock.addAndGet(TimeUnit.SECONDS.toMillis(seconds));
+  }
+
+  /** Java rendition of the limiter's Lua script over sorted sets of (member, score). */
+  private static final class FakeSlidingWindowScript {
+
+    private final Map<String, Map<String, Long>> sortedSets = new HashMap<>();
+
+    Long execute(InvocationOnMock invocation) {
+      List<String> keys = invocation.getArgument(1);
+      long now = Long.parseLong(invocation.getArgument(2));
+      long window = Long.parseLong(invocation.getArgument(3));
+      int max = Integer.parseInt(invocation.getArgument(4));
+      String member = invocation.getArgument(5);
+
+      Map<String, Long> set = sortedSets.computeIfAbsent(keys.get(0), key -> new HashMap<>());
+      set.values().removeIf(score -> score <= now - window);
+      if (set.size() >= max) {
+        return 0L;
+      }
+      set.put(member, now);
+      return 1L;
+    }
+
+    int size(String key) {
+      return sortedSets.getOrDefault(key, Map.of()).size();
+    }
+  }
+}
@@ -0,0 +1,85 @@
+package com.guardianes.walking.infrastructure.repository;
+
+import com.guardianes.walking.domain.EnergyTransaction;
+import com.guardianes.walking.domain.EnergyTransactionType;
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Throughput of {@link InMemoryEnergyRepository} under concurrent writers and readers. Run with the
+ * benchmark profile, or through {@link #main}, which repeats the benchmarks with 1, 2, 4 and all
+ * available threads so the scaling with cores can be compared. Guardians are drawn uniformly from a
+ * configurable population, so a small population measures contention on a few hot ledgers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class EnergyLedgerContentionBenchmark {
+
+  @Param({"16", "100000"})
+  public int guardians;
+
+  private InMemoryEnergyRepository repository;
+  private LocalDateTime start;
+
+  @Setup(Level.Iteration)
+  public void setUp() {
+    repository = new InMemoryEnergyRepository();
+    start = LocalDateTime.now().minusDays(30);
+    for (long guardianId = 1; guardianId <= guardians; guardianId++) {
+      repository.saveTransaction(
+          new EnergyTransaction(guardianId, EnergyTransactionType.EARNED, 100, "BENCHMARK", start));
+    }
+  }
+
+  @Benchmark
+  public EnergyTransaction saveTransaction() {
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    return repository.saveTransaction(
+        new EnergyTransaction(
+            1L + random.nextInt(guardians),
+            random.nextInt(4) == 0 ? EnergyTransactionType.SPENT : EnergyTransactionType.EARNED,
+            1 + random.nextInt(100),
+            "BENCHMARK",
+            start.plusMinutes(random.nextInt(30 * 24 * 60))));
+  }
+
+  @Benchmark
+  public int getEnergyBalance() {
+    return repository.getEnergyBalance(1L + ThreadLocalRandom.current().nextInt(guardians));
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    int cores = Runtime.getRuntime().availableProcessors();
+    for (int threads : new int[] {1, 2, 4, cores}) {
+      if (threads > cores) {
+        continue;
+      }
+      new Runner(
+              new OptionsBuilder()
+                  .include(EnergyLedgerContentionBenchmark.class.getSimpleName())
+                  .threads(threads)
+                  .build())
+          .run();
+    }
+  }
+}
@@ -0,0 +1,388 @@
+package com.guardianes.walking.infrastructure.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+import com.guardianes.guardian.infrastructure.persistence.entity.GuardianEntity;
+import com.guardianes.guardian.infrastructure.persistence.repository.GuardianJpaRepository;
+import com.guardianes.testconfig.GuardianTestConfiguration;
+import com.guardianes.walking.domain.EnergyRepository;
+import com.guardianes.walking.domain.EnergyTransaction;
+import com.guardianes.walking.domain.EnergyTransactionType;
+import com.guardianes.walking.domain.HistoryPage;
+import com.guardianes.walking.infrastructure.job.DailyStepEnergyConversionJob;
+import com.guardianes.walking.infrastructure.job.EnergyLedgerCompactionJob;
+import com.guardianes.walking.infrastructure.job.EnergyReconciliationJob;
+import com.guardianes.walking.infrastructure.job.EnergyReconciliationJob.Discrepancy;
+import com.guardianes.walking.infrastructure.job.EnergyReconciliationJob.Issue;
+import com.guardianes.walking.infrastructure.persistence.entity.DailyStepAggregateEntity;
+import com.guardianes.walking.infrastructure.persistence.repository.DailyStepAggregateJpaRepository;
+import com.guardianes.walking.infrastructure.persistence.repository.EnergyBalanceJpaRepository;
+import com.guardianes.walking.infrastructure.persistence.repository.JpaEnergyRepository;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@SpringBootTest
+@TestPropertySource(
+    locations = "classpath:application-test.properties",
+    properties = {
+      "guardianes.walking.energy-compaction.archive-dir=target/archive/energy-transactions",
+      "guardianes.walking.energy-compaction.pause-ms=0",
+      "guardianes.walking.energy-conversion.chunk-size=1",
+      "guardianes.walking.energy-reconciliation.repair=true",
+      "guardianes.walking.energy-reconciliation.partition-size=2",
+      "guardianes.walking.energy-reconciliation.max-partitions-per-second=0",
+      "guardianes.walking.energy-reconciliation.report-dir=target/reports/energy-reconciliation"
+    })
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+@Import(GuardianTestConfiguration.class)
+public class EnergyPersistenceIntegrationTest {
+
+  @Autowired private EnergyRepository energyRepository;
+  @Autowired private EnergyLedgerCompactionJob compactionJob;
+  @Autowired private EnergyReconciliationJob reconciliationJob;
+  @Autowired private DailyStepEnergyConversionJob conversionJob;
+  @Autowired private GuardianJpaRepository guardianJpaRepository;
+  @Autowired private DailyStepAggregateJpaRepository dailyStepAggregateJpaRepository;
+  @Autowired private JdbcTemplate jdbcTemplate;
+  @Autowired private EnergyBalanceJpaRepository energyBalanceJpaRepository;
+  @Autowired private PlatformTransactionManager transactionManager;
+
+  @Test
+  public void shouldUseJpaEnergyRepositoryByDefault() {
+    assertThat(energyRepository).isInstanceOf(JpaEnergyRepository.class);
+  }
+
+  @Test
+  public void shouldMaintainMaterializedBalanceWhenSavingTransactions() {
+    // Given
+    Long guardianId = 1L;
+    LocalDateTime now = LocalDateTime.now();
+
+    // When
+    energyRepository.saveTransaction(
+        new EnergyTransaction(
+            guardianId, EnergyTransactionType.EARNED, 150, "DAILY_STEPS", now.minusHours(2)));
+    energyRepository.saveTransaction(
+        new EnergyTransaction(
+            guardianId, EnergyTransactionType.EARNED, 50, "CHALLENGE", now.minusHours(1)));
+    energyRepository.saveTransaction(
+        new EnergyTransaction(guardianId, EnergyTransactionType.SPENT, 75, "BATTLE", now));
+
+    // Then
+    assertThat(energyRepository.getEnergyBalance(guardianId)).isEqualTo(125);
+    assertThat(energyRepository.getEnergyBalance(2L)).isZero();
+    assertThat(energyRepository.findTransactionsByGuardianId(guardianId)).hasSize(3);
+  }
+
+  @Test
+  public void shouldReturnRecentTransactionsNewestFirst() {
+    // Given
+    Long guardianId = 3L;
+    LocalDateTime start = LocalDate.now().atTime(8, 0);
+    for (int i = 0; i < 5; i++) {
+      energyRepository.saveTransaction(
+          new EnergyTransaction(
+              guardianId, EnergyTransactionType.EARNED, 10 + i, "DAILY_STEPS", start.plusHours(i)));
+    }
+
+    // When
+    List<EnergyTransaction> recent = energyRepository.getRecentTransactions(guardianId, 2);
+
+    // Then
+    assertThat(recent).extracting(EnergyTransaction::getAmount).containsExactly(14, 13);
+    assertThat(
+            energyRepository.findTransactionsByGuardianIdAndDateRange(
+                guardianId, LocalDate.now(), LocalDate.now()))
+        .hasSize(5);
+  }
+
+  @Test
+  public void shouldCreditBalanceInsertedByAConcurrentFirstTransaction() {
+    // Given
+    Long guardianId = 2L;
+    LocalDateTime now = LocalDateTime.now();
+    TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+    // When
+    Integer inserted =
+        transaction.execute(status -> energyBalanceJpaRepository.addToBalance(guardianId, 30, now));
+    // The second first transaction credits the row the first one inserted
+    Integer credited =
+        transaction.execute(status -> energyBalanceJpaRepository.addToBalance(guardianId, 20, now));
+
+    // Then
+    assertThat(inserted).isEqualTo(1);
+    assertThat(credited).isEqualTo(2);
+    assertThat(energyRepository.getEnergyBalance(guardianId)).isEqualTo(50);
+  }
+
+  @Test
+  public void shouldGrantToGuardiansWithAndWithoutABalanceInOneCall() {
+    // Given
+    LocalDateTime now = LocalDateTime.now();
+    energyRepository.saveTransaction(
+        new EnergyTransaction(21L, EnergyTransactionType.EARNED, 40, "DAILY_STEPS", now));
+
+    // When
+    energyRepository.grantEnergy(List.of(22L, 21L, 23L), 10, "EVENT", now);
+
+    // Then
+    assertThat(energyRepository.getEnergyBalance(21L)).isEqualTo(50);
+    assertThat(energyRepository.getEnergyBalance(22L)).isEqualTo(10);
+    assertThat(energyRepository.getEnergyBalance(23L)).isEqualTo(10);
+    assertThat(energyRepository.getLedgerBalance(22L)).isEqualTo(10);
+  }
+
+  @Test
+  public void shouldNeverOverdrawWhenSpendingConcurrently() throws InterruptedException {
+    // Given
+    Long guardianId = 4L;
+    LocalDateTime now = LocalDateTime.now();
+    energyRepository.saveTransaction(
+        new EnergyTransaction(guardianId, EnergyTransactionType.EARNED, 100, "DAILY_STEPS", now));
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    AtomicInteger accepted = new AtomicInteger();
+
+    // When
+    for (int i = 0; i < 200; i++) {
+      executor.execute(
+          () -> {
+            if (energyRepository
+                .trySpend(
+                    new EnergyTransaction(
+                        guardianId, EnergyTransactionType.SPENT, 3, "BATTLE", now))
+                .isPresent()) {
+              accepted.incrementAndGet();
+            }
+          });
+    }
+    executor.shutdown();
+    assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+
+    // Then
+    assertThat(accepted.get()).isEqualTo(33);
+    assertThat(energyRepository.getEnergyBalance(guardianId)).isEqualTo(1);
+    assertThat(energyRepository.findTransactionsByGuardianId(guardianId)).hasSize(34);
+  }
+
+  @Test
+  public void shouldKeepLedgerBalanceWhenCompactingSnapshottedTransactions() {
+    // Given
+    Long guardianId = 5L;
+    LocalDate cutoff = LocalDate.now().withDayOfMonth(1);
+    LocalDateTime old = cutoff.minusMonths(2).atTime(9, 0);
+    energyRepository.saveTransaction(
+        new EnergyTransaction(guardianId, EnergyTransactionType.EARNED, 80, "DAILY_STEPS", old));
+    energyRepository.saveTransaction(
+        new EnergyTransaction(
+            guardianId, EnergyTransactionType.SPENT, 30, "BATTLE", old.plusDays(1)));
+    compactionJob.refreshSnapshots();
+    energyRepository.saveTransaction(
+        new EnergyTransaction(
+            guardianId, EnergyTransactionType.EARNED, 20, "DAILY_STEPS", old.plusDays(2)));
+
+    // When
+    int compacted = compactionJob.compact(cutoff);
+
+    // Then
+    assertThat(compacted).isEqualTo(2);
+    assertThat(energyRepository.findTransactionsByGuardianId(guardianId))
+        .extracting(EnergyTransaction::getAmount)
+        .containsExactly(20);
+    assertThat(energyRepository.getLedgerBalance(guardianId)).isEqualTo(70);
+    assertThat(energyRepository.getEnergyBalance(guardianId)).isEqualTo(70);
+  }
+
+  @Test
+  public void shouldPageTransactionsWithoutSkippingSameTimestamps() {
+    // Given
+    Long guardianId = 6L;
+    LocalDateTime morning = LocalDate.now().minusDays(2).atTime(10, 0);
+    for (int amount = 1; amount <= 3; amount++) {
+      energyRepository.saveTransaction(
+          new EnergyTransaction(
+              guardianId, EnergyTransactionType.EARNED, amount, "Steps", morning));
+    }
+    energyRepository.saveTransaction(
+        new EnergyTransaction(
+            guardianId, EnergyTransactionType.EARNED, 4, "Steps", morning.plusDays(1)));
+    energyRepository.saveTransaction(
+        new EnergyTransaction(
+            guardianId, EnergyTransactionType.EARNED, 5, "Steps", morning.plusDays(2)));
+    LocalDateTime from = morning.toLocalDate().atStartOfDay();
+    LocalDateTime to = from.plusDays(2);
+
+    // When
+    HistoryPage<EnergyTransaction> first =
+        energyRepository.findTransactionsPage(guardianId, from, to, null, 2);
+    HistoryPage<EnergyTransaction> second =
+        energyRepository.findTransactionsPage(guardianId, from, to, first.next(), 2);
+
+    // Then
+    assertThat(first.items()).extracting(EnergyTransaction::getAmount).containsExactly(1, 2);
+    assertThat(second.items()).extracting(EnergyTransaction::getAmount).containsExactly(3, 4);
+    assertThat(second.next()).isNull();
+  }
+
+  @Test
+  public void shouldReportAndRepairBalancesThatDriftedFromTheLedger() throws Exception {
+    // Given
+    LocalDateTime now = LocalDateTime.now();
+    energyRepository.saveTransaction(
+        new EnergyTransaction(40L, EnergyTransactionType.EARNED, 50, "DAILY_STEPS", now));
+    compactionJob.refreshSnapshots();
+    energyRepository.saveTransaction(
+        new EnergyTransaction(40L, EnergyTransactionType.SPENT, 20, "BATTLE", now));
+    energyRepository.saveTransaction(
+        new EnergyTransaction(41L, EnergyTransactionType.EARNED, 30, "DAILY_STEPS", now));
+    energyRepository.saveTransaction(
+        new EnergyTransaction(42L, EnergyTransactionType.EARNED, 10, "DAILY_STEPS", now));
+    energyRepository.saveTransaction(
+        new EnergyTransaction(42L, EnergyTransactionType.SPENT, 15, "BATTLE", now));
+    energyRepository.saveTransaction(
+        new EnergyTransaction(44L, EnergyTransactionType.SPENT, 5, "BATTLE", now));
+    jdbcTemplate.update("UPDATE energy_balances SET current_balance = 999 WHERE guardian_id = 41");
+    jdbcTemplate.update("UPDATE energy_balances SET current_balance = 3 WHERE guardian_id = 44");
+    jdbcTemplate.update(
+        "INSERT INTO energy_balances (guardian_id, current_balance, last_updated)"
+            + " VALUES (43, 7, CURRENT_TIMESTAMP)");
+
+    // When
+    EnergyReconciliationJob.Result result = reconciliationJob.reconcile(40L, 45L);
+
+    // Then
+    assertThat(result.checked()).isEqualTo(5);
+    assertThat(result.discrepancies())
+        .extracting(Discrepancy::guardianId, Discrepancy::issue, Discrepancy::repaired)
+        .containsExactlyInAnyOrder(
+            tuple(41L, Issue.MISMATCH, true),
+            tuple(42L, Issue.NEGATIVE_BALANCE, false),
+            tuple(43L, Issue.MISMATCH, true),
+            tuple(44L, Issue.NEGATIVE_LEDGER, false));
+    assertThat(energyRepository.getEnergyBalance(40L)).isEqualTo(30);
+    assertThat(energyRepository.getEnergyBalance(41L)).isEqualTo(30);
+    assertThat(energyRepository.getEnergyBalance(43L)).isZero();
+    assertThat(energyRepository.getEnergyBalance(44L)).isEqualTo(3);
+    assertThat(Files.readAllLines(result.report())).hasSize(5);
+  }
+
+  @Test
+  public void shouldConvertDailyStepsToEnergyOnceWhenResumingAConversion() {
+    // Given
+    LocalDate date = LocalDate.of(2024, 3, 1);
+    Long walker = saveGuardian("walker", true);
+    Long inactive = saveGuardian("inactive", false);
+    Long idle = saveGuardian("idle", true);
+    Long runner = saveGuardian("runner", true);
+    dailyStepAggregateJpaRepository.save(new DailyStepAggregateEntity(walker, date, 1500));
+    dailyStepAggregateJpaRepository.save(new DailyStepAggregateEntity(inactive, date, 2000));
+    dailyStepAggregateJpaRepository.save(new DailyStepAggregateEntity(idle, date, 5));
+    dailyStepAggregateJpaRepository.save(new DailyStepAggregateEntity(runner, date, 800));
+    // Energy already credited as one of the runner's submissions was recorded
+    energyRepository.saveTransaction(
+        new EnergyTransaction(
+            runner, EnergyTransactionType.EARNED, 30, "Steps", date.atTime(10, 0)));
+
+    // When
+    int credited = conversionJob.convert(date);
+    // A run that failed before checkpointing the chunks it had committed
+    jdbcTemplate.update(
+        "UPDATE energy_conversion_checkpoints SET converted_through_guardian_id = 0,"
+            + " completed = FALSE WHERE conversion_date = ?",
+        date);
+    int resumed = conversionJob.convert(date);
+
+    // Then
+    assertThat(credited).isEqualTo(2);
+    assertThat(resumed).isZero();
+    assertThat(energyRepository.getEnergyBalance(walker)).isEqualTo(150);
+    assertThat(energyRepository.getEnergyBalance(runner)).isEqualTo(80);
+    assertThat(energyRepository.getEnergyBalance(inactive)).isZero();
+    assertThat(energyRepository.findTransactionsByGuardianId(walker))
+        .extracting(EnergyTransaction::getSource, EnergyTransaction::getTimestamp)
+        .containsExactly(tuple("DAILY_STEPS", date.atTime(23, 59, 59)));
+    assertThat(energyRepository.findTransactionsByGuardianId(runner))
+        .extracting(EnergyTransaction::getSource, EnergyTransaction::getAmount)
+        .containsExactlyInAnyOrder(tuple("Steps", 30), tuple("DAILY_STEPS", 50));
+    assertThat(
+            jdbcTemplate.queryForObject(
+                "SELECT completed FROM energy_conversion_checkpoints WHERE conversion_date = ?",
+                Boolean.class,
+                date))
+        .isTrue();
+  }
+
+  @Test
+  public void shouldRejectASecondDailyCreditForTheSameDay() {
+    // Given
+    LocalDate date = LocalDate.of(2024, 3, 2);
+    Long walker = saveGuardian("walker", true);
+    energyRepository.creditEnergy(
+        Map.of(walker, 150), "DAILY_STEPS", date, date.atTime(23, 59, 59));
+
+    // When & Then
+    assertThatThrownBy(
+            () ->
+                energyRepository.creditEnergy(
+                    Map.of(walker, 150), "DAILY_STEPS", date, date.atTime(23, 59, 59)))
+        .isInstanceOf(DataIntegrityViolationException.class);
+    assertThat(energyRepository.getEnergyBalance(walker)).isEqualTo(150);
+  }
+
+  @Test
+  public void shouldNotConvertADayLeasedByAnotherInstance() {
+    // Given
+    LocalDate date = LocalDate.of(2024, 3, 3);
+    Long walker = saveGuardian("walker", true);
+    dailyStepAggregateJpaRepository.save(new DailyStepAggregateEntity(walker, date, 1500));
+    jdbcTemplate.update(
+        "DELETE FROM energy_conversion_checkpoints WHERE conversion_date = ?", date);
+    jdbcTemplate.update(
+        "INSERT INTO energy_conversion_checkpoints (conversion_date,"
+            + " converted_through_guardian_id, guardians_credited, completed, updated_at,"
+            + " locked_by, locked_until) VALUES (?, 0, 0, FALSE, ?, 'other-instance', ?)",
+        date,
+        LocalDateTime.now(),
+        LocalDateTime.now().plusMinutes(10));
+
+    // When
+    int credited = conversionJob.convert(date);
+    jdbcTemplate.update(
+        "UPDATE energy_conversion_checkpoints SET locked_until = ? WHERE conversion_date = ?",
+        LocalDateTime.now().minusMinutes(1),
+        date);
+    int takenOver = conversionJob.convert(date);
+
+    // Then
+    assertThat(credited).isZero();
+    assertThat(takenOver).isEqualTo(1);
+    assertThat(energyRepository.getEnergyBalance(walker)).isEqualTo(150);
+  }
+
+  private Long saveGuardian(String username, boolean active) {
+    GuardianEntity guardian =
+        new GuardianEntity(
+            username, username + "@example.com", "hash", username, LocalDate.of(2015, 5, 1));
+    guardian.setActive(active);
+    return guardianJpaRepository.save(guardian).getId();
+  }
+}
@@ -5,8 +5,14 @@ import static org.assertj.core.api.Assertions.assertThat;
 import com.guardianes.walking.domain.EnergyRepository;
 import com.guardianes.walking.domain.EnergyTransaction;
 import com.guardianes.walking.domain.EnergyTransactionType;
+import com.guardianes.walking.domain.HistoryPage;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -84,4 +90,116 @@ public class EnergyTransactionPersistenceTest {
         energyRepository.findTransactionsByGuardianId(guardianId);
     assertThat(allTransactions).hasSize(3);
   }
+
+  @Test
+  public void shouldNotLoseTransactionsSavedConcurrently() throws InterruptedException {
+    // Given
+    Long guardianId = 3L;
+    LocalDateTime start = LocalDate.now().minusDays(5).atStartOfDay();
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+
+    // When
+    for (int i = 0; i < 5000; i++) {
+      LocalDateTime timestamp = start.plusMinutes(i);
+      executor.execute(
+          () ->
+              energyRepository.saveTransaction(
+                  new EnergyTransaction(
+                      guardianId, EnergyTransactionType.EARNED, 2, "Steps", timestamp)));
+    }
+    executor.shutdown();
+    assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+    // Then
+    assertThat(energyRepository.getEnergyBalance(guardianId)).isEqualTo(10000);
+    assertThat(energyRepository.findTransactionsByGuardianId(guardianId)).hasSize(5000);
+    assertThat(energyRepository.getRecentTransactions(guardianId, 2))
+        .extracting(EnergyTransaction::getTimestamp)
+        .containsExactly(start.plusMinutes(4999), start.plusMinutes(4998));
+  }
+
+  @Test
+  public void shouldNeverOverdrawWhenSpendingConcurrently() throws InterruptedException {
+    // Given
+    Long guardianId = 5L;
+    LocalDateTime now = LocalDateTime.now();
+    energyRepository.saveTransaction(
+        new EnergyTransaction(guardianId, EnergyTransactionType.EARNED, 1000, "Steps", now));
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    AtomicInteger accepted = new AtomicInteger();
+
+    // When
+    for (int i = 0; i < 4000; i++) {
+      executor.execute(
+          () -> {
+            if (energyRepository
+                .trySpend(
+                    new EnergyTransaction(
+                        guardianId, EnergyTransactionType.SPENT, 3, "BATTLE", now))
+                .isPresent()) {
+              accepted.incrementAndGet();
+            }
+          });
+    }
+    executor.shutdown();
+    assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+    // Then
+    assertThat(accepted.get()).isEqualTo(333);
+    assertThat(energyRepository.getEnergyBalance(guardianId)).isEqualTo(1);
+    assertThat(energyRepository.findTransactionsByGuardianId(guardianId)).hasSize(334);
+    assertThat(energyRepository.getLedgerBalance(guardianId)).isEqualTo(1);
+  }
+
+  @Test
+  public void shouldReturnOnlyTransactionsWithinDateRange() {
+    // Given
+    Long guardianId = 4L;
+    LocalDate today = LocalDate.now();
+    LocalDateTime twoDaysAgo = today.minusDays(2).atTime(9, 0);
+    energyRepository.saveTransaction(
+        new EnergyTransaction(guardianId, EnergyTransactionType.EARNED, 10, "Steps", twoDaysAgo));
+    energyRepository.saveTransaction(
+        new EnergyTransaction(
+            guardianId, EnergyTransactionType.EARNED, 20, "Steps", today.atTime(23, 59)));
+
+    // When
+    List<EnergyTransaction> transactions =
+        energyRepository.findTransactionsByGuardianIdAndDateRange(
+            guardianId, today.minusDays(1), today);
+
+    // Then
+    assertThat(transactions).extracting(EnergyTransaction::getAmount).containsExactly(20);
+  }
+
+  @Test
+  public void shouldPageTransactionsWithoutSkippingSameTimestamps() {
+    // Given
+    Long guardianId = 5L;
+    LocalDateTime morning = LocalDate.now().minusDays(2).atTime(10, 0);
+    for (int amount = 1; amount <= 3; amount++) {
+      energyRepository.saveTransaction(
+          new EnergyTransaction(
+              guardianId, EnergyTransactionType.EARNED, amount, "Steps", morning));
+    }
+    energyRepository.saveTransaction(
+        new EnergyTransaction(
+            guardianId, EnergyTransactionType.EARNED, 4, "Steps", morning.plusDays(1)));
+    energyRepository.saveTransaction(
+        new EnergyTransaction(
+            guardianId, EnergyTransactionType.EARNED, 5, "Steps", morning.plusDays(2)));
+    LocalDateTime from = morning.toLocalDate().atStartOfDay();
+    LocalDateTime to = from.plusDays(2);
+
+    // When
+    HistoryPage<EnergyTransaction> first =
+        energyRepository.findTransactionsPage(guardianId, from, to, null, 2);
+    HistoryPage<EnergyTransaction> second =
+        energyRepository.findTransactionsPage(guardianId, from, to, first.next(), 2);
+
+    // Then
+    assertThat(first.items()).extracting(EnergyTransaction::getAmount).containsExactly(1, 2);
+    assertThat(second.items()).extracting(EnergyTransaction::getAmount).containsExactly(3, 4);
+    assertThat(second.next()).isNull();
+  }
 }
@@ -0,0 +1,121 @@
+package com.guardianes.walking.infrastructure.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.guardianes.walking.domain.DailyStepAggregate;
+import com.guardianes.walking.domain.HistoryPage;
+import com.guardianes.walking.domain.StepRecord;
+import com.guardianes.walking.domain.StepResolution;
+import com.guardianes.walking.domain.StepRollup;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("In-Memory Step Repository Tests")
+class InMemoryStepRepositoryTest {
+
+  private static final LocalDate DAY = LocalDate.of(2026, 3, 10);
+
+  private InMemoryStepRepository repository;
+
+  @BeforeEach
+  void setUp() {
+    repository = new InMemoryStepRepository();
+  }
+
+  @Test
+  @DisplayName("Should return only the guardian's records within the date range in time order")
+  void shouldReturnRecordsWithinDateRange() {
+    repository.save(new StepRecord(1L, 300, DAY.atTime(18, 0)));
+    repository.save(new StepRecord(1L, 100, DAY.atTime(8, 0)));
+    repository.save(new StepRecord(1L, 200, DAY.plusDays(1).atStartOfDay()));
+    repository.save(new StepRecord(2L, 400, DAY.atTime(9, 0)));
+
+    List<StepRecord> records = repository.findByGuardianIdAndDate(1L, DAY);
+
+    assertEquals(2, records.size());
+    assertEquals(100, records.get(0).getStepCount());
+    assertEquals(300, records.get(1).getStepCount());
+    assertEquals(3, repository.findByGuardianIdAndDateRange(1L, DAY, DAY.plusDays(1)).size());
+    assertTrue(repository.findByGuardianIdAndDateRange(1L, DAY.plusDays(1), DAY).isEmpty());
+  }
+
+  @Test
+  @DisplayName("Should keep daily totals and rollups running as records are saved")
+  void shouldMaintainRunningTotals() {
+    repository.saveAll(
+        List.of(
+            new StepRecord(1L, 100, DAY.atTime(8, 10)),
+            new StepRecord(1L, 150, DAY.atTime(8, 40)),
+            new StepRecord(1L, 250, DAY.plusDays(1).atTime(9, 0))));
+
+    assertEquals(250, repository.findDailyAggregate(1L, DAY).orElseThrow().getTotalSteps());
+    List<DailyStepAggregate> daily =
+        repository.findDailyAggregatesByGuardianIdAndDateRange(1L, DAY, DAY.plusDays(1));
+    assertEquals(List.of(250, 250), daily.stream().map(DailyStepAggregate::getTotalSteps).toList());
+
+    List<StepRollup> hourly =
+        repository.findRollups(
+            1L, StepResolution.HOURLY, DAY.atStartOfDay(), DAY.plusDays(1).atStartOfDay());
+    assertEquals(1, hourly.size());
+    assertEquals(DAY.atTime(8, 0), hourly.get(0).getPeriodStart());
+    assertEquals(250, hourly.get(0).getTotalSteps());
+
+    List<StepRollup> weekly =
+        repository.findRollups(
+            1L, StepResolution.WEEKLY, DAY.minusDays(7).atStartOfDay(), DAY.atStartOfDay());
+    assertEquals(500, weekly.get(0).getTotalSteps());
+  }
+
+  @Test
+  @DisplayName("Should replace a record with the same timestamp and adjust the totals")
+  void shouldReplaceRecordWithSameTimestamp() {
+    LocalDateTime timestamp = DAY.atTime(10, 0);
+    repository.save(new StepRecord(1L, 100, timestamp));
+    repository.save(new StepRecord(1L, 40, timestamp));
+
+    assertEquals(1, repository.findByGuardianIdAndDate(1L, DAY).size());
+    assertEquals(40, repository.findDailyAggregate(1L, DAY).orElseThrow().getTotalSteps());
+  }
+
+  @Test
+  @DisplayName("Should not lose steps when a guardian's records are saved concurrently")
+  void shouldNotLoseConcurrentUpdates() throws InterruptedException {
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    for (int i = 0; i < 4000; i++) {
+      LocalDateTime timestamp = DAY.atStartOfDay().plusSeconds(i);
+      executor.execute(() -> repository.save(new StepRecord(1L, 1, timestamp)));
+    }
+    executor.shutdown();
+    assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+    assertEquals(4000, repository.findDailyAggregate(1L, DAY).orElseThrow().getTotalSteps());
+    assertEquals(4000, repository.findByGuardianIdAndDate(1L, DAY).size());
+  }
+
+  @Test
+  @DisplayName("Should page through records in time order within the range")
+  void shouldPageRecordsWithinRange() {
+    for (int hour = 0; hour < 5; hour++) {
+      repository.save(new StepRecord(1L, 100 + hour, DAY.atTime(8 + hour, 0)));
+    }
+    repository.save(new StepRecord(1L, 999, DAY.plusDays(1).atStartOfDay()));
+    LocalDateTime from = DAY.atStartOfDay();
+    LocalDateTime to = DAY.plusDays(1).atStartOfDay();
+
+    HistoryPage<StepRecord> first = repository.findRecordsPage(1L, from, to, null, 3);
+    HistoryPage<StepRecord> second = repository.findRecordsPage(1L, from, to, first.next(), 3);
+
+    assertEquals(
+        List.of(100, 101, 102), first.items().stream().map(StepRecord::getStepCount).toList());
+    assertEquals(List.of(103, 104), second.items().stream().map(StepRecord::getStepCount).toList());
+    assertNull(second.next());
+    assertTrue(repository.findRecordsPage(2L, from, to, null, 3).items().isEmpty());
+  }
+}
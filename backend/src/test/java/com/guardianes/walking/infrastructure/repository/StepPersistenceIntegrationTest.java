@@ -1,27 +1,62 @@
 package com.guardianes.walking.infrastructure.repository;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 
 import com.guardianes.testconfig.GuardianTestConfiguration;
+import com.guardianes.walking.domain.DailyStepAggregate;
 import com.guardianes.walking.domain.StepRecord;
 import com.guardianes.walking.domain.StepRepository;
+import com.guardianes.walking.domain.StepResolution;
+import com.guardianes.walking.domain.StepRollup;
+import com.guardianes.walking.infrastructure.job.DailyStepAggregateRepairJob;
+import com.guardianes.walking.infrastructure.job.StepRecordCompactionJob;
+import com.guardianes.walking.infrastructure.persistence.repository.DailyStepAggregateJpaRepository;
+import com.guardianes.walking.infrastructure.persistence.repository.StepRecordJpaRepository;
+import com.guardianes.walking.infrastructure.persistence.repository.StepRollupJpaRepository;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @SpringBootTest
-@TestPropertySource(locations = "classpath:application-test.properties")
+@TestPropertySource(
+    locations = "classpath:application-test.properties",
+    properties = {
+      "guardianes.walking.aggregate-repair.enabled=true",
+      "guardianes.walking.compaction.enabled=true",
+      "guardianes.walking.compaction.retention-days=0",
+      "guardianes.walking.compaction.pause-ms=0",
+      "guardianes.walking.compaction.archive-dir=target/archive/step-records"
+    })
 @DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
 @Import(GuardianTestConfiguration.class)
 public class StepPersistenceIntegrationTest {
 
   @Autowired private StepRepository stepRepository;
+  @Autowired private StepRecordJpaRepository stepRecordJpaRepository;
+  @Autowired private DailyStepAggregateJpaRepository dailyStepAggregateJpaRepository;
+  @Autowired private StepRollupJpaRepository stepRollupJpaRepository;
+  @Autowired private DailyStepAggregateRepairJob repairJob;
+  @Autowired private StepRecordCompactionJob compactionJob;
+  @Autowired private PlatformTransactionManager transactionManager;
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  @BeforeEach
+  public void resetCompactionCheckpoint() {
+    // The checkpoint table is migrated rather than recreated with each context
+    jdbcTemplate.update("DELETE FROM compaction_checkpoints WHERE job_name = 'step_records'");
+  }
 
   @Test
   public void shouldPersistStepRecordToDatabase() {
@@ -71,4 +106,220 @@ public class StepPersistenceIntegrationTest {
     assertThat(retrievedRecords).hasSize(2);
     assertThat(retrievedRecords).containsExactlyInAnyOrder(record1, record2);
   }
+
+  @Test
+  public void shouldMaintainDailyAggregateWhenSavingStepRecords() {
+    // Given
+    Long guardianId = 3L;
+    LocalDate today = LocalDate.now();
+
+    // When
+    stepRepository.save(new StepRecord(guardianId, 1200, today.atTime(8, 0)));
+    stepRepository.save(new StepRecord(guardianId, 800, today.atTime(19, 45)));
+
+    // Then
+    Optional<DailyStepAggregate> aggregate = stepRepository.findDailyAggregate(guardianId, today);
+    assertThat(aggregate).isPresent();
+    assertThat(aggregate.get().getTotalSteps()).isEqualTo(2000);
+    assertThat(stepRepository.findDailyAggregate(guardianId, today.minusDays(1))).isEmpty();
+  }
+
+  @Test
+  public void shouldIncrementDailyAggregateInsertedByAConcurrentFirstSubmission() {
+    // Given
+    Long guardianId = 5L;
+    LocalDate today = LocalDate.now();
+    TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+    // When
+    Integer inserted =
+        transaction.execute(
+            status -> dailyStepAggregateJpaRepository.addTotalSteps(guardianId, today, 300));
+    // The second first submission of the day adds its steps to the row the first one inserted
+    Integer incremented =
+        transaction.execute(
+            status -> dailyStepAggregateJpaRepository.addTotalSteps(guardianId, today, 200));
+
+    // Then
+    assertThat(inserted).isEqualTo(1);
+    assertThat(incremented).isEqualTo(2);
+    assertThat(stepRepository.findDailyAggregate(guardianId, today))
+        .map(DailyStepAggregate::getTotalSteps)
+        .contains(500);
+  }
+
+  @Test
+  public void shouldIncrementRollupInsertedByAConcurrentFirstSubmission() {
+    // Given
+    Long guardianId = 7L;
+    LocalDateTime hour = LocalDate.of(2025, 7, 2).atTime(8, 0);
+    LocalDateTime week = LocalDate.of(2025, 6, 30).atStartOfDay();
+    LocalDateTime month = LocalDate.of(2025, 7, 1).atStartOfDay();
+    TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+    // When
+    Integer inserted =
+        transaction.execute(
+            status -> stepRollupJpaRepository.addTotalSteps(guardianId, hour, week, month, 300));
+    // The second first submission of the hour adds its steps to the rows the first one inserted
+    Integer incremented =
+        transaction.execute(
+            status -> stepRollupJpaRepository.addTotalSteps(guardianId, hour, week, month, 200));
+
+    // Then
+    assertThat(inserted).isEqualTo(3);
+    assertThat(incremented).isEqualTo(6);
+    assertThat(
+            stepRepository.findRollups(guardianId, StepResolution.HOURLY, hour, hour.plusHours(1)))
+        .extracting(StepRollup::getTotalSteps)
+        .containsExactly(500);
+    assertThat(
+            stepRepository.findRollups(
+                guardianId, StepResolution.MONTHLY, month, month.plusMonths(1)))
+        .extracting(StepRollup::getTotalSteps)
+        .containsExactly(500);
+  }
+
+  @Test
+  public void shouldRepairPastDailyAggregatesButLeaveTodayToSubmissions() {
+    // Given
+    Long guardianId = 6L;
+    LocalDate today = LocalDate.now();
+    LocalDate yesterday = today.minusDays(1);
+    stepRepository.save(new StepRecord(guardianId, 1000, yesterday.atTime(10, 0)));
+    stepRepository.save(new StepRecord(guardianId, 400, today.atStartOfDay()));
+    stepRepository.saveDailyAggregate(new DailyStepAggregate(guardianId, yesterday, 1));
+    stepRepository.saveDailyAggregate(new DailyStepAggregate(guardianId, today, 2));
+
+    // When
+    repairJob.repairRecentAggregates();
+
+    // Then
+    assertThat(stepRepository.findDailyAggregate(guardianId, yesterday))
+        .map(DailyStepAggregate::getTotalSteps)
+        .contains(1000);
+    assertThat(stepRepository.findDailyAggregate(guardianId, today))
+        .map(DailyStepAggregate::getTotalSteps)
+        .contains(2);
+  }
+
+  @Test
+  public void shouldKeepDailyTotalsWhenCompactingExpiredRecords() {
+    // Given
+    Long guardianId = 8L;
+    LocalDate cutoff = LocalDate.now().minusDays(90);
+    LocalDate expiredDay = cutoff.minusDays(2);
+    stepRepository.save(new StepRecord(guardianId, 500, expiredDay.atTime(9, 0)));
+    stepRepository.save(new StepRecord(guardianId, 700, expiredDay.atTime(18, 0)));
+    stepRepository.save(new StepRecord(guardianId, 300, expiredDay.plusDays(1).atTime(12, 0)));
+    stepRepository.save(new StepRecord(guardianId, 900, cutoff.atTime(8, 0)));
+    // A drifted aggregate is rebuilt from the raw records before they are deleted
+    stepRepository.saveDailyAggregate(new DailyStepAggregate(guardianId, expiredDay, 1));
+
+    // When
+    int compacted = compactionJob.compact(cutoff);
+
+    // Then
+    assertThat(compacted).isEqualTo(3);
+    assertThat(stepRepository.findByGuardianIdAndDate(guardianId, expiredDay)).isEmpty();
+    assertThat(stepRepository.findByGuardianIdAndDate(guardianId, expiredDay.plusDays(1)))
+        .isEmpty();
+    assertThat(stepRepository.findDailyAggregate(guardianId, expiredDay))
+        .map(DailyStepAggregate::getTotalSteps)
+        .contains(1200);
+    assertThat(stepRepository.findDailyAggregate(guardianId, expiredDay.plusDays(1)))
+        .map(DailyStepAggregate::getTotalSteps)
+        .contains(300);
+    assertThat(stepRepository.findByGuardianIdAndDate(guardianId, cutoff))
+        .extracting(StepRecord::getStepCount)
+        .containsExactly(900);
+    // Hourly buckets expire with the raw records, coarser buckets are kept
+    assertThat(
+            stepRepository.findRollups(
+                guardianId,
+                StepResolution.HOURLY,
+                expiredDay.atStartOfDay(),
+                cutoff.plusDays(1).atStartOfDay()))
+        .extracting(StepRollup::getPeriodStart, StepRollup::getTotalSteps)
+        .containsExactly(tuple(cutoff.atTime(8, 0), 900));
+    assertThat(
+            stepRepository
+                .findRollups(
+                    guardianId,
+                    StepResolution.MONTHLY,
+                    expiredDay.withDayOfMonth(1).atStartOfDay(),
+                    cutoff.plusDays(1).atStartOfDay())
+                .stream()
+                .mapToInt(StepRollup::getTotalSteps)
+                .sum())
+        .isEqualTo(2400);
+  }
+
+  @Test
+  public void shouldLeaveTheCurrentDayOutOfCompaction() {
+    // Given
+    Long guardianId = 9L;
+    LocalDate today = LocalDate.now();
+    LocalDate yesterday = today.minusDays(1);
+    stepRepository.save(new StepRecord(guardianId, 600, yesterday.atTime(10, 0)));
+    stepRepository.save(new StepRecord(guardianId, 400, today.atStartOfDay()));
+    stepRepository.saveDailyAggregate(new DailyStepAggregate(guardianId, today, 2));
+
+    // When
+    compactionJob.compactExpiredRecords();
+
+    // Then
+    assertThat(stepRepository.findByGuardianIdAndDate(guardianId, yesterday)).isEmpty();
+    assertThat(stepRepository.findDailyAggregate(guardianId, yesterday))
+        .map(DailyStepAggregate::getTotalSteps)
+        .contains(600);
+    assertThat(stepRepository.findByGuardianIdAndDate(guardianId, today))
+        .extracting(StepRecord::getStepCount)
+        .containsExactly(400);
+    assertThat(stepRepository.findDailyAggregate(guardianId, today))
+        .map(DailyStepAggregate::getTotalSteps)
+        .contains(2);
+  }
+
+  @Test
+  public void shouldMaintainHourlyWeeklyAndMonthlyRollupsWhenSavingStepRecords() {
+    // Given
+    Long guardianId = 4L;
+    LocalDate wednesday = LocalDate.of(2025, 7, 2);
+
+    // When
+    stepRepository.save(new StepRecord(guardianId, 500, wednesday.atTime(8, 10)));
+    stepRepository.save(new StepRecord(guardianId, 700, wednesday.atTime(8, 50)));
+    stepRepository.saveAll(
+        List.of(
+            new StepRecord(guardianId, 1000, wednesday.plusDays(1).atTime(18, 0)),
+            new StepRecord(guardianId, 2000, wednesday.plusDays(5).atTime(9, 0))));
+
+    // Then
+    List<StepRollup> hourly =
+        stepRepository.findRollups(
+            guardianId,
+            StepResolution.HOURLY,
+            wednesday.atStartOfDay(),
+            wednesday.plusDays(1).atStartOfDay());
+    assertThat(hourly).extracting(StepRollup::getTotalSteps).containsExactly(1200);
+    assertThat(hourly.get(0).getPeriodStart()).isEqualTo(wednesday.atTime(8, 0));
+
+    List<StepRollup> weekly =
+        stepRepository.findRollups(
+            guardianId,
+            StepResolution.WEEKLY,
+            LocalDate.of(2025, 6, 30).atStartOfDay(),
+            LocalDate.of(2025, 7, 14).atStartOfDay());
+    assertThat(weekly).extracting(StepRollup::getTotalSteps).containsExactly(2200, 2000);
+
+    List<StepRollup> monthly =
+        stepRepository.findRollups(
+            guardianId,
+            StepResolution.MONTHLY,
+            LocalDate.of(2025, 1, 1).atStartOfDay(),
+            LocalDate.of(2026, 1, 1).atStartOfDay());
+    assertThat(monthly).extracting(StepRollup::getTotalSteps).containsExactly(4200);
+    assertThat(monthly.get(0).getPeriodStart()).isEqualTo(LocalDate.of(2025, 7, 1).atStartOfDay());
+  }
 }
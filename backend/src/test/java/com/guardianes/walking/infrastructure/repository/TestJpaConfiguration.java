@@ -6,6 +6,7 @@ import com.guardianes.walking.infrastructure.persistence.mapper.StepRecordMapper
 import com.guardianes.walking.infrastructure.persistence.repository.DailyStepAggregateJpaRepository;
 import com.guardianes.walking.infrastructure.persistence.repository.JpaStepRepository;
 import com.guardianes.walking.infrastructure.persistence.repository.StepRecordJpaRepository;
+import com.guardianes.walking.infrastructure.persistence.repository.StepRollupJpaRepository;
 import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Primary;
@@ -18,11 +19,13 @@ public class TestJpaConfiguration {
   public StepRepository stepRepository(
       StepRecordJpaRepository stepRecordJpaRepository,
       DailyStepAggregateJpaRepository dailyStepAggregateJpaRepository,
+      StepRollupJpaRepository stepRollupJpaRepository,
       StepRecordMapper stepRecordMapper,
       DailyStepAggregateMapper dailyStepAggregateMapper) {
     return new JpaStepRepository(
         stepRecordJpaRepository,
         dailyStepAggregateJpaRepository,
+        stepRollupJpaRepository,
         stepRecordMapper,
         dailyStepAggregateMapper);
   }
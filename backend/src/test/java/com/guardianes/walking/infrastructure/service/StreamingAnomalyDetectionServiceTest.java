@@ -0,0 +1,205 @@
+package com.guardianes.walking.infrastructure.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.guardianes.walking.domain.GuardianStepStatistics;
+import com.guardianes.walking.domain.GuardianStepStatisticsRepository;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+@DisplayName("Streaming Anomaly Detection Service Tests")
+class StreamingAnomalyDetectionServiceTest {
+
+  private static final Long GUARDIAN_ID = 1L;
+  private static final LocalDate DAY = LocalDate.of(2025, 7, 1);
+
+  @Mock private GuardianStepStatisticsRepository statisticsRepository;
+
+  private final AtomicLong clock = new AtomicLong(1_000_000L);
+  private StreamingAnomalyDetectionService service;
+
+  @BeforeEach
+  void setUp() {
+    MockitoAnnotations.openMocks(this);
+    when(statisticsRepository.findByGuardianId(anyLong())).thenReturn(Optional.empty());
+    service =
+        new StreamingAnomalyDetectionService(
+            statisticsRepository, 15000, 5000, 0.1, 0.2, 4.0, 10, 2, 3600, clock::get);
+  }
+
+  @Test
+  @DisplayName("Should always flag submissions above the absolute ceiling")
+  void shouldFlagSubmissionsAboveCeiling() {
+    // When / Then
+    assertThat(service.isAnomalous(GUARDIAN_ID, 15001, DAY.atTime(10, 0))).isTrue();
+    assertThat(service.isAnomalous(GUARDIAN_ID, 14000, DAY.atTime(10, 0))).isFalse();
+  }
+
+  @Test
+  @DisplayName("Should flag a submission far above the guardian's usual submissions")
+  void shouldFlagSubmissionFarAboveUsual() {
+    // Given
+    for (int i = 0; i < 20; i++) {
+      service.recordAccepted(GUARDIAN_ID, 1000 + (i % 3) * 100, DAY.atTime(8, i));
+    }
+
+    // When / Then
+    assertThat(service.isAnomalous(GUARDIAN_ID, 12000, DAY.atTime(9, 0))).isTrue();
+    assertThat(service.isAnomalous(GUARDIAN_ID, 2500, DAY.atTime(9, 0))).isFalse();
+  }
+
+  @Test
+  @DisplayName("Should adapt to guardians who usually submit large counts")
+  void shouldAdaptToLargeUsualSubmissions() {
+    // Given
+    for (int i = 0; i < 20; i++) {
+      service.recordAccepted(GUARDIAN_ID, 6000 + (i % 4) * 500, DAY.plusDays(i).atTime(20, 0));
+    }
+
+    // When / Then
+    assertThat(service.isAnomalous(GUARDIAN_ID, 12000, DAY.plusDays(21).atTime(20, 0))).isFalse();
+  }
+
+  @Test
+  @DisplayName("Should not judge submissions before enough history exists")
+  void shouldNotJudgeDuringWarmup() {
+    // Given
+    service.recordAccepted(GUARDIAN_ID, 500, DAY.atTime(8, 0));
+
+    // When / Then
+    assertThat(service.isAnomalous(GUARDIAN_ID, 12000, DAY.atTime(9, 0))).isFalse();
+  }
+
+  @Test
+  @DisplayName("Should detect a daily spike against completed daily totals")
+  void shouldDetectDailySpike() {
+    // Given
+    service.recordAccepted(GUARDIAN_ID, 1000, DAY.atTime(10, 0));
+    service.recordAccepted(GUARDIAN_ID, 1200, DAY.plusDays(1).atTime(10, 0));
+    service.recordAccepted(GUARDIAN_ID, 900, DAY.plusDays(2).atTime(10, 0));
+    LocalDate today = DAY.plusDays(3);
+
+    // When / Then
+    assertThat(service.isDailySpike(GUARDIAN_ID, today, 15000)).isTrue();
+    assertThat(service.isDailySpike(GUARDIAN_ID, today, 1500)).isFalse();
+  }
+
+  @Test
+  @DisplayName("Should resume from the last checkpoint")
+  void shouldResumeFromCheckpoint() {
+    // Given
+    when(statisticsRepository.findByGuardianId(GUARDIAN_ID))
+        .thenReturn(
+            Optional.of(
+                new GuardianStepStatistics(
+                    GUARDIAN_ID, 1000, 10000, 50, 8000, 1000000, 30, DAY, 2000)));
+
+    // When / Then
+    assertThat(service.isAnomalous(GUARDIAN_ID, 9000, DAY.atTime(12, 0))).isTrue();
+    assertThat(service.isDailySpike(GUARDIAN_ID, DAY, 30000)).isTrue();
+    verify(statisticsRepository, times(1)).findByGuardianId(GUARDIAN_ID);
+  }
+
+  @Test
+  @DisplayName("Should checkpoint only guardians updated since the last checkpoint")
+  @SuppressWarnings("unchecked")
+  void shouldCheckpointDirtyGuardians() {
+    // Given
+    LocalDateTime timestamp = DAY.atTime(10, 0);
+    service.recordAccepted(GUARDIAN_ID, 1000, timestamp);
+    service.recordAccepted(GUARDIAN_ID, 500, timestamp.plusHours(1));
+    service.isAnomalous(2L, 6000, timestamp);
+
+    // When
+    service.checkpoint();
+    service.checkpoint();
+
+    // Then
+    ArgumentCaptor<Collection<GuardianStepStatistics>> captor =
+        ArgumentCaptor.forClass(Collection.class);
+    verify(statisticsRepository, times(1)).saveAll(captor.capture());
+    assertThat(captor.getValue())
+        .singleElement()
+        .satisfies(
+            statistics -> {
+              assertThat(statistics.guardianId()).isEqualTo(GUARDIAN_ID);
+              assertThat(statistics.submissionCount()).isEqualTo(2);
+              assertThat(statistics.openDay()).isEqualTo(DAY);
+              assertThat(statistics.openDayTotal()).isEqualTo(1500);
+            });
+    assertThat(service.trackedGuardians()).isEqualTo(2);
+  }
+
+  @Test
+  @DisplayName("Should retry a failed checkpoint")
+  void shouldRetryFailedCheckpoint() {
+    // Given
+    service.recordAccepted(GUARDIAN_ID, 1000, DAY.atTime(10, 0));
+    doThrow(new IllegalStateException("database down"))
+        .doNothing()
+        .when(statisticsRepository)
+        .saveAll(anyCollection());
+
+    // When
+    service.checkpoint();
+    service.checkpoint();
+    service.checkpoint();
+
+    // Then
+    verify(statisticsRepository, times(2)).saveAll(anyCollection());
+  }
+
+  @Test
+  @DisplayName("Should drop idle guardians once checkpointed and reload them from the checkpoint")
+  void shouldEvictIdleGuardiansAfterCheckpoint() {
+    // Given
+    GuardianStepStatistics saved =
+        new GuardianStepStatistics(GUARDIAN_ID, 1000, 10000, 50, 8000, 1000000, 30, DAY, 2000);
+    when(statisticsRepository.findByGuardianId(GUARDIAN_ID)).thenReturn(Optional.of(saved));
+    service.recordAccepted(GUARDIAN_ID, 1000, DAY.atTime(10, 0));
+    service.isAnomalous(2L, 6000, DAY.atTime(10, 0));
+    clock.addAndGet(3_600_000L);
+    service.isAnomalous(3L, 6000, DAY.atTime(11, 0));
+
+    // When
+    service.checkpoint();
+
+    // Then
+    verify(statisticsRepository, times(1)).saveAll(anyCollection());
+    assertThat(service.trackedGuardians()).isEqualTo(1);
+    assertThat(service.isAnomalous(GUARDIAN_ID, 9000, DAY.atTime(12, 0))).isTrue();
+    verify(statisticsRepository, times(2)).findByGuardianId(GUARDIAN_ID);
+  }
+
+  @Test
+  @DisplayName("Should keep idle guardians whose checkpoint failed")
+  void shouldKeepIdleGuardiansWithUnsavedStatistics() {
+    // Given
+    service.recordAccepted(GUARDIAN_ID, 1000, DAY.atTime(10, 0));
+    doThrow(new IllegalStateException("database down"))
+        .when(statisticsRepository)
+        .saveAll(anyCollection());
+    clock.addAndGet(3_600_000L);
+
+    // When
+    service.checkpoint();
+
+    // Then
+    assertThat(service.trackedGuardians()).isEqualTo(1);
+  }
+}
@@ -0,0 +1,92 @@
+package com.guardianes.walking.infrastructure.web;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.guardianes.shared.infrastructure.config.SecurityConfig;
+import com.guardianes.walking.application.dto.EnergyGrantRequest;
+import com.guardianes.walking.application.dto.EnergyGrantResponse;
+import com.guardianes.walking.application.service.EnergyManagementApplicationService;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+@WebMvcTest(
+    value = EnergyGrantController.class,
+    excludeAutoConfiguration = {
+      org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration.class,
+      org.springframework.boot.autoconfigure.data.jpa.JpaRepositoriesAutoConfiguration.class,
+      org.springframework.boot.autoconfigure.data.web.SpringDataWebAutoConfiguration.class,
+      org.springframework.boot.autoconfigure.flyway.FlywayAutoConfiguration.class,
+      org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration.class,
+      org.springframework.boot.autoconfigure.data.redis.RedisReactiveAutoConfiguration.class
+    })
+@Import(SecurityConfig.class)
+@TestPropertySource(properties = {"guardianes.jwt.enabled=false", "guardianes.jpa.enabled=false"})
+@DisplayName("Energy Grant Controller Tests")
+class EnergyGrantControllerTest {
+
+  private static final String GRANTS = "/api/v1/energy/grants";
+
+  @Autowired private MockMvc mockMvc;
+
+  @Autowired private ObjectMapper objectMapper;
+
+  @MockBean private EnergyManagementApplicationService energyService;
+
+  private final EnergyGrantRequest request =
+      new EnergyGrantRequest(List.of(10L, 11L), 50, "SCHOOL_WALK");
+
+  @Test
+  @WithMockUser(
+      username = "admin",
+      roles = {"ADMIN"})
+  @DisplayName("Should let an administrator grant energy")
+  void shouldGrantEnergyAsAdministrator() throws Exception {
+    // Given
+    when(energyService.grantEnergy(any(EnergyGrantRequest.class)))
+        .thenReturn(new EnergyGrantResponse(2, 0, 50, List.of()));
+
+    // When & Then
+    mockMvc
+        .perform(
+            post(GRANTS)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.grantedCount").value(2));
+
+    verify(energyService).grantEnergy(request);
+  }
+
+  @Test
+  @WithMockUser(
+      username = "guardian",
+      roles = {"GUARDIAN"})
+  @DisplayName("Should return 403 when a guardian grants energy")
+  void shouldForbidGrantForGuardian() throws Exception {
+    // When & Then
+    mockMvc
+        .perform(
+            post(GRANTS)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+        .andExpect(status().isForbidden());
+
+    verifyNoInteractions(energyService);
+  }
+}
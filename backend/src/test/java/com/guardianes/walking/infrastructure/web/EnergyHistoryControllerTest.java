@@ -0,0 +1,165 @@
+package com.guardianes.walking.infrastructure.web;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.guardianes.guardian.domain.repository.GuardianRepository;
+import com.guardianes.shared.infrastructure.metrics.BusinessMetricsService;
+import com.guardianes.walking.application.service.impl.EnergyManagementApplicationServiceImpl;
+import com.guardianes.walking.domain.EnergyTransaction;
+import com.guardianes.walking.domain.EnergyTransactionType;
+import com.guardianes.walking.domain.HistoryCursor;
+import com.guardianes.walking.infrastructure.repository.InMemoryEnergyRepository;
+import com.jayway.jsonpath.JsonPath;
+import java.time.LocalDateTime;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Pages through the transaction history endpoint backed by the real application service and the
+ * in-memory ledger, so the cursor returned with one page is the one decoded for the next.
+ */
+@WebMvcTest(
+    value = EnergyController.class,
+    excludeAutoConfiguration = {
+      org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration.class,
+      org.springframework.boot.autoconfigure.data.jpa.JpaRepositoriesAutoConfiguration.class,
+      org.springframework.boot.autoconfigure.data.web.SpringDataWebAutoConfiguration.class,
+      org.springframework.boot.autoconfigure.flyway.FlywayAutoConfiguration.class,
+      org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration.class,
+      org.springframework.boot.autoconfigure.data.redis.RedisReactiveAutoConfiguration.class
+    })
+@Import({EnergyManagementApplicationServiceImpl.class, InMemoryEnergyRepository.class})
+@TestPropertySource(
+    properties = {
+      "guardianes.jwt.enabled=false",
+      "guardianes.jpa.enabled=false",
+      "guardianes.test.memory-repository=true"
+    })
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+@WithMockUser(
+    username = "admin",
+    roles = {"ADMIN"})
+@DisplayName("Energy History Controller Tests")
+class EnergyHistoryControllerTest {
+
+  private static final String TRANSACTIONS = "/api/v1/guardians/{guardianId}/energy/transactions";
+  private static final LocalDateTime DAY = LocalDateTime.of(2025, 7, 4, 0, 0);
+
+  @Autowired private MockMvc mockMvc;
+
+  @Autowired private InMemoryEnergyRepository energyRepository;
+
+  @MockBean private GuardianRepository guardianRepository;
+
+  @MockBean private BusinessMetricsService metricsService;
+
+  @BeforeEach
+  void setUp() {
+    earn(DAY.minusHours(2), 5);
+    earn(DAY.plusHours(8), 10);
+    earn(DAY.plusHours(9), 20);
+    earn(DAY.plusHours(10), 30);
+  }
+
+  private void earn(LocalDateTime timestamp, int amount) {
+    energyRepository.saveTransaction(
+        new EnergyTransaction(1L, EnergyTransactionType.EARNED, amount, "Steps", timestamp));
+  }
+
+  @Test
+  @DisplayName("Should read the next page with the cursor returned by the previous one")
+  void shouldRoundTripCursorBetweenPages() throws Exception {
+    // When
+    String firstPage =
+        mockMvc
+            .perform(
+                get(TRANSACTIONS, 1L)
+                    .param("from", "2025-07-04")
+                    .param("to", "2025-07-04")
+                    .param("size", "2"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.transactions.length()").value(2))
+            .andExpect(jsonPath("$.transactions[0].amount").value(10))
+            .andExpect(jsonPath("$.transactions[1].amount").value(20))
+            .andExpect(jsonPath("$.nextCursor").isString())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+    String cursor = JsonPath.read(firstPage, "$.nextCursor");
+
+    // Then
+    mockMvc
+        .perform(
+            get(TRANSACTIONS, 1L)
+                .param("from", "2025-07-04")
+                .param("to", "2025-07-04")
+                .param("size", "2")
+                .param("cursor", cursor))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.transactions.length()").value(1))
+        .andExpect(jsonPath("$.transactions[0].amount").value(30))
+        .andExpect(jsonPath("$.nextCursor").doesNotExist());
+  }
+
+  @Test
+  @DisplayName("Should not read before the range when the cursor points before it")
+  void shouldClampCursorToRangeStart() throws Exception {
+    // Given
+    String earlierRange = new HistoryCursor(DAY.minusDays(1), 0L).toToken();
+
+    // When & Then
+    mockMvc
+        .perform(
+            get(TRANSACTIONS, 1L)
+                .param("from", "2025-07-04")
+                .param("to", "2025-07-04")
+                .param("cursor", earlierRange))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.transactions.length()").value(3))
+        .andExpect(jsonPath("$.transactions[0].amount").value(10));
+  }
+
+  @Test
+  @DisplayName("Should return 400 for a malformed cursor")
+  void shouldRejectMalformedCursor() throws Exception {
+    mockMvc
+        .perform(
+            get(TRANSACTIONS, 1L)
+                .param("from", "2025-07-04")
+                .param("to", "2025-07-04")
+                .param("cursor", "not a cursor"))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.message").value("Invalid history cursor"));
+  }
+
+  @Test
+  @DisplayName("Should cap the page size at 200")
+  void shouldCapPageSize() throws Exception {
+    // Given
+    for (int minute = 0; minute < 250; minute++) {
+      earn(DAY.plusDays(1).plusMinutes(minute), 1);
+    }
+
+    // When & Then
+    mockMvc
+        .perform(
+            get(TRANSACTIONS, 1L)
+                .param("from", "2025-07-05")
+                .param("to", "2025-07-05")
+                .param("size", "1000"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.transactions.length()").value(200))
+        .andExpect(jsonPath("$.nextCursor").isString());
+  }
+}
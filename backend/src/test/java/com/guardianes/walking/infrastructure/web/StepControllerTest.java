@@ -9,6 +9,9 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.guardianes.walking.application.dto.CurrentStepCountResponse;
+import com.guardianes.walking.application.dto.StepBatchItemResult;
+import com.guardianes.walking.application.dto.StepBatchSubmissionRequest;
+import com.guardianes.walking.application.dto.StepBatchSubmissionResponse;
 import com.guardianes.walking.application.dto.StepHistoryResponse;
 import com.guardianes.walking.application.dto.StepSubmissionRequest;
 import com.guardianes.walking.application.dto.StepSubmissionResponse;
@@ -16,9 +19,12 @@ import com.guardianes.walking.application.service.StepTrackingApplicationService
 import com.guardianes.walking.domain.DailyStepAggregate;
 import com.guardianes.walking.domain.GuardianNotFoundException;
 import com.guardianes.walking.domain.RateLimitExceededException;
+import com.guardianes.walking.domain.StepResolution;
+import com.guardianes.walking.domain.StepRollup;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -134,6 +140,67 @@ class StepControllerTest {
     verify(stepTrackingService, times(1)).submitSteps(guardianId, validStepRequest);
   }
 
+  @Test
+  @DisplayName("Should submit step batch and return per-sample results")
+  void shouldSubmitStepBatchAndReturnPerSampleResults() throws Exception {
+    // Given
+    Long guardianId = 1L;
+    StepBatchSubmissionRequest batchRequest =
+        new StepBatchSubmissionRequest(
+            List.of(
+                validStepRequest,
+                new StepSubmissionRequest(20000, LocalDateTime.of(2025, 7, 4, 15, 0))));
+    StepBatchSubmissionResponse batchResponse =
+        new StepBatchSubmissionResponse(
+            guardianId,
+            1,
+            1,
+            250,
+            List.of(
+                new StepBatchItemResult(0, true, 250, "Steps submitted successfully"),
+                new StepBatchItemResult(
+                    1, false, 0, "Step count appears anomalous and requires verification")));
+
+    when(stepTrackingService.submitStepBatch(eq(guardianId), any(StepBatchSubmissionRequest.class)))
+        .thenReturn(batchResponse);
+
+    // When & Then
+    mockMvc
+        .perform(
+            post("/api/v1/guardians/{guardianId}/steps/batch", guardianId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(batchRequest))
+                .with(csrf()))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.acceptedCount").value(1))
+        .andExpect(jsonPath("$.rejectedCount").value(1))
+        .andExpect(jsonPath("$.energyEarned").value(250))
+        .andExpect(jsonPath("$.results.length()").value(2))
+        .andExpect(jsonPath("$.results[1].accepted").value(false));
+
+    verify(stepTrackingService, times(1)).submitStepBatch(guardianId, batchRequest);
+  }
+
+  @Test
+  @DisplayName("Should return 400 for empty step batch")
+  void shouldReturn400ForEmptyStepBatch() throws Exception {
+    // Given
+    Long guardianId = 1L;
+    StepBatchSubmissionRequest emptyBatch = new StepBatchSubmissionRequest(List.of());
+
+    // When & Then
+    mockMvc
+        .perform(
+            post("/api/v1/guardians/{guardianId}/steps/batch", guardianId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(emptyBatch))
+                .with(csrf()))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.fieldErrors[*].field").value(hasItem("samples")));
+
+    verify(stepTrackingService, never()).submitStepBatch(any(), any());
+  }
+
   @Test
   @DisplayName("Should get current step count")
   void shouldGetCurrentStepCount() throws Exception {
@@ -172,7 +239,8 @@ class StepControllerTest {
                 new DailyStepAggregate(guardianId, LocalDate.of(2025, 7, 2), 3000),
                 new DailyStepAggregate(guardianId, LocalDate.of(2025, 7, 3), 4000)));
 
-    when(stepTrackingService.getStepHistory(guardianId, fromDate, toDate)).thenReturn(response);
+    when(stepTrackingService.getStepHistory(guardianId, fromDate, toDate, null))
+        .thenReturn(response);
 
     // When & Then
     mockMvc
@@ -186,9 +254,48 @@ class StepControllerTest {
         .andExpect(jsonPath("$.dailySteps.length()").value(3))
         .andExpect(jsonPath("$.dailySteps[0].totalSteps").value(2000))
         .andExpect(jsonPath("$.dailySteps[1].totalSteps").value(3000))
-        .andExpect(jsonPath("$.dailySteps[2].totalSteps").value(4000));
+        .andExpect(jsonPath("$.dailySteps[2].totalSteps").value(4000))
+        .andExpect(jsonPath("$.resolution").value("DAILY"))
+        .andExpect(jsonPath("$.buckets.length()").value(3));
+
+    verify(stepTrackingService, times(1)).getStepHistory(guardianId, fromDate, toDate, null);
+  }
+
+  @Test
+  @DisplayName("Should get step history at the requested resolution")
+  void shouldGetStepHistoryAtRequestedResolution() throws Exception {
+    // Given
+    Long guardianId = 1L;
+    LocalDate fromDate = LocalDate.of(2025, 1, 1);
+    LocalDate toDate = LocalDate.of(2025, 12, 31);
+
+    StepHistoryResponse response =
+        StepHistoryResponse.of(
+            guardianId,
+            StepResolution.MONTHLY,
+            Arrays.asList(
+                new StepRollup(guardianId, StepResolution.MONTHLY, fromDate.atStartOfDay(), 150000),
+                new StepRollup(
+                    guardianId,
+                    StepResolution.MONTHLY,
+                    fromDate.plusMonths(1).atStartOfDay(),
+                    120000)));
+
+    when(stepTrackingService.getStepHistory(guardianId, fromDate, toDate, StepResolution.MONTHLY))
+        .thenReturn(response);
 
-    verify(stepTrackingService, times(1)).getStepHistory(guardianId, fromDate, toDate);
+    // When & Then
+    mockMvc
+        .perform(
+            get("/api/v1/guardians/{guardianId}/steps/history", guardianId)
+                .param("from", "2025-01-01")
+                .param("to", "2025-12-31")
+                .param("resolution", "MONTHLY"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.resolution").value("MONTHLY"))
+        .andExpect(jsonPath("$.buckets.length()").value(2))
+        .andExpect(jsonPath("$.buckets[0].totalSteps").value(150000))
+        .andExpect(jsonPath("$.dailySteps").isEmpty());
   }
 
   @Test
@@ -208,7 +315,7 @@ class StepControllerTest {
         .andExpect(
             jsonPath("$.message").value("Invalid date range: from date cannot be after to date"));
 
-    verify(stepTrackingService, never()).getStepHistory(any(), any(), any());
+    verify(stepTrackingService, never()).getStepHistory(any(), any(), any(), any());
   }
 
   @Test
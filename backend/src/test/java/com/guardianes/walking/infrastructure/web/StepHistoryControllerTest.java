@@ -0,0 +1,169 @@
+package com.guardianes.walking.infrastructure.web;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.guardianes.walking.application.service.impl.StepTrackingApplicationServiceImpl;
+import com.guardianes.walking.domain.EnergyCalculationService;
+import com.guardianes.walking.domain.EnergyRepository;
+import com.guardianes.walking.domain.HistoryCursor;
+import com.guardianes.walking.domain.StepAggregationService;
+import com.guardianes.walking.domain.StepRecord;
+import com.guardianes.walking.domain.StepValidationService;
+import com.guardianes.walking.infrastructure.repository.InMemoryStepRepository;
+import com.jayway.jsonpath.JsonPath;
+import java.time.LocalDateTime;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Pages through the step records endpoint backed by the real application service and the in-memory
+ * step repository, so the cursor returned with one page is the one decoded for the next.
+ */
+@WebMvcTest(
+    value = StepController.class,
+    excludeAutoConfiguration = {
+      org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration.class,
+      org.springframework.boot.autoconfigure.data.jpa.JpaRepositoriesAutoConfiguration.class,
+      org.springframework.boot.autoconfigure.data.web.SpringDataWebAutoConfiguration.class,
+      org.springframework.boot.autoconfigure.flyway.FlywayAutoConfiguration.class,
+      org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration.class,
+      org.springframework.boot.autoconfigure.data.redis.RedisReactiveAutoConfiguration.class
+    })
+@Import({StepTrackingApplicationServiceImpl.class, InMemoryStepRepository.class})
+@TestPropertySource(
+    properties = {
+      "guardianes.jwt.enabled=false",
+      "guardianes.jpa.enabled=false",
+      "guardianes.test.memory-repository=true"
+    })
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+@WithMockUser(
+    username = "admin",
+    roles = {"ADMIN"})
+@DisplayName("Step History Controller Tests")
+class StepHistoryControllerTest {
+
+  private static final String RECORDS = "/api/v1/guardians/{guardianId}/steps/records";
+  private static final LocalDateTime DAY = LocalDateTime.of(2025, 7, 4, 0, 0);
+
+  @Autowired private MockMvc mockMvc;
+
+  @Autowired private InMemoryStepRepository stepRepository;
+
+  @MockBean private StepAggregationService stepAggregationService;
+
+  @MockBean private StepValidationService stepValidationService;
+
+  @MockBean private EnergyCalculationService energyCalculationService;
+
+  @MockBean private EnergyRepository energyRepository;
+
+  @BeforeEach
+  void setUp() {
+    walk(DAY.minusHours(2), 500);
+    walk(DAY.plusHours(8), 1000);
+    walk(DAY.plusHours(9), 2000);
+    walk(DAY.plusHours(10), 3000);
+  }
+
+  private void walk(LocalDateTime timestamp, int steps) {
+    stepRepository.save(new StepRecord(1L, steps, timestamp));
+  }
+
+  @Test
+  @DisplayName("Should read the next page with the cursor returned by the previous one")
+  void shouldRoundTripCursorBetweenPages() throws Exception {
+    // When
+    String firstPage =
+        mockMvc
+            .perform(
+                get(RECORDS, 1L)
+                    .param("from", "2025-07-04")
+                    .param("to", "2025-07-04")
+                    .param("size", "2"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.records.length()").value(2))
+            .andExpect(jsonPath("$.records[0].stepCount").value(1000))
+            .andExpect(jsonPath("$.records[1].stepCount").value(2000))
+            .andExpect(jsonPath("$.nextCursor").isString())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+    String cursor = JsonPath.read(firstPage, "$.nextCursor");
+
+    // Then
+    mockMvc
+        .perform(
+            get(RECORDS, 1L)
+                .param("from", "2025-07-04")
+                .param("to", "2025-07-04")
+                .param("size", "2")
+                .param("cursor", cursor))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.records.length()").value(1))
+        .andExpect(jsonPath("$.records[0].stepCount").value(3000))
+        .andExpect(jsonPath("$.nextCursor").doesNotExist());
+  }
+
+  @Test
+  @DisplayName("Should not read before the range when the cursor points before it")
+  void shouldClampCursorToRangeStart() throws Exception {
+    // Given
+    String earlierRange = new HistoryCursor(DAY.minusDays(1), 0L).toToken();
+
+    // When & Then
+    mockMvc
+        .perform(
+            get(RECORDS, 1L)
+                .param("from", "2025-07-04")
+                .param("to", "2025-07-04")
+                .param("cursor", earlierRange))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.records.length()").value(3))
+        .andExpect(jsonPath("$.records[0].stepCount").value(1000));
+  }
+
+  @Test
+  @DisplayName("Should return 400 for a malformed cursor")
+  void shouldRejectMalformedCursor() throws Exception {
+    mockMvc
+        .perform(
+            get(RECORDS, 1L)
+                .param("from", "2025-07-04")
+                .param("to", "2025-07-04")
+                .param("cursor", "not a cursor"))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.message").value("Invalid history cursor"));
+  }
+
+  @Test
+  @DisplayName("Should cap the page size at 200")
+  void shouldCapPageSize() throws Exception {
+    // Given
+    for (int minute = 0; minute < 250; minute++) {
+      walk(DAY.plusDays(1).plusMinutes(minute), 100);
+    }
+
+    // When & Then
+    mockMvc
+        .perform(
+            get(RECORDS, 1L)
+                .param("from", "2025-07-05")
+                .param("to", "2025-07-05")
+                .param("size", "1000"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.records.length()").value(200))
+        .andExpect(jsonPath("$.nextCursor").isString());
+  }
+}
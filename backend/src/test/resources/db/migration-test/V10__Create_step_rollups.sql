@@ -0,0 +1,15 @@
+-- Hourly, weekly and monthly step totals per guardian, maintained at write time next to
+-- daily_step_aggregates (the test schema starts empty, so nothing is backfilled)
+
+CREATE TABLE step_rollups (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    guardian_id BIGINT NOT NULL,
+    resolution VARCHAR(16) NOT NULL,
+    period_start TIMESTAMP NOT NULL,
+    total_steps INTEGER NOT NULL DEFAULT 0,
+
+    FOREIGN KEY (guardian_id) REFERENCES guardians(id) ON DELETE CASCADE,
+
+    CONSTRAINT uk_step_rollups_guardian_resolution_period UNIQUE (guardian_id, resolution, period_start),
+    CONSTRAINT chk_step_rollups_total_steps_non_negative CHECK (total_steps >= 0)
+);
@@ -0,0 +1,4 @@
+-- SHA-256 of the request body a completed key answered; a key reused with a different body is
+-- rejected instead of replaying the other payload's response. Older rows have none.
+
+ALTER TABLE idempotency_keys ADD COLUMN request_hash VARCHAR(64);
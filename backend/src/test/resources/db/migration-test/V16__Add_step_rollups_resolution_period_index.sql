@@ -0,0 +1,4 @@
+-- Hourly rollups are only kept for the raw record retention window; the compaction job deletes
+-- the expired ones with a (resolution, period_start) range scan instead of reading every rollup
+
+CREATE INDEX idx_step_rollups_resolution_period ON step_rollups(resolution, period_start);
@@ -0,0 +1,28 @@
+-- Restore the daily step aggregates projection dropped by V4
+-- The step repository now maintains one row per guardian and day at write time, so reading the
+-- current daily total is a single unique-key lookup instead of a scan of step_records
+
+CREATE TABLE IF NOT EXISTS daily_step_aggregates (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    guardian_id BIGINT NOT NULL,
+    date DATE NOT NULL,
+    total_steps INTEGER NOT NULL DEFAULT 0,
+    energy_earned INTEGER NOT NULL DEFAULT 0,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+
+    FOREIGN KEY (guardian_id) REFERENCES guardians(id) ON DELETE CASCADE,
+
+    CONSTRAINT uk_guardian_date UNIQUE (guardian_id, date),
+    CONSTRAINT chk_daily_total_steps_non_negative CHECK (total_steps >= 0)
+);
+
+-- Backfill from the raw step records (the table is empty after V4)
+INSERT INTO daily_step_aggregates (guardian_id, date, total_steps, energy_earned)
+SELECT
+    guardian_id,
+    CAST(recorded_at AS DATE),
+    SUM(step_count),
+    FLOOR(SUM(step_count) / 10)
+FROM step_records
+GROUP BY guardian_id, CAST(recorded_at AS DATE);
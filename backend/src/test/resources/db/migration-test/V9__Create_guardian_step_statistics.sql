@@ -0,0 +1,15 @@
+-- Checkpoints of the running per-guardian step statistics used for anomaly detection
+-- Means and variances are exponentially weighted; open_day holds the day still being summed
+
+CREATE TABLE guardian_step_statistics (
+    guardian_id BIGINT NOT NULL PRIMARY KEY,
+    submission_mean DOUBLE NOT NULL,
+    submission_variance DOUBLE NOT NULL,
+    submission_count BIGINT NOT NULL,
+    daily_mean DOUBLE NOT NULL,
+    daily_variance DOUBLE NOT NULL,
+    day_count BIGINT NOT NULL,
+    open_day DATE,
+    open_day_total INT NOT NULL,
+    updated_at TIMESTAMP NOT NULL
+);